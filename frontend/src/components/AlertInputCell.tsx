@@ -36,7 +36,8 @@ export function AlertInputCell({
 
     const loadValue = async () => {
         try {
-            const response = await api.get('/alerts')
+            // only this coin's alerts, the /alerts list is paged and may not reach them
+            const response = await api.get(`/alerts/coin/${encodeURIComponent(coinId)}`)
             const alerts = response.data || []
 
             const typeMap = {
@@ -48,7 +49,7 @@ export function AlertInputCell({
 
             const alertType = typeMap[type]
             const alert = alerts.find((a: any) =>
-                a.coinId === coinId && a.type === alertType
+                a.type === alertType && a.status === "active"
             )
 
             if (alert) {
@@ -14,6 +14,9 @@ export function NotificationBell() {
         notifications,
         unreadCount,
         isLoading,
+        hasMore,
+        isLoadingMore,
+        loadMore,
         markAllAsRead,
         clearAllNotifications,
         refetch
@@ -98,6 +101,9 @@ export function NotificationBell() {
                     <NotificationContent
                         isLoading={isLoading}
                         notifications={notifications}
+                        hasMore={hasMore}
+                        isLoadingMore={isLoadingMore}
+                        onLoadMore={loadMore}
                     />
                 </div>
             )}
@@ -1,5 +1,6 @@
 import { Bell } from "lucide-react"
 import { Skeleton } from "@/components/ui/skeleton"
+import { Button } from "@/components/ui/button"
 import { NotificationItem } from "./NotificationItem"
 
 interface NotificationContentProps {
@@ -13,9 +14,18 @@ interface NotificationContentProps {
         createdAt: string
         triggeredPrice?: number
     }>
+    hasMore?: boolean
+    isLoadingMore?: boolean
+    onLoadMore?: () => void
 }
 
-export function NotificationContent({ isLoading, notifications }: NotificationContentProps) {
+export function NotificationContent({
+                                        isLoading,
+                                        notifications,
+                                        hasMore = false,
+                                        isLoadingMore = false,
+                                        onLoadMore,
+                                    }: NotificationContentProps) {
     if (isLoading) {
         return (
             <div className="space-y-3 p-4">
@@ -43,6 +53,22 @@ export function NotificationContent({ isLoading, notifications }: NotificationCo
                     notification={notification}
                 />
             ))}
+            {hasMore && onLoadMore && (
+                <div className="p-2 text-center">
+                    <Button
+                        variant="ghost"
+                        size="sm"
+                        disabled={isLoadingMore}
+                        onClick={(e) => {
+                            e.stopPropagation()
+                            onLoadMore()
+                        }}
+                        className="h-8 text-xs"
+                    >
+                        {isLoadingMore ? "Loading..." : "Load more"}
+                    </Button>
+                </div>
+            )}
         </div>
     )
 }
\ No newline at end of file
@@ -32,10 +32,9 @@ export function TrackButton({
         if (!isAuthenticated) return
 
         try {
-            const response = await api.get('/tracked-currencies')
-            const trackedCurrencies: Array<{ coinId: string }> = response.data
-            const isTracked = trackedCurrencies.some((tc) => tc.coinId === coinId)
-            setIsTracked(isTracked)
+            // only this coin, the /tracked-currencies list is paged and may not reach it
+            const response = await api.get(`/tracked-currencies/${encodeURIComponent(coinId)}/status`)
+            setIsTracked(Boolean(response.data?.tracked))
         } catch (err) {
             console.error('Failed to check track status:', err)
         }
@@ -1,4 +1,4 @@
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
+import { useQuery, useInfiniteQuery, useMutation, useQueryClient, type InfiniteData } from '@tanstack/react-query'
 import { api } from '@/services/api'
 import { webSocketService } from '@/services/websocket'
 import { useEffect } from 'react'
@@ -14,6 +14,23 @@ interface Notification {
     triggeredPrice?: number
 }
 
+// one keyset page of /alerts/notifications, nextCursor comes from the X-Next-Cursor header
+interface NotificationPage {
+    items: Notification[]
+    nextCursor?: string
+}
+
+type NotificationPages = InfiniteData<NotificationPage, string | undefined>
+
+// applies a change to every loaded page, nothing to do before the first page is loaded
+const updatePages = (
+    oldData: NotificationPages | undefined,
+    update: (items: Notification[], pageIndex: number) => Notification[]
+): NotificationPages | undefined => oldData && {
+    ...oldData,
+    pages: oldData.pages.map((page, index) => ({ ...page, items: update(page.items, index) }))
+}
+
 interface AlertStats {
     totalAlerts?: number
     activeAlerts?: number
@@ -28,7 +45,7 @@ export const useAlertNotifications = () => {
     useEffect(() => {
         const handleWebSocketAlert = (alert: any) => {
             // refreshing notification count
-            queryClient.setQueryData(['alert-notifications'], (oldData: Notification[] = []) => {
+            queryClient.setQueryData(['alert-notifications'], (oldData: NotificationPages | undefined) => {
                 const newNotification: Notification = {
                     id: alert.alertId,
                     coinId: alert.coinId,
@@ -39,7 +56,7 @@ export const useAlertNotifications = () => {
                     createdAt: alert.triggeredAt,
                     triggeredPrice: alert.triggeredPrice
                 };
-                return [newNotification, ...oldData];
+                return updatePages(oldData, (items, index) => index === 0 ? [newNotification, ...items] : items);
             });
 
             // refreshing statistics
@@ -51,28 +68,53 @@ export const useAlertNotifications = () => {
             }));
         };
 
-        webSocketService.connect(handleWebSocketAlert);
+        // the server's counters replace the local estimate above
+        const handleStatsPush = (pushed: AlertStats) => {
+            queryClient.setQueryData(['alert-stats'], (oldStats: AlertStats = {}) => ({
+                ...oldStats,
+                ...pushed
+            }));
+        };
+
+        webSocketService.connect(handleWebSocketAlert, handleStatsPush);
         return () => webSocketService.disconnect();
     }, [queryClient])
 
-    const { data: notifications = [], isLoading, refetch } = useQuery({
+    // one page at a time, the next one is fetched on demand
+    const {
+        data,
+        isLoading,
+        refetch,
+        fetchNextPage,
+        hasNextPage,
+        isFetchingNextPage
+    } = useInfiniteQuery({
         queryKey: ['alert-notifications'],
-        queryFn: async (): Promise<Notification[]> => {
-            const response = await api.get('/alerts/notifications');
-            return response.data.map((item: any) => ({
-                id: item.id,
-                coinId: item.coinId,
-                coinName: item.coinName,
-                coinSymbol: item.coinSymbol,
-                message: item.notificationMessage || "Price alert triggered",
-                isRead: item.isRead || false,
-                createdAt: item.triggeredAt || item.createdAt,
-                triggeredPrice: item.triggeredPrice
-            }));
+        queryFn: async ({ pageParam }): Promise<NotificationPage> => {
+            const response = await api.get('/alerts/notifications', {
+                params: pageParam ? { cursor: pageParam } : undefined
+            });
+            return {
+                items: response.data.map((item: any) => ({
+                    id: item.id,
+                    coinId: item.coinId,
+                    coinName: item.coinName,
+                    coinSymbol: item.coinSymbol,
+                    message: item.notificationMessage || "Price alert triggered",
+                    isRead: item.isRead || false,
+                    createdAt: item.triggeredAt || item.createdAt,
+                    triggeredPrice: item.triggeredPrice
+                })),
+                nextCursor: response.headers['x-next-cursor'] || undefined
+            };
         },
+        initialPageParam: undefined as string | undefined,
+        getNextPageParam: (lastPage) => lastPage.nextCursor,
         staleTime: 30000,
     })
 
+    const notifications = data?.pages.flatMap(page => page.items) ?? []
+
     // gets an unread amount
     const { data: stats } = useQuery({
         queryKey: ['alert-stats'],
@@ -88,12 +130,12 @@ export const useAlertNotifications = () => {
             await api.post('/alerts/read-all');
         },
         onSuccess: () => {
-            queryClient.setQueryData(['alert-notifications'], (oldData: Notification[] = []) => {
-                return oldData.map(notification => ({
+            queryClient.setQueryData(['alert-notifications'], (oldData: NotificationPages | undefined) =>
+                updatePages(oldData, items => items.map(notification => ({
                     ...notification,
                     isRead: true
-                }));
-            });
+                })))
+            );
             queryClient.setQueryData(['alert-stats'], (oldStats: AlertStats = {}) => ({
                 ...oldStats,
                 unreadCount: 0
@@ -107,9 +149,9 @@ export const useAlertNotifications = () => {
             await api.delete(`/alerts/${alertId}`);
         },
         onSuccess: (_, alertId) => {
-            queryClient.setQueryData(['alert-notifications'], (oldData: Notification[] = []) => {
-                return oldData.filter(notification => notification.id !== alertId);
-            });
+            queryClient.setQueryData(['alert-notifications'], (oldData: NotificationPages | undefined) =>
+                updatePages(oldData, items => items.filter(notification => notification.id !== alertId))
+            );
             queryClient.invalidateQueries({ queryKey: ['alert-stats'] });
         },
     })
@@ -129,6 +171,9 @@ export const useAlertNotifications = () => {
         notifications,
         unreadCount: stats?.unreadCount || 0,
         isLoading,
+        hasMore: hasNextPage,
+        isLoadingMore: isFetchingNextPage,
+        loadMore: () => fetchNextPage(),
         markAllAsRead: () => markAllAsReadMutation.mutate(),
         deleteNotification: (alertId: number) => deleteNotificationMutation.mutate(alertId),
         clearAllNotifications: () => clearAllNotificationsMutation.mutate(),
@@ -5,7 +5,7 @@ class WebSocketService {
     private client: Client | null = null;
     private isWsActive = false;
 
-    connect(onAlertReceived: (alert: any) => void) {
+    connect(onAlertReceived: (alert: any) => void, onStatsReceived?: (stats: any) => void) {
         const token = localStorage.getItem('token');
         if (!token) return;
 
@@ -26,7 +26,7 @@ class WebSocketService {
             onConnect: () => {
                 console.log('? SockJS connected');
                 this.isWsActive = true;
-                this.subscribeToUserAlerts(onAlertReceived);
+                this.subscribeToUserAlerts(onAlertReceived, onStatsReceived);
             },
             onDisconnect: () => {
                 console.log('?? SockJS disconnected');
@@ -40,7 +40,7 @@ class WebSocketService {
         this.client.activate();
     }
 
-    private subscribeToUserAlerts(callback: (alert: any) => void) {
+    private subscribeToUserAlerts(callback: (alert: any) => void, onStats?: (stats: any) => void) {
         if (!this.client) return;
 
         this.client.subscribe(`/user/queue/alerts`, (message) => {
@@ -52,6 +52,17 @@ class WebSocketService {
                 console.error('Parse error:', error);
             }
         });
+
+        // the full stats, pushed after each change of the user's alert counters
+        if (onStats) {
+            this.client.subscribe(`/user/queue/alert-stats`, (message) => {
+                try {
+                    onStats(JSON.parse(message.body));
+                } catch (error) {
+                    console.error('Parse error:', error);
+                }
+            });
+        }
     }
 
     disconnect() {
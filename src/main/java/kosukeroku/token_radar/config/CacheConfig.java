@@ -1,27 +1,82 @@
 package kosukeroku.token_radar.config;
 
-import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import kosukeroku.token_radar.service.cache.CoinCacheKeys;
+import kosukeroku.token_radar.service.cache.TwoLevelCacheManager;
+import kosukeroku.token_radar.service.cache.codec.CoinBinaryCodec;
+import kosukeroku.token_radar.service.cache.codec.CodecRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    @Value("${app.cache.local.maximum-size:4000}")
+    private long localMaximumSize;
+
+    @Value("${app.cache.local.ttl:30s}")
+    private Duration localTtl;
+
+    // caffeine in front of redis, only when redis caching is enabled (tests run with spring.cache.type=none)
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate) {
+        Map<String, Duration> ttls = new LinkedHashMap<>();
+        ttls.put(CoinCacheKeys.COINS, Duration.ofMinutes(15)); // single coin, refreshed by every price sync
+        ttls.put(CoinCacheKeys.COIN_PAGES, Duration.ofMinutes(15)); // dashboard pages
+        ttls.put(CoinCacheKeys.COIN_SEARCH, Duration.ofMinutes(5)); // long tail of queries, kept short
+
+        // one serializer per cache, so encoded size and timings are reported per cache
+        Map<String, CodecRedisSerializer> serializers = new LinkedHashMap<>();
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(Duration.ofHours(1)));
+        ttls.forEach((name, ttl) -> {
+            CodecRedisSerializer serializer = new CodecRedisSerializer(new CoinBinaryCodec());
+            serializers.put(name, serializer);
+            builder.withCacheConfiguration(name, binaryCacheConfiguration(serializer, ttl));
+        });
+
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, localMaximumSize, localTtl, serializers);
+    }
+
+    // drops local copies when another node writes or evicts a key
     @Bean
-    public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
-        return builder -> builder
-                .withCacheConfiguration("coins",
-                        RedisCacheConfiguration.defaultCacheConfig()
-                                .entryTtl(Duration.ofHours(12)) // 12 hours for coin list
-                )
-                .withCacheConfiguration("coin-prices",
-                        RedisCacheConfiguration.defaultCacheConfig()
-                                .entryTtl(Duration.ofMinutes(15)) // 15 minutes for prices
-                );
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cacheManager.handleInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    // the codec version is part of the key prefix, a format change starts from an empty cache
+    private RedisCacheConfiguration binaryCacheConfiguration(CodecRedisSerializer serializer, Duration ttl) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .disableCachingNullValues()
+                .computePrefixWith(name -> name + ":c" + serializer.version() + "::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
     }
-}
\ No newline at end of file
+}
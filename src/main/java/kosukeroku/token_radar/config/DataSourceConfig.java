@@ -0,0 +1,102 @@
+package kosukeroku.token_radar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import kosukeroku.token_radar.service.datasource.DataSourceTarget;
+import kosukeroku.token_radar.service.datasource.ReplicaRead;
+import kosukeroku.token_radar.service.datasource.ReplicaReadInterceptor;
+import kosukeroku.token_radar.service.datasource.ReplicaRoutingDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// @ReplicaRead transactions on the replicas, only when enabled: otherwise boot's single pool is used as before
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replicas.username}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replicas.password}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replicas.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replicas.connection-timeout:2s}")
+    private Duration replicaConnectionTimeout;
+
+    @Value("${app.datasource.replicas.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${app.datasource.replicas.lag-check-interval:5s}")
+    private Duration lagCheckInterval;
+
+    // same pool and settings (spring.datasource.hikari.*) boot would create on its own
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource) {
+        List<DataSourceTarget> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.add(DataSourceTarget.replica(name, replicaPool(name, replicaUrls.get(i).trim())));
+        }
+        // a dead replica must not hold the lag check thread for long
+        return new ReplicaRoutingDataSource(DataSourceTarget.primary(primaryDataSource), replicas,
+                maxLag, lagCheckInterval, replicaConnectionTimeout);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // outside the transaction interceptor, the mark is set before the transaction begins
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaReadAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ReplicaRead.class), new ReplicaReadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private HikariDataSource replicaPool(String name, String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(replicaUsername);
+        pool.setPassword(replicaPassword);
+        pool.setMaximumPoolSize(replicaPoolSize);
+        pool.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+        pool.setReadOnly(true);
+        // a replica that is down at startup is skipped until a lag check reaches it
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+}
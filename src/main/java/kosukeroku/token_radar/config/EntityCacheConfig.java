@@ -0,0 +1,75 @@
+package kosukeroku.token_radar.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.model.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/*
+ * Hibernate second-level cache for Coin and User, kept in node-local caffeine caches behind JCache.
+ * Each region is created here with its own size and TTL. Entity writes go through the cache (read-write
+ * strategy) and JPQL bulk statements evict the regions of the entities they touch, so the TTL only
+ * bounds how long a row changed outside Hibernate (psql, a migration) can be served stale.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.entity-cache.enabled", havingValue = "true")
+public class EntityCacheConfig {
+
+    @Value("${app.entity-cache.coins.maximum-size:2000}")
+    private long coinsMaximumSize;
+
+    @Value("${app.entity-cache.coins.ttl:10m}")
+    private Duration coinsTtl;
+
+    @Value("${app.entity-cache.users.maximum-size:10000}")
+    private long usersMaximumSize;
+
+    @Value("${app.entity-cache.users.ttl:30m}")
+    private Duration usersTtl;
+
+    // a manager of its own, the provider would otherwise share its default manager between contexts
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("token-radar-entities-" + System.identityHashCode(this)), provider.getDefaultClassLoader());
+        createRegion(cacheManager, Coin.CACHE_REGION, coinsMaximumSize, coinsTtl);
+        createRegion(cacheManager, User.CACHE_REGION, usersMaximumSize, usersTtl);
+        // username -> id, resolved before the users region is read
+        createRegion(cacheManager, User.USERNAME_CACHE_REGION, usersMaximumSize, usersTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // regions not created above are an error instead of an unbounded default cache
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // hit and miss counters per region, served by /api/admin/entity-cache-stats
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
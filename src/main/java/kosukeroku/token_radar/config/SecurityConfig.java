@@ -49,6 +49,9 @@ public class SecurityConfig {
                         // alert endpoints require authentication
                         .requestMatchers("/api/alerts/**").authenticated()
 
+                        // operational endpoints are restricted to admins
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                         // any other request requires authentication
                         .anyRequest().authenticated()
                 )
@@ -80,10 +83,11 @@ public class SecurityConfig {
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
-        // websocket headers
+        // websocket headers, and the cursor of keyset paged lists
         configuration.setExposedHeaders(List.of(
                 "Access-Control-Allow-Origin",
-                "Access-Control-Allow-Credentials"
+                "Access-Control-Allow-Credentials",
+                "X-Next-Cursor"
         ));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
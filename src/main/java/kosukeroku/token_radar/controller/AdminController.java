@@ -0,0 +1,97 @@
+package kosukeroku.token_radar.controller;
+
+import kosukeroku.token_radar.dto.CacheStatsDto;
+import kosukeroku.token_radar.dto.DataSourceTargetStatsDto;
+import kosukeroku.token_radar.dto.EntityCacheStatsDto;
+import kosukeroku.token_radar.dto.SingleFlightStatsDto;
+import kosukeroku.token_radar.dto.SyncRunDto;
+import kosukeroku.token_radar.dto.TickReplayDto;
+import kosukeroku.token_radar.mapper.SyncRunMapper;
+import kosukeroku.token_radar.model.enums.SyncType;
+import kosukeroku.token_radar.service.cache.EntityCacheStats;
+import kosukeroku.token_radar.service.cache.SingleFlight;
+import kosukeroku.token_radar.service.cache.TwoLevelCacheManager;
+import kosukeroku.token_radar.service.datasource.ReplicaRoutingDataSource;
+import kosukeroku.token_radar.service.journal.TickReplayService;
+import kosukeroku.token_radar.service.sync.SyncRunCoordinator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SyncRunCoordinator syncRunCoordinator;
+    private final SyncRunMapper syncRunMapper;
+    private final ObjectProvider<TwoLevelCacheManager> cacheManagerProvider;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingProvider;
+    private final SingleFlight singleFlight;
+    private final TickReplayService tickReplayService;
+    private final EntityCacheStats entityCacheStats;
+
+    @GetMapping("/sync-runs")
+    public ResponseEntity<List<SyncRunDto>> getSyncRuns(
+            @RequestParam(required = false) SyncType type,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<SyncRunDto> runs = syncRunCoordinator.getHistory(type, limit).stream()
+                .map(syncRunMapper::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(runs);
+    }
+
+    // per-level (caffeine / redis) counters of this node, empty when redis caching is disabled
+    @GetMapping("/cache-stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        TwoLevelCacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        return ResponseEntity.ok(cacheManager != null ? cacheManager.getStats() : List.of());
+    }
+
+    // hibernate second-level cache regions (coins, users) of this node, empty when the entity cache is disabled
+    @GetMapping("/entity-cache-stats")
+    public ResponseEntity<List<EntityCacheStatsDto>> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheStats.getStats());
+    }
+
+    // primary and replica pools of this node with lag and routing counters, empty when replicas are disabled
+    @GetMapping("/datasource-stats")
+    public ResponseEntity<List<DataSourceTargetStatsDto>> getDataSourceStats() {
+        ReplicaRoutingDataSource routing = replicaRoutingProvider.getIfAvailable();
+        return ResponseEntity.ok(routing != null ? routing.getStats() : List.of());
+    }
+
+    @GetMapping("/single-flight-stats")
+    public ResponseEntity<SingleFlightStatsDto> getSingleFlightStats() {
+        return ResponseEntity.ok(singleFlight.getStats());
+    }
+
+    // replays journaled ticks through the alert engine, dry run unless live replays are enabled on this node
+    @PostMapping("/journal/replay")
+    public ResponseEntity<TickReplayDto> startReplay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") double speed,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return tickReplayService.start(from, to, speed, dryRun)
+                .map(replay -> ResponseEntity.status(HttpStatus.ACCEPTED).body(replay))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(tickReplayService.getStatus().orElse(null)));
+    }
+
+    @GetMapping("/journal/replay")
+    public ResponseEntity<TickReplayDto> getReplay() {
+        return ResponseEntity.of(tickReplayService.getStatus());
+    }
+
+    @DeleteMapping("/journal/replay")
+    public ResponseEntity<Void> cancelReplay() {
+        return tickReplayService.cancel() ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
\ No newline at end of file
@@ -1,45 +1,136 @@
 package kosukeroku.token_radar.controller;
 
+import kosukeroku.token_radar.dto.CandleDto;
+import kosukeroku.token_radar.dto.CoinChangesDto;
 import kosukeroku.token_radar.dto.CoinResponseDto;
-import kosukeroku.token_radar.exception.CoinNotFoundException;
-import kosukeroku.token_radar.mapper.CoinMapper;
-import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.exception.InvalidCandleRequestException;
 import kosukeroku.token_radar.service.CoinService;
+import kosukeroku.token_radar.service.history.CandleInterval;
+import kosukeroku.token_radar.service.history.PriceHistoryService;
+import kosukeroku.token_radar.service.snapshot.CoinViewPrerenderer;
+import kosukeroku.token_radar.service.snapshot.PrerenderedView;
+import kosukeroku.token_radar.service.sparkline.SparklineOptions;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/coins")
 public class CoinController {
 
+    private static final int DEFAULT_CANDLES = 200;
+
     private final CoinService coinService;
-    private final CoinMapper coinMapper;
+    private final CoinViewPrerenderer coinViewPrerenderer;
+    private final PriceHistoryService priceHistoryService;
 
+    // pre-rendered views are written as stored bytes, other page sizes and reduced sparklines go through the response cache
     @GetMapping("/dashboard")
-    public Page<CoinResponseDto> getDashboard(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("marketCapRank").ascending());
-        Page<Coin> coinPage = coinService.getDashboard(pageable);
+    public ResponseEntity<?> getDashboard(@RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(defaultValue = "true") boolean includeSparkline,
+                                          @RequestParam(defaultValue = "0") int sparklinePoints,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SparklineOptions sparkline = SparklineOptions.of(includeSparkline, sparklinePoints);
+        Optional<PrerenderedView> view = sparkline.isFull()
+                ? coinViewPrerenderer.current().page(page, size)
+                : Optional.empty();
+        if (view.isPresent()) {
+            return prerendered(view.get(), ifNoneMatch, acceptEncoding);
+        }
+        return ResponseEntity.ok(coinService.getDashboardPage(page, size, sparkline));
+    }
+
+    // every active coin by market cap rank
+    @GetMapping("/all")
+    public ResponseEntity<?> getAllCoins(@RequestParam(defaultValue = "true") boolean includeSparkline,
+                                         @RequestParam(defaultValue = "0") int sparklinePoints,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SparklineOptions sparkline = SparklineOptions.of(includeSparkline, sparklinePoints);
+        Optional<PrerenderedView> view = sparkline.isFull()
+                ? coinViewPrerenderer.current().all()
+                : Optional.empty();
+        if (view.isPresent()) {
+            return prerendered(view.get(), ifNoneMatch, acceptEncoding);
+        }
+        return ResponseEntity.ok(coinService.getAllCoinResponses(sparkline));
+    }
 
-        return coinPage.map(coinMapper::toResponseDto);
+    // polling clients send the version of their last response and get only what changed since
+    @GetMapping("/changes")
+    public CoinChangesDto getChanges(@RequestParam(defaultValue = "0") long since) {
+        return coinService.getChangesSince(since);
     }
 
     @GetMapping("/search")
-    public List<CoinResponseDto> searchCoins(@RequestParam String query) {
-        List<Coin> coins = coinService.searchCoins(query);
-        return coins.stream()
-                .map(coinMapper::toResponseDto)
-                .collect(Collectors.toList());
+    public List<CoinResponseDto> searchCoins(@RequestParam String query,
+                                             @RequestParam(defaultValue = "50") int limit,
+                                             @RequestParam(defaultValue = "false") boolean fuzzy,
+                                             @RequestParam(defaultValue = "true") boolean includeSparkline,
+                                             @RequestParam(defaultValue = "0") int sparklinePoints) {
+        return coinService.searchCoinResponses(query, limit, fuzzy, SparklineOptions.of(includeSparkline, sparklinePoints));
     }
 
     @GetMapping("/{coinId}")
-    public CoinResponseDto getCoin(@PathVariable String coinId) {
-        Coin coin = coinService.getCoinById(coinId);
-        return coinMapper.toResponseDto(coin);
+    public CoinResponseDto getCoin(@PathVariable String coinId,
+                                   @RequestParam(defaultValue = "0") int sparklinePoints) {
+        // detail chart, sparklinePoints downsamples it for small screens
+        return coinService.getCoinResponse(coinId, SparklineOptions.of(true, sparklinePoints));
+    }
+
+    // OHLC candles from the price history rollups, by default the most recent DEFAULT_CANDLES of the interval
+    @GetMapping("/{coinId}/candles")
+    public List<CandleDto> getCandles(@PathVariable String coinId,
+                                      @RequestParam(defaultValue = "1h") String interval,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        CandleInterval candleInterval = CandleInterval.fromCode(interval)
+                .orElseThrow(() -> new InvalidCandleRequestException("Unknown interval: " + interval + " (expected 1m, 1h or 1d)"));
+        coinService.getCoinById(coinId);
+
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : candleInterval.truncate(end).minus(candleInterval.getDuration().multipliedBy(DEFAULT_CANDLES));
+        if (!start.isBefore(end)) {
+            throw new InvalidCandleRequestException("from must be before to");
+        }
+        return priceHistoryService.getCandles(coinId, candleInterval, start, end);
+    }
+
+    private ResponseEntity<?> prerendered(PrerenderedView view, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        String etag = gzip ? view.gzipEtag() : view.etag();
+
+        // clients revalidate on every poll, unchanged data costs a header-only response
+        CacheControl cacheControl = CacheControl.noCache();
+        if (view.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(view.gzip());
+        }
+        return builder.body(view.json());
     }
-}
\ No newline at end of file
+}
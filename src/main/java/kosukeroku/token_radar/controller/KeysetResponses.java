@@ -0,0 +1,23 @@
+package kosukeroku.token_radar.controller;
+
+import kosukeroku.token_radar.service.paging.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+// keyset pages keep the plain list body, the cursor of the next page goes in a header
+final class KeysetResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+}
@@ -6,6 +6,9 @@ import kosukeroku.token_radar.model.PriceAlert;
 import kosukeroku.token_radar.model.enums.AlertStatus;
 import kosukeroku.token_radar.security.UserDetailsImpl;
 import kosukeroku.token_radar.service.PriceAlertService;
+import kosukeroku.token_radar.service.archive.AlertArchiveService;
+import kosukeroku.token_radar.service.cache.SingleFlight;
+import kosukeroku.token_radar.service.paging.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,6 +24,8 @@ import java.util.stream.Collectors;
 public class PriceAlertController {
 
     private final PriceAlertService priceAlertService;
+    private final SingleFlight singleFlight;
+    private final AlertArchiveService alertArchiveService;
 
     @PostMapping
     public ResponseEntity<PriceAlertResponseDto> createAlert(
@@ -31,34 +36,54 @@ public class PriceAlertController {
         return ResponseEntity.ok(response);
     }
 
+    // per-item results, invalid items are rejected individually and do not fail the rest
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkPriceAlertResponseDto> bulkCreateAlerts(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @Valid @RequestBody BulkPriceAlertRequestDto request) {
+        BulkPriceAlertResponseDto response = priceAlertService.bulkCreateAlerts(
+                userDetails.getId(), request.getAlerts());
+        return ResponseEntity.ok(response);
+    }
+
+    // list endpoints are keyset paged: pass X-Next-Cursor back as cursor, no header means last page
     @GetMapping
     public ResponseEntity<List<PriceAlertResponseDto>> getUserAlerts(
-            @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        List<PriceAlertResponseDto> alerts = priceAlertService.getUserAlerts(
-                userDetails.getId());
-        return ResponseEntity.ok(alerts);
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        KeysetPage<PriceAlertResponseDto> alerts = priceAlertService.getUserAlerts(
+                userDetails.getId(), cursor, size);
+        return KeysetResponses.ok(alerts);
     }
 
     @GetMapping("/status/{status}")
     public ResponseEntity<List<PriceAlertResponseDto>> getAlertsByStatus(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
-            @PathVariable AlertStatus status) {
-        List<PriceAlertResponseDto> alerts = priceAlertService.getUserAlertsByStatus(
-                userDetails.getId(), status);
-        return ResponseEntity.ok(alerts);
+            @PathVariable AlertStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        KeysetPage<PriceAlertResponseDto> alerts = priceAlertService.getUserAlertsByStatus(
+                userDetails.getId(), status, cursor, size);
+        return KeysetResponses.ok(alerts);
     }
 
     @GetMapping("/stats")
     public ResponseEntity<AlertStatsDto> getAlertStats(
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        AlertStatsDto stats = priceAlertService.getAlertStats(userDetails.getId());
+        // polled by every open tab, concurrent calls for the same user share one query
+        Long userId = userDetails.getId();
+        AlertStatsDto stats = singleFlight.execute("alert-stats:" + userId,
+                () -> priceAlertService.getAlertStats(userId));
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/unread-count")
     public ResponseEntity<Long> getUnreadCount(
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        Long count = priceAlertService.getUnreadCount(userDetails.getId());
+        Long userId = userDetails.getId();
+        Long count = singleFlight.execute("unread-count:" + userId,
+                () -> priceAlertService.getUnreadCount(userId));
         return ResponseEntity.ok(count);
     }
 
@@ -104,9 +129,22 @@ public class PriceAlertController {
 
     @GetMapping("/notifications")
     public ResponseEntity<List<PriceAlertResponseDto>> getUserNotifications(
-            @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        List<PriceAlertResponseDto> notifications = priceAlertService.getUserNotifications(
-                userDetails.getId());
-        return ResponseEntity.ok(notifications);
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        Long userId = userDetails.getId();
+        KeysetPage<PriceAlertResponseDto> notifications = singleFlight.execute(
+                "notifications:" + userId + ":" + cursor + ":" + size,
+                () -> priceAlertService.getUserNotifications(userId, cursor, size));
+        return KeysetResponses.ok(notifications);
+    }
+
+    // history older than the archive threshold, newest first; paged like /notifications
+    @GetMapping("/notifications/archived")
+    public ResponseEntity<List<PriceAlertResponseDto>> getArchivedNotifications(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        return KeysetResponses.ok(alertArchiveService.getArchivedNotifications(userDetails.getId(), cursor, size));
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import kosukeroku.token_radar.dto.TrackedCurrencyRequestDto;
 import kosukeroku.token_radar.dto.TrackedCurrencyResponseDto;
 import kosukeroku.token_radar.security.UserDetailsImpl;
 import kosukeroku.token_radar.service.TrackedCurrencyService;
+import kosukeroku.token_radar.service.paging.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -43,13 +44,26 @@ public class TrackedCurrencyController {
         return ResponseEntity.noContent().build();
     }
 
+    // whether one coin is tracked, the list is paged and may not reach it
+    @GetMapping("/{coinId}/status")
+    public ResponseEntity<Map<String, Boolean>> getTrackStatus(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable String coinId) {
+
+        boolean tracked = trackedCurrencyService.isTracked(userDetails.getId(), coinId);
+        return ResponseEntity.ok(Map.of("tracked", tracked));
+    }
+
+    // keyset paged: pass X-Next-Cursor back as cursor, no header means last page
     @GetMapping
     public ResponseEntity<List<TrackedCurrencyResponseDto>> getUserTrackedCurrencies(
-            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
 
-        List<TrackedCurrencyResponseDto> trackedCurrencies =
-                trackedCurrencyService.getUserTrackedCurrencies(userDetails.getId());
-        return ResponseEntity.ok(trackedCurrencies);
+        KeysetPage<TrackedCurrencyResponseDto> trackedCurrencies =
+                trackedCurrencyService.getUserTrackedCurrencies(userDetails.getId(), cursor, size);
+        return KeysetResponses.ok(trackedCurrencies);
     }
 
 }
\ No newline at end of file
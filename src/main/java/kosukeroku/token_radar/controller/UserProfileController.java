@@ -3,7 +3,7 @@ package kosukeroku.token_radar.controller;
 import kosukeroku.token_radar.dto.UserProfileDto;
 import kosukeroku.token_radar.security.UserDetailsImpl;
 import kosukeroku.token_radar.service.UserProfileService;
-import kosukeroku.token_radar.service.UserProfileService;
+import kosukeroku.token_radar.service.cache.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,11 +15,15 @@ import org.springframework.web.bind.annotation.*;
 public class UserProfileController {
 
     private final UserProfileService profileService;
+    private final SingleFlight singleFlight;
 
     @GetMapping
     public ResponseEntity<UserProfileDto> getProfile(
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        UserProfileDto profile = profileService.getUserProfile(userDetails.getId());
+        // coalesced before the service, so waiting requests do not hold a transaction
+        Long userId = userDetails.getId();
+        UserProfileDto profile = singleFlight.execute("profile:" + userId,
+                () -> profileService.getUserProfile(userId));
         return ResponseEntity.ok(profile);
     }
 }
@@ -0,0 +1,38 @@
+package kosukeroku.token_radar.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import kosukeroku.token_radar.model.enums.AlertType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// outcome of one item of a bulk request, index is its position in the request
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAlertItemResultDto {
+
+    public enum Outcome {
+        CREATED("created"),
+        UPDATED("updated"),
+        REJECTED("rejected");
+
+        private final String value;
+
+        Outcome(String value) {
+            this.value = value;
+        }
+
+        @JsonValue
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private int index;
+    private String coinId;
+    private AlertType type;
+    private Outcome outcome;
+    private PriceAlertResponseDto alert;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package kosukeroku.token_radar.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkPriceAlertRequestDto {
+
+    public static final int MAX_ALERTS = 200;
+
+    @NotEmpty(message = "At least one alert is required")
+    @Size(max = MAX_ALERTS, message = "At most " + MAX_ALERTS + " alerts per request")
+    private List<@Valid PriceAlertRequestDto> alerts;
+
+}
@@ -0,0 +1,17 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPriceAlertResponseDto {
+    private int created;
+    private int updated;
+    private int rejected;
+    private List<BulkAlertItemResultDto> results;
+}
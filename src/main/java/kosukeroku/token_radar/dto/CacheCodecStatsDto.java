@@ -0,0 +1,16 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheCodecStatsDto {
+    private int codecVersion;
+    private long encoded;
+    private long avgEncodedBytes;
+    private double avgEncodeMicros;
+    private long decoded;
+    private double avgDecodeMicros;
+    private long rejected;
+}
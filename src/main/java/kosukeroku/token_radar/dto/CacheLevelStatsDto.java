@@ -0,0 +1,13 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheLevelStatsDto {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+}
@@ -0,0 +1,14 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheStatsDto {
+    private String name;
+    private long localSize;
+    private CacheLevelStatsDto local;
+    private CacheLevelStatsDto redis;
+    private CacheCodecStatsDto codec;
+}
@@ -0,0 +1,19 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// one OHLC candle, time is the UTC start of the bucket
+@Data
+@AllArgsConstructor
+public class CandleDto {
+    private Instant time;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal volume;
+}
@@ -0,0 +1,17 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// full = true means the requested version was outside the history window and coins holds every active coin
+@Data
+@AllArgsConstructor
+public class CoinChangesDto {
+    private long version;
+    private long since;
+    private boolean full;
+    private List<CoinResponseDto> coins;
+    private List<String> removed;
+}
@@ -0,0 +1,23 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// cacheable dashboard page, serialized with the same fields the frontend reads from a Spring Page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoinPageDto {
+    private List<CoinResponseDto> content;
+    private int totalPages;
+    private long totalElements;
+    private int size;
+    private int number;
+    private int numberOfElements;
+    private boolean first;
+    private boolean last;
+    private boolean empty;
+}
@@ -0,0 +1,24 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+// one pool behind the routing data source, lagMillis is -1 for the primary and for unreachable replicas
+@Data
+@AllArgsConstructor
+public class DataSourceTargetStatsDto {
+    private String name;
+    private boolean replica;
+    private boolean available;
+    private long lagMillis;
+    private Instant lastCheckedAt;
+    private long routedConnections;
+    private long skippedConnections;
+    private long fallbackConnections;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int threadsAwaitingConnection;
+}
@@ -0,0 +1,16 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// one hibernate second-level cache region, size is -1 when the provider does not report it
+@Data
+@AllArgsConstructor
+public class EntityCacheStatsDto {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRate;
+    private long size;
+}
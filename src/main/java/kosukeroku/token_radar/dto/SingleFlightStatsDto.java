@@ -0,0 +1,13 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SingleFlightStatsDto {
+    private long loads;
+    private long collapsedRequests;
+    private long timeouts;
+    private int inFlight;
+}
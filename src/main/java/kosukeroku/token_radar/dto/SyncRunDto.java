@@ -0,0 +1,25 @@
+package kosukeroku.token_radar.dto;
+
+import kosukeroku.token_radar.model.enums.SyncRunStatus;
+import kosukeroku.token_radar.model.enums.SyncType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SyncRunDto {
+    private Long id;
+    private SyncType type;
+    private SyncRunStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+    private int batches;
+    private int coinsUpdated;
+    private int alertsTriggered;
+    private int upstreamErrors;
+    private long fetchMs;
+    private long persistMs;
+    private long alertCheckMs;
+    private String errorMessage;
+}
@@ -0,0 +1,22 @@
+package kosukeroku.token_radar.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// state of the current (or last) journal replay, alertsMatched counts each alert once per replay
+@Data
+public class TickReplayDto {
+    private boolean running;
+    private boolean dryRun;
+    private Instant from;
+    private Instant to;
+    private double speed;
+    private long ticksReplayed;
+    private long alertsMatched;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private boolean cancelled;
+    private String errorMessage;
+}
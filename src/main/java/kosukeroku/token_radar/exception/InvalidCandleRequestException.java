@@ -0,0 +1,7 @@
+package kosukeroku.token_radar.exception;
+
+public class InvalidCandleRequestException extends RuntimeException {
+    public InvalidCandleRequestException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
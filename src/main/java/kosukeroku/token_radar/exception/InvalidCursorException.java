@@ -0,0 +1,7 @@
+package kosukeroku.token_radar.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Invalid page cursor: " + cursor);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package kosukeroku.token_radar.exception;
+
+public class InvalidReplayRequestException extends RuntimeException {
+    public InvalidReplayRequestException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
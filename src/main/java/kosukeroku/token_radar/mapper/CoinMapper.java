@@ -1,20 +1,52 @@
 package kosukeroku.token_radar.mapper;
 
 import kosukeroku.token_radar.dto.CoinGeckoCoinDto;
+import kosukeroku.token_radar.dto.CoinPageDto;
 import kosukeroku.token_radar.dto.CoinResponseDto;
 import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.sparkline.SparklineOptions;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.springframework.data.domain.Page;
 
 @Mapper(componentModel = "spring")
 public interface CoinMapper {
 
     @Mapping(target = "lastUpdated", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "imageUrl", source = "image") 
-    @Mapping(target = "sparklineData", ignore = true) // mapping manually in service
+    @Mapping(target = "sparkline", ignore = true) // mapping manually in service
     @Mapping(target = "athDate", ignore = true) // mapping manually in service
     @Mapping(target = "atlDate", ignore = true) // mapping manually in service
     Coin toEntity(CoinGeckoCoinDto dto);
 
+    @Mapping(target = "sparklineData", expression = "java(kosukeroku.token_radar.service.sparkline.Sparklines.toJson(coin.getSparkline()))")
     CoinResponseDto toResponseDto(Coin coin);
+
+    @Mapping(target = "sparklineData", ignore = true)
+    CoinResponseDto toResponseDtoWithoutSparkline(Coin coin);
+
+    default CoinResponseDto toResponseDto(Coin coin, SparklineOptions options) {
+        if (options.isFull()) {
+            return toResponseDto(coin);
+        }
+        CoinResponseDto dto = toResponseDtoWithoutSparkline(coin);
+        dto.setSparklineData(options.render(coin.getSparkline()));
+        return dto;
+    }
+
+    Coin copy(Coin coin);
+
+    default CoinPageDto toPageDto(Page<Coin> page, SparklineOptions options) {
+        return new CoinPageDto(
+                page.getContent().stream().map(coin -> toResponseDto(coin, options)).toList(),
+                page.getTotalPages(),
+                page.getTotalElements(),
+                page.getSize(),
+                page.getNumber(),
+                page.getNumberOfElements(),
+                page.isFirst(),
+                page.isLast(),
+                page.isEmpty()
+        );
+    }
 }
\ No newline at end of file
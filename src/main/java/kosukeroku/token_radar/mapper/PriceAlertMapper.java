@@ -1,7 +1,9 @@
 package kosukeroku.token_radar.mapper;
 
 import kosukeroku.token_radar.dto.PriceAlertResponseDto;
+import kosukeroku.token_radar.model.Coin;
 import kosukeroku.token_radar.model.PriceAlert;
+import kosukeroku.token_radar.repository.projection.AlertRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -17,6 +19,46 @@ public interface PriceAlertMapper {
     @Mapping(source = "status", target = "isRead", qualifiedByName = "statusToIsRead")
     PriceAlertResponseDto toDto(PriceAlert alert);
 
+    // coin fields are taken from a snapshot copy, so a coin reference on the alert is never initialized
+    default PriceAlertResponseDto toDto(PriceAlert alert, Coin coin) {
+        PriceAlertResponseDto dto = toDtoWithoutCoin(alert);
+        dto.setCoinId(coin.getId());
+        fillCoin(dto, coin);
+        return dto;
+    }
+
+    // list rows carry the coin id only, an id missing from the snapshot leaves the coin fields empty
+    default PriceAlertResponseDto toDto(AlertRow row, Coin coin) {
+        PriceAlertResponseDto dto = toDtoWithoutCoin(row);
+        if (coin != null) {
+            fillCoin(dto, coin);
+        }
+        return dto;
+    }
+
+    private static void fillCoin(PriceAlertResponseDto dto, Coin coin) {
+        dto.setCoinName(coin.getName());
+        dto.setCoinSymbol(coin.getSymbol());
+        dto.setCoinImageUrl(coin.getImageUrl());
+        dto.setCurrentPrice(coin.getCurrentPrice());
+    }
+
+    @Named("withoutCoin")
+    @Mapping(target = "coinId", ignore = true)
+    @Mapping(target = "coinName", ignore = true)
+    @Mapping(target = "coinSymbol", ignore = true)
+    @Mapping(target = "coinImageUrl", ignore = true)
+    @Mapping(target = "currentPrice", ignore = true)
+    @Mapping(source = "status", target = "isRead", qualifiedByName = "statusToIsRead")
+    PriceAlertResponseDto toDtoWithoutCoin(PriceAlert alert);
+
+    @Mapping(target = "coinName", ignore = true)
+    @Mapping(target = "coinSymbol", ignore = true)
+    @Mapping(target = "coinImageUrl", ignore = true)
+    @Mapping(target = "currentPrice", ignore = true)
+    @Mapping(source = "status", target = "isRead", qualifiedByName = "statusToIsRead")
+    PriceAlertResponseDto toDtoWithoutCoin(AlertRow row);
+
     @Named("statusToIsRead")
     default Boolean statusToIsRead(kosukeroku.token_radar.model.enums.AlertStatus status) {
         return status == kosukeroku.token_radar.model.enums.AlertStatus.READ;
@@ -0,0 +1,11 @@
+package kosukeroku.token_radar.mapper;
+
+import kosukeroku.token_radar.dto.SyncRunDto;
+import kosukeroku.token_radar.model.SyncRun;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface SyncRunMapper {
+
+    SyncRunDto toDto(SyncRun syncRun);
+}
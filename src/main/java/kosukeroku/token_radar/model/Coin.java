@@ -1,69 +1,111 @@
 package kosukeroku.token_radar.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrimaryKeyJoinColumn;
+import jakarta.persistence.SecondaryTable;
+import jakarta.persistence.SecondaryTables;
 import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/*
+ * Mapped onto three tables: rarely changing metadata (name, symbol, image, rank) stays in coins, every
+ * value a price sync writes lives in the narrow coin_prices row (PRICES_TABLE columns) and the packed
+ * sparkline in coin_sparklines. With dynamic updates Hibernate only writes the dirty columns and skips
+ * a table with none, so a price tick updates coin_prices alone (a HOT update in PostgreSQL), touches
+ * coin_sparklines only when the sparkline gained a point and never rewrites the coins row.
+ * Cached in the second-level cache (EntityCacheConfig): alerts and tracked currencies load their coin
+ * by id, and the price sync updates it through the entity, which keeps the cached copy current.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Coin.CACHE_REGION)
 @Table(name = "coins")
+@SecondaryTables({
+        @SecondaryTable(name = Coin.PRICES_TABLE, pkJoinColumns = @PrimaryKeyJoinColumn(name = "coin_id")),
+        @SecondaryTable(name = Coin.SPARKLINE_TABLE, pkJoinColumns = @PrimaryKeyJoinColumn(name = "coin_id"))
+})
+@DynamicUpdate
 @Data
 public class Coin {
+
+    public static final String PRICES_TABLE = "coin_prices";
+    public static final String SPARKLINE_TABLE = "coin_sparklines";
+    public static final String CACHE_REGION = "coins";
+
     @Id
     private String id;
     private String symbol;
     private String name;
     private boolean active = true;
+    @Column(table = PRICES_TABLE)
     private LocalDateTime lastUpdated;
     private String imageUrl;
     private Integer marketCapRank;
 
     // current prices
-    @Column(precision = 30, scale = 12)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 12)
     private BigDecimal currentPrice;
 
+    @Column(table = PRICES_TABLE)
     private Double priceChange24h;
+    @Column(table = PRICES_TABLE)
     private Double priceChangePercentage24h;
 
-    @Column(precision = 30, scale = 2)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 2)
     private BigDecimal marketCap;
 
-    @Column(precision = 30, scale = 2)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 2)
     private BigDecimal totalVolume;
 
     // price changes
+    @Column(table = PRICES_TABLE)
     private Double priceChangePercentage1h;
+    @Column(table = PRICES_TABLE)
     private Double priceChangePercentage7d;
+    @Column(table = PRICES_TABLE)
     private Double priceChangePercentage30d;
 
-    @Column(columnDefinition = "TEXT")
-    private String sparklineData;
+    // 7 day sparkline as packed float32 values (see Sparklines), rendered to JSON only for responses.
+    // it gains a point about once an hour, so it is kept out of the price row rewritten by every tick
+    @Column(table = SPARKLINE_TABLE, length = 4096)
+    private byte[] sparkline;
 
-    @Column(precision = 30, scale = 12)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 12)
     private BigDecimal high24h;
 
-    @Column(precision = 30, scale = 12)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 12)
     private BigDecimal low24h;
 
     // ATH data
-    @Column(precision = 30, scale = 12)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 12)
     private BigDecimal ath;
 
+    @Column(table = PRICES_TABLE)
     private Double athChangePercentage;
+
+    @Column(table = PRICES_TABLE)
     private LocalDateTime athDate;
 
     // ATL data
-    @Column(precision = 30, scale = 12)
+    @Column(table = PRICES_TABLE, precision = 30, scale = 12)
     private BigDecimal atl;
 
+    @Column(table = PRICES_TABLE)
     private Double atlChangePercentage;
+
+    @Column(table = PRICES_TABLE)
     private LocalDateTime atlDate;
 
-    // supply
-    @Column(precision = 30, scale = 2)
+    // supply, changes with most ticks
+    @Column(table = PRICES_TABLE, precision = 30, scale = 2)
     private BigDecimal circulatingSupply;
 }
\ No newline at end of file
@@ -10,17 +10,21 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+// indexes are created by the migrations (V6 and V9 add the partial and covering ones), these mirror them for generated test schemas
 @Table(name = "price_alerts", indexes = {
-        @Index(name = "idx_alert_user_coin", columnList = "user_id,coin_id"),
+        @Index(name = "idx_alert_user_coin_type", columnList = "user_id,coin_id"),
         @Index(name = "idx_alert_status", columnList = "status"),
-        @Index(name = "idx_alert_user_status", columnList = "user_id,status")
+        @Index(name = "idx_alert_user_status_created", columnList = "user_id,status,created_at DESC,id DESC"),
+        @Index(name = "idx_alert_user_notifications", columnList = "user_id,triggered_at DESC,id DESC")
 })
 @Data
 @NoArgsConstructor
 public class PriceAlert {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence (V7), one round trip per 50 ids and inserts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_alerts_seq")
+    @SequenceGenerator(name = "price_alerts_seq", sequenceName = "price_alerts_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -67,11 +71,16 @@ public class PriceAlert {
     }
 
     public PriceAlert(User user, Coin coin, AlertType type, BigDecimal thresholdValue) {
+        this(user, coin, type, thresholdValue, coin.getCurrentPrice());
+    }
+
+    // lets callers pass a coin reference without initializing it for the price
+    public PriceAlert(User user, Coin coin, AlertType type, BigDecimal thresholdValue, BigDecimal initialPrice) {
         this.user = user;
         this.coin = coin;
         this.type = type;
         this.thresholdValue = thresholdValue;
-        this.initialPrice = coin.getCurrentPrice();
+        this.initialPrice = initialPrice;
         this.status = AlertStatus.ACTIVE;
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package kosukeroku.token_radar.model;
+
+import jakarta.persistence.*;
+import kosukeroku.token_radar.model.enums.SyncRunStatus;
+import kosukeroku.token_radar.model.enums.SyncType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sync_runs", indexes = {
+        @Index(name = "idx_sync_run_type_started", columnList = "type,started_at")
+})
+@Data
+@NoArgsConstructor
+public class SyncRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncRunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+
+    // counters
+    private int batches;
+    private int coinsUpdated;
+    private int alertsTriggered;
+    private int upstreamErrors;
+
+    // per-stage timings (summed over all batches)
+    private long fetchMs;
+    private long persistMs;
+    private long alertCheckMs;
+
+    private String errorMessage;
+}
@@ -7,11 +7,17 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tracked_currencies")
+@Table(name = "tracked_currencies", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_tracked_user_coin", columnNames = {"user_id", "coin_id"})
+}, indexes = {
+        @Index(name = "idx_tracked_user_added", columnList = "user_id,added_at,id")
+})
 @Data
 public class TrackedCurrency {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence (V7), one round trip per 50 ids and inserts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracked_currencies_seq")
+    @SequenceGenerator(name = "tracked_currencies_seq", sequenceName = "tracked_currencies_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -24,5 +30,7 @@ public class TrackedCurrency {
     private Coin coin;
 
 
+    // keyset pages are ordered by it
+    @Column(nullable = false)
     private LocalDateTime addedAt = LocalDateTime.now();
 }
@@ -0,0 +1,38 @@
+package kosukeroku.token_radar.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+ * Alert counts of one user (V10). Created on registration and only changed through the increments in
+ * UserAlertCounterRepository, in the same transaction as the alert change they count.
+ */
+@Entity
+@Table(name = "user_alert_counters")
+@Data
+@NoArgsConstructor
+public class UserAlertCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long activeCount;
+
+    @Column(nullable = false)
+    private long triggeredCount;
+
+    @Column(nullable = false)
+    private long readCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public UserAlertCounter(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,20 @@
+package kosukeroku.token_radar.model.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum SyncRunStatus {
+    COMPLETED("completed"),
+    FAILED("failed"),
+    SKIPPED("skipped");
+
+    private final String value;
+
+    SyncRunStatus(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package kosukeroku.token_radar.model.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum SyncType {
+    FULL("full"),
+    PRICES("prices");
+
+    private final String value;
+
+    SyncType(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+}
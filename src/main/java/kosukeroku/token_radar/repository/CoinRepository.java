@@ -5,7 +5,6 @@ import kosukeroku.token_radar.model.Coin;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -13,12 +12,9 @@ import java.util.List;
 
 @Repository
 public interface CoinRepository extends JpaRepository<Coin, String> {
-    @Query("SELECT c.id FROM Coin c WHERE c.active = true")
+    // ordered, so every node splits the price sync into the same batches
+    @Query("SELECT c.id FROM Coin c WHERE c.active = true ORDER BY c.id")
     List<String> findAllActiveCoinIds();
 
     Page<Coin> findByActiveTrue(Pageable pageable);
-
-    @Modifying
-    @Query("DELETE FROM Coin c WHERE c.active = false")
-    int deleteByActiveFalse();
 }
@@ -0,0 +1,36 @@
+package kosukeroku.token_radar.repository;
+
+import kosukeroku.token_radar.service.history.PartitionScheme;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// range partitions of the time partitioned tables (PostgreSQL only), parents are created by the migrations
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // the bounds also fit timestamp columns without time zone, the offset is dropped there
+    public void createPartition(PartitionScheme scheme, LocalDate start) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + scheme.name(start) + " PARTITION OF " + scheme.parent()
+                + " FOR VALUES FROM ('" + start + " 00:00:00+00') TO ('" + scheme.end(start) + " 00:00:00+00')");
+    }
+
+    public List<String> findPartitions(PartitionScheme scheme) {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = ?""", String.class, scheme.parent());
+    }
+
+    // retention is applied by dropping whole partitions, no DELETE and no vacuum debt
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+    }
+}
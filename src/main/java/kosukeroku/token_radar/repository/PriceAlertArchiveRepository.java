@@ -0,0 +1,116 @@
+package kosukeroku.token_radar.repository;
+
+import kosukeroku.token_radar.dto.PriceAlertResponseDto;
+import kosukeroku.token_radar.model.enums.AlertStatus;
+import kosukeroku.token_radar.model.enums.AlertType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * Plain JDBC access to price_alerts_archive (PostgreSQL only, parent created by the V8 migration).
+ * Rows are moved out of price_alerts by a single DELETE ... RETURNING feeding an INSERT, so a batch
+ * is either fully archived or not at all, and SKIP LOCKED leaves alerts in use by a request alone.
+ * Archived alerts no longer count towards the user's alert counters. Unread (TRIGGERED) alerts are
+ * archived as READ: the mark-read paths only reach price_alerts, and they leave the unread count here.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceAlertArchiveRepository {
+
+    private static final String SELECT_ARCHIVED = """
+            SELECT id, coin_id, type, status, threshold_value, initial_price, triggered_at,
+                   triggered_price, notification_message, created_at
+            FROM price_alerts_archive
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalDateTime findOldestArchivable(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForObject("""
+                SELECT min(triggered_at) FROM price_alerts
+                WHERE status IN ('TRIGGERED', 'READ') AND triggered_at < ?""", LocalDateTime.class, cutoff);
+    }
+
+    // moves up to batchSize alerts triggered before the cutoff, oldest first; the owners' alert counters
+    // are decremented by the same statement, so a batch and its counter change commit together
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        Integer moved = jdbcTemplate.queryForObject("""
+                WITH moved AS (
+                    DELETE FROM price_alerts WHERE id IN (
+                        SELECT id FROM price_alerts
+                        WHERE status IN ('TRIGGERED', 'READ') AND triggered_at < ?
+                        ORDER BY triggered_at
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED)
+                    RETURNING *),
+                archived AS (
+                    INSERT INTO price_alerts_archive (id, user_id, coin_id, type, status, threshold_value, initial_price,
+                                                      last_checked_price, triggered_at, triggered_price,
+                                                      notification_message, created_at, updated_at, archived_at)
+                    SELECT id, user_id, coin_id, type, 'READ', threshold_value, initial_price,
+                           last_checked_price, triggered_at, triggered_price, notification_message,
+                           created_at, updated_at, now()
+                    FROM moved),
+                counted AS (
+                    UPDATE user_alert_counters c
+                    SET triggered_count = c.triggered_count - m.triggered,
+                        read_count = c.read_count - m.read_total,
+                        updated_at = now()
+                    FROM (SELECT user_id,
+                                 count(*) FILTER (WHERE status = 'TRIGGERED') AS triggered,
+                                 count(*) FILTER (WHERE status = 'READ') AS read_total
+                          FROM moved GROUP BY user_id) m
+                    WHERE c.user_id = m.user_id)
+                SELECT count(*) FROM moved""", Integer.class, cutoff, batchSize);
+        return moved != null ? moved : 0;
+    }
+
+    // keyset pages newest first, as the notifications of price_alerts; coin fields other than the id are left to the caller
+    public List<PriceAlertResponseDto> findByUser(Long userId, int limit) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + """
+                        WHERE user_id = ?
+                        ORDER BY triggered_at DESC, id DESC
+                        LIMIT ?""",
+                this::toDto, userId, limit);
+    }
+
+    public List<PriceAlertResponseDto> findByUserAfter(Long userId, LocalDateTime at, Long id, int limit) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + """
+                        WHERE user_id = ? AND triggered_at <= ? AND (triggered_at < ? OR id < ?)
+                        ORDER BY triggered_at DESC, id DESC
+                        LIMIT ?""",
+                this::toDto, userId, at, at, id, limit);
+    }
+
+    public int deleteReadByUser(Long userId) {
+        return jdbcTemplate.update("DELETE FROM price_alerts_archive WHERE user_id = ? AND status = 'READ'", userId);
+    }
+
+    private PriceAlertResponseDto toDto(ResultSet rs, int rowNum) throws SQLException {
+        AlertStatus status = AlertStatus.valueOf(rs.getString("status"));
+        PriceAlertResponseDto dto = new PriceAlertResponseDto();
+        dto.setId(rs.getLong("id"));
+        dto.setCoinId(rs.getString("coin_id"));
+        dto.setType(AlertType.valueOf(rs.getString("type")));
+        dto.setStatus(status);
+        dto.setThresholdValue(rs.getBigDecimal("threshold_value"));
+        dto.setInitialPrice(rs.getBigDecimal("initial_price"));
+        dto.setTriggeredAt(toLocal(rs.getTimestamp("triggered_at")));
+        dto.setTriggeredPrice(rs.getBigDecimal("triggered_price"));
+        dto.setNotificationMessage(rs.getString("notification_message"));
+        dto.setCreatedAt(toLocal(rs.getTimestamp("created_at")));
+        dto.setIsRead(status == AlertStatus.READ);
+        return dto;
+    }
+
+    private LocalDateTime toLocal(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
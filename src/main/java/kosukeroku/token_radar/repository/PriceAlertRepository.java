@@ -1,14 +1,22 @@
 package kosukeroku.token_radar.repository;
 
+import jakarta.persistence.QueryHint;
 import kosukeroku.token_radar.model.PriceAlert;
 import kosukeroku.token_radar.model.enums.AlertStatus;
 import kosukeroku.token_radar.model.enums.AlertType;
+import kosukeroku.token_radar.repository.projection.AlertRow;
+import kosukeroku.token_radar.repository.projection.StatusCount;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,9 +30,35 @@ public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
 
     List<PriceAlert> findByCoinIdAndStatus(String coinId, AlertStatus status);
 
+    // read-only, alerts change status only through the conditional updates below
     @Query("SELECT pa FROM PriceAlert pa WHERE pa.coin.id = :coinId AND pa.status = 'ACTIVE'")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<PriceAlert> findActiveAlertsForCoin(@Param("coinId") String coinId);
 
+    @Modifying
+    @Query("UPDATE PriceAlert pa SET pa.lastCheckedPrice = :price WHERE pa.coin.id = :coinId AND pa.status = 'ACTIVE'")
+    int updateLastCheckedPrice(@Param("coinId") String coinId, @Param("price") BigDecimal price);
+
+    /*
+     * Status transitions are conditional on the status they start from: of two concurrent changes of
+     * one alert only one matches a row, and alert counters are adjusted by the returned row count.
+     */
+    @Modifying
+    @Query("UPDATE PriceAlert pa SET pa.status = 'TRIGGERED', pa.triggeredAt = :triggeredAt, " +
+            "pa.triggeredPrice = :price, pa.lastCheckedPrice = :price, pa.notificationMessage = :message, " +
+            "pa.updatedAt = :triggeredAt WHERE pa.id = :id AND pa.status = 'ACTIVE'")
+    int markTriggered(@Param("id") Long id, @Param("price") BigDecimal price, @Param("message") String message,
+                      @Param("triggeredAt") LocalDateTime triggeredAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PriceAlert pa SET pa.status = 'READ', pa.updatedAt = :readAt " +
+            "WHERE pa.id = :id AND pa.user.id = :userId AND pa.status = 'TRIGGERED'")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("DELETE FROM PriceAlert pa WHERE pa.id = :id AND pa.user.id = :userId AND pa.status = :status")
+    int deleteByIdAndStatus(@Param("id") Long id, @Param("userId") Long userId, @Param("status") AlertStatus status);
+
     Optional<PriceAlert> findByIdAndUserId(Long id, Long userId);
 
     boolean existsByUserIdAndCoinIdAndTypeAndStatus(
@@ -33,6 +67,11 @@ public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
     @Query("SELECT COUNT(pa) FROM PriceAlert pa WHERE pa.user.id = :userId AND pa.status = 'TRIGGERED'")
     long countTriggeredAlerts(@Param("userId") Long userId);
 
+    // fallback for users without a counters row, one index range over (user_id, status)
+    @Query("SELECT new kosukeroku.token_radar.repository.projection.StatusCount(pa.status, COUNT(pa)) " +
+            "FROM PriceAlert pa WHERE pa.user.id = :userId GROUP BY pa.status")
+    List<StatusCount> countByStatus(@Param("userId") Long userId);
+
     @Modifying
     @Query("UPDATE PriceAlert pa SET pa.status = 'READ' WHERE pa.user.id = :userId AND pa.status = 'TRIGGERED'")
     int markAllTriggeredAsRead(@Param("userId") Long userId);
@@ -46,8 +85,36 @@ public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
     @Query("SELECT pa FROM PriceAlert pa JOIN FETCH pa.coin c WHERE pa.user.id = :userId")
     List<PriceAlert> findByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT pa FROM PriceAlert pa WHERE pa.user.id = :userId AND pa.status IN (:statuses) ORDER BY COALESCE(pa.triggeredAt, pa.createdAt) DESC")
-    List<PriceAlert> findNotificationsForUser(@Param("userId") Long userId, @Param("statuses") List<AlertStatus> statuses);
-
-    List<PriceAlert> findByUserIdAndCoinId(Long userId, String coinId);
+    // constructor projection for the list endpoints, pa.coin.id is the foreign key column and needs no join
+    String ALERT_ROW = "SELECT new kosukeroku.token_radar.repository.projection.AlertRow(pa.id, pa.coin.id, pa.type, " +
+            "pa.status, pa.thresholdValue, pa.initialPrice, pa.createdAt, pa.triggeredAt, pa.triggeredPrice, " +
+            "pa.notificationMessage) FROM PriceAlert pa ";
+
+    /*
+     * Keyset pages, newest first. The statuses of the notification queries are literals so the
+     * planner can match the partial notifications index. The cursor bound repeats "<=" on the
+     * timestamp so the index range starts at the cursor instead of being filtered up to it.
+     */
+    @Query(ALERT_ROW + "WHERE pa.user.id = :userId AND pa.status IN ('TRIGGERED', 'READ') " +
+            "ORDER BY pa.triggeredAt DESC, pa.id DESC")
+    List<AlertRow> findNotificationsPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(ALERT_ROW + "WHERE pa.user.id = :userId AND pa.status IN ('TRIGGERED', 'READ') " +
+            "AND pa.triggeredAt <= :at AND (pa.triggeredAt < :at OR pa.id < :id) " +
+            "ORDER BY pa.triggeredAt DESC, pa.id DESC")
+    List<AlertRow> findNotificationsPageAfter(@Param("userId") Long userId, @Param("at") LocalDateTime at,
+                                              @Param("id") Long id, Pageable pageable);
+
+    @Query(ALERT_ROW + "WHERE pa.user.id = :userId AND pa.status = :status " +
+            "ORDER BY pa.createdAt DESC, pa.id DESC")
+    List<AlertRow> findStatusPage(@Param("userId") Long userId, @Param("status") AlertStatus status, Pageable pageable);
+
+    @Query(ALERT_ROW + "WHERE pa.user.id = :userId AND pa.status = :status " +
+            "AND pa.createdAt <= :at AND (pa.createdAt < :at OR pa.id < :id) " +
+            "ORDER BY pa.createdAt DESC, pa.id DESC")
+    List<AlertRow> findStatusPageAfter(@Param("userId") Long userId, @Param("status") AlertStatus status,
+                                       @Param("at") LocalDateTime at, @Param("id") Long id, Pageable pageable);
+
+    @Query(ALERT_ROW + "WHERE pa.user.id = :userId AND pa.coin.id = :coinId ORDER BY pa.createdAt DESC, pa.id DESC")
+    List<AlertRow> findByUserIdAndCoinId(@Param("userId") Long userId, @Param("coinId") String coinId);
 }
\ No newline at end of file
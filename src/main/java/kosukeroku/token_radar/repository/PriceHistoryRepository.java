@@ -0,0 +1,96 @@
+package kosukeroku.token_radar.repository;
+
+import kosukeroku.token_radar.dto.CandleDto;
+import kosukeroku.token_radar.service.history.CandleInterval;
+import kosukeroku.token_radar.service.history.PartitionScheme;
+import kosukeroku.token_radar.service.history.PriceTick;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/*
+ * Plain JDBC access to the price history tables (PostgreSQL only, parents created by the V5
+ * migration). price_ticks is append-only and range partitioned by day. price_candles is list
+ * partitioned by resolution and each resolution range partitioned by bucket, so every query names
+ * the resolution and a time range and only scans the matching partitions. Partitions themselves are
+ * managed through PartitionRepository.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceHistoryRepository {
+
+    public static final PartitionScheme TICKS = new PartitionScheme("price_ticks", ChronoUnit.DAYS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // one multi-row batch per sync batch
+    public void insertTicks(List<PriceTick> ticks) {
+        jdbcTemplate.batchUpdate("INSERT INTO price_ticks (coin_id, ts, price, volume) VALUES (?, ?, ?, ?)",
+                ticks, ticks.size(), (ps, tick) -> {
+                    ps.setString(1, tick.coinId());
+                    ps.setObject(2, utc(tick.time()));
+                    ps.setBigDecimal(3, tick.price());
+                    ps.setBigDecimal(4, tick.volume());
+                });
+    }
+
+    /*
+     * Re-aggregates every bucket of the interval in [from, to) and upserts it, so a run may cover a
+     * bucket that is still filling and later runs simply overwrite it. Volume is a rolling 24h
+     * figure, so a candle carries the last one rather than a sum.
+     */
+    public int rollup(CandleInterval interval, Instant from, Instant to) {
+        CandleInterval source = interval.getSource();
+        String upsert = """
+                ON CONFLICT (coin_id, resolution, bucket) DO UPDATE SET
+                    open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close,
+                    volume = EXCLUDED.volume, tick_count = EXCLUDED.tick_count""";
+        if (source == null) {
+            return jdbcTemplate.update("""
+                    INSERT INTO price_candles (coin_id, resolution, bucket, open, high, low, close, volume, tick_count)
+                    SELECT coin_id, ?, date_trunc(?, ts, 'UTC') AS candle_bucket,
+                           (array_agg(price ORDER BY ts))[1], max(price), min(price),
+                           (array_agg(price ORDER BY ts DESC))[1], (array_agg(volume ORDER BY ts DESC))[1], count(*)
+                    FROM price_ticks
+                    WHERE ts >= ? AND ts < ?
+                    GROUP BY coin_id, candle_bucket
+                    """ + upsert, interval.getCode(), interval.getTruncUnit(), utc(from), utc(to));
+        }
+        return jdbcTemplate.update("""
+                INSERT INTO price_candles (coin_id, resolution, bucket, open, high, low, close, volume, tick_count)
+                SELECT coin_id, ?, date_trunc(?, bucket, 'UTC') AS candle_bucket,
+                       (array_agg(open ORDER BY bucket))[1], max(high), min(low),
+                       (array_agg(close ORDER BY bucket DESC))[1], (array_agg(volume ORDER BY bucket DESC))[1],
+                       sum(tick_count)
+                FROM price_candles
+                WHERE resolution = ? AND bucket >= ? AND bucket < ?
+                GROUP BY coin_id, candle_bucket
+                """ + upsert, interval.getCode(), interval.getTruncUnit(), source.getCode(), utc(from), utc(to));
+    }
+
+    public List<CandleDto> findCandles(String coinId, CandleInterval interval, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT bucket, open, high, low, close, volume FROM price_candles
+                        WHERE resolution = ? AND coin_id = ? AND bucket >= ? AND bucket < ?
+                        ORDER BY bucket
+                        LIMIT ?""",
+                (rs, rowNum) -> new CandleDto(
+                        rs.getObject("bucket", OffsetDateTime.class).toInstant(),
+                        rs.getBigDecimal("open"),
+                        rs.getBigDecimal("high"),
+                        rs.getBigDecimal("low"),
+                        rs.getBigDecimal("close"),
+                        rs.getBigDecimal("volume")),
+                interval.getCode(), coinId, utc(from), utc(to), limit);
+    }
+
+    private OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,17 @@
+package kosukeroku.token_radar.repository;
+
+import kosukeroku.token_radar.model.SyncRun;
+import kosukeroku.token_radar.model.enums.SyncType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SyncRunRepository extends JpaRepository<SyncRun, Long> {
+
+    List<SyncRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    List<SyncRun> findByTypeOrderByStartedAtDesc(SyncType type, Pageable pageable);
+}
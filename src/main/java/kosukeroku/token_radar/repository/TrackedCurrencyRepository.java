@@ -2,12 +2,15 @@ package kosukeroku.token_radar.repository;
 
 
 import kosukeroku.token_radar.model.TrackedCurrency;
+import kosukeroku.token_radar.repository.projection.TrackedCurrencyRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,8 +25,22 @@ public interface TrackedCurrencyRepository extends JpaRepository<TrackedCurrency
 
     Optional<TrackedCurrency> findByUserIdAndCoinId(Long userId, String coinId);
 
-    @Query("SELECT tc FROM TrackedCurrency tc WHERE tc.user.id = :userId ORDER BY tc.coin.marketCapRank ASC")
-    List<TrackedCurrency> findByUserIdOrderByCoinMarketCapRankAsc(Long userId);
+    // list reads select the row columns only, coin market data comes from the coin snapshot
+    String TRACKED_ROW = "SELECT new kosukeroku.token_radar.repository.projection.TrackedCurrencyRow(tc.id, tc.coin.id, " +
+            "tc.addedAt) FROM TrackedCurrency tc ";
+
+    // the rank join reads coins for ordering only, no coin row is materialized
+    @Query(TRACKED_ROW + "JOIN tc.coin c WHERE tc.user.id = :userId ORDER BY c.marketCapRank ASC")
+    List<TrackedCurrencyRow> findByUserIdOrderByCoinMarketCapRankAsc(@Param("userId") Long userId);
+
+    // keyset pages in the order coins were added, the cursor bound repeats ">=" so the index range starts at the cursor
+    @Query(TRACKED_ROW + "WHERE tc.user.id = :userId ORDER BY tc.addedAt, tc.id")
+    List<TrackedCurrencyRow> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(TRACKED_ROW + "WHERE tc.user.id = :userId " +
+            "AND tc.addedAt >= :at AND (tc.addedAt > :at OR tc.id > :id) ORDER BY tc.addedAt, tc.id")
+    List<TrackedCurrencyRow> findPageByUserIdAfter(@Param("userId") Long userId, @Param("at") LocalDateTime at,
+                                                   @Param("id") Long id, Pageable pageable);
 
     void deleteByUserIdAndCoinId(Long userId, String coinId);
 
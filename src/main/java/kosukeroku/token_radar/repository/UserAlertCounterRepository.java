@@ -0,0 +1,67 @@
+package kosukeroku.token_radar.repository;
+
+import jakarta.persistence.QueryHint;
+import kosukeroku.token_radar.model.UserAlertCounter;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserAlertCounterRepository extends JpaRepository<UserAlertCounter, Long> {
+
+    // relative update, concurrent changes of the same user queue on the row lock instead of overwriting each other
+    @Modifying
+    @Query("UPDATE UserAlertCounter c SET c.activeCount = c.activeCount + :active, " +
+            "c.triggeredCount = c.triggeredCount + :triggered, c.readCount = c.readCount + :read, " +
+            "c.updatedAt = LOCAL DATETIME WHERE c.userId = :userId")
+    int adjust(@Param("userId") Long userId, @Param("active") long active,
+               @Param("triggered") long triggered, @Param("read") long read);
+
+    /*
+     * Reconciliation (PostgreSQL only). A batch of counter rows is locked first and recounted by a
+     * second statement in the same transaction: its snapshot is taken after the locks were granted,
+     * so it sees every alert change committed by a transaction that had already adjusted the row,
+     * and transactions adjusting it later apply their increment on top of the recount.
+     *
+     * The native statements declare the table they write, otherwise Hibernate would evict every
+     * second-level cache region (coins, users) after each of them.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_alert_counters"))
+    @Query(value = """
+            INSERT INTO user_alert_counters (user_id, active_count, triggered_count, read_count, updated_at)
+            SELECT u.id, 0, 0, 0, now() FROM users u
+            WHERE NOT EXISTS (SELECT 1 FROM user_alert_counters c WHERE c.user_id = u.id)
+            ON CONFLICT (user_id) DO NOTHING""", nativeQuery = true)
+    int insertMissing();
+
+    @Query(value = """
+            SELECT user_id FROM user_alert_counters WHERE user_id > :after
+            ORDER BY user_id LIMIT :limit FOR UPDATE""", nativeQuery = true)
+    List<Long> lockBatch(@Param("after") long after, @Param("limit") int limit);
+
+    // only rows that drifted are written, the result is the number corrected
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_alert_counters"))
+    @Query(value = """
+            UPDATE user_alert_counters c
+            SET active_count = s.active, triggered_count = s.triggered, read_count = s.read_total, updated_at = now()
+            FROM (SELECT u.user_id,
+                         count(pa.id) FILTER (WHERE pa.status = 'ACTIVE') AS active,
+                         count(pa.id) FILTER (WHERE pa.status = 'TRIGGERED') AS triggered,
+                         count(pa.id) FILTER (WHERE pa.status = 'READ') AS read_total
+                  FROM user_alert_counters u
+                  LEFT JOIN price_alerts pa ON pa.user_id = u.user_id
+                  WHERE u.user_id IN (:userIds)
+                  GROUP BY u.user_id) s
+            WHERE c.user_id = s.user_id
+              AND (c.active_count, c.triggered_count, c.read_count) IS DISTINCT FROM (s.active, s.triggered, s.read_total)""",
+            nativeQuery = true)
+    int recount(@Param("userIds") List<Long> userIds);
+}
@@ -1,9 +1,14 @@
 package kosukeroku.token_radar.repository;
 
 import kosukeroku.token_radar.model.User;
+import kosukeroku.token_radar.repository.projection.UserName;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // websocket destinations are addressed by username
+    @Query("SELECT new kosukeroku.token_radar.repository.projection.UserName(u.id, u.username) FROM User u WHERE u.id IN :ids")
+    List<UserName> findUsernames(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
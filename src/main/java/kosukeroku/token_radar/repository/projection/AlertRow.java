@@ -0,0 +1,38 @@
+package kosukeroku.token_radar.repository.projection;
+
+import kosukeroku.token_radar.model.PriceAlert;
+import kosukeroku.token_radar.model.enums.AlertStatus;
+import kosukeroku.token_radar.model.enums.AlertType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/*
+ * Read model of an alert for the list endpoints: the price_alerts columns the response needs and
+ * the coin id only. Coin name, symbol, image and price are filled from the coin snapshot, so
+ * neither the alert nor its coin is materialized as an entity.
+ */
+public record AlertRow(
+        Long id,
+        String coinId,
+        AlertType type,
+        AlertStatus status,
+        BigDecimal thresholdValue,
+        BigDecimal initialPrice,
+        LocalDateTime createdAt,
+        LocalDateTime triggeredAt,
+        BigDecimal triggeredPrice,
+        String notificationMessage
+) {
+
+    public static AlertRow from(PriceAlert alert) {
+        return new AlertRow(alert.getId(), alert.getCoin().getId(), alert.getType(), alert.getStatus(),
+                alert.getThresholdValue(), alert.getInitialPrice(), alert.getCreatedAt(), alert.getTriggeredAt(),
+                alert.getTriggeredPrice(), alert.getNotificationMessage());
+    }
+
+    public AlertRow withStatus(AlertStatus status) {
+        return new AlertRow(id, coinId, type, status, thresholdValue, initialPrice, createdAt, triggeredAt,
+                triggeredPrice, notificationMessage);
+    }
+}
@@ -0,0 +1,9 @@
+package kosukeroku.token_radar.repository.projection;
+
+import kosukeroku.token_radar.model.enums.AlertStatus;
+
+public record StatusCount(
+        AlertStatus status,
+        long count
+) {
+}
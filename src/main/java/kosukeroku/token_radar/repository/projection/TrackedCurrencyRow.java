@@ -0,0 +1,11 @@
+package kosukeroku.token_radar.repository.projection;
+
+import java.time.LocalDateTime;
+
+// read model of a tracked coin, market data is filled from the coin snapshot
+public record TrackedCurrencyRow(
+        Long id,
+        String coinId,
+        LocalDateTime addedAt
+) {
+}
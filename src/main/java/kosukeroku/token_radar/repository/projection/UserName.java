@@ -0,0 +1,7 @@
+package kosukeroku.token_radar.repository.projection;
+
+public record UserName(
+        Long id,
+        String username
+) {
+}
@@ -27,7 +27,13 @@ public class UserDetailsImpl implements UserDetails {
     }
 
     public static UserDetailsImpl build(User user) {
-        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return build(user, false);
+    }
+
+    public static UserDetailsImpl build(User user, boolean admin) {
+        List<GrantedAuthority> authorities = admin
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : List.of(new SimpleGrantedAuthority("ROLE_USER"));
         return new UserDetailsImpl(user.getId(), user.getUsername(), user.getEmail(),
                 user.getPassword(), authorities);
     }
@@ -1,26 +1,34 @@
 package kosukeroku.token_radar.security;
 
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import kosukeroku.token_radar.model.User;
-import kosukeroku.token_radar.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.admin.usernames:}")
+    private Set<String> adminUsernames;
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // natural id load: answered from the second-level cache when enabled, a query by username otherwise
+        User user = entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
-        return UserDetailsImpl.build(user);
+        return UserDetailsImpl.build(user, adminUsernames.contains(user.getUsername()));
     }
 }
\ No newline at end of file
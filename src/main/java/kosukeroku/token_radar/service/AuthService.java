@@ -11,6 +11,7 @@ import kosukeroku.token_radar.model.User;
 import kosukeroku.token_radar.repository.UserRepository;
 import kosukeroku.token_radar.security.JwtUtil;
 import kosukeroku.token_radar.security.UserDetailsImpl;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,6 +33,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final AuthenticationManager authenticationManager;
+    private final AlertCounterService alertCounterService;
 
     @Transactional(readOnly = true)
     public AuthResponseDto login(LoginRequestDto request) {
@@ -72,6 +74,7 @@ public class AuthService {
         User user = userMapper.toEntity(request);
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         User savedUser = userRepository.save(user);
+        alertCounterService.initialize(savedUser.getId());
 
         log.info("User registered successfully: {}", savedUser.getUsername());
 
@@ -59,6 +59,7 @@ public class CoinGeckoService {
         String ids = String.join(",", coinIds);
         log.debug("Fetching extended prices for {} coins: {}", coinIds.size(), ids);
 
+        // errors are propagated so the caller can skip the batch and record it in the sync run history
         return webClient.get()
                 .uri("/coins/markets?vs_currency=usd&ids={ids}&price_change_percentage=1h,24h,7d,30d&sparkline=true", ids)
                 .retrieve()
@@ -68,10 +69,6 @@ public class CoinGeckoService {
                 })
                 .bodyToFlux(CoinGeckoCoinDto.class)
                 .collectList()
-                .doOnSuccess(prices -> log.debug("Successfully fetched extended prices for {} coins", prices.size()))
-                .onErrorResume(throwable -> {
-                    log.warn("Failed to fetch prices, returning empty list: {}", throwable.getMessage());
-                    return Mono.just(List.of());
-                });
+                .doOnSuccess(prices -> log.debug("Successfully fetched extended prices for {} coins", prices.size()));
     }
 }
@@ -1,49 +1,163 @@
 package kosukeroku.token_radar.service;
 
+import kosukeroku.token_radar.dto.CoinChangesDto;
+import kosukeroku.token_radar.dto.CoinPageDto;
+import kosukeroku.token_radar.dto.CoinResponseDto;
 import kosukeroku.token_radar.exception.CoinNotFoundException;
 import kosukeroku.token_radar.model.Coin;
-import kosukeroku.token_radar.repository.CoinRepository;
+import kosukeroku.token_radar.service.cache.CoinCacheKeys;
+import kosukeroku.token_radar.service.cache.CoinCacheWarmer;
+import kosukeroku.token_radar.service.cache.CoinResponseRenderer;
+import kosukeroku.token_radar.service.cache.SingleFlight;
+import kosukeroku.token_radar.service.cache.TwoLevelCache;
+import kosukeroku.token_radar.service.snapshot.CoinChangeHistory;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
+import kosukeroku.token_radar.service.sparkline.SparklineOptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
+// all reads are served from the in-memory coin snapshot, the database is only touched by syncs
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class CoinService {
 
-    private final CoinRepository coinRepository;
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final CoinSnapshotHolder coinSnapshotHolder;
+    private final CacheManager cacheManager;
+    private final CoinResponseRenderer coinResponseRenderer;
+    private final CoinCacheWarmer coinCacheWarmer;
+    private final SingleFlight singleFlight;
+    private final CoinChangeHistory coinChangeHistory;
 
     public List<Coin> getAllCoins() {
-        return coinRepository.findAll();
+        return coinSnapshotHolder.current().getAll();
+    }
+
+    // fallback for the pre-rendered full list, only used before the first snapshot is published
+    public List<CoinResponseDto> getAllCoinResponses() {
+        return getAllCoinResponses(SparklineOptions.FULL);
+    }
+
+    public List<CoinResponseDto> getAllCoinResponses(SparklineOptions sparkline) {
+        return coinResponseRenderer.all(coinSnapshotHolder.current(), sparkline);
     }
 
     public Page<Coin> getDashboard(Pageable pageable) {
         log.debug("Fetching dashboard page: {}", pageable);
-        return coinRepository.findByActiveTrue(pageable);
+        return coinSnapshotHolder.current().page(pageable);
+    }
+
+    // mapped responses are cached (caffeine + redis) under the snapshot version, syncs pre-write the next version
+    public CoinPageDto getDashboardPage(int page, int size) {
+        return getDashboardPage(page, size, SparklineOptions.FULL);
+    }
+
+    // reduced sparkline variants are cached under their own keys, only the full one is pre-written
+    public CoinPageDto getDashboardPage(int page, int size, SparklineOptions sparkline) {
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        int cappedSize = capPageSize(size);
+        int pageIndex = Math.max(0, page);
+        // pages past the last one are empty and never cached, the key space stays bounded by the coin count
+        if (pageIndex > 0 && (long) pageIndex * cappedSize >= snapshot.getActiveByRank().size()) {
+            return coinResponseRenderer.page(snapshot, pageIndex, cappedSize, sparkline);
+        }
+        return cached(CoinCacheKeys.COIN_PAGES,
+                CoinCacheKeys.page(snapshot.getVersion(), pageIndex, cappedSize) + sparkline.cacheKeySuffix(),
+                () -> coinResponseRenderer.page(snapshot, pageIndex, cappedSize, sparkline));
     }
 
     public List<Coin> searchCoins(String query) {
-        List<Coin> allCoins = getAllCoins();
-        return allCoins.stream()
-                .filter(coin -> coin.getName().toLowerCase().contains(query.toLowerCase()) ||
-                        coin.getSymbol().toLowerCase().contains(query.toLowerCase()))
-                .sorted(Comparator.comparing(Coin::getMarketCapRank))
-                .collect(Collectors.toList());
+        return searchCoins(query, DEFAULT_SEARCH_LIMIT, false);
+    }
+
+    // served from the prebuilt search index, no per-request normalization or sorting of all coins
+    public List<Coin> searchCoins(String query, int limit, boolean fuzzy) {
+        return coinSnapshotHolder.current().search(query, capSearchLimit(limit), fuzzy);
+    }
+
+    public List<CoinResponseDto> searchCoinResponses(String query, int limit, boolean fuzzy) {
+        return searchCoinResponses(query, limit, fuzzy, SparklineOptions.FULL);
+    }
+
+    public List<CoinResponseDto> searchCoinResponses(String query, int limit, boolean fuzzy, SparklineOptions sparkline) {
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        int cappedLimit = capSearchLimit(limit);
+        if (sparkline.isFull()) {
+            // the warmer only re-renders the default variant
+            coinCacheWarmer.recordSearch(query, cappedLimit, fuzzy);
+        }
+        return cached(CoinCacheKeys.COIN_SEARCH,
+                CoinCacheKeys.search(snapshot.getVersion(), query, cappedLimit, fuzzy) + sparkline.cacheKeySuffix(),
+                () -> coinResponseRenderer.search(snapshot, query, cappedLimit, fuzzy, sparkline));
     }
 
     public Coin getCoinById(String coinId) {
-        return coinRepository.findById(coinId)
+        return coinSnapshotHolder.current().find(coinId)
                 .orElseThrow(() -> new CoinNotFoundException(coinId));
     }
-}
\ No newline at end of file
+
+    public CoinResponseDto getCoinResponse(String coinId) {
+        return getCoinResponse(coinId, SparklineOptions.FULL);
+    }
+
+    public CoinResponseDto getCoinResponse(String coinId, SparklineOptions sparkline) {
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        // unknown ids are answered by the snapshot and never reach the cache
+        Coin coin = snapshot.find(coinId).orElseThrow(() -> new CoinNotFoundException(coinId));
+        return cached(CoinCacheKeys.COINS, CoinCacheKeys.coin(snapshot.getVersion(), coinId) + sparkline.cacheKeySuffix(),
+                () -> coinResponseRenderer.coin(coin, sparkline));
+    }
+
+    // coins changed after the given market data version (snapshot version), or all of them if it is too old
+    public CoinChangesDto getChangesSince(long since) {
+        CoinChangeHistory.CoinChangeSet changes = coinChangeHistory.changesSince(since);
+        List<CoinResponseDto> coins = changes.changed().stream()
+                .map(coinResponseRenderer::coin)
+                .toList();
+        return new CoinChangesDto(changes.snapshot().getVersion(), since, changes.full(), coins, changes.removed());
+    }
+
+    private int capSearchLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+    }
+
+    private int capPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String cacheName, String key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        // concurrent misses of the same entry share one render and one cache write
+        return singleFlight.execute(cacheName + ":" + key, () -> {
+            T value = loader.get();
+            // keys carry the snapshot version, there is nothing to invalidate on other nodes
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.putImmutable(key, value);
+            } else {
+                cache.put(key, value);
+            }
+            return value;
+        });
+    }
+}
@@ -1,15 +1,26 @@
 package kosukeroku.token_radar.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import kosukeroku.token_radar.dto.CoinGeckoCoinDto;
 import kosukeroku.token_radar.mapper.CoinMapper;
 import kosukeroku.token_radar.model.Coin;
 import kosukeroku.token_radar.model.PriceAlert;
+import kosukeroku.token_radar.model.enums.SyncType;
 import kosukeroku.token_radar.repository.CoinRepository;
+import kosukeroku.token_radar.service.history.PriceHistoryService;
+import kosukeroku.token_radar.service.journal.TickJournal;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
+import kosukeroku.token_radar.service.sparkline.Sparklines;
+import kosukeroku.token_radar.service.sync.CoinDiff;
+import kosukeroku.token_radar.service.sync.CoinDiffWriter;
+import kosukeroku.token_radar.service.sync.SyncLeadership;
+import kosukeroku.token_radar.service.sync.SyncRunCoordinator;
+import kosukeroku.token_radar.service.sync.SyncRunTracker;
+import kosukeroku.token_radar.service.sync.SyncStage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
@@ -18,7 +29,9 @@ import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -27,10 +40,20 @@ import java.util.stream.IntStream;
 @RequiredArgsConstructor
 public class CoinSyncService {
 
+    private static final int TOP_COINS_COUNT = 500;
+    // how long a follower waits for the leader to publish a batch, polling every second
+    private static final int FOLLOW_ATTEMPTS = 120;
+
     private final CoinGeckoService coinGeckoService;
     private final CoinMapper coinMapper;
     private final PriceAlertCheckerService alertCheckerService;
     private final CoinRepository coinRepository;
+    private final SyncRunCoordinator syncRunCoordinator;
+    private final SyncLeadership syncLeadership;
+    private final CoinDiffWriter coinDiffWriter;
+    private final CoinSnapshotHolder coinSnapshotHolder;
+    private final PriceHistoryService priceHistoryService;
+    private final TickJournal tickJournal;
 
     @PostConstruct
     public void initialSync() {
@@ -39,62 +62,137 @@ public class CoinSyncService {
         long coinCount = coinRepository.count();
         if (coinCount == 0) {
             log.info("Database is empty, performing initial sync...");
-
-            coinGeckoService.getTopCoins()
-                    .flatMap(this::saveCoins)
-                    .doOnError(error -> log.error("Initial coin synchronization failed: {}", error.getMessage()))
-                    .subscribe();
+            runFullSync();
         }
     }
 
-    // updating all (names, icons, prices) info once a day
-    @CacheEvict(value = {"coins", "coin-prices"}, allEntries = true)
+    // updating the top list (new coins, ranks, names, icons) once a day, only changed rows are written
     @Scheduled(cron = "0 0 3 * * ?")
     public void syncAllCoinData() {
         log.info("Starting full coin data synchronization...");
+        runFullSync();
+    }
+
+    private void runFullSync() {
+        Optional<SyncRunTracker> run = syncRunCoordinator.tryStart(SyncType.FULL);
+        if (run.isEmpty()) {
+            return;
+        }
+        SyncRunTracker tracker = run.get();
+
+        try {
+            long fetchStart = System.nanoTime();
 
-        // deleting inactive coins before synchronization
-        coinRepository.deleteByActiveFalse();
+            // fetching and saving top 500 coins
+            coinGeckoService.getTopCoins()
+                    .doOnNext(coins -> {
+                        tracker.recordStage(SyncStage.FETCH, System.nanoTime() - fetchStart);
+                        tracker.recordBatch();
+                    })
+                    .flatMap(coins -> saveCoins(coins, tracker))
+                    .subscribe(
+                            null,
+                            error -> {
+                                log.error("Full coin synchronization failed: {}", error.getMessage());
+                                syncRunCoordinator.fail(tracker, error);
+                            },
+                            () -> syncRunCoordinator.complete(tracker)
+                    );
+    
+        } catch (RuntimeException e) {
+            log.error("Full coin synchronization failed to start: {}", e.getMessage());
+            syncRunCoordinator.fail(tracker, e);
+        }
+    }
 
-        // fetching and saving top 500 coins
-        coinGeckoService.getTopCoins()
-                .flatMap(this::saveCoins)
-                .doOnError(error -> log.error("Full coin synchronization failed: {}", error.getMessage()))
-                .subscribe();
+    // prices are refreshed right away on startup, the stored ones may be as old as the downtime
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialPriceSync() {
+        syncPricesOnly();
     }
 
-    // updates only prices every 10 minutes
-    @CacheEvict(value = "coin-prices", allEntries = true)
-    @Scheduled(fixedRate = 600000)
+    // updates only prices every 10 minutes, at the same wall clock times on every node (see SyncRunTracker.batchKey)
+    @Scheduled(cron = "${app.sync.prices.cron:0 */10 * * * *}")
     public void syncPricesOnly() {
-        log.info("Starting price-only synchronization for all coins...");
+        // a slow run must not overlap with the next scheduled one
+        Optional<SyncRunTracker> run = syncRunCoordinator.tryStart(SyncType.PRICES);
+        if (run.isEmpty()) {
+            return;
+        }
+        SyncRunTracker tracker = run.get();
 
-        // getting all active coins' IDs from the database
-        List<String> allCoinIds = coinRepository.findAllActiveCoinIds();
+        // anything thrown before the run is subscribed would keep the PRICES slot until max-run-duration
+        try {
+            // one node fetches and triggers alerts, the others pick its batches up from the database
+            boolean leader = syncLeadership.tryLead(tracker.runKey());
+            log.info("Starting price-only synchronization for all coins ({})...", leader ? "leading" : "following");
 
-        if (allCoinIds.isEmpty()) {
-            log.warn("No active coins found for price sync");
-            return;
+            // getting all active coins' IDs from the database
+            List<String> allCoinIds = coinRepository.findAllActiveCoinIds();
+
+            if (allCoinIds.isEmpty()) {
+                log.warn("No active coins found for price sync");
+                syncRunCoordinator.complete(tracker);
+                return;
+            }
+
+            // splitting into batches of 100, which is coingecko's limit
+            List<List<String>> batches = partitionList(allCoinIds, 100);
+
+            // processing batches with a 20 seconds delay between them
+            Flux.fromIterable(batches)
+                    .index()
+                    .delayElements(Duration.ofSeconds(20))
+                    .flatMap(indexed -> {
+                        String batchKey = tracker.batchKey(indexed.getT1());
+                        if (!leader) {
+                            return followBatch(indexed.getT2(), tracker, batchKey);
+                        }
+                        long fetchStart = System.nanoTime();
+                        return coinGeckoService.getCoinPrices(indexed.getT2())
+                                .doOnNext(prices -> {
+                                    tracker.recordStage(SyncStage.FETCH, System.nanoTime() - fetchStart);
+                                    tracker.recordBatch();
+                                })
+                                .flatMap(prices -> updatePrices(prices, tracker, batchKey))// updating the prices in the database
+                                .onErrorResume(error -> {
+                                    log.warn("Failed to fetch price batch, skipping: {}", error.getMessage());
+                                    tracker.recordUpstreamError();
+                                    return Mono.empty(); // skipping this batch in case of an error
+                                });
+                    })
+                    .subscribe(
+                            null, // we don't need to process every successful result individually, all the necessary logic here is calling the updatePrices method
+                            error -> { // on error
+                                log.error("Price synchronization failed: {}", error.getMessage());
+                                syncRunCoordinator.fail(tracker, error);
+                            },
+                            () -> { // on success
+                                log.info("Price synchronization completed for all {} coins", allCoinIds.size());
+                                syncRunCoordinator.complete(tracker);
+                            }
+                    );
+        } catch (RuntimeException e) {
+            log.error("Price synchronization failed to start: {}", e.getMessage());
+            syncRunCoordinator.fail(tracker, e);
         }
+    }
 
-        // splitting into batches of 100, which is coingecko's limit
-        List<List<String>> batches = partitionList(allCoinIds, 100);
-
-        // processing batches with a 20 seconds delay between them
-        Flux.fromIterable(batches)
-                .delayElements(Duration.ofSeconds(20))
-                .flatMap(batch -> coinGeckoService.getCoinPrices(batch)
-                        .flatMap(this::updatePrices)// updating the prices in the database
-                        .onErrorResume(error -> {
-                            log.warn("Failed to fetch price batch, skipping: {}", error.getMessage());
-                            return Mono.empty(); // skipping this batch in case of an error
-                        })
-                )
-                .subscribe(
-                        null, // we don't need to process every successful result individually, all the necessary logic here is calling the updatePrices method
-                        error -> log.error("Price synchronization failed: {}", error.getMessage()), // on error
-                        () -> log.info("Price synchronization completed for all {} coins", allCoinIds.size()) // on success
-                );
+    // a follower's batch: waits for the leader to publish it, then applies the rows the leader wrote
+    private Mono<Void> followBatch(List<String> coinIds, SyncRunTracker tracker, String batchKey) {
+        return Mono.fromCallable(() -> syncLeadership.isPublished(batchKey) ? batchKey : null)
+                .repeatWhenEmpty(FOLLOW_ATTEMPTS, attempts -> attempts.delayElements(Duration.ofSeconds(1)))
+                .flatMap(published -> Mono.<Void>fromRunnable(() -> {
+                    List<Coin> coins = coinRepository.findAllById(coinIds);
+                    tracker.recordBatch();
+                    // the same batch key gives the leader's snapshot version
+                    coinSnapshotHolder.update(coins, batchKey);
+                    tickJournal.append(coins);
+                }))
+                .onErrorResume(error -> {
+                    log.warn("Price batch {} was not published by the leading node, skipping: {}", batchKey, error.getMessage());
+                    return Mono.empty();
+                });
     }
 
     private List<List<String>> partitionList(List<String> list, int size) {
@@ -105,18 +203,14 @@ public class CoinSyncService {
                 .collect(Collectors.toList());
     }
 
-    private Mono<Void> saveCoins(List<CoinGeckoCoinDto> coins) {
-        return Mono.fromRunnable(() -> {
+    private Mono<Void> saveCoins(List<CoinGeckoCoinDto> coins, SyncRunTracker tracker) {
+        return Mono.fromRunnable(() -> tracker.time(SyncStage.PERSIST, () -> {
             List<Coin> entities = coins.stream()
                     .map(dto -> {
                         Coin coin = coinMapper.toEntity(dto);
                         // manually processing sparkline and ath date fields
                         if (dto.getSparklineIn7d() != null && dto.getSparklineIn7d().getPrice() != null) {
-                            try {
-                                coin.setSparklineData(new ObjectMapper().writeValueAsString(
-                                        dto.getSparklineIn7d().getPrice()
-                                ));
-                            } catch (Exception e) { /* ignore */ }
+                            coin.setSparkline(Sparklines.pack(dto.getSparklineIn7d().getPrice()));
                         }
 
 
@@ -132,16 +226,36 @@ public class CoinSyncService {
                         return coin;
                     })
                     .collect(Collectors.toList());
-            coinRepository.saveAll(entities);
-            log.info("Full sync completed. Updated {} coins", entities.size());
-        });
+
+            // an empty result means every page failed
+            if (entities.isEmpty()) {
+                log.warn("Full sync fetched no coins, leaving coins table unchanged");
+                tracker.recordUpstreamError();
+                return;
+            }
+
+            // a skipped page would look like 100 coins leaving the top list, so only a complete fetch deactivates
+            boolean complete = entities.size() >= TOP_COINS_COUNT;
+            if (!complete) {
+                tracker.recordUpstreamError();
+            }
+
+            CoinDiff diff = coinDiffWriter.apply(entities, complete);
+            tracker.recordCoinsUpdated(diff.getAffectedIds().size());
+            if (!diff.isEmpty()) {
+                coinSnapshotHolder.rebuild(tracker.batchKey(0));
+            }
+            log.info("Full sync completed. Fetched {} coins: {}", entities.size(), diff);
+        }));
     }
 
-    private Mono<Void> updatePrices(List<CoinGeckoCoinDto> priceDtos) {
+    private Mono<Void> updatePrices(List<CoinGeckoCoinDto> priceDtos, SyncRunTracker tracker, String batchKey) {
         return Mono.fromRunnable(() -> {
             if (!priceDtos.isEmpty()) {
+                List<Coin> updated = new ArrayList<>();
                 priceDtos.forEach(dto -> {
                     coinRepository.findById(dto.getId()).ifPresent(coin -> {
+                        // everything set here lives in coin_prices, the sparkline in coin_sparklines is written only when it changed
                         coin.setCurrentPrice(dto.getCurrentPrice());
                         coin.setPriceChange24h(dto.getPriceChange24h());
                         coin.setPriceChangePercentage24h(dto.getPriceChangePercentage24h());
@@ -160,13 +274,7 @@ public class CoinSyncService {
                         coin.setLastUpdated(LocalDateTime.now());
 
                         if (dto.getSparklineIn7d() != null && dto.getSparklineIn7d().getPrice() != null) {
-                            try {
-                                coin.setSparklineData(new ObjectMapper().writeValueAsString(
-                                        dto.getSparklineIn7d().getPrice()
-                                ));
-                            } catch (Exception e) {
-                                log.warn("Failed to serialize sparkline data for coin {}", dto.getId());
-                            }
+                            coin.setSparkline(Sparklines.pack(dto.getSparklineIn7d().getPrice()));
                         }
 
                         if (dto.getAthDate() != null) {
@@ -189,19 +297,30 @@ public class CoinSyncService {
                         }
 
                         coin.setLastUpdated(LocalDateTime.now());
-                        coinRepository.save(coin);
+                        tracker.time(SyncStage.PERSIST, () -> coinRepository.save(coin));
+                        tracker.recordCoinsUpdated(1);
+                        updated.add(coin);
 
                         // checking for alerts
                         if (dto.getCurrentPrice() != null) {
-                            List<PriceAlert> triggered = alertCheckerService
-                                    .checkAndTriggerAlerts(dto.getId(), dto.getCurrentPrice());
+                            List<PriceAlert> triggered = tracker.time(SyncStage.ALERT_CHECK, () -> alertCheckerService
+                                    .checkAndTriggerAlerts(dto.getId(), dto.getCurrentPrice()));
 
                             if (!triggered.isEmpty()) {
+                                tracker.recordAlertsTriggered(triggered.size());
                                 log.info("Price triggered {} alerts for {}", triggered.size(), dto.getId());
                             }
                         }
                     });
                 });
+                // publishing the batch to readers
+                coinSnapshotHolder.update(updated, batchKey);
+                // appending the batch to the price history in one insert
+                tracker.time(SyncStage.PERSIST, () -> priceHistoryService.record(updated));
+                // and to the local tick journal for replays
+                tickJournal.append(updated);
+                // letting the following nodes pick the batch up
+                syncLeadership.published(batchKey);
                 log.debug("Updated extended prices for {} coins", priceDtos.size());
             }
         });
@@ -4,6 +4,8 @@ import kosukeroku.token_radar.model.PriceAlert;
 import kosukeroku.token_radar.model.enums.AlertStatus;
 import kosukeroku.token_radar.model.enums.AlertType;
 import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
+import kosukeroku.token_radar.service.inbox.NotificationInbox;
 import kosukeroku.token_radar.service.kafka.KafkaProducerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +16,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -23,6 +27,8 @@ public class PriceAlertCheckerService {
 
     private final PriceAlertRepository priceAlertRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final AlertCounterService alertCounterService;
+    private final NotificationInbox notificationInbox;
 
     //private static final double BUFFER_ZONE = 0.2; // not using this (for now?)
     private static final String PRICE_ABOVE_ALERT_MESSAGE = "%s reached your price target (%s)! Price: $%s";
@@ -34,23 +40,36 @@ public class PriceAlertCheckerService {
     public List<PriceAlert> checkAndTriggerAlerts(String coinId, BigDecimal currentPrice) {
         List<PriceAlert> activeAlerts = priceAlertRepository.findActiveAlertsForCoin(coinId);
         List<PriceAlert> triggeredAlerts = new ArrayList<>();
+        if (activeAlerts.isEmpty()) {
+            return triggeredAlerts;
+        }
 
+        // one statement for every active alert of the coin, the loaded alerts are read-only
+        priceAlertRepository.updateLastCheckedPrice(coinId, currentPrice);
         for (PriceAlert alert : activeAlerts) {
-            if (shouldTrigger(alert, currentPrice)) {
-                triggerAlert(alert, currentPrice);
+            if (shouldTrigger(alert, currentPrice) && triggerAlert(alert, currentPrice)) {
                 triggeredAlerts.add(alert);
             }
         }
 
         if (!triggeredAlerts.isEmpty()) {
-            // saving all in one batch
-            priceAlertRepository.saveAll(triggeredAlerts);
+            Map<Long, Integer> countsByUser = new HashMap<>();
+            for (PriceAlert alert : triggeredAlerts) {
+                countsByUser.merge(alert.getUser().getId(), 1, Integer::sum);
+            }
+            alertCounterService.alertsTriggered(countsByUser);
+            notificationInbox.added(triggeredAlerts);
             log.info("Triggered {} alerts for coin {}", triggeredAlerts.size(), coinId);
         }
 
         return triggeredAlerts;
     }
 
+    // side-effect free evaluation for journal replays, the alert is neither modified nor triggered
+    public boolean wouldTrigger(PriceAlert alert, BigDecimal price) {
+        return alert.getStatus() == AlertStatus.ACTIVE && checkThreshold(alert, price);
+    }
+
     private boolean shouldTrigger(PriceAlert alert, BigDecimal currentPrice) {
         if (alert.getStatus() != AlertStatus.ACTIVE) {
             return false;
@@ -94,12 +113,19 @@ public class PriceAlertCheckerService {
                 .multiply(BigDecimal.valueOf(100));
     }
 
+    // false when the alert left ACTIVE since it was read (deleted, or triggered by another run)
     @Transactional
-    public void triggerAlert(PriceAlert alert, BigDecimal currentPrice) {
+    public boolean triggerAlert(PriceAlert alert, BigDecimal currentPrice) {
+        LocalDateTime triggeredAt = LocalDateTime.now();
+        String message = generateNotificationMessage(alert, currentPrice);
+        if (priceAlertRepository.markTriggered(alert.getId(), currentPrice, message, triggeredAt) == 0) {
+            log.debug("Alert {} is no longer active, not triggering it", alert.getId());
+            return false;
+        }
         alert.setStatus(AlertStatus.TRIGGERED);
-        alert.setTriggeredAt(LocalDateTime.now());
+        alert.setTriggeredAt(triggeredAt);
         alert.setTriggeredPrice(currentPrice);
-        alert.setNotificationMessage(generateNotificationMessage(alert, currentPrice));
+        alert.setNotificationMessage(message);
 
         kafkaProducerService.sendAlertTriggered(alert);
 
@@ -107,6 +133,7 @@ public class PriceAlertCheckerService {
                 alert.getId(), alert.getUser().getId(),
                 alert.getCoin().getName(), alert.getThresholdValue(),
                 currentPrice.setScale(2, RoundingMode.HALF_UP));
+        return true;
     }
 
     private String generateNotificationMessage(PriceAlert alert, BigDecimal currentPrice) {
@@ -14,6 +14,15 @@ import kosukeroku.token_radar.model.enums.AlertType;
 import kosukeroku.token_radar.repository.CoinRepository;
 import kosukeroku.token_radar.repository.PriceAlertRepository;
 import kosukeroku.token_radar.repository.UserRepository;
+import kosukeroku.token_radar.repository.projection.AlertRow;
+import kosukeroku.token_radar.service.archive.AlertArchiveService;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
+import kosukeroku.token_radar.service.datasource.ReplicaRead;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import kosukeroku.token_radar.service.inbox.NotificationInbox;
+import kosukeroku.token_radar.service.paging.KeysetPage;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -23,8 +32,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,19 +49,24 @@ public class PriceAlertService {
     private final CoinRepository coinRepository;
     private final UserRepository userRepository;
     private final PriceAlertMapper priceAlertMapper;
+    private final CoinSnapshotHolder coinSnapshotHolder;
+    private final AlertArchiveService alertArchiveService;
+    private final AlertCounterService alertCounterService;
+    private final NotificationInbox notificationInbox;
 
     @Transactional
     public PriceAlertResponseDto createAlert(Long userId, PriceAlertRequestDto request) {
         log.info("Creating/updating alert for user {}: {}", userId, request);
 
-        validateAlertRequest(request);
+        // one snapshot lookup serves both validation and the initial price
+        Coin coin = coinSnapshotHolder.current().find(request.getCoinId())
+                .orElseThrow(() -> new CoinNotFoundException(request.getCoinId()));
+
+        validateAlertRequest(request, coin);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
 
-        Coin coin = coinRepository.findById(request.getCoinId())
-                .orElseThrow(() -> new CoinNotFoundException(request.getCoinId()));
-
         // searching for an existing alert of the same type
         Optional<PriceAlert> existingAlert = priceAlertRepository.findByUserIdAndCoinIdAndTypeAndStatus(
                 userId, request.getCoinId(), request.getType(), AlertStatus.ACTIVE);
@@ -65,7 +83,10 @@ public class PriceAlertService {
         } else {
             // creating new alert
             log.info("Creating new alert for user {}", userId);
-            alert = new PriceAlert(user, coin, request.getType(), request.getThresholdValue());
+            // the association only needs the id, the snapshot coin is detached
+            alert = new PriceAlert(user, coinRepository.getReferenceById(coin.getId()), request.getType(),
+                    request.getThresholdValue(), coin.getCurrentPrice());
+            alertCounterService.alertsCreated(userId, 1);
         }
 
         PriceAlert savedAlert = priceAlertRepository.save(alert);
@@ -75,15 +96,99 @@ public class PriceAlertService {
         return priceAlertMapper.toDto(savedAlert);
     }
 
-    private void validateAlertRequest(PriceAlertRequestDto request) {
+    /*
+     * Creates or updates a set of alerts in one transaction. Every item is validated against the same
+     * coin snapshot and matched against the user's active alerts loaded in one query; invalid items
+     * are reported back and skipped, the valid ones are written as batched inserts and updates.
+     */
+    @Transactional
+    public BulkPriceAlertResponseDto bulkCreateAlerts(Long userId, List<PriceAlertRequestDto> requests) {
+        log.info("Bulk creating/updating {} alerts for user {}", requests.size(), userId);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
+
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        Map<String, PriceAlert> activeAlerts = new HashMap<>();
+        for (PriceAlert alert : priceAlertRepository.findByUserIdAndStatus(userId, AlertStatus.ACTIVE)) {
+            activeAlerts.put(alertKey(alert.getCoin().getId(), alert.getType()), alert);
+        }
+
+        List<BulkAlertItemResultDto> results = new ArrayList<>(requests.size());
+        List<PriceAlert> toSave = new ArrayList<>();
+        List<Coin> toSaveCoins = new ArrayList<>();
+        Set<String> seenKeys = new HashSet<>();
+        int created = 0;
+        int updated = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            PriceAlertRequestDto request = requests.get(i);
+            String key = alertKey(request.getCoinId(), request.getType());
+            Optional<Coin> coin = snapshot.find(request.getCoinId());
+
+            String error = null;
+            if (coin.isEmpty()) {
+                error = "Coin not found: " + request.getCoinId();
+            } else if (!seenKeys.add(key)) {
+                error = "Duplicate coin and alert type in request";
+            } else {
+                try {
+                    validateAlertRequest(request, coin.get());
+                } catch (AlertValidationException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                results.add(new BulkAlertItemResultDto(i, request.getCoinId(), request.getType(),
+                        BulkAlertItemResultDto.Outcome.REJECTED, null, error));
+                continue;
+            }
+
+            PriceAlert alert = activeAlerts.get(key);
+            BulkAlertItemResultDto.Outcome outcome;
+            if (alert != null) {
+                alert.setThresholdValue(request.getThresholdValue());
+                alert.setInitialPrice(coin.get().getCurrentPrice());
+                alert.setUpdatedAt(LocalDateTime.now());
+                outcome = BulkAlertItemResultDto.Outcome.UPDATED;
+                updated++;
+            } else {
+                alert = new PriceAlert(user, coinRepository.getReferenceById(coin.get().getId()), request.getType(),
+                        request.getThresholdValue(), coin.get().getCurrentPrice());
+                outcome = BulkAlertItemResultDto.Outcome.CREATED;
+                created++;
+            }
+            toSave.add(alert);
+            toSaveCoins.add(coin.get());
+            results.add(new BulkAlertItemResultDto(i, request.getCoinId(), request.getType(), outcome, null, null));
+        }
+
+        // sequence ids are assigned here, the rows themselves go out in jdbc batches on flush
+        List<PriceAlert> saved = priceAlertRepository.saveAll(toSave);
+        alertCounterService.alertsCreated(userId, created);
+        int next = 0;
+        for (BulkAlertItemResultDto result : results) {
+            if (result.getOutcome() != BulkAlertItemResultDto.Outcome.REJECTED) {
+                result.setAlert(priceAlertMapper.toDto(saved.get(next), toSaveCoins.get(next)));
+                next++;
+            }
+        }
+
+        int rejected = results.size() - created - updated;
+        log.info("Bulk alerts for user {}: {} created, {} updated, {} rejected", userId, created, updated, rejected);
+        return new BulkPriceAlertResponseDto(created, updated, rejected, results);
+    }
+
+    private static String alertKey(String coinId, AlertType type) {
+        return coinId + ":" + type;
+    }
+
+    private void validateAlertRequest(PriceAlertRequestDto request, Coin coin) {
         BigDecimal threshold = request.getThresholdValue();
+        BigDecimal currentPrice = coin.getCurrentPrice();
 
         switch (request.getType()) {
             case PRICE_ABOVE:
-                BigDecimal currentPrice = coinRepository.findById(request.getCoinId())
-                        .orElseThrow(() -> new CoinNotFoundException("Coin not found: " + request.getCoinId()))
-                        .getCurrentPrice();
-
                 if (threshold.compareTo(currentPrice) <= 0) {
                     throw new AlertValidationException("Must be above current!");
                 }
@@ -94,10 +199,6 @@ public class PriceAlertService {
                 break;
 
             case PRICE_BELOW:
-                currentPrice = coinRepository.findById(request.getCoinId())
-                        .orElseThrow(() -> new CoinNotFoundException("Coin not found: " + request.getCoinId()))
-                        .getCurrentPrice();
-
                 if (threshold.compareTo(BigDecimal.ZERO) <= 0) {
                     throw new AlertValidationException("Must be > 0!");
                 }
@@ -127,18 +228,27 @@ public class PriceAlertService {
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<PriceAlertResponseDto> getUserAlerts(Long userId) {
-        return priceAlertRepository.findByUserIdAndStatus(userId, AlertStatus.ACTIVE).stream()
-                .map(priceAlertMapper::toDto)
-                .collect(Collectors.toList());
+    @ReplicaRead
+    public KeysetPage<PriceAlertResponseDto> getUserAlerts(Long userId, String cursor, int size) {
+        return getUserAlertsByStatus(userId, AlertStatus.ACTIVE, cursor, size);
     }
 
-    @Transactional(readOnly = true)
-    public List<PriceAlertResponseDto> getUserAlertsByStatus(Long userId, AlertStatus status) {
-        return priceAlertRepository.findByUserIdAndStatusOrderByCreatedAtDesc(userId, status).stream()
-                .map(priceAlertMapper::toDto)
-                .collect(Collectors.toList());
+    // newest first, keyset on (createdAt, id)
+    @ReplicaRead
+    public KeysetPage<PriceAlertResponseDto> getUserAlertsByStatus(Long userId, AlertStatus status, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.clampSize(size);
+        List<AlertRow> rows = after == null
+                ? priceAlertRepository.findStatusPage(userId, status, KeysetPage.probe(pageSize))
+                : priceAlertRepository.findStatusPageAfter(userId, status, after.at(), after.id(), KeysetPage.probe(pageSize));
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        return KeysetPage.of(rows, pageSize, row -> new KeysetCursor(row.createdAt(), row.id()),
+                row -> toDto(row, snapshot));
+    }
+
+    // projected rows get their coin fields from the snapshot, the coins table is not read
+    private PriceAlertResponseDto toDto(AlertRow row, CoinSnapshot snapshot) {
+        return priceAlertMapper.toDto(row, snapshot.find(row.coinId()).orElse(null));
     }
 
     @Transactional
@@ -147,7 +257,14 @@ public class PriceAlertService {
                 .orElseThrow(() -> new AlertNotFoundException(alertId));
 
         if (alert.getStatus() == AlertStatus.ACTIVE || alert.getStatus() == AlertStatus.READ) {
-            priceAlertRepository.delete(alert);
+            // only deletes the alert in the status just read, a concurrent trigger or clear wins
+            if (priceAlertRepository.deleteByIdAndStatus(alertId, userId, alert.getStatus()) == 0) {
+                throw new IllegalStateException("Alert " + alertId + " changed while being deleted, reload it and retry");
+            }
+            alertCounterService.alertDeleted(userId, alert.getStatus());
+            if (alert.getStatus() == AlertStatus.READ) {
+                notificationInbox.removed(userId, alertId);
+            }
             log.info("Deleted {} alert {} for user {}",
                     alert.getStatus(), alertId, userId);
         } else if (alert.getStatus() == AlertStatus.TRIGGERED) {
@@ -161,75 +278,76 @@ public class PriceAlertService {
         PriceAlert alert = priceAlertRepository.findByIdAndUserId(alertId, userId)
                 .orElseThrow(() -> new AlertNotFoundException(alertId));
 
-        if (alert.getStatus() == AlertStatus.TRIGGERED) {
-            alert.setStatus(AlertStatus.READ);
-            PriceAlert updated = priceAlertRepository.save(alert);
-            log.debug("Alert {} marked as read", alertId);
-            return priceAlertMapper.toDto(updated);
+        if (alert.getStatus() != AlertStatus.TRIGGERED) {
+            return priceAlertMapper.toDto(alert);
         }
 
-        return priceAlertMapper.toDto(alert);
+        // counted only when this call made the transition, a concurrent mark as read finds no row
+        if (priceAlertRepository.markRead(alertId, userId, LocalDateTime.now()) > 0) {
+            alertCounterService.alertsRead(userId, 1);
+            notificationInbox.markedRead(userId, alertId);
+            log.debug("Alert {} marked as read", alertId);
+        }
+        // read again, the update cleared the persistence context
+        PriceAlert updated = priceAlertRepository.findByIdAndUserId(alertId, userId)
+                .orElseThrow(() -> new AlertNotFoundException(alertId));
+        return priceAlertMapper.toDto(updated);
     }
 
     @Transactional
     public void markAllAsRead(Long userId) {
         int updated = priceAlertRepository.markAllTriggeredAsRead(userId);
+        alertCounterService.alertsRead(userId, updated);
+        notificationInbox.allMarkedRead(userId);
         log.info("Marked {} alerts as read for user {}", updated, userId);
     }
 
     @Transactional
     public void clearReadAlerts(Long userId) {
         int deleted = priceAlertRepository.deleteReadAlerts(userId);
+        alertCounterService.readAlertsCleared(userId, deleted);
+        notificationInbox.invalidate(userId);
         log.info("Deleted {} read alerts for user {}", deleted, userId);
+        alertArchiveService.clearReadAlerts(userId);
     }
 
-    @Transactional(readOnly = true)
+    // counters maintained with every alert change, no alert rows are read
+    @ReplicaRead
     public AlertStatsDto getAlertStats(Long userId) {
-        List<PriceAlert> allAlerts = priceAlertRepository.findByUserId(userId);
-
-        long total = allAlerts.size();
-        long active = allAlerts.stream()
-                .filter(a -> a.getStatus() == AlertStatus.ACTIVE)
-                .count();
-        long triggered = allAlerts.stream()
-                .filter(a -> a.getStatus() == AlertStatus.TRIGGERED)
-                .count();
-        long read = allAlerts.stream()
-                .filter(a -> a.getStatus() == AlertStatus.READ)
-                .count();
-
-        return new AlertStatsDto(total, active, triggered, read, triggered);
+        return alertCounterService.getStats(userId);
     }
 
-    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<PriceAlertResponseDto> getUserAlertsForCoin(Long userId, String coinId) {
-        List<PriceAlert> alerts = priceAlertRepository.findByUserIdAndCoinId(userId, coinId);
-        return alerts.stream()
-                .map(priceAlertMapper::toDto)
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        return priceAlertRepository.findByUserIdAndCoinId(userId, coinId).stream()
+                .map(row -> toDto(row, snapshot))
                 .collect(Collectors.toList());
     }
 
-    public List<PriceAlertResponseDto> getUserNotifications(Long userId) {
+    /*
+     * Newest first, keyset on (triggeredAt, id); served from the redis inbox when it holds the page.
+     * Not transactional: an inbox rebuild reads the primary, only the database fallback opens a
+     * replica transaction, so a request never holds two connections.
+     */
+    public KeysetPage<PriceAlertResponseDto> getUserNotifications(Long userId, String cursor, int size) {
         log.info("Getting notifications for user {}", userId);
 
-        List<AlertStatus> statuses = List.of(AlertStatus.TRIGGERED, AlertStatus.READ);
-        List<PriceAlert> notifications = priceAlertRepository.findNotificationsForUser(userId, statuses);
-
-        long triggeredCount = notifications.stream()
-                .filter(a -> a.getStatus() == AlertStatus.TRIGGERED)
-                .count();
-        long readCount = notifications.size() - triggeredCount;
-
-        log.info("Found {} notifications for user {} ({} triggered, {} read)",
-                notifications.size(), userId, triggeredCount, readCount);
-
-        return notifications.stream()
-                .map(priceAlertMapper::toDto)
-                .collect(Collectors.toList());
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.clampSize(size);
+        List<AlertRow> rows = notificationInbox.findPage(userId, after, pageSize + 1)
+                .orElseGet(() -> notificationInbox.findPageInDatabase(userId, after, pageSize + 1));
+
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        KeysetPage<PriceAlertResponseDto> page = KeysetPage.of(rows, pageSize,
+                row -> new KeysetCursor(row.triggeredAt(), row.id()), row -> toDto(row, snapshot));
+        log.info("Found {} notifications for user {}{}", page.items().size(), userId,
+                page.nextCursor() != null ? " (more available)" : "");
+        return page;
     }
 
-    @Transactional(readOnly = true)
+    @ReplicaRead
     public Long getUnreadCount(Long userId) {
-        return priceAlertRepository.countTriggeredAlerts(userId);
+        return alertCounterService.getUnreadCount(userId);
     }
 }
\ No newline at end of file
@@ -11,6 +11,12 @@ import kosukeroku.token_radar.model.User;
 import kosukeroku.token_radar.repository.CoinRepository;
 import kosukeroku.token_radar.repository.TrackedCurrencyRepository;
 import kosukeroku.token_radar.repository.UserRepository;
+import kosukeroku.token_radar.repository.projection.TrackedCurrencyRow;
+import kosukeroku.token_radar.service.datasource.ReplicaRead;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import kosukeroku.token_radar.service.paging.KeysetPage;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,6 +25,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,6 +37,7 @@ public class TrackedCurrencyService {
     private final TrackedCurrencyRepository trackedCurrencyRepository;
     private final CoinRepository coinRepository;
     private final UserRepository userRepository;
+    private final CoinSnapshotHolder coinSnapshotHolder;
 
     @Transactional
     public TrackedCurrencyResponseDto addTrackedCurrency(Long userId, TrackedCurrencyRequestDto request) {
@@ -67,36 +75,64 @@ public class TrackedCurrencyService {
         trackedCurrencyRepository.delete(trackedCurrency);
     }
 
-    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<TrackedCurrencyResponseDto> getUserTrackedCurrencies(Long userId) {
         log.debug("Fetching tracked currencies for user: {}", userId);
 
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
         return trackedCurrencyRepository.findByUserIdOrderByCoinMarketCapRankAsc(userId).stream()
-                .map(this::mapToResponseDto)
+                .map(row -> mapToResponseDto(row, snapshot))
                 .collect(Collectors.toList());
     }
 
 
+    // in the order coins were added, keyset on (addedAt, id); the profile keeps the full list above
+    @ReplicaRead
+    public KeysetPage<TrackedCurrencyResponseDto> getUserTrackedCurrencies(Long userId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.clampSize(size);
+        List<TrackedCurrencyRow> rows = after == null
+                ? trackedCurrencyRepository.findPageByUserId(userId, KeysetPage.probe(pageSize))
+                : trackedCurrencyRepository.findPageByUserIdAfter(userId, after.at(), after.id(), KeysetPage.probe(pageSize));
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        return KeysetPage.of(rows, pageSize, row -> new KeysetCursor(row.addedAt(), row.id()),
+                row -> mapToResponseDto(row, snapshot));
+    }
+
+    // on the primary, the track button asks right after a track or untrack
     @Transactional(readOnly = true)
+    public boolean isTracked(Long userId, String coinId) {
+        return trackedCurrencyRepository.existsByUserIdAndCoinId(userId, coinId);
+    }
+
+    @ReplicaRead
     public Long getUserTrackedCount(Long userId) {
         return trackedCurrencyRepository.countByUserId(userId);
     }
 
     private TrackedCurrencyResponseDto mapToResponseDto(TrackedCurrency trackedCurrency) {
+        return mapToResponseDto(trackedCurrency.getId(), trackedCurrency.getCoin().getId(),
+                trackedCurrency.getAddedAt(), trackedCurrency.getCoin());
+    }
+
+    // an id missing from the snapshot leaves the market data empty
+    private TrackedCurrencyResponseDto mapToResponseDto(TrackedCurrencyRow row, CoinSnapshot snapshot) {
+        return mapToResponseDto(row.id(), row.coinId(), row.addedAt(), snapshot.find(row.coinId()).orElse(null));
+    }
+
+    private TrackedCurrencyResponseDto mapToResponseDto(Long id, String coinId, LocalDateTime addedAt, Coin coin) {
         TrackedCurrencyResponseDto dto = new TrackedCurrencyResponseDto();
-        dto.setId(trackedCurrency.getId());
-        dto.setCoinId(trackedCurrency.getCoin().getId());
-        dto.setCoinName(trackedCurrency.getCoin().getName());
-        dto.setCoinSymbol(trackedCurrency.getCoin().getSymbol());
-        dto.setCoinImageUrl(trackedCurrency.getCoin().getImageUrl());
-        dto.setAddedAt(trackedCurrency.getAddedAt());
-        dto.setCurrentPrice(trackedCurrency.getCoin().getCurrentPrice());
-        dto.setPriceChange24h(trackedCurrency.getCoin().getPriceChange24h());
-        dto.setPriceChangePercentage24h(trackedCurrency.getCoin().getPriceChangePercentage24h());
-        dto.setMarketCapRank(trackedCurrency.getCoin().getMarketCapRank());
+        dto.setId(id);
+        dto.setCoinId(coinId);
+        dto.setAddedAt(addedAt);
+        if (coin == null) {
+            return dto;
+        }
 
         // getting data from the linked Coin
-        Coin coin = trackedCurrency.getCoin();
+        dto.setCoinName(coin.getName());
+        dto.setCoinSymbol(coin.getSymbol());
+        dto.setCoinImageUrl(coin.getImageUrl());
         dto.setCurrentPrice(coin.getCurrentPrice());
         dto.setPriceChange24h(coin.getPriceChange24h());
         dto.setPriceChangePercentage24h(coin.getPriceChangePercentage24h());
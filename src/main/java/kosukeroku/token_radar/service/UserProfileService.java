@@ -9,7 +9,6 @@ import kosukeroku.token_radar.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,7 +21,7 @@ public class UserProfileService {
     private final TrackedCurrencyService trackedCurrencyService;
     private final UserMapper userMapper;
 
-    @Transactional(readOnly = true)
+    @ReplicaRead
     public UserProfileDto getUserProfile(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
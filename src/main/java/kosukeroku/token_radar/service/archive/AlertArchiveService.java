@@ -0,0 +1,140 @@
+package kosukeroku.token_radar.service.archive;
+
+import kosukeroku.token_radar.dto.PriceAlertResponseDto;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.repository.PartitionRepository;
+import kosukeroku.token_radar.repository.PriceAlertArchiveRepository;
+import kosukeroku.token_radar.service.datasource.ReplicaRead;
+import kosukeroku.token_radar.service.history.PartitionScheme;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import kosukeroku.token_radar.service.paging.KeysetPage;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/*
+ * Moves triggered and read alerts older than app.alert-archive.after out of price_alerts into the
+ * month partitioned archive, in batches that each commit on their own. The notifications endpoint
+ * keeps reading price_alerts, older history is read from the archive on request.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AlertArchiveService {
+
+    // partitioned by the local triggered_at wall clock, which the scheme reads as UTC
+    public static final PartitionScheme ARCHIVE = new PartitionScheme("price_alerts_archive", ChronoUnit.MONTHS);
+
+    private final PriceAlertArchiveRepository priceAlertArchiveRepository;
+    private final PartitionRepository partitionRepository;
+    private final CoinSnapshotHolder coinSnapshotHolder;
+
+    @Value("${app.alert-archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.alert-archive.after:30d}")
+    private Duration archiveAfter;
+
+    @Value("${app.alert-archive.batch-size:1000}")
+    private int batchSize;
+
+    // zero or negative keeps the archive forever
+    @Value("${app.alert-archive.retention:0d}")
+    private Duration retention;
+
+    @Scheduled(cron = "${app.alert-archive.cron:0 40 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        try {
+            LocalDateTime oldest = priceAlertArchiveRepository.findOldestArchivable(cutoff);
+            if (oldest == null) {
+                return;
+            }
+            // every month between the oldest archivable alert and the cutoff needs its partition first
+            LocalDate last = ARCHIVE.start(cutoff.toInstant(ZoneOffset.UTC));
+            LocalDate start = ARCHIVE.start(oldest.toInstant(ZoneOffset.UTC));
+            while (!start.isAfter(last)) {
+                partitionRepository.createPartition(ARCHIVE, start);
+                start = ARCHIVE.end(start);
+            }
+
+            long total = 0;
+            int moved;
+            do {
+                moved = priceAlertArchiveRepository.archiveBatch(cutoff, batchSize);
+                total += moved;
+            } while (moved == batchSize);
+            log.info("Archived {} alerts triggered before {}", total, cutoff);
+
+            dropExpiredPartitions();
+        } catch (DataAccessException e) {
+            log.warn("Failed to archive alerts: {}", e.getMessage());
+        }
+    }
+
+    // newest first, a keyset page like the live notifications; coin fields come from the current snapshot
+    @ReplicaRead
+    public KeysetPage<PriceAlertResponseDto> getArchivedNotifications(Long userId, String cursor, int size) {
+        if (!enabled) {
+            return new KeysetPage<>(List.of(), null);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.clampSize(size);
+        List<PriceAlertResponseDto> rows = after == null
+                ? priceAlertArchiveRepository.findByUser(userId, pageSize + 1)
+                : priceAlertArchiveRepository.findByUserAfter(userId, after.at(), after.id(), pageSize + 1);
+
+        CoinSnapshot snapshot = coinSnapshotHolder.current();
+        return KeysetPage.of(rows, pageSize,
+                row -> new KeysetCursor(row.getTriggeredAt(), row.getId()),
+                row -> {
+                    snapshot.find(row.getCoinId()).ifPresent(coin -> fillCoin(row, coin));
+                    return row;
+                });
+    }
+
+    public void clearReadAlerts(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        int deleted = priceAlertArchiveRepository.deleteReadByUser(userId);
+        log.info("Deleted {} archived read alerts for user {}", deleted, userId);
+    }
+
+    private void dropExpiredPartitions() {
+        if (retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minus(retention);
+        for (String partition : partitionRepository.findPartitions(ARCHIVE)) {
+            LocalDate partitionStart = ARCHIVE.parse(partition);
+            // the whole month has to be older than the retention
+            if (partitionStart != null && !ARCHIVE.end(partitionStart).isAfter(cutoff)) {
+                partitionRepository.dropPartition(partition);
+                log.info("Dropped expired alert archive partition {}", partition);
+            }
+        }
+    }
+
+    private void fillCoin(PriceAlertResponseDto notification, Coin coin) {
+        notification.setCoinName(coin.getName());
+        notification.setCoinSymbol(coin.getSymbol());
+        notification.setCoinImageUrl(coin.getImageUrl());
+        notification.setCurrentPrice(coin.getCurrentPrice());
+    }
+}
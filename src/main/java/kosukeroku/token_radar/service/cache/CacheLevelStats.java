@@ -0,0 +1,45 @@
+package kosukeroku.token_radar.service.cache;
+
+import kosukeroku.token_radar.dto.CacheLevelStatsDto;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// hit/miss/eviction counters for one level of a two-level cache
+public class CacheLevelStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public CacheLevelStatsDto toDto() {
+        long hitCount = getHits();
+        long missCount = getMisses();
+        long requests = hitCount + missCount;
+        double hitRate = requests == 0 ? 0.0 : (double) hitCount / requests;
+        return new CacheLevelStatsDto(hitCount, missCount, getEvictions(), hitRate);
+    }
+}
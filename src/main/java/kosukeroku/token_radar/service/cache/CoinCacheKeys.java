@@ -0,0 +1,35 @@
+package kosukeroku.token_radar.service.cache;
+
+import java.util.Locale;
+
+/*
+ * Cache names and keys for coin responses. Every key starts with the snapshot version, so a new
+ * snapshot never overwrites entries a reader of the previous one may still be assembling, and
+ * entries of old versions simply expire.
+ */
+public final class CoinCacheKeys {
+
+    public static final String COINS = "coins";
+    public static final String COIN_PAGES = "coin-pages";
+    public static final String COIN_SEARCH = "coin-search";
+
+    private CoinCacheKeys() {
+    }
+
+    public static String coin(long version, String coinId) {
+        return "v" + version + ":" + coinId;
+    }
+
+    public static String page(long version, int page, int size) {
+        return "v" + version + ":" + page + ":" + size;
+    }
+
+    public static String search(long version, String query, int limit, boolean fuzzy) {
+        return "v" + version + ":" + normalizeQuery(query) + ":" + limit + ":" + fuzzy;
+    }
+
+    // same normalization as the search index, so equivalent queries share an entry
+    public static String normalizeQuery(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,107 @@
+package kosukeroku.token_radar.service.cache;
+
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+ * Write-through refresh of the coin caches: before a snapshot is published, the responses readers
+ * are going to ask for (every coin, the dashboard pages, recently searched queries) are rendered
+ * and written to redis in one pipeline under the new version's keys. Requests right after a sync
+ * then hit the cache instead of all missing at once.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CoinCacheWarmer implements CoinSnapshotListener {
+
+    private final ObjectProvider<TwoLevelCacheManager> cacheManagerProvider;
+    private final CoinResponseRenderer coinResponseRenderer;
+
+    @Value("${app.cache.warm.page-sizes:20}")
+    private List<Integer> pageSizes;
+
+    @Value("${app.cache.warm.max-search-queries:200}")
+    private int maxSearchQueries;
+
+    // access ordered, the least recently used search is dropped when full
+    private final Map<String, SearchRequest> recentSearches = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Override
+    public void beforePublish(CoinSnapshot snapshot) {
+        warm(snapshot);
+    }
+
+    public void warm(CoinSnapshot snapshot) {
+        TwoLevelCacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        if (cacheManager == null || snapshot.size() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        long version = snapshot.getVersion();
+
+        try {
+            Map<String, Object> coins = new HashMap<>();
+            for (Coin coin : snapshot.getAll()) {
+                coins.put(CoinCacheKeys.coin(version, coin.getId()), coinResponseRenderer.coin(coin));
+            }
+
+            Map<String, Object> pages = new HashMap<>();
+            for (int size : pageSizes) {
+                int totalPages = Math.max(1, (snapshot.getActiveByRank().size() + size - 1) / size);
+                for (int page = 0; page < totalPages; page++) {
+                    pages.put(CoinCacheKeys.page(version, page, size), coinResponseRenderer.page(snapshot, page, size));
+                }
+            }
+
+            Map<String, Object> searches = new HashMap<>();
+            for (SearchRequest search : recentSearchesCopy()) {
+                searches.put(CoinCacheKeys.search(version, search.query(), search.limit(), search.fuzzy()),
+                        coinResponseRenderer.search(snapshot, search.query(), search.limit(), search.fuzzy()));
+            }
+
+            cacheManager.putAll(Map.of(
+                    CoinCacheKeys.COINS, coins,
+                    CoinCacheKeys.COIN_PAGES, pages,
+                    CoinCacheKeys.COIN_SEARCH, searches));
+
+            log.debug("Warmed coin caches for snapshot v{}: {} coins, {} pages, {} searches in {} ms",
+                    version, coins.size(), pages.size(), searches.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            // readers fall back to loading on a miss
+            log.warn("Failed to warm coin caches for snapshot v{}: {}", version, e.getMessage());
+        }
+    }
+
+    // remembers a served search so it is re-rendered for the next snapshot
+    public void recordSearch(String query, int limit, boolean fuzzy) {
+        String normalized = CoinCacheKeys.normalizeQuery(query);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        synchronized (recentSearches) {
+            recentSearches.put(normalized + ":" + limit + ":" + fuzzy, new SearchRequest(normalized, limit, fuzzy));
+            if (recentSearches.size() > maxSearchQueries) {
+                Iterator<String> eldest = recentSearches.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private List<SearchRequest> recentSearchesCopy() {
+        synchronized (recentSearches) {
+            return new ArrayList<>(recentSearches.values());
+        }
+    }
+
+    private record SearchRequest(String query, int limit, boolean fuzzy) {
+    }
+}
@@ -0,0 +1,60 @@
+package kosukeroku.token_radar.service.cache;
+
+import kosukeroku.token_radar.dto.CoinPageDto;
+import kosukeroku.token_radar.dto.CoinResponseDto;
+import kosukeroku.token_radar.mapper.CoinMapper;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.sparkline.SparklineOptions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// builds coin responses from a given snapshot, shared by request handling and the cache warmer
+@Component
+@RequiredArgsConstructor
+public class CoinResponseRenderer {
+
+    private final CoinMapper coinMapper;
+
+    public CoinResponseDto coin(Coin coin) {
+        return coin(coin, SparklineOptions.FULL);
+    }
+
+    public CoinResponseDto coin(Coin coin, SparklineOptions sparkline) {
+        return coinMapper.toResponseDto(coin, sparkline);
+    }
+
+    public CoinPageDto page(CoinSnapshot snapshot, int page, int size) {
+        return page(snapshot, page, size, SparklineOptions.FULL);
+    }
+
+    public CoinPageDto page(CoinSnapshot snapshot, int page, int size, SparklineOptions sparkline) {
+        return coinMapper.toPageDto(snapshot.page(PageRequest.of(page, size, Sort.by("marketCapRank").ascending())), sparkline);
+    }
+
+    // all active coins by market cap rank
+    public List<CoinResponseDto> all(CoinSnapshot snapshot) {
+        return all(snapshot, SparklineOptions.FULL);
+    }
+
+    public List<CoinResponseDto> all(CoinSnapshot snapshot, SparklineOptions sparkline) {
+        return snapshot.getActiveByRank().stream()
+                .map(coin -> coinMapper.toResponseDto(coin, sparkline))
+                .toList();
+    }
+
+    public List<CoinResponseDto> search(CoinSnapshot snapshot, String query, int limit, boolean fuzzy) {
+        return search(snapshot, query, limit, fuzzy, SparklineOptions.FULL);
+    }
+
+    public List<CoinResponseDto> search(CoinSnapshot snapshot, String query, int limit, boolean fuzzy,
+                                        SparklineOptions sparkline) {
+        return snapshot.search(query, limit, fuzzy).stream()
+                .map(coin -> coinMapper.toResponseDto(coin, sparkline))
+                .toList();
+    }
+}
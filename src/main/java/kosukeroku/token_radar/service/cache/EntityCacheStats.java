@@ -0,0 +1,41 @@
+package kosukeroku.token_radar.service.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import kosukeroku.token_radar.dto.EntityCacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// hibernate statistics of this node's second-level cache regions, counted since startup
+@Service
+@RequiredArgsConstructor
+public class EntityCacheStats {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // empty when the second-level cache (and with it the statistics) is disabled
+    public List<EntityCacheStatsDto> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+
+        List<EntityCacheStatsDto> stats = new ArrayList<>();
+        for (String region : Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().toList()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            long requests = hits + misses;
+            double hitRate = requests == 0 ? 0.0 : (double) hits / requests;
+            stats.add(new EntityCacheStatsDto(region, hits, misses, regionStatistics.getPutCount(), hitRate,
+                    regionStatistics.getElementCountInMemory()));
+        }
+        return stats;
+    }
+}
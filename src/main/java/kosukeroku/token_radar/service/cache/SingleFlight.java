@@ -0,0 +1,85 @@
+package kosukeroku.token_radar.service.cache;
+
+import kosukeroku.token_radar.dto.SingleFlightStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Request coalescing: while a load for a key is in flight, identical calls wait for it and share
+ * its result (or exception) instead of running the same query again. Nothing is kept after the
+ * load finishes, so this never serves anything older than the in-flight read. A follower that
+ * waits longer than app.single-flight.timeout runs the load itself.
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Value("${app.single-flight.timeout:5s}")
+    private Duration timeout;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+
+        if (existing != null) {
+            collapsed.increment();
+            return (T) await(key, existing, loader);
+        }
+
+        loads.increment();
+        try {
+            T value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public SingleFlightStatsDto getStats() {
+        return new SingleFlightStatsDto(loads.sum(), collapsed.sum(), timeouts.sum(), inFlight.size());
+    }
+
+    private Object await(String key, CompletableFuture<Object> leader, Supplier<?> loader) {
+        try {
+            return leader.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            log.warn("Timed out after {} waiting for in-flight load of {}, loading directly", timeout, key);
+            return loader.get();
+        } catch (ExecutionException e) {
+            // the leader's exception (e.g. not found) is what this caller would have got as well
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package kosukeroku.token_radar.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import kosukeroku.token_radar.dto.CacheStatsDto;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/*
+ * Caffeine L1 in front of the shared Redis L2. Reads go L1 -> L2 -> loader, an L2 hit is copied
+ * into L1. Writes go to both levels and are announced to the other nodes, which drop their L1 copy
+ * and re-read from Redis on the next request. L1 keys are the string form of the cache key.
+ */
+public class TwoLevelCache implements org.springframework.cache.Cache {
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final org.springframework.cache.Cache redis;
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    private final CacheLevelStats localStats = new CacheLevelStats();
+    private final CacheLevelStats redisStats = new CacheLevelStats();
+
+    public TwoLevelCache(String name, org.springframework.cache.Cache redis, long maximumSize, Duration ttl,
+                         BiConsumer<String, String> invalidationPublisher) {
+        this.name = name;
+        this.redis = redis;
+        this.invalidationPublisher = invalidationPublisher;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .removalListener((Object key, Object value, RemovalCause cause) -> {
+                    // only size and ttl evictions, explicit invalidations are counted separately
+                    if (cause.wasEvicted()) {
+                        localStats.recordEviction();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localStats.recordHit();
+            return new SimpleValueWrapper(value);
+        }
+        localStats.recordMiss();
+
+        ValueWrapper wrapper = redis.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            redisStats.recordMiss();
+            return null;
+        }
+        redisStats.recordHit();
+        local.put(localKey, wrapper.get());
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // null results (not found) are not cached, the snapshot answers them cheaply
+        if (value == null) {
+            return;
+        }
+        redis.put(key, value);
+        local.put(localKey(key), value);
+        invalidationPublisher.accept(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        redis.evict(key);
+        local.invalidate(localKey(key));
+        redisStats.recordEviction();
+        invalidationPublisher.accept(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        redis.clear();
+        local.invalidateAll();
+        redisStats.recordEviction();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /*
+     * Write to both levels without an invalidation broadcast, for keys scoped to a snapshot version:
+     * such a key always maps to the same value, so no other node can hold a stale copy of it.
+     */
+    public void putImmutable(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        redis.put(key, value);
+        local.put(localKey(key), value);
+    }
+
+    // local-only write for entries already written to redis in bulk
+    public void putLocal(String key, Object value) {
+        local.put(key, value);
+    }
+
+    // called for invalidations published by other nodes, the shared Redis level is left alone
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    public CacheStatsDto getStats() {
+        return new CacheStatsDto(name, local.estimatedSize(), localStats.toDto(), redisStats.toDto(), null);
+    }
+
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
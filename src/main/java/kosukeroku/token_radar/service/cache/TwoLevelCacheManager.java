@@ -0,0 +1,149 @@
+package kosukeroku.token_radar.service.cache;
+
+import kosukeroku.token_radar.dto.CacheStatsDto;
+import kosukeroku.token_radar.service.cache.codec.CodecRedisSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Wraps every Redis cache in a TwoLevelCache. L1 invalidations are broadcast on a Redis channel
+ * as "nodeId|cacheName|key" (an empty key clears the whole cache); each node skips its own messages.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_CHANNEL = "token-radar:cache-invalidation";
+
+    private static final String SEPARATOR = "|";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final Map<String, CodecRedisSerializer> serializers;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                long localMaximumSize, Duration localTtl,
+                                Map<String, CodecRedisSerializer> serializers) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.serializers = Map.copyOf(serializers);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /*
+     * Bulk write-through: all entries (cache name -> key -> value) go to redis in a single pipeline
+     * instead of one round trip per key, then into the local level of this node. Keys are expected
+     * to be new (versioned), so other nodes are not asked to invalidate anything.
+     */
+    public void putAll(Map<String, Map<String, Object>> entriesByCache) {
+        List<PreparedWrite> writes = new ArrayList<>();
+        entriesByCache.forEach((cacheName, entries) -> {
+            RedisCacheConfiguration config = redisCacheConfiguration(cacheName);
+            Duration ttl = config.getTtl();
+            Expiration expiration = ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+            entries.forEach((key, value) -> writes.add(new PreparedWrite(
+                    ByteUtils.getBytes(config.getKeySerializationPair().write(config.getKeyPrefixFor(cacheName) + key)),
+                    ByteUtils.getBytes(config.getValueSerializationPair().write(value)),
+                    expiration)));
+        });
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (PreparedWrite write : writes) {
+                connection.stringCommands().set(write.key(), write.value(), write.expiration(),
+                        RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+
+        entriesByCache.forEach((cacheName, entries) -> {
+            TwoLevelCache cache = (TwoLevelCache) getCache(cacheName);
+            entries.forEach(cache::putLocal);
+        });
+    }
+
+    public List<CacheStatsDto> getStats() {
+        return caches.values().stream()
+                .map(cache -> {
+                    CacheStatsDto stats = cache.getStats();
+                    CodecRedisSerializer serializer = serializers.get(cache.getName());
+                    if (serializer != null) {
+                        stats.setCodec(serializer.getStats());
+                    }
+                    return stats;
+                })
+                .sorted(Comparator.comparing(CacheStatsDto::getName))
+                .toList();
+    }
+
+    // message listener entry point for invalidations published on INVALIDATION_CHANNEL
+    public void handleInvalidation(String message) {
+        String[] parts = message.split("\\" + SEPARATOR, 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            throw new IllegalStateException("No Redis cache configured for " + name);
+        }
+        return new TwoLevelCache(name, redisCache, localMaximumSize, localTtl, this::publishInvalidation);
+    }
+
+    private RedisCacheConfiguration redisCacheConfiguration(String name) {
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (!(redisCache instanceof RedisCache cache)) {
+            throw new IllegalStateException("No Redis cache configured for " + name);
+        }
+        return cache.getCacheConfiguration();
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    nodeId + SEPARATOR + cacheName + SEPARATOR + (key != null ? key : ""));
+        } catch (Exception e) {
+            // other nodes fall back to their L1 ttl
+            log.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    private record PreparedWrite(byte[] key, byte[] value, Expiration expiration) {
+    }
+}
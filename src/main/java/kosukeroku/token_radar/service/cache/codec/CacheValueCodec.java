@@ -0,0 +1,16 @@
+package kosukeroku.token_radar.service.cache.codec;
+
+import java.io.IOException;
+
+/*
+ * Encoding of cached values in redis. The version is part of every key prefix and value header,
+ * so bumping it after a format change makes old entries unreachable instead of undecodable.
+ */
+public interface CacheValueCodec {
+
+    int version();
+
+    byte[] encode(Object value) throws IOException;
+
+    Object decode(byte[] bytes) throws IOException;
+}
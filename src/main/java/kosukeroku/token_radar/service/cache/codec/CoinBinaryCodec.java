@@ -0,0 +1,233 @@
+package kosukeroku.token_radar.service.cache.codec;
+
+import kosukeroku.token_radar.dto.CoinPageDto;
+import kosukeroku.token_radar.dto.CoinResponseDto;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static kosukeroku.token_radar.service.cache.codec.BinaryStreams.*;
+
+/*
+ * Binary encoding of the cached coin responses: a single coin, a dashboard page or a coin list.
+ * A coin is a presence bitmask followed by the non-null fields in declaration order; decimals are
+ * scale + unscaled varint, the sparkline is packed by SparklineCodec.
+ *
+ * Any change to the layout below must bump VERSION.
+ */
+public class CoinBinaryCodec implements CacheValueCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int TYPE_COIN = 1;
+    private static final int TYPE_PAGE = 2;
+    private static final int TYPE_LIST = 3;
+
+    private static final int FIELD_COUNT = 24;
+    private static final int SPARKLINE_FIELD = 14;
+
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        if (value instanceof CoinResponseDto coin) {
+            out.writeByte(TYPE_COIN);
+            writeCoin(out, coin);
+        } else if (value instanceof CoinPageDto page) {
+            out.writeByte(TYPE_PAGE);
+            writeCoins(out, page.getContent());
+            writeVarLong(out, page.getTotalPages());
+            writeVarLong(out, page.getTotalElements());
+            writeVarLong(out, page.getSize());
+            writeVarLong(out, page.getNumber());
+            writeVarLong(out, page.getNumberOfElements());
+            out.writeByte((page.isFirst() ? 1 : 0) | (page.isLast() ? 2 : 0) | (page.isEmpty() ? 4 : 0));
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TYPE_LIST);
+            List<CoinResponseDto> coins = new ArrayList<>(list.size());
+            for (Object element : list) {
+                if (!(element instanceof CoinResponseDto coin)) {
+                    throw new IllegalArgumentException("Unsupported list element " + element.getClass().getName());
+                }
+                coins.add(coin);
+            }
+            writeCoins(out, coins);
+        } else {
+            throw new IllegalArgumentException("Unsupported cache value " + value.getClass().getName());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int type = in.readUnsignedByte();
+        return switch (type) {
+            case TYPE_COIN -> readCoin(in);
+            case TYPE_PAGE -> {
+                List<CoinResponseDto> content = readCoins(in);
+                int totalPages = (int) readVarLong(in);
+                long totalElements = readVarLong(in);
+                int size = (int) readVarLong(in);
+                int number = (int) readVarLong(in);
+                int numberOfElements = (int) readVarLong(in);
+                int flags = in.readUnsignedByte();
+                yield new CoinPageDto(content, totalPages, totalElements, size, number, numberOfElements,
+                        (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+            }
+            case TYPE_LIST -> readCoins(in);
+            default -> throw new IOException("Unknown cache value type " + type);
+        };
+    }
+
+    private void writeCoins(DataOutputStream out, List<CoinResponseDto> coins) throws IOException {
+        writeVarLong(out, coins.size());
+        for (CoinResponseDto coin : coins) {
+            writeCoin(out, coin);
+        }
+    }
+
+    private List<CoinResponseDto> readCoins(DataInputStream in) throws IOException {
+        int count = (int) readVarLong(in);
+        List<CoinResponseDto> coins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            coins.add(readCoin(in));
+        }
+        return coins;
+    }
+
+    private void writeCoin(DataOutputStream out, CoinResponseDto coin) throws IOException {
+        Object[] fields = {
+                coin.getId(), coin.getSymbol(), coin.getName(), coin.getImageUrl(),
+                coin.getCurrentPrice(), coin.getLastUpdated(), coin.getPriceChange24h(),
+                coin.getPriceChangePercentage24h(), coin.getMarketCapRank(), coin.getMarketCap(),
+                coin.getTotalVolume(), coin.getPriceChangePercentage1h(), coin.getPriceChangePercentage7d(),
+                coin.getPriceChangePercentage30d(), coin.getSparklineData(), coin.getHigh24h(), coin.getLow24h(),
+                coin.getAth(), coin.getAthChangePercentage(), coin.getAthDate(), coin.getAtl(),
+                coin.getAtlChangePercentage(), coin.getAtlDate(), coin.getCirculatingSupply()
+        };
+
+        int presence = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (fields[i] != null) {
+                presence |= 1 << i;
+            }
+        }
+        writeVarLong(out, presence);
+
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            Object field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (i == SPARKLINE_FIELD) {
+                SparklineCodec.write(out, (String) field);
+            } else if (field instanceof String text) {
+                writeString(out, text);
+            } else if (field instanceof BigDecimal decimal) {
+                writeDecimal(out, decimal);
+            } else if (field instanceof Double number) {
+                out.writeDouble(number);
+            } else if (field instanceof Integer number) {
+                writeSignedVarLong(out, number);
+            } else if (field instanceof LocalDateTime dateTime) {
+                writeDateTime(out, dateTime);
+            }
+        }
+    }
+
+    private CoinResponseDto readCoin(DataInputStream in) throws IOException {
+        int presence = (int) readVarLong(in);
+        CoinResponseDto coin = new CoinResponseDto();
+
+        if (has(presence, 0)) {
+            coin.setId(readString(in));
+        }
+        if (has(presence, 1)) {
+            coin.setSymbol(readString(in));
+        }
+        if (has(presence, 2)) {
+            coin.setName(readString(in));
+        }
+        if (has(presence, 3)) {
+            coin.setImageUrl(readString(in));
+        }
+        if (has(presence, 4)) {
+            coin.setCurrentPrice(readDecimal(in));
+        }
+        if (has(presence, 5)) {
+            coin.setLastUpdated(readDateTime(in));
+        }
+        if (has(presence, 6)) {
+            coin.setPriceChange24h(in.readDouble());
+        }
+        if (has(presence, 7)) {
+            coin.setPriceChangePercentage24h(in.readDouble());
+        }
+        if (has(presence, 8)) {
+            coin.setMarketCapRank((int) readSignedVarLong(in));
+        }
+        if (has(presence, 9)) {
+            coin.setMarketCap(readDecimal(in));
+        }
+        if (has(presence, 10)) {
+            coin.setTotalVolume(readDecimal(in));
+        }
+        if (has(presence, 11)) {
+            coin.setPriceChangePercentage1h(in.readDouble());
+        }
+        if (has(presence, 12)) {
+            coin.setPriceChangePercentage7d(in.readDouble());
+        }
+        if (has(presence, 13)) {
+            coin.setPriceChangePercentage30d(in.readDouble());
+        }
+        if (has(presence, SPARKLINE_FIELD)) {
+            coin.setSparklineData(SparklineCodec.read(in));
+        }
+        if (has(presence, 15)) {
+            coin.setHigh24h(readDecimal(in));
+        }
+        if (has(presence, 16)) {
+            coin.setLow24h(readDecimal(in));
+        }
+        if (has(presence, 17)) {
+            coin.setAth(readDecimal(in));
+        }
+        if (has(presence, 18)) {
+            coin.setAthChangePercentage(in.readDouble());
+        }
+        if (has(presence, 19)) {
+            coin.setAthDate(readDateTime(in));
+        }
+        if (has(presence, 20)) {
+            coin.setAtl(readDecimal(in));
+        }
+        if (has(presence, 21)) {
+            coin.setAtlChangePercentage(in.readDouble());
+        }
+        if (has(presence, 22)) {
+            coin.setAtlDate(readDateTime(in));
+        }
+        if (has(presence, 23)) {
+            coin.setCirculatingSupply(readDecimal(in));
+        }
+
+        return coin;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+}
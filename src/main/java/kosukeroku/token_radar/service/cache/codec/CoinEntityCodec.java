@@ -0,0 +1,174 @@
+package kosukeroku.token_radar.service.cache.codec;
+
+import kosukeroku.token_radar.model.Coin;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static kosukeroku.token_radar.service.cache.codec.BinaryStreams.*;
+
+/*
+ * Binary encoding of whole Coin entities for the persisted snapshot file (see CoinSnapshotStore).
+ * Same scheme as CoinBinaryCodec: the active flag, a presence bitmask, then the non-null fields in
+ * declaration order. The sparkline is already packed and is copied as is.
+ *
+ * Any change to the layout below must bump VERSION.
+ */
+public final class CoinEntityCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int FIELD_COUNT = 24;
+
+    private CoinEntityCodec() {
+    }
+
+    public static void writeCoins(DataOutputStream out, List<Coin> coins) throws IOException {
+        writeVarLong(out, coins.size());
+        for (Coin coin : coins) {
+            writeCoin(out, coin);
+        }
+    }
+
+    public static List<Coin> readCoins(DataInputStream in) throws IOException {
+        int count = (int) readVarLong(in);
+        List<Coin> coins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            coins.add(readCoin(in));
+        }
+        return coins;
+    }
+
+    private static void writeCoin(DataOutputStream out, Coin coin) throws IOException {
+        Object[] fields = {
+                coin.getId(), coin.getSymbol(), coin.getName(), coin.getLastUpdated(), coin.getImageUrl(),
+                coin.getMarketCapRank(), coin.getCurrentPrice(), coin.getPriceChange24h(),
+                coin.getPriceChangePercentage24h(), coin.getMarketCap(), coin.getTotalVolume(),
+                coin.getPriceChangePercentage1h(), coin.getPriceChangePercentage7d(),
+                coin.getPriceChangePercentage30d(), coin.getSparkline(), coin.getHigh24h(), coin.getLow24h(),
+                coin.getAth(), coin.getAthChangePercentage(), coin.getAthDate(), coin.getAtl(),
+                coin.getAtlChangePercentage(), coin.getAtlDate(), coin.getCirculatingSupply()
+        };
+
+        out.writeBoolean(coin.isActive());
+        int presence = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (fields[i] != null) {
+                presence |= 1 << i;
+            }
+        }
+        writeVarLong(out, presence);
+
+        for (Object field : fields) {
+            if (field == null) {
+                continue;
+            }
+            if (field instanceof byte[] bytes) {
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            } else if (field instanceof String text) {
+                writeString(out, text);
+            } else if (field instanceof BigDecimal decimal) {
+                writeDecimal(out, decimal);
+            } else if (field instanceof Double number) {
+                out.writeDouble(number);
+            } else if (field instanceof Integer number) {
+                writeSignedVarLong(out, number);
+            } else if (field instanceof LocalDateTime dateTime) {
+                writeDateTime(out, dateTime);
+            }
+        }
+    }
+
+    private static Coin readCoin(DataInputStream in) throws IOException {
+        Coin coin = new Coin();
+        coin.setActive(in.readBoolean());
+        int presence = (int) readVarLong(in);
+
+        if (has(presence, 0)) {
+            coin.setId(readString(in));
+        }
+        if (has(presence, 1)) {
+            coin.setSymbol(readString(in));
+        }
+        if (has(presence, 2)) {
+            coin.setName(readString(in));
+        }
+        if (has(presence, 3)) {
+            coin.setLastUpdated(readDateTime(in));
+        }
+        if (has(presence, 4)) {
+            coin.setImageUrl(readString(in));
+        }
+        if (has(presence, 5)) {
+            coin.setMarketCapRank((int) readSignedVarLong(in));
+        }
+        if (has(presence, 6)) {
+            coin.setCurrentPrice(readDecimal(in));
+        }
+        if (has(presence, 7)) {
+            coin.setPriceChange24h(in.readDouble());
+        }
+        if (has(presence, 8)) {
+            coin.setPriceChangePercentage24h(in.readDouble());
+        }
+        if (has(presence, 9)) {
+            coin.setMarketCap(readDecimal(in));
+        }
+        if (has(presence, 10)) {
+            coin.setTotalVolume(readDecimal(in));
+        }
+        if (has(presence, 11)) {
+            coin.setPriceChangePercentage1h(in.readDouble());
+        }
+        if (has(presence, 12)) {
+            coin.setPriceChangePercentage7d(in.readDouble());
+        }
+        if (has(presence, 13)) {
+            coin.setPriceChangePercentage30d(in.readDouble());
+        }
+        if (has(presence, 14)) {
+            byte[] sparkline = new byte[(int) readVarLong(in)];
+            in.readFully(sparkline);
+            coin.setSparkline(sparkline);
+        }
+        if (has(presence, 15)) {
+            coin.setHigh24h(readDecimal(in));
+        }
+        if (has(presence, 16)) {
+            coin.setLow24h(readDecimal(in));
+        }
+        if (has(presence, 17)) {
+            coin.setAth(readDecimal(in));
+        }
+        if (has(presence, 18)) {
+            coin.setAthChangePercentage(in.readDouble());
+        }
+        if (has(presence, 19)) {
+            coin.setAthDate(readDateTime(in));
+        }
+        if (has(presence, 20)) {
+            coin.setAtl(readDecimal(in));
+        }
+        if (has(presence, 21)) {
+            coin.setAtlChangePercentage(in.readDouble());
+        }
+        if (has(presence, 22)) {
+            coin.setAtlDate(readDateTime(in));
+        }
+        if (has(presence, 23)) {
+            coin.setCirculatingSupply(readDecimal(in));
+        }
+
+        return coin;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+}
@@ -0,0 +1,46 @@
+package kosukeroku.token_radar.service.cache.codec;
+
+import kosukeroku.token_radar.service.sparkline.Sparklines;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/*
+ * Packs a sparkline (JSON array of prices, e.g. 168 hourly points) as float32 values, a quarter of
+ * the size of its text form. Float precision (~7 significant digits) is plenty for a chart.
+ * Anything that is not a plain number array is kept as text.
+ */
+final class SparklineCodec {
+
+    private static final int RAW = 0;
+    private static final int PACKED = 1;
+
+    private SparklineCodec() {
+    }
+
+    static void write(DataOutputStream out, String sparkline) throws IOException {
+        float[] points = Sparklines.parse(sparkline);
+        if (points == null) {
+            out.writeByte(RAW);
+            BinaryStreams.writeString(out, sparkline);
+            return;
+        }
+        out.writeByte(PACKED);
+        BinaryStreams.writeVarLong(out, points.length);
+        for (float point : points) {
+            out.writeFloat(point);
+        }
+    }
+
+    static String read(DataInputStream in) throws IOException {
+        if (in.readUnsignedByte() == RAW) {
+            return BinaryStreams.readString(in);
+        }
+        float[] points = new float[(int) BinaryStreams.readVarLong(in)];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = in.readFloat();
+        }
+        return Sparklines.toJson(points);
+    }
+}
@@ -0,0 +1,183 @@
+package kosukeroku.token_radar.service.counter;
+
+import kosukeroku.token_radar.dto.AlertStatsDto;
+import kosukeroku.token_radar.model.UserAlertCounter;
+import kosukeroku.token_radar.model.enums.AlertStatus;
+import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.repository.UserAlertCounterRepository;
+import kosukeroku.token_radar.repository.projection.StatusCount;
+import kosukeroku.token_radar.service.datasource.ReplicaRead;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Per-user alert counters (user_alert_counters). Every alert state change adjusts them inside the
+ * transaction that makes the change, so stats and the unread count are one primary key read. Users
+ * without a row (created outside registration) are counted from price_alerts until the nightly
+ * reconciliation creates it; the same job corrects any drift from writes that bypass this service.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AlertCounterService {
+
+    private final UserAlertCounterRepository userAlertCounterRepository;
+    private final PriceAlertRepository priceAlertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.alert-counters.reconcile.enabled:false}")
+    private boolean reconcileEnabled;
+
+    @Value("${app.alert-counters.reconcile.batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(Long userId) {
+        userAlertCounterRepository.save(new UserAlertCounter(userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alertsCreated(Long userId, int count) {
+        adjust(userId, count, 0, 0);
+    }
+
+    // one adjustment per user, in user id order so concurrent trigger runs lock counter rows in the same order
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alertsTriggered(Map<Long, Integer> countsByUser) {
+        new TreeMap<>(countsByUser).forEach((userId, count) -> adjust(userId, -count, count, 0));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alertsRead(Long userId, int count) {
+        adjust(userId, 0, -count, count);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alertDeleted(Long userId, AlertStatus status) {
+        switch (status) {
+            case ACTIVE -> adjust(userId, -1, 0, 0);
+            case TRIGGERED -> adjust(userId, 0, -1, 0);
+            case READ -> adjust(userId, 0, 0, -1);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void readAlertsCleared(Long userId, int count) {
+        adjust(userId, 0, 0, -count);
+    }
+
+    @ReplicaRead
+    public AlertStatsDto getStats(Long userId) {
+        return userAlertCounterRepository.findById(userId)
+                .map(this::toStats)
+                .orElseGet(() -> countStats(userId));
+    }
+
+    /*
+     * Stats of several users in one read, for pushes after a commit. Not a @ReplicaRead, the primary
+     * serves it: a replica may not have applied the commit that caused the push yet.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AlertStatsDto> getCommittedStats(Collection<Long> userIds) {
+        Map<Long, AlertStatsDto> stats = new HashMap<>();
+        for (UserAlertCounter counter : userAlertCounterRepository.findAllById(userIds)) {
+            stats.put(counter.getUserId(), toStats(counter));
+        }
+        for (Long userId : userIds) {
+            stats.computeIfAbsent(userId, this::countStats);
+        }
+        return stats;
+    }
+
+    @ReplicaRead
+    public long getUnreadCount(Long userId) {
+        return userAlertCounterRepository.findById(userId)
+                .map(counter -> Math.max(0, counter.getTriggeredCount()))
+                .orElseGet(() -> priceAlertRepository.countTriggeredAlerts(userId));
+    }
+
+    // recounts every user from price_alerts in batches, each batch in its own transaction
+    @Scheduled(cron = "${app.alert-counters.reconcile.cron:0 10 4 * * *}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        try {
+            Integer created = transactionTemplate.execute(status -> userAlertCounterRepository.insertMissing());
+            long corrected = 0;
+            long after = 0;
+            ReconciledBatch batch;
+            do {
+                long from = after;
+                batch = transactionTemplate.execute(status -> reconcileBatch(from));
+                corrected += batch.corrected();
+                after = batch.lastUserId();
+            } while (batch.size() == reconcileBatchSize);
+
+            if (corrected > 0 || (created != null && created > 0)) {
+                log.warn("Alert counter reconciliation created {} and corrected {} counter rows", created, corrected);
+            } else {
+                log.info("Alert counters are consistent with price_alerts");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to reconcile alert counters: {}", e.getMessage());
+        }
+    }
+
+    private ReconciledBatch reconcileBatch(long after) {
+        List<Long> userIds = userAlertCounterRepository.lockBatch(after, reconcileBatchSize);
+        if (userIds.isEmpty()) {
+            return new ReconciledBatch(0, 0, after);
+        }
+        return new ReconciledBatch(userIds.size(), userAlertCounterRepository.recount(userIds), userIds.getLast());
+    }
+
+    // a drifted counter is corrected by the next reconciliation, until then it is never shown below zero
+    private AlertStatsDto toStats(UserAlertCounter counter) {
+        return stats(Math.max(0, counter.getActiveCount()), Math.max(0, counter.getTriggeredCount()),
+                Math.max(0, counter.getReadCount()));
+    }
+
+    private AlertStatsDto countStats(Long userId) {
+        Map<AlertStatus, Long> counts = new EnumMap<>(AlertStatus.class);
+        for (StatusCount statusCount : priceAlertRepository.countByStatus(userId)) {
+            counts.put(statusCount.status(), statusCount.count());
+        }
+        return stats(counts.getOrDefault(AlertStatus.ACTIVE, 0L), counts.getOrDefault(AlertStatus.TRIGGERED, 0L),
+                counts.getOrDefault(AlertStatus.READ, 0L));
+    }
+
+    private static AlertStatsDto stats(long active, long triggered, long read) {
+        return new AlertStatsDto(active + triggered + read, active, triggered, read, triggered);
+    }
+
+    // listeners run after the commit, see AlertStatsPublisher
+    private void adjust(Long userId, long active, long triggered, long read) {
+        if (active == 0 && triggered == 0 && read == 0) {
+            return;
+        }
+        if (userAlertCounterRepository.adjust(userId, active, triggered, read) == 0) {
+            log.debug("No alert counters for user {}, left to reconciliation", userId);
+        }
+        eventPublisher.publishEvent(new AlertCountersChangedEvent(userId));
+    }
+
+    private record ReconciledBatch(int size, int corrected, long lastUserId) {
+    }
+}
@@ -0,0 +1,5 @@
+package kosukeroku.token_radar.service.counter;
+
+// published inside the transaction that changed the user's alert counters
+public record AlertCountersChangedEvent(Long userId) {
+}
@@ -0,0 +1,84 @@
+package kosukeroku.token_radar.service.counter;
+
+import kosukeroku.token_radar.dto.AlertStatsDto;
+import kosukeroku.token_radar.repository.UserRepository;
+import kosukeroku.token_radar.repository.projection.UserName;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Pushes a user's alert stats to /user/queue/alert-stats when their counters change, so badges need
+ * no polling. Changes are collected after commit and flushed every app.alert-stats-push.interval: a
+ * burst of triggers or a bulk action costs one push per user, read once from the committed counters.
+ * Users without an open websocket session on this node are skipped before any database read.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AlertStatsPublisher {
+
+    public static final String DESTINATION = "/queue/alert-stats";
+
+    private final AlertCounterService alertCounterService;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+
+    private final Set<Long> pendingUserIds = ConcurrentHashMap.newKeySet();
+
+    // rolled back changes never reach the set
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCountersChanged(AlertCountersChangedEvent event) {
+        pendingUserIds.add(event.userId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.alert-stats-push.interval:1000}")
+    public void flush() {
+        List<Long> userIds = drainPending();
+        if (userIds.isEmpty() || simpUserRegistry.getUserCount() == 0) {
+            return;
+        }
+        try {
+            List<UserName> connected = userRepository.findUsernames(userIds).stream()
+                    .filter(user -> simpUserRegistry.getUser(user.username()) != null)
+                    .toList();
+            if (connected.isEmpty()) {
+                return;
+            }
+
+            Map<Long, AlertStatsDto> stats = alertCounterService.getCommittedStats(
+                    connected.stream().map(UserName::id).toList());
+            for (UserName user : connected) {
+                messagingTemplate.convertAndSendToUser(user.username(), DESTINATION, stats.get(user.id()));
+            }
+            log.debug("Pushed alert stats to {} of {} changed users", connected.size(), userIds.size());
+        } catch (Exception e) {
+            // dropped, the next change pushes fresh stats and the REST endpoints still serve them
+            log.warn("Failed to push alert stats to {} users: {}", userIds.size(), e.getMessage());
+        }
+    }
+
+    // ids added while draining land either in this flush or the next one, none is lost
+    private List<Long> drainPending() {
+        List<Long> userIds = new ArrayList<>();
+        Iterator<Long> iterator = pendingUserIds.iterator();
+        while (iterator.hasNext()) {
+            userIds.add(iterator.next());
+            iterator.remove();
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,110 @@
+package kosukeroku.token_radar.service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import kosukeroku.token_radar.dto.DataSourceTargetStatsDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * One connection pool behind the routing data source. Replicas carry the lag measured by the last
+ * check and are only used while reachable, within the allowed lag and recently checked; the primary
+ * is always usable.
+ */
+public class DataSourceTarget {
+
+    private final String name;
+    private final boolean replica;
+    private final HikariDataSource dataSource;
+
+    private volatile boolean available;
+    private volatile long lagMillis = -1;
+    private volatile Instant lastCheckedAt;
+
+    private final LongAdder routed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private DataSourceTarget(String name, boolean replica, HikariDataSource dataSource) {
+        this.name = name;
+        this.replica = replica;
+        this.dataSource = dataSource;
+        this.available = !replica;
+    }
+
+    public static DataSourceTarget primary(HikariDataSource dataSource) {
+        return new DataSourceTarget("primary", false, dataSource);
+    }
+
+    public static DataSourceTarget replica(String name, HikariDataSource dataSource) {
+        return new DataSourceTarget(name, true, dataSource);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isReplica() {
+        return replica;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    // a replica whose last check is older than maxCheckAge is not trusted, its lag may have grown since
+    public boolean isUsable(long maxLagMillis, Duration maxCheckAge) {
+        if (!replica) {
+            return true;
+        }
+        Instant checkedAt = lastCheckedAt;
+        return available && lagMillis <= maxLagMillis
+                && checkedAt != null && checkedAt.isAfter(Instant.now().minus(maxCheckAge));
+    }
+
+    public void recordLag(long lagMillis) {
+        this.lagMillis = lagMillis;
+        this.available = true;
+        this.lastCheckedAt = Instant.now();
+    }
+
+    public void markUnavailable() {
+        this.lagMillis = -1;
+        this.available = false;
+        this.lastCheckedAt = Instant.now();
+    }
+
+    public void recordRouted() {
+        routed.increment();
+    }
+
+    public void recordSkipped() {
+        skipped.increment();
+    }
+
+    // read-only transaction sent to the primary because no replica was usable
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    public DataSourceTargetStatsDto toDto() {
+        // null until the pool has started
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new DataSourceTargetStatsDto(name, replica, available, lagMillis, lastCheckedAt,
+                routed.sum(), skipped.sum(), fallbacks.sum(),
+                pool != null ? pool.getActiveConnections() : 0,
+                pool != null ? pool.getIdleConnections() : 0,
+                pool != null ? pool.getTotalConnections() : 0,
+                pool != null ? pool.getThreadsAwaitingConnection() : 0);
+    }
+}
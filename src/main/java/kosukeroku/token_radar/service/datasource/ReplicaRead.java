@@ -0,0 +1,22 @@
+package kosukeroku.token_radar.service.datasource;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * A read-only transaction that may be served by a replica up to app.datasource.replicas.max-lag behind.
+ * Only methods marked with it are routed to the replicas: a plain @Transactional(readOnly = true), and
+ * the read-only transactions spring data opens for repository reads, stay on the primary, so code that
+ * reads right after a commit (snapshot rebuilds, cache fills) sees it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+}
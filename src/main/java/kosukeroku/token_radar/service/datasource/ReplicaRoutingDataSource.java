@@ -0,0 +1,149 @@
+package kosukeroku.token_radar.service.datasource;
+
+import kosukeroku.token_radar.dto.DataSourceTargetStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Sends @ReplicaRead transactions to the replicas (round robin) and everything else, other read-only
+ * transactions included, to the primary. A replica that could not be reached or lags more than maxLag at the last check is skipped; when
+ * none is usable the read goes to the primary. The decision reads the transaction's read-only flag,
+ * so this has to sit behind a LazyConnectionDataSourceProxy: the JPA transaction manager takes the
+ * connection before it publishes the flag.
+ *
+ * The lag is checked every checkInterval on a thread of its own, so a busy application scheduler
+ * cannot delay it. A replica whose last check is older than three intervals is skipped as well.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    // a replica that has replayed everything it received is current even if the primary has been idle
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+            END""";
+
+    private final DataSourceTarget primary;
+    private final List<DataSourceTarget> replicas;
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+    private final Duration maxCheckAge;
+    private final int checkTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaRoutingDataSource(DataSourceTarget primary, List<DataSourceTarget> replicas,
+                                    Duration maxLag, Duration checkInterval, Duration checkTimeout) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkInterval = checkInterval;
+        this.maxCheckAge = checkInterval.multipliedBy(3);
+        this.checkTimeoutSeconds = (int) Math.max(1, checkTimeout.toSeconds());
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(primary.getName(), primary.getDataSource());
+        this.replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary.getDataSource());
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // replicas are not used before their first check
+        checkLag();
+        lagChecker.scheduleWithFixedDelay(this::checkLag, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // the marker alone is not enough, a read-write transaction joined by a @ReplicaRead method stays put
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !ReplicaReadInterceptor.isActive()) {
+            primary.recordRouted();
+            return primary.getName();
+        }
+        DataSourceTarget replica = nextUsableReplica();
+        if (replica == null) {
+            primary.recordRouted();
+            primary.recordFallback();
+            return primary.getName();
+        }
+        replica.recordRouted();
+        return replica.getName();
+    }
+
+    private DataSourceTarget nextUsableReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            DataSourceTarget candidate = replicas.get((start + i) % size);
+            if (candidate.isUsable(maxLagMillis, maxCheckAge)) {
+                return candidate;
+            }
+            candidate.recordSkipped();
+        }
+        return null;
+    }
+
+    public void checkLag() {
+        for (DataSourceTarget replica : replicas) {
+            boolean wasUsable = replica.isUsable(maxLagMillis, maxCheckAge);
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+                jdbcTemplate.setQueryTimeout(checkTimeoutSeconds);
+                Double lag = jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+                replica.recordLag(lag != null ? Math.round(lag) : 0);
+            } catch (Exception e) {
+                replica.markUnavailable();
+                if (wasUsable) {
+                    log.warn("Replica {} is unreachable, reads go elsewhere: {}", replica.getName(), e.getMessage());
+                }
+                continue;
+            }
+
+            boolean usable = replica.isUsable(maxLagMillis, maxCheckAge);
+            if (wasUsable && !usable) {
+                log.warn("Replica {} lags {} ms (max {} ms), reads go elsewhere",
+                        replica.getName(), replica.getLagMillis(), maxLagMillis);
+            } else if (!wasUsable && usable) {
+                log.info("Replica {} is back in rotation, lag {} ms", replica.getName(), replica.getLagMillis());
+            }
+        }
+    }
+
+    public List<DataSourceTargetStatsDto> getStats() {
+        List<DataSourceTargetStatsDto> stats = new ArrayList<>(replicas.size() + 1);
+        stats.add(primary.toDto());
+        replicas.forEach(replica -> stats.add(replica.toDto()));
+        return stats;
+    }
+
+    // the primary pool is a bean of its own, the replica pools only live here
+    @Override
+    public void destroy() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
@@ -0,0 +1,67 @@
+package kosukeroku.token_radar.service.history;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+
+/*
+ * Candle resolutions. 1m candles are rolled up from raw ticks, every coarser resolution from the
+ * next finer one. Each resolution is its own list partition of price_candles, range partitioned
+ * by bucket with a period matching how long that resolution is usually kept.
+ */
+public enum CandleInterval {
+
+    MINUTE("1m", "minute", ChronoUnit.MINUTES, ChronoUnit.DAYS),
+    HOUR("1h", "hour", ChronoUnit.HOURS, ChronoUnit.MONTHS),
+    DAY("1d", "day", ChronoUnit.DAYS, ChronoUnit.YEARS);
+
+    private final String code;
+    private final String truncUnit;
+    private final ChronoUnit bucketUnit;
+    private final PartitionScheme partitions;
+
+    CandleInterval(String code, String truncUnit, ChronoUnit bucketUnit, ChronoUnit partitionPeriod) {
+        this.code = code;
+        this.truncUnit = truncUnit;
+        this.bucketUnit = bucketUnit;
+        this.partitions = new PartitionScheme("price_candles_" + code, partitionPeriod);
+    }
+
+    public static Optional<CandleInterval> fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(interval -> interval.code.equals(code))
+                .findFirst();
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    // unit name for PostgreSQL date_trunc
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+
+    public PartitionScheme getPartitions() {
+        return partitions;
+    }
+
+    public Duration getDuration() {
+        return bucketUnit.getDuration();
+    }
+
+    public Instant truncate(Instant instant) {
+        return instant.truncatedTo(bucketUnit);
+    }
+
+    // null for MINUTE, which is built from price_ticks
+    public CandleInterval getSource() {
+        return switch (this) {
+            case MINUTE -> null;
+            case HOUR -> MINUTE;
+            case DAY -> HOUR;
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package kosukeroku.token_radar.service.history;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+// range partitions of one parent table by UTC day, month or year, named <parent>_p<yyyyMMdd|yyyyMM|yyyy>
+public record PartitionScheme(String parent, ChronoUnit period) {
+
+    public LocalDate start(Instant instant) {
+        LocalDate date = instant.atZone(ZoneOffset.UTC).toLocalDate();
+        return switch (period) {
+            case DAYS -> date;
+            case MONTHS -> date.withDayOfMonth(1);
+            case YEARS -> date.withDayOfYear(1);
+            default -> throw new IllegalStateException("Unsupported partition period: " + period);
+        };
+    }
+
+    public LocalDate end(LocalDate start) {
+        return start.plus(1, period);
+    }
+
+    public String name(LocalDate start) {
+        return parent + "_p" + start.format(DateTimeFormatter.ofPattern(pattern()));
+    }
+
+    // start of the partition encoded in a child table name, null for names this scheme did not create
+    public LocalDate parse(String name) {
+        String prefix = parent + "_p";
+        if (!name.startsWith(prefix)) {
+            return null;
+        }
+        String suffix = name.substring(prefix.length());
+        if (suffix.length() != pattern().length() || !suffix.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        int year = Integer.parseInt(suffix.substring(0, 4));
+        int month = suffix.length() >= 6 ? Integer.parseInt(suffix.substring(4, 6)) : 1;
+        int day = suffix.length() == 8 ? Integer.parseInt(suffix.substring(6, 8)) : 1;
+        return LocalDate.of(year, month, day);
+    }
+
+    private String pattern() {
+        return switch (period) {
+            case DAYS -> "yyyyMMdd";
+            case MONTHS -> "yyyyMM";
+            case YEARS -> "yyyy";
+            default -> throw new IllegalStateException("Unsupported partition period: " + period);
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package kosukeroku.token_radar.service.history;
+
+import jakarta.annotation.PostConstruct;
+import kosukeroku.token_radar.repository.PartitionRepository;
+import kosukeroku.token_radar.repository.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/*
+ * Partitions and rollups of the price history. Partitions are created a few periods ahead
+ * and dropped whole once they are past the retention of their table. Rollups re-aggregate the
+ * previous and the current bucket of each resolution, coarser ones run after the finer ones
+ * they read from have caught up.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceHistoryMaintenance {
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PartitionRepository partitionRepository;
+
+    @Value("${app.price-history.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.price-history.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    // zero or negative keeps the data forever
+    @Value("${app.price-history.retention.ticks:3d}")
+    private Duration tickRetention;
+
+    @Value("${app.price-history.retention.minute:14d}")
+    private Duration minuteRetention;
+
+    @Value("${app.price-history.retention.hour:365d}")
+    private Duration hourRetention;
+
+    @Value("${app.price-history.retention.day:0d}")
+    private Duration dayRetention;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        // parent tables come from the V5 migration
+        maintainPartitions();
+        log.info("Price history enabled");
+    }
+
+    @Scheduled(cron = "0 20 * * * *")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        maintain(PriceHistoryRepository.TICKS, tickRetention, now);
+        Map.of(CandleInterval.MINUTE, minuteRetention, CandleInterval.HOUR, hourRetention, CandleInterval.DAY, dayRetention)
+                .forEach((interval, retention) -> maintain(interval.getPartitions(), retention, now));
+    }
+
+    @Scheduled(cron = "5 * * * * *")
+    public void rollupMinutes() {
+        rollup(CandleInterval.MINUTE);
+    }
+
+    @Scheduled(cron = "15 */5 * * * *")
+    public void rollupHours() {
+        rollup(CandleInterval.HOUR);
+    }
+
+    @Scheduled(cron = "30 7 * * * *")
+    public void rollupDays() {
+        rollup(CandleInterval.DAY);
+    }
+
+    private void rollup(CandleInterval interval) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant from = interval.truncate(now.minus(interval.getDuration()));
+        try {
+            int candles = priceHistoryRepository.rollup(interval, from, now);
+            log.debug("Rolled up {} {} candles since {}", candles, interval.getCode(), from);
+        } catch (DataAccessException e) {
+            log.warn("Failed to roll up {} candles: {}", interval.getCode(), e.getMessage());
+        }
+    }
+
+    private void maintain(PartitionScheme scheme, Duration retention, Instant now) {
+        try {
+            LocalDate start = scheme.start(now);
+            for (int i = 0; i <= partitionsAhead; i++) {
+                partitionRepository.createPartition(scheme, start);
+                start = scheme.end(start);
+            }
+
+            if (retention.isZero() || retention.isNegative()) {
+                return;
+            }
+            LocalDate cutoff = now.minus(retention).atZone(ZoneOffset.UTC).toLocalDate();
+            for (String partition : partitionRepository.findPartitions(scheme)) {
+                LocalDate partitionStart = scheme.parse(partition);
+                // the whole partition has to be older than the retention
+                if (partitionStart != null && !scheme.end(partitionStart).isAfter(cutoff)) {
+                    partitionRepository.dropPartition(partition);
+                    log.info("Dropped expired price history partition {}", partition);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to maintain partitions of {}: {}", scheme.parent(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package kosukeroku.token_radar.service.history;
+
+import kosukeroku.token_radar.dto.CandleDto;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.repository.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+// price ticks recorded by the price sync and the candles rolled up from them (see PriceHistoryMaintenance)
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PriceHistoryService {
+
+    public static final int MAX_CANDLES = 1000;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    // partitioned tables need PostgreSQL, tests and H2 setups leave history off
+    @Value("${app.price-history.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // one batched insert per price sync batch, a failure here never fails the price update
+    public void record(List<Coin> coins) {
+        if (!enabled || coins.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<PriceTick> ticks = coins.stream()
+                .filter(coin -> coin.getCurrentPrice() != null)
+                .map(coin -> new PriceTick(coin.getId(), now, coin.getCurrentPrice(), coin.getTotalVolume()))
+                .toList();
+        if (ticks.isEmpty()) {
+            return;
+        }
+        try {
+            priceHistoryRepository.insertTicks(ticks);
+        } catch (DataAccessException e) {
+            log.warn("Failed to record {} price ticks: {}", ticks.size(), e.getMessage());
+        }
+    }
+
+    public List<CandleDto> getCandles(String coinId, CandleInterval interval, Instant from, Instant to) {
+        if (!enabled) {
+            return List.of();
+        }
+        return priceHistoryRepository.findCandles(coinId, interval, from, to, MAX_CANDLES);
+    }
+}
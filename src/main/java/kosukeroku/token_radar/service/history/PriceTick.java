@@ -0,0 +1,8 @@
+package kosukeroku.token_radar.service.history;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// one price observation from a sync batch, volume is CoinGecko's rolling 24h volume
+public record PriceTick(String coinId, Instant time, BigDecimal price, BigDecimal volume) {
+}
@@ -0,0 +1,388 @@
+package kosukeroku.token_radar.service.inbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kosukeroku.token_radar.model.PriceAlert;
+import kosukeroku.token_radar.model.enums.AlertStatus;
+import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.repository.projection.AlertRow;
+import kosukeroku.token_radar.service.datasource.ReplicaRead;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+ * Redis copy of each user's newest notifications, up to app.notification-inbox.max-size:
+ *   {user}:alerts  sorted set of alert ids scored by triggered_at (epoch micros, exact in a double)
+ *   {user}:items   hash of alert id -> AlertRow json, written once when the alert triggers
+ *   {user}:unread  set of the ids still unread, the status of a row is derived from it
+ *   {user}:state   "complete" when the inbox holds every notification, "partial" once trimmed
+ *   {user}:gen     bumped before every read state change and removal, a rebuild that loaded its rows
+ *                  before a bump is not written (it would bring back the unread status or the alert)
+ * Ids are zero padded so equal scores order by id, like the (triggered_at, id) keyset in PostgreSQL.
+ *
+ * PostgreSQL stays the durable store. A missing inbox is rebuilt from the primary on the next read, and a
+ * read the inbox cannot answer (a cursor past the trimmed tail, a missing item) returns empty so
+ * the caller pages from the database with findPageInDatabase. findPage is called outside any
+ * transaction: a rebuild then holds the only connection of the request. Writes are applied after the database commit; a failed write
+ * only leaves the inbox stale until app.notification-inbox.ttl after the user's last change.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationInbox {
+
+    private static final String KEY_PREFIX = "token-radar:inbox:";
+    private static final String COMPLETE = "complete";
+    private static final String PARTIAL = "partial";
+
+    // KEYS alerts, items, unread, state, gen; ARGV[1] gen read before the load ("" for none), ARGV[2] ttl
+    // in seconds, ARGV[3] state, then score, member, json and unread flag of each row
+    private static final RedisScript<Long> WRITE_REBUILT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[5]) or '') ~= ARGV[1] then return 0 end
+            for i = 4, #ARGV, 4 do
+                redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1])
+                redis.call('HSET', KEYS[2], ARGV[i + 1], ARGV[i + 2])
+                if ARGV[i + 3] == '1' then
+                    redis.call('SADD', KEYS[3], ARGV[i + 1])
+                else
+                    redis.call('SREM', KEYS[3], ARGV[i + 1])
+                end
+            end
+            redis.call('SET', KEYS[4], ARGV[3], 'EX', ARGV[2])
+            for i = 1, 3 do redis.call('EXPIRE', KEYS[i], ARGV[2]) end
+            return 1""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PriceAlertRepository priceAlertRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.notification-inbox.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.notification-inbox.max-size:200}")
+    private int maxSize;
+
+    @Value("${app.notification-inbox.ttl:7d}")
+    private Duration ttl;
+
+    // notifications the archive has moved out of price_alerts are dropped from the inbox too
+    @Value("${app.alert-archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.alert-archive.after:30d}")
+    private Duration archiveAfter;
+
+    // the database answer for reads findPage returned empty for, newest first after the cursor
+    @ReplicaRead
+    public List<AlertRow> findPageInDatabase(Long userId, KeysetCursor after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return after == null
+                ? priceAlertRepository.findNotificationsPage(userId, page)
+                : priceAlertRepository.findNotificationsPageAfter(userId, after.at(), after.id(), page);
+    }
+
+    // newest first, up to limit rows after the cursor; empty when the database has to answer
+    public Optional<List<AlertRow>> findPage(Long userId, KeysetCursor after, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            String state = redisTemplate.opsForValue().get(stateKey(userId));
+            if (state == null) {
+                state = rebuild(userId);
+                if (state == null) {
+                    return Optional.empty();
+                }
+            }
+            if (archiveEnabled) {
+                drop(userId, redisTemplate.opsForZSet().rangeByScore(alertsKey(userId), Double.NEGATIVE_INFINITY,
+                        score(LocalDateTime.now().minus(archiveAfter))), false);
+            }
+
+            long start = 0;
+            if (after != null) {
+                Long rank = redisTemplate.opsForZSet().reverseRank(alertsKey(userId), member(after.id()));
+                if (rank == null) {
+                    return Optional.empty();
+                }
+                start = rank + 1;
+            }
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(alertsKey(userId), start, start + limit - 1);
+            List<String> members = ids != null ? new ArrayList<>(ids) : List.of();
+            if (members.size() < limit && !COMPLETE.equals(state)) {
+                // the rest of this page was trimmed away
+                return Optional.empty();
+            }
+            return Optional.ofNullable(readRows(userId, members));
+        } catch (DataAccessException e) {
+            log.warn("Notification inbox of user {} unavailable: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // called in the transaction that triggers the alerts, written once it commits
+    public void added(Collection<PriceAlert> triggered) {
+        if (!enabled || triggered.isEmpty()) {
+            return;
+        }
+        Map<Long, List<AlertRow>> byUser = new LinkedHashMap<>();
+        for (PriceAlert alert : triggered) {
+            byUser.computeIfAbsent(alert.getUser().getId(), id -> new ArrayList<>()).add(AlertRow.from(alert));
+        }
+        afterCommit(() -> byUser.forEach((userId, rows) -> {
+            write(userId, rows);
+            trim(userId);
+        }));
+    }
+
+    // the generation is bumped first, a rebuild written between the two commands is rejected
+    public void markedRead(Long userId, Long alertId) {
+        afterCommit(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            bumpGeneration(redis, userId);
+            redis.sRem(unreadKey(userId), member(alertId));
+            return null;
+        }));
+    }
+
+    public void allMarkedRead(Long userId) {
+        afterCommit(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            bumpGeneration(redis, userId);
+            redis.del(unreadKey(userId));
+            return null;
+        }));
+    }
+
+    public void removed(Long userId, Long alertId) {
+        afterCommit(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            bumpGeneration(redis, userId);
+            redis.zRem(alertsKey(userId), member(alertId));
+            redis.hDel(itemsKey(userId), member(alertId));
+            redis.sRem(unreadKey(userId), member(alertId));
+            return null;
+        }));
+    }
+
+    // bulk removals drop the whole inbox, the next read rebuilds it
+    public void invalidate(Long userId) {
+        afterCommit(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            bumpGeneration(redis, userId);
+            redis.del(alertsKey(userId), itemsKey(userId), unreadKey(userId), stateKey(userId));
+            return null;
+        }));
+    }
+
+    /*
+     * Loads the newest notifications and writes them only if no read state change or removal was
+     * applied since the load began, otherwise returns null and the database answers this read.
+     * Merged into whatever triggers wrote meanwhile, so an alert committed during the load is kept.
+     */
+    private String rebuild(Long userId) {
+        String generation = redisTemplate.opsForValue().get(generationKey(userId));
+        List<AlertRow> rows = loadFromPrimary(userId);
+        String state = rows.size() < maxSize ? COMPLETE : PARTIAL;
+
+        List<String> args = new ArrayList<>(3 + rows.size() * 4);
+        args.add(generation != null ? generation : "");
+        args.add(String.valueOf(ttl.toSeconds()));
+        args.add(state);
+        for (AlertRow row : rows) {
+            args.add(String.valueOf((long) score(row.triggeredAt())));
+            args.add(member(row.id()));
+            args.add(toJson(row));
+            args.add(row.status() == AlertStatus.READ ? "0" : "1");
+        }
+        Long written = redisTemplate.execute(WRITE_REBUILT, List.of(alertsKey(userId), itemsKey(userId),
+                unreadKey(userId), stateKey(userId), generationKey(userId)), args.toArray());
+        if (written == null || written == 0) {
+            log.debug("Notification inbox of user {} changed during its rebuild, not written", userId);
+            return null;
+        }
+        log.debug("Rebuilt notification inbox of user {} with {} alerts", userId, rows.size());
+        return state;
+    }
+
+    /*
+     * Not a @ReplicaRead, the primary serves it: a replica may not have applied a mark-as-read yet
+     * whose bump is already in redis.
+     */
+    private List<AlertRow> loadFromPrimary(Long userId) {
+        return priceAlertRepository.findNotificationsPage(userId, PageRequest.of(0, maxSize));
+    }
+
+    private void bumpGeneration(StringRedisConnection redis, Long userId) {
+        redis.incr(generationKey(userId));
+        redis.expire(generationKey(userId), ttl.toSeconds());
+    }
+
+    private void write(Long userId, List<AlertRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> json = new ArrayList<>(rows.size());
+        for (AlertRow row : rows) {
+            json.add(toJson(row));
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (int i = 0; i < rows.size(); i++) {
+                AlertRow row = rows.get(i);
+                String member = member(row.id());
+                redis.zAdd(alertsKey(userId), score(row.triggeredAt()), member);
+                redis.hSet(itemsKey(userId), member, json.get(i));
+                if (row.status() == AlertStatus.READ) {
+                    redis.sRem(unreadKey(userId), member);
+                } else {
+                    redis.sAdd(unreadKey(userId), member);
+                }
+            }
+            for (String key : List.of(alertsKey(userId), itemsKey(userId), unreadKey(userId), stateKey(userId))) {
+                redis.expire(key, ttl.toSeconds());
+            }
+            return null;
+        });
+    }
+
+    // drops the oldest alerts above the cap; the inbox no longer holds everything afterwards
+    private void trim(Long userId) {
+        Long size = redisTemplate.opsForZSet().zCard(alertsKey(userId));
+        if (size != null && size > maxSize) {
+            drop(userId, redisTemplate.opsForZSet().range(alertsKey(userId), 0, size - maxSize - 1), true);
+        }
+    }
+
+    private void drop(Long userId, Set<String> dropped, boolean partial) {
+        if (dropped == null || dropped.isEmpty()) {
+            return;
+        }
+        String[] members = dropped.toArray(String[]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.zRem(alertsKey(userId), members);
+            redis.hDel(itemsKey(userId), members);
+            redis.sRem(unreadKey(userId), members);
+            if (partial) {
+                redis.set(stateKey(userId), PARTIAL, Expiration.from(ttl), RedisStringCommands.SetOption.ifPresent());
+            }
+            return null;
+        });
+    }
+
+    private List<AlertRow> readRows(Long userId, List<String> members) {
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        List<Object> fields = new ArrayList<>(members);
+        List<Object> json = redisTemplate.opsForHash().multiGet(itemsKey(userId), fields);
+        Map<Object, Boolean> unread = redisTemplate.opsForSet().isMember(unreadKey(userId), members.toArray());
+
+        List<AlertRow> rows = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            if (json.get(i) == null) {
+                // written concurrently or partly trimmed, let the database answer this page
+                return null;
+            }
+            AlertRow row = fromJson((String) json.get(i));
+            boolean isUnread = unread != null && Boolean.TRUE.equals(unread.get(members.get(i)));
+            rows.add(row.withStatus(isUnread ? AlertStatus.TRIGGERED : AlertStatus.READ));
+        }
+        return rows;
+    }
+
+    private void afterCommit(Runnable write) {
+        if (!enabled) {
+            return;
+        }
+        Runnable guarded = () -> {
+            try {
+                write.run();
+            } catch (DataAccessException e) {
+                log.warn("Failed to update notification inbox: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+
+    private String toJson(AlertRow row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize alert " + row.id(), e);
+        }
+    }
+
+    private AlertRow fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, AlertRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read inbox entry " + json, e);
+        }
+    }
+
+    private static double score(LocalDateTime triggeredAt) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), triggeredAt);
+    }
+
+    private static String member(Long alertId) {
+        return String.format("%019d", alertId);
+    }
+
+    // the hash tag keeps one user's keys on the same cluster slot
+    private static String alertsKey(Long userId) {
+        return KEY_PREFIX + "{" + userId + "}:alerts";
+    }
+
+    private static String itemsKey(Long userId) {
+        return KEY_PREFIX + "{" + userId + "}:items";
+    }
+
+    private static String unreadKey(Long userId) {
+        return KEY_PREFIX + "{" + userId + "}:unread";
+    }
+
+    private static String stateKey(Long userId) {
+        return KEY_PREFIX + "{" + userId + "}:state";
+    }
+
+    private static String generationKey(Long userId) {
+        return KEY_PREFIX + "{" + userId + "}:gen";
+    }
+}
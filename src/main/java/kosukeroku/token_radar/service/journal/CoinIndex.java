@@ -0,0 +1,73 @@
+package kosukeroku.token_radar.service.journal;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Sidecar mapping coin ids to the int indexes stored in journal records: one id per line, the
+ * line number is the index. Ids are only ever appended, so old segments stay readable. A last
+ * line without its newline (torn write) is cut off on load.
+ */
+final class CoinIndex {
+
+    private final Path file;
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    private CoinIndex(Path file) {
+        this.file = file;
+    }
+
+    static CoinIndex load(Path file) throws IOException {
+        CoinIndex index = new CoinIndex(file);
+        if (!Files.exists(file)) {
+            return index;
+        }
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        int complete = content.lastIndexOf('\n') + 1;
+        if (complete < content.length()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(content.substring(0, complete).getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+        for (String id : content.substring(0, complete).split("\n")) {
+            if (!id.isEmpty()) {
+                index.add(id);
+            }
+        }
+        return index;
+    }
+
+    // written to disk before any record refers to it
+    synchronized int indexOf(String coinId) throws IOException {
+        Integer index = indexes.get(coinId);
+        if (index != null) {
+            return index;
+        }
+        Files.writeString(file, coinId + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        return add(coinId);
+    }
+
+    synchronized String idAt(int index) {
+        return index >= 0 && index < ids.size() ? ids.get(index) : null;
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    private int add(String coinId) {
+        ids.add(coinId);
+        indexes.put(coinId, ids.size() - 1);
+        return ids.size() - 1;
+    }
+}
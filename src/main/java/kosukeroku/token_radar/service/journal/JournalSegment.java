@@ -0,0 +1,144 @@
+package kosukeroku.token_radar.service.journal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/*
+ * One memory-mapped journal file: a 16 byte header followed by fixed-width 24 byte records
+ *
+ *   int coin index | int reserved | long epoch millis | long price (unscaled, scale PRICE_SCALE)
+ *
+ * The file is mapped at its full size up front, appends write straight into the mapping with no
+ * intermediate buffer or syscall. The timestamp is written last and is never zero, so the first
+ * zero timestamp marks the end and a record torn by a crash is simply not there.
+ */
+final class JournalSegment {
+
+    static final int MAGIC = 0x544B4A31; // "TKJ1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+    static final int PRICE_SCALE = 12;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int count;
+
+    private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.count = findEnd(buffer, capacity);
+    }
+
+    // opens an existing segment for appending or creates one sized for capacity records
+    static JournalSegment open(Path path, int capacity) throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int records = exists ? recordsIn(Files.size(path)) : capacity;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+            if (exists) {
+                checkHeader(buffer, path);
+            } else {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+            }
+            return new JournalSegment(path, channel, buffer, records);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // streams the committed records of a segment file without opening it for writing
+    static void read(Path path, RecordConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int records = recordsIn(channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+            checkHeader(buffer, path);
+            for (int i = 0; i < records; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                long millis = buffer.getLong(offset + 8);
+                if (millis == 0) {
+                    return;
+                }
+                consumer.accept(buffer.getInt(offset), Instant.ofEpochMilli(millis),
+                        BigDecimal.valueOf(buffer.getLong(offset + 16), PRICE_SCALE));
+            }
+        }
+    }
+
+    // throws ArithmeticException for prices that do not fit the fixed-point field
+    void append(int coinIndex, Instant time, BigDecimal price) {
+        long unscaled = price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        int offset = HEADER_SIZE + count * RECORD_SIZE;
+        buffer.putInt(offset, coinIndex);
+        buffer.putLong(offset + 16, unscaled);
+        buffer.putLong(offset + 8, Math.max(1, time.toEpochMilli()));
+        count++;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    int size() {
+        return count;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int recordsIn(long fileSize) {
+        return (int) Math.max(0, (fileSize - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private static void checkHeader(MappedByteBuffer buffer, Path path) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Not a tick journal segment (or unsupported version): " + path);
+        }
+    }
+
+    // committed records form a prefix, binary search for the first empty slot
+    private static int findEnd(MappedByteBuffer buffer, int capacity) {
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(HEADER_SIZE + mid * RECORD_SIZE + 8) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(int coinIndex, Instant time, BigDecimal price);
+    }
+}
@@ -0,0 +1,8 @@
+package kosukeroku.token_radar.service.journal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// one price observation read back from the journal
+public record JournalTick(String coinId, Instant time, BigDecimal price) {
+}
@@ -0,0 +1,167 @@
+package kosukeroku.token_radar.service.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kosukeroku.token_radar.model.Coin;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+ * Append-only local journal of every price the sync saw, for replaying it through the alert engine
+ * (see TickReplayService). Segments roll at UTC midnight, files are ticks-<yyyyMMdd>-<n>.journal
+ * with n counting up when a day outgrows one segment. Coin ids are stored as indexes into the
+ * coins.idx sidecar. This is a node-local debugging aid, not the price history of record.
+ */
+@Component
+@Slf4j
+public class TickJournal {
+
+    private static final String INDEX_FILE = "coins.idx";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Value("${app.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.journal.directory:./data/tick-journal}")
+    private String directory;
+
+    // records per segment file (24 bytes each), the file is mapped at full size when it is created
+    @Value("${app.journal.segment-records:262144}")
+    private int segmentRecords;
+
+    private Path root;
+    private CoinIndex coinIndex;
+    private JournalSegment segment;
+    private LocalDate segmentDate;
+    private int segmentNumber;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        coinIndex = CoinIndex.load(root.resolve(INDEX_FILE));
+        log.info("Tick journal at {} ({} known coins)", root.toAbsolutePath(), coinIndex.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(List<Coin> coins) {
+        append(coins, Instant.now());
+    }
+
+    // journal failures are logged and never fail the price sync
+    public synchronized void append(List<Coin> coins, Instant time) {
+        if (!enabled || coins.isEmpty()) {
+            return;
+        }
+        try {
+            for (Coin coin : coins) {
+                if (coin.getCurrentPrice() == null) {
+                    continue;
+                }
+                try {
+                    segmentFor(time).append(coinIndex.indexOf(coin.getId()), time, coin.getCurrentPrice());
+                } catch (ArithmeticException e) {
+                    log.warn("Price of {} does not fit the tick journal: {}", coin.getId(), coin.getCurrentPrice());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to append {} ticks to the journal: {}", coins.size(), e.getMessage());
+        }
+    }
+
+    // ticks with from <= time < to in journal (time) order
+    public void read(Instant from, Instant to, Consumer<JournalTick> consumer) {
+        if (!enabled) {
+            return;
+        }
+        LocalDate last = to.minusMillis(1).atZone(ZoneOffset.UTC).toLocalDate();
+        for (LocalDate date = from.atZone(ZoneOffset.UTC).toLocalDate(); !date.isAfter(last); date = date.plusDays(1)) {
+            for (Path path : segmentsOf(date)) {
+                try {
+                    JournalSegment.read(path, (index, time, price) -> {
+                        if (!time.isBefore(from) && time.isBefore(to)) {
+                            consumer.accept(new JournalTick(coinIndex.idAt(index), time, price));
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    // mapped pages reach the disk on the OS schedule, this bounds what a host crash can lose
+    @Scheduled(fixedDelayString = "${app.journal.force-interval:10000}")
+    public synchronized void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+
+    private JournalSegment segmentFor(Instant time) throws IOException {
+        LocalDate date = time.atZone(ZoneOffset.UTC).toLocalDate();
+        if (segment != null && date.equals(segmentDate) && !segment.isFull()) {
+            return segment;
+        }
+        if (segment == null || !date.equals(segmentDate)) {
+            close();
+            // continue the newest segment of the day after a restart
+            List<Path> existing = segmentsOf(date);
+            segmentDate = date;
+            segmentNumber = existing.size() > 0 ? existing.size() - 1 : 0;
+            segment = JournalSegment.open(segmentPath(date, segmentNumber), segmentRecords);
+        }
+        while (segment.isFull()) {
+            close();
+            segmentNumber++;
+            segment = JournalSegment.open(segmentPath(date, segmentNumber), segmentRecords);
+        }
+        return segment;
+    }
+
+    private Path segmentPath(LocalDate date, int number) {
+        return root.resolve(String.format("ticks-%s-%03d.journal", DAY.format(date), number));
+    }
+
+    private List<Path> segmentsOf(LocalDate date) {
+        String prefix = "ticks-" + DAY.format(date) + "-";
+        try (Stream<Path> files = Files.list(root)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .filter(path -> path.getFileName().toString().endsWith(".journal"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package kosukeroku.token_radar.service.journal;
+
+import jakarta.annotation.PreDestroy;
+import kosukeroku.token_radar.dto.TickReplayDto;
+import kosukeroku.token_radar.exception.InvalidReplayRequestException;
+import kosukeroku.token_radar.model.PriceAlert;
+import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.service.PriceAlertCheckerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Streams a time range of the tick journal back through the alert engine, one replay at a time on
+ * a background thread. speed is journal time per wall time (1 = as recorded, 60 = an hour per
+ * minute, 0 = as fast as possible). A dry run only evaluates the currently active alerts and
+ * counts which would fire; a live run goes through checkAndTriggerAlerts and really triggers them,
+ * so it is only allowed where app.journal.replay.live-enabled is set (load test environments).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TickReplayService {
+
+    private final TickJournal tickJournal;
+    private final PriceAlertRepository priceAlertRepository;
+    private final PriceAlertCheckerService alertCheckerService;
+
+    @Value("${app.journal.replay.live-enabled:false}")
+    private boolean liveEnabled;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tick-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TickReplayDto status;
+    private Future<?> running;
+
+    // empty when another replay is still running
+    public synchronized Optional<TickReplayDto> start(Instant from, Instant to, double speed, boolean dryRun) {
+        if (!tickJournal.isEnabled()) {
+            throw new InvalidReplayRequestException("Tick journal is disabled on this node");
+        }
+        if (!from.isBefore(to)) {
+            throw new InvalidReplayRequestException("from must be before to");
+        }
+        if (speed < 0) {
+            throw new InvalidReplayRequestException("speed must not be negative");
+        }
+        if (!dryRun && !liveEnabled) {
+            throw new InvalidReplayRequestException("Live replays are disabled, use dryRun=true");
+        }
+        if (running != null && !running.isDone()) {
+            return Optional.empty();
+        }
+
+        TickReplayDto replay = new TickReplayDto();
+        replay.setRunning(true);
+        replay.setDryRun(dryRun);
+        replay.setFrom(from);
+        replay.setTo(to);
+        replay.setSpeed(speed);
+        replay.setStartedAt(LocalDateTime.now());
+        status = replay;
+        running = executor.submit(() -> run(replay));
+        log.info("Started {} tick replay {} - {} at speed {}", dryRun ? "dry-run" : "live", from, to, speed);
+        return Optional.of(copy(replay));
+    }
+
+    public synchronized Optional<TickReplayDto> getStatus() {
+        return Optional.ofNullable(status).map(this::copy);
+    }
+
+    public synchronized boolean cancel() {
+        if (running == null || running.isDone()) {
+            return false;
+        }
+        status.setCancelled(true);
+        running.cancel(true);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(TickReplayDto replay) {
+        Map<String, List<PriceAlert>> alertsByCoin = new HashMap<>();
+        Set<Long> matched = new HashSet<>();
+        long wallStart = System.nanoTime();
+        long[] journalStart = {-1};
+
+        try {
+            tickJournal.read(replay.getFrom(), replay.getTo(), tick -> {
+                if (tick.coinId() == null) {
+                    return;
+                }
+                pace(replay.getSpeed(), wallStart, journalStart, tick.time().toEpochMilli());
+
+                long alerts;
+                if (replay.isDryRun()) {
+                    // active alerts are loaded once per coin, each alert counts the first tick that would fire it
+                    alerts = alertsByCoin.computeIfAbsent(tick.coinId(), priceAlertRepository::findActiveAlertsForCoin).stream()
+                            .filter(alert -> !matched.contains(alert.getId()))
+                            .filter(alert -> alertCheckerService.wouldTrigger(alert, tick.price()))
+                            .peek(alert -> matched.add(alert.getId()))
+                            .count();
+                } else {
+                    alerts = alertCheckerService.checkAndTriggerAlerts(tick.coinId(), tick.price()).size();
+                }
+                synchronized (this) {
+                    replay.setTicksReplayed(replay.getTicksReplayed() + 1);
+                    replay.setAlertsMatched(replay.getAlertsMatched() + alerts);
+                }
+            });
+        } catch (CancellationException e) {
+            log.info("Tick replay cancelled");
+        } catch (RuntimeException e) {
+            log.error("Tick replay failed: {}", e.getMessage());
+            synchronized (this) {
+                replay.setErrorMessage(e.getMessage());
+            }
+        } finally {
+            synchronized (this) {
+                replay.setRunning(false);
+                replay.setFinishedAt(LocalDateTime.now());
+            }
+            log.info("Tick replay finished: {} ticks, {} alerts", replay.getTicksReplayed(), replay.getAlertsMatched());
+        }
+    }
+
+    // keeps the journal's spacing between ticks divided by speed, checking for cancellation in between
+    private void pace(double speed, long wallStart, long[] journalStart, long tickMillis) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+        if (speed <= 0) {
+            return;
+        }
+        if (journalStart[0] < 0) {
+            journalStart[0] = tickMillis;
+        }
+        long due = wallStart + (long) ((tickMillis - journalStart[0]) / speed * TimeUnit.MILLISECONDS.toNanos(1));
+        long wait = due - System.nanoTime();
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    private TickReplayDto copy(TickReplayDto replay) {
+        TickReplayDto copy = new TickReplayDto();
+        copy.setRunning(replay.isRunning());
+        copy.setDryRun(replay.isDryRun());
+        copy.setFrom(replay.getFrom());
+        copy.setTo(replay.getTo());
+        copy.setSpeed(replay.getSpeed());
+        copy.setTicksReplayed(replay.getTicksReplayed());
+        copy.setAlertsMatched(replay.getAlertsMatched());
+        copy.setStartedAt(replay.getStartedAt());
+        copy.setFinishedAt(replay.getFinishedAt());
+        copy.setCancelled(replay.isCancelled());
+        copy.setErrorMessage(replay.getErrorMessage());
+        return copy;
+    }
+}
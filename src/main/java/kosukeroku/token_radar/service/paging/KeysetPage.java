@@ -0,0 +1,30 @@
+package kosukeroku.token_radar.service.paging;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+// one page of a keyset query, nextCursor is null on the last page
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 200;
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    // one row more than the page, its presence is what tells there is a next page
+    public static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    public static <E, T> KeysetPage<T> of(List<E> rows, int size, Function<E, KeysetCursor> key, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? key.apply(page.get(page.size() - 1)).encode() : null;
+        return new KeysetPage<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,90 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import kosukeroku.token_radar.model.Coin;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+ * Bounded in-memory history of which coins changed in each snapshot version (one version per
+ * sync batch). Answers "what changed after version N" as long as N is inside the window, older
+ * or unknown versions get the full active list instead.
+ */
+@Component
+@Slf4j
+public class CoinChangeHistory implements CoinSnapshotListener {
+
+    @Value("${app.coins.change-history-size:200}")
+    private int maxVersions;
+
+    private final Deque<VersionChanges> history = new ArrayDeque<>();
+    private CoinSnapshot latest = CoinSnapshot.empty();
+
+    @Override
+    public synchronized void beforePublish(CoinSnapshot snapshot) {
+        Set<String> changed = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+
+        for (Coin coin : snapshot.getActiveByRank()) {
+            Coin previous = latest.find(coin.getId()).orElse(null);
+            // price batches reuse the instances of untouched coins, so the equals check is rarely needed
+            if (previous == null || !previous.isActive() || (previous != coin && !previous.equals(coin))) {
+                changed.add(coin.getId());
+            }
+        }
+        for (Coin coin : latest.getActiveByRank()) {
+            if (snapshot.find(coin.getId()).filter(Coin::isActive).isEmpty()) {
+                removed.add(coin.getId());
+            }
+        }
+
+        history.addLast(new VersionChanges(latest.getVersion(), snapshot.getVersion(), changed, removed));
+        while (history.size() > maxVersions) {
+            history.removeFirst();
+        }
+        latest = snapshot;
+    }
+
+    public synchronized CoinChangeSet changesSince(long since) {
+        CoinSnapshot snapshot = latest;
+        // versions only grow, anything between the oldest retained base and now can be answered
+        if (since <= 0 || history.isEmpty() || since < history.peekFirst().previousVersion()
+                || since > snapshot.getVersion()) {
+            return new CoinChangeSet(snapshot, true, snapshot.getActiveByRank(), List.of());
+        }
+
+        Set<String> touched = new HashSet<>();
+        for (Iterator<VersionChanges> it = history.descendingIterator(); it.hasNext(); ) {
+            VersionChanges changes = it.next();
+            if (changes.version() <= since) {
+                break;
+            }
+            touched.addAll(changes.changed());
+            touched.addAll(changes.removed());
+        }
+
+        // the net effect relative to the client's version: present now means changed, otherwise removed
+        List<Coin> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (String coinId : touched) {
+            Optional<Coin> coin = snapshot.find(coinId).filter(Coin::isActive);
+            if (coin.isPresent()) {
+                changed.add(coin.get());
+            } else {
+                removed.add(coinId);
+            }
+        }
+        changed.sort(CoinSnapshot.BY_RANK);
+        Collections.sort(removed);
+        return new CoinChangeSet(snapshot, false, changed, removed);
+    }
+
+    // the snapshot the changes lead to, responses are rendered from it rather than from the holder
+    public record CoinChangeSet(CoinSnapshot snapshot, boolean full, List<Coin> changed, List<String> removed) {
+    }
+
+    private record VersionChanges(long previousVersion, long version, Set<String> changed, Set<String> removed) {
+    }
+}
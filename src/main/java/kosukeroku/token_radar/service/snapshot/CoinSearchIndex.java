@@ -0,0 +1,201 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import kosukeroku.token_radar.model.Coin;
+
+import java.util.*;
+
+/*
+ * Immutable search index over coin names and symbols, built once per full sync.
+ * Holds only ids and normalized strings; callers resolve ids against the current snapshot
+ * so results always carry the latest prices.
+ *
+ * Ranking: exact symbol, exact name, symbol prefix, name/word prefix, substring, then typo matches,
+ * ties broken by market cap rank.
+ */
+public final class CoinSearchIndex {
+
+    private static final int EXACT_SYMBOL = 0;
+    private static final int EXACT_NAME = 1;
+    private static final int SYMBOL_PREFIX = 2;
+    private static final int NAME_PREFIX = 3;
+    private static final int SUBSTRING = 4;
+    private static final int FUZZY = 5;
+
+    private static final int MIN_FUZZY_QUERY_LENGTH = 3;
+
+    private final String[] ids;
+    private final String[] symbols;
+    private final String[] names;
+    private final String[][] nameWords;
+    private final int[] ranks;
+
+    // sorted tokens (symbols, names, name words) with the coin each one points to, for prefix lookups
+    private final String[] tokens;
+    private final int[] tokenCoins;
+    private final boolean[] tokenIsSymbol;
+
+    private CoinSearchIndex(List<Coin> coins) {
+        int size = coins.size();
+        ids = new String[size];
+        symbols = new String[size];
+        names = new String[size];
+        nameWords = new String[size][];
+        ranks = new int[size];
+
+        List<Token> tokenList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Coin coin = coins.get(i);
+            ids[i] = coin.getId();
+            symbols[i] = normalize(coin.getSymbol());
+            names[i] = normalize(coin.getName());
+            nameWords[i] = Arrays.stream(names[i].split("[^\\p{L}\\p{N}]+"))
+                    .filter(word -> !word.isEmpty())
+                    .toArray(String[]::new);
+            ranks[i] = coin.getMarketCapRank() != null ? coin.getMarketCapRank() : Integer.MAX_VALUE;
+
+            tokenList.add(new Token(symbols[i], i, true));
+            tokenList.add(new Token(names[i], i, false));
+            for (String word : nameWords[i]) {
+                tokenList.add(new Token(word, i, false));
+            }
+        }
+
+        tokenList.sort(Comparator.comparing(Token::text));
+        tokens = new String[tokenList.size()];
+        tokenCoins = new int[tokenList.size()];
+        tokenIsSymbol = new boolean[tokenList.size()];
+        for (int i = 0; i < tokenList.size(); i++) {
+            tokens[i] = tokenList.get(i).text();
+            tokenCoins[i] = tokenList.get(i).coin();
+            tokenIsSymbol[i] = tokenList.get(i).symbol();
+        }
+    }
+
+    public static CoinSearchIndex build(Collection<Coin> coins) {
+        return new CoinSearchIndex(List.copyOf(coins));
+    }
+
+    public static CoinSearchIndex empty() {
+        return new CoinSearchIndex(List.of());
+    }
+
+    // returns up to limit coin ids, best match first
+    public List<String> search(String query, int limit, boolean fuzzy) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int[] scores = new int[ids.length];
+        Arrays.fill(scores, Integer.MAX_VALUE);
+        int matched = 0;
+
+        // exact and prefix matches via binary search over the sorted tokens
+        for (int t = lowerBound(q); t < tokens.length && tokens[t].startsWith(q); t++) {
+            int coin = tokenCoins[t];
+            boolean exact = tokens[t].length() == q.length();
+            int score = tokenIsSymbol[t]
+                    ? (exact ? EXACT_SYMBOL : SYMBOL_PREFIX)
+                    : (exact && tokens[t].equals(names[coin]) ? EXACT_NAME : NAME_PREFIX);
+            if (scores[coin] == Integer.MAX_VALUE) {
+                matched++;
+            }
+            scores[coin] = Math.min(scores[coin], score);
+        }
+
+        // substring and typo matches only rank below prefixes, skip them when prefixes already fill the page
+        if (matched < limit) {
+            for (int i = 0; i < ids.length; i++) {
+                if (scores[i] != Integer.MAX_VALUE) {
+                    continue;
+                }
+                if (names[i].contains(q) || symbols[i].contains(q)) {
+                    scores[i] = SUBSTRING;
+                } else if (fuzzy && q.length() >= MIN_FUZZY_QUERY_LENGTH && isTypoMatch(i, q)) {
+                    scores[i] = FUZZY;
+                }
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] != Integer.MAX_VALUE) {
+                candidates.add(i);
+            }
+        }
+        candidates.sort(Comparator.<Integer>comparingInt(i -> scores[i]).thenComparingInt(i -> ranks[i]));
+
+        return candidates.stream()
+                .limit(limit)
+                .map(i -> ids[i])
+                .toList();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private int lowerBound(String q) {
+        int low = 0;
+        int high = tokens.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[mid].compareTo(q) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isTypoMatch(int coin, String q) {
+        int maxDistance = q.length() >= 7 ? 2 : 1;
+        if (withinDistance(symbols[coin], q, maxDistance)) {
+            return true;
+        }
+        for (String word : nameWords[coin]) {
+            // comparing against the word's prefix too, so "etherium" still finds "ethereum" while typing
+            String candidate = word.length() > q.length() ? word.substring(0, q.length()) : word;
+            if (withinDistance(candidate, q, maxDistance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // bounded Levenshtein distance, gives up as soon as a row exceeds the bound
+    private static boolean withinDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Token(String text, int coin, boolean symbol) {
+    }
+}
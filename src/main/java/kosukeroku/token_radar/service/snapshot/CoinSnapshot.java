@@ -0,0 +1,102 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import kosukeroku.token_radar.model.Coin;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Immutable view of all coins, published as a whole by CoinSnapshotHolder.
+ * The coins are private copies, they must never be mutated or attached to a persistence context.
+ */
+public final class CoinSnapshot {
+
+    public static final Comparator<Coin> BY_RANK =
+            Comparator.comparing(Coin::getMarketCapRank, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final List<Coin> all;
+    private final List<Coin> activeByRank;
+    private final Map<String, Coin> byId;
+    private final CoinSearchIndex searchIndex;
+
+    private CoinSnapshot(long version, List<Coin> coins, CoinSearchIndex searchIndex) {
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.all = coins.stream()
+                .sorted(BY_RANK)
+                .toList();
+        this.activeByRank = all.stream()
+                .filter(Coin::isActive)
+                .toList();
+        this.byId = Collections.unmodifiableMap(all.stream()
+                .collect(Collectors.toMap(Coin::getId, Function.identity(), (first, second) -> first)));
+        this.searchIndex = searchIndex != null ? searchIndex : CoinSearchIndex.build(all);
+    }
+
+    public static CoinSnapshot build(long version, List<Coin> coins) {
+        return new CoinSnapshot(version, coins, null);
+    }
+
+    // reuses an existing search index, names and ranks only change with the full sync
+    public static CoinSnapshot build(long version, List<Coin> coins, CoinSearchIndex searchIndex) {
+        return new CoinSnapshot(version, coins, searchIndex);
+    }
+
+    public static CoinSnapshot empty() {
+        return new CoinSnapshot(0, List.of(), CoinSearchIndex.empty());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    // all coins including inactive ones, sorted by market cap rank
+    public List<Coin> getAll() {
+        return all;
+    }
+
+    public List<Coin> getActiveByRank() {
+        return activeByRank;
+    }
+
+    public Optional<Coin> find(String coinId) {
+        return Optional.ofNullable(byId.get(coinId));
+    }
+
+    // pages over active coins, always ordered by market cap rank
+    public Page<Coin> page(Pageable pageable) {
+        int total = activeByRank.size();
+        long offset = pageable.getOffset();
+        if (offset >= total) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        int to = (int) Math.min(total, offset + pageable.getPageSize());
+        return new PageImpl<>(activeByRank.subList((int) offset, to), pageable, total);
+    }
+
+    public List<Coin> search(String query, int limit, boolean fuzzy) {
+        return searchIndex.search(query, limit, fuzzy).stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public CoinSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public int size() {
+        return all.size();
+    }
+}
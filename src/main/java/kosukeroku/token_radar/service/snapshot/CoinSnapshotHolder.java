@@ -0,0 +1,126 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import kosukeroku.token_radar.mapper.CoinMapper;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.repository.CoinRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+// primary read model for coins: readers get the current snapshot lock-free, syncs publish a new one
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CoinSnapshotHolder {
+
+    private final CoinRepository coinRepository;
+    private final CoinMapper coinMapper;
+    private final List<CoinSnapshotListener> snapshotListeners;
+    private final CoinSnapshotStore coinSnapshotStore;
+    private final SnapshotVersions snapshotVersions;
+
+    private final AtomicReference<CoinSnapshot> current = new AtomicReference<>(CoinSnapshot.empty());
+
+    private volatile boolean restoredFromFile;
+
+    // a persisted snapshot is served right away, the database rebuild follows once the application is up
+    @PostConstruct
+    public void init() {
+        long start = System.nanoTime();
+        Optional<CoinSnapshotStore.Restored> restored = coinSnapshotStore.load();
+        if (restored.isEmpty()) {
+            rebuild();
+            return;
+        }
+        CoinSnapshotStore.Restored file = restored.get();
+        synchronized (this) {
+            // the saved version is kept, so ETags and cache keys from before the restart stay valid
+            publish(CoinSnapshot.build(file.version(), file.coins()), start);
+        }
+        restoredFromFile = true;
+        log.info("Restored coin snapshot v{} with {} coins saved at {} in {} ms",
+                file.version(), file.coins().size(), file.savedAt(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!restoredFromFile) {
+            return;
+        }
+        restoredFromFile = false;
+        // an empty database (fresh deployment) keeps the restored coins until the initial full sync rebuilds
+        if (coinRepository.count() == 0) {
+            log.info("Database has no coins yet, serving the restored snapshot until the first full sync");
+            return;
+        }
+        rebuild();
+        log.info("Restored coin snapshot reconciled with the database");
+    }
+
+    public CoinSnapshot current() {
+        return current.get();
+    }
+
+    // full rebuild from the database outside a sync run (startup), under a version of its own
+    public CoinSnapshot rebuild() {
+        return rebuild(null);
+    }
+
+    // full rebuild from the database (search index included), used at startup and after the daily full sync
+    public synchronized CoinSnapshot rebuild(String runKey) {
+        long start = System.nanoTime();
+
+        // copying so the snapshot never shares instances with a persistence context
+        List<Coin> coins = coinRepository.findAll().stream()
+                .map(coinMapper::copy)
+                .collect(Collectors.toList());
+
+        return publish(CoinSnapshot.build(nextVersion(runKey), coins), start);
+    }
+
+    // applies coins just written by a price sync batch without reading them back, keeping the search index
+    public synchronized CoinSnapshot update(Collection<Coin> changed, String runKey) {
+        long start = System.nanoTime();
+
+        Map<String, Coin> merged = new LinkedHashMap<>();
+        current.get().getAll().forEach(coin -> merged.put(coin.getId(), coin));
+        changed.forEach(coin -> merged.put(coin.getId(), coinMapper.copy(coin)));
+
+        CoinSnapshot previous = current.get();
+        return publish(CoinSnapshot.build(nextVersion(runKey), List.copyOf(merged.values()),
+                previous.getSearchIndex()), start);
+    }
+
+    // every node publishing the same sync batch gets the same version, see SnapshotVersions
+    private long nextVersion(String runKey) {
+        return snapshotVersions.next(runKey, current.get().getVersion());
+    }
+
+    // writers are serialized; derived data (cached and pre-rendered responses) is ready before readers can ask for it
+    private CoinSnapshot publish(CoinSnapshot snapshot, long start) {
+        for (CoinSnapshotListener listener : snapshotListeners) {
+            try {
+                listener.beforePublish(snapshot);
+            } catch (Exception e) {
+                log.warn("Snapshot listener {} failed for v{}: {}",
+                        listener.getClass().getSimpleName(), snapshot.getVersion(), e.getMessage());
+            }
+        }
+        current.set(snapshot);
+
+        log.debug("Published coin snapshot v{} with {} coins in {} ms",
+                snapshot.getVersion(), snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+}
@@ -0,0 +1,7 @@
+package kosukeroku.token_radar.service.snapshot;
+
+// called with every new snapshot before readers can see it, to prepare derived data for that version
+public interface CoinSnapshotListener {
+
+    void beforePublish(CoinSnapshot snapshot);
+}
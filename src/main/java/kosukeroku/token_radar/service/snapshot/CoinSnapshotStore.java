@@ -0,0 +1,197 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import jakarta.annotation.PreDestroy;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.cache.codec.CoinEntityCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/*
+ * Persists the latest published snapshot to a local file, periodically and on shutdown, so a
+ * restarted node can serve coins before it has read the database (see CoinSnapshotHolder.init).
+ * The file is a fixed header (magic, codec version, snapshot version, save time, payload length,
+ * CRC32) followed by the coins encoded by CoinEntityCodec. It is replaced atomically, a file that
+ * is torn, stale or from another codec version is ignored.
+ */
+@Component
+@Slf4j
+public class CoinSnapshotStore implements CoinSnapshotListener {
+
+    private static final int MAGIC = 0x54525331; // "TRS1"
+    private static final int HEADER_SIZE = 40;
+
+    @Value("${app.snapshot-file.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.snapshot-file.path:./data/coin-snapshot.bin}")
+    private String path;
+
+    // older files are not served, the database rebuild is close enough to them anyway
+    @Value("${app.snapshot-file.max-age:24h}")
+    private Duration maxAge;
+
+    private volatile CoinSnapshot latest;
+    private volatile long savedVersion = -1;
+
+    public record Restored(long version, Instant savedAt, List<Coin> coins) {
+    }
+
+    @Override
+    public void beforePublish(CoinSnapshot snapshot) {
+        latest = snapshot;
+    }
+
+    public Optional<Restored> load() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path file = Paths.get(path);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return rejected(file, "truncated header");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != CoinEntityCodec.VERSION) {
+                return rejected(file, "unknown format");
+            }
+            long version = buffer.getLong(8);
+            Instant savedAt = Instant.ofEpochMilli(buffer.getLong(16));
+            int length = buffer.getInt(24);
+            long checksum = buffer.getLong(32);
+            if (HEADER_SIZE + (long) length != channel.size()) {
+                return rejected(file, "truncated payload");
+            }
+            if (savedAt.isBefore(Instant.now().minus(maxAge))) {
+                return rejected(file, "saved at " + savedAt);
+            }
+
+            ByteBuffer payload = buffer.slice(HEADER_SIZE, length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                return rejected(file, "checksum mismatch");
+            }
+
+            // decoded straight from the mapped pages
+            List<Coin> coins = CoinEntityCodec.readCoins(new DataInputStream(stream(payload)));
+            savedVersion = version;
+            return Optional.of(new Restored(version, savedAt, coins));
+        } catch (IOException | RuntimeException e) {
+            return rejected(file, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshot-file.save-interval:60000}")
+    public void saveLatest() {
+        CoinSnapshot snapshot = latest;
+        if (!enabled || snapshot == null || snapshot.getVersion() == savedVersion || snapshot.size() == 0) {
+            return;
+        }
+        try {
+            save(snapshot);
+        } catch (IOException e) {
+            log.warn("Failed to save coin snapshot v{}: {}", snapshot.getVersion(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        saveLatest();
+    }
+
+    synchronized void save(CoinSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(snapshot.size() * 300);
+        DataOutputStream out = new DataOutputStream(bytes);
+        CoinEntityCodec.writeCoins(out, snapshot.getAll());
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(CoinEntityCodec.VERSION)
+                .putLong(snapshot.getVersion())
+                .putLong(System.currentTimeMillis())
+                .putInt(payload.length)
+                .putInt(0)
+                .putLong(crc.getValue())
+                .flip();
+
+        // written next to the target and moved over it, readers never see a partial file.
+        // saves are serialized, so every save reuses one temp name
+        Path file = Paths.get(path).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer body = ByteBuffer.wrap(payload);
+                // a gathering write may stop short, a truncated file would fail its CRC on the next start
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // a failed write or move leaves no temp file behind
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        savedVersion = snapshot.getVersion();
+        log.debug("Saved coin snapshot v{} ({} coins, {} bytes)", snapshot.getVersion(), snapshot.size(), payload.length);
+    }
+
+    private Optional<Restored> rejected(Path file, String reason) {
+        log.info("Ignoring coin snapshot file {}: {}", file, reason);
+        return Optional.empty();
+    }
+
+    private static InputStream stream(ByteBuffer buffer) {
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, buffer.remaining());
+                buffer.get(target, offset, count);
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kosukeroku.token_radar.service.cache.CoinResponseRenderer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Serializes the dashboard pages (for app.dashboard.prerender-page-sizes) and the full active list
+ * once per snapshot, as plain and gzip bytes. Requests for those views are answered by copying
+ * the bytes, without mapping or Jackson on the request path.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CoinViewPrerenderer implements CoinSnapshotListener {
+
+    private final CoinResponseRenderer coinResponseRenderer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.dashboard.prerender-page-sizes:20}")
+    private List<Integer> pageSizes;
+
+    private final AtomicReference<PrerenderedViews> current = new AtomicReference<>(PrerenderedViews.empty());
+
+    public PrerenderedViews current() {
+        return current.get();
+    }
+
+    @Override
+    public void beforePublish(CoinSnapshot snapshot) {
+        current.set(render(snapshot));
+    }
+
+    public PrerenderedViews render(CoinSnapshot snapshot) {
+        long start = System.nanoTime();
+        long version = snapshot.getVersion();
+        Map<String, PrerenderedView> views = new HashMap<>();
+
+        for (int size : pageSizes) {
+            int totalPages = Math.max(1, (snapshot.getActiveByRank().size() + size - 1) / size);
+            for (int page = 0; page < totalPages; page++) {
+                views.put(PrerenderedViews.pageKey(page, size), view(
+                        coinResponseRenderer.page(snapshot, page, size), "v" + version + "-p" + page + "-" + size));
+            }
+        }
+        views.put(PrerenderedViews.allKey(), view(
+                coinResponseRenderer.all(snapshot), "v" + version + "-all"));
+
+        PrerenderedViews rendered = new PrerenderedViews(version, views);
+        log.debug("Pre-rendered {} coin views ({} KB) for snapshot v{} in {} ms",
+                rendered.size(), rendered.totalBytes() / 1024, version, (System.nanoTime() - start) / 1_000_000);
+        return rendered;
+    }
+
+    private PrerenderedView view(Object body, String tag) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new PrerenderedView(json, gzip(json), "\"" + tag + "\"", "\"" + tag + "-gz\"");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
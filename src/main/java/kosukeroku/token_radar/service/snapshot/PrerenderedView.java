@@ -0,0 +1,18 @@
+package kosukeroku.token_radar.service.snapshot;
+
+// one response body rendered ahead of time, plain and gzip-compressed, with its strong etags
+public record PrerenderedView(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
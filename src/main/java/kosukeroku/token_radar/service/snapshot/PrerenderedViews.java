@@ -0,0 +1,52 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import java.util.Map;
+import java.util.Optional;
+
+// all pre-rendered coin responses of one snapshot version
+public final class PrerenderedViews {
+
+    private static final String ALL = "all";
+
+    private final long version;
+    private final Map<String, PrerenderedView> views;
+
+    PrerenderedViews(long version, Map<String, PrerenderedView> views) {
+        this.version = version;
+        this.views = Map.copyOf(views);
+    }
+
+    public static PrerenderedViews empty() {
+        return new PrerenderedViews(0, Map.of());
+    }
+
+    static String pageKey(int page, int size) {
+        return page + ":" + size;
+    }
+
+    static String allKey() {
+        return ALL;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Optional<PrerenderedView> page(int page, int size) {
+        return Optional.ofNullable(views.get(pageKey(page, size)));
+    }
+
+    public Optional<PrerenderedView> all() {
+        return Optional.ofNullable(views.get(ALL));
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    public long totalBytes() {
+        return views.values().stream()
+                .mapToLong(view -> view.json().length + view.gzip().length)
+                .sum();
+    }
+}
@@ -0,0 +1,81 @@
+package kosukeroku.token_radar.service.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+ * Snapshot versions shared by every node. Each sync batch is identified by a run key (sync type,
+ * scheduled slot and batch index, see SyncRunTracker) and the first node to publish it allocates the
+ * next value of a redis counter for it; the other nodes get the same value for the same key. Nodes
+ * that applied the same batch therefore share coin cache entries and answer /api/coins/changes for
+ * each other's versions.
+ *
+ * The counter never goes below the caller's current version, so versions stay monotonic on every
+ * node (including the timestamp versions of snapshot files written before this counter existed).
+ * Without redis the node falls back to node-local timestamp versions.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SnapshotVersions {
+
+    private static final String COUNTER_KEY = "token-radar:{snapshot}:version";
+    private static final String RUN_KEY_PREFIX = "token-radar:{snapshot}:run:";
+
+    // KEYS[1] counter, KEYS[2] run key or none; ARGV[1] floor, ARGV[2] run key ttl in seconds
+    private static final RedisScript<Long> ALLOCATE = new DefaultRedisScript<>("""
+            if KEYS[2] then
+                local existing = redis.call('GET', KEYS[2])
+                if existing then return tonumber(existing) end
+            end
+            local version = redis.call('INCR', KEYS[1])
+            local floor = tonumber(ARGV[1])
+            if version <= floor then
+                version = floor + 1
+                redis.call('SET', KEYS[1], version)
+            end
+            if KEYS[2] then redis.call('SET', KEYS[2], version, 'EX', ARGV[2]) end
+            return version""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.snapshot.shared-versions.enabled:true}")
+    private boolean enabled;
+
+    // long enough for the slowest node to publish the same batch
+    @Value("${app.snapshot.shared-versions.run-key-ttl:1d}")
+    private Duration runKeyTtl;
+
+    // the version of the batch identified by runKey, a fresh one when runKey is null (rebuilds outside a sync run)
+    public long next(String runKey, long current) {
+        if (enabled) {
+            try {
+                List<String> keys = runKey != null ? List.of(COUNTER_KEY, RUN_KEY_PREFIX + runKey) : List.of(COUNTER_KEY);
+                Long version = redisTemplate.execute(ALLOCATE, keys,
+                        String.valueOf(current), String.valueOf(runKeyTtl.toSeconds()));
+                if (version != null && version > current) {
+                    return version;
+                }
+                // this node already published past the batch (local fallback meanwhile), it stays monotonic
+                log.debug("Shared snapshot version {} for {} is not above v{}, using a local one", version, runKey, current);
+            } catch (DataAccessException e) {
+                log.warn("Failed to allocate a shared snapshot version for {}: {}", runKey, e.getMessage());
+            }
+        }
+        return local(current);
+    }
+
+    // publish timestamps, bumped if the clock did not move
+    private static long local(long current) {
+        return Math.max(current + 1, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,35 @@
+package kosukeroku.token_radar.service.sparkline;
+
+// per-request sparkline rendering: omitted, full, or downsampled to maxPoints (0 = all points)
+public record SparklineOptions(boolean include, int maxPoints) {
+
+    public static final SparklineOptions FULL = new SparklineOptions(true, 0);
+
+    private static final int MAX_POINTS_LIMIT = 1000;
+
+    public static SparklineOptions of(boolean include, int maxPoints) {
+        if (!include) {
+            return new SparklineOptions(false, 0);
+        }
+        return new SparklineOptions(true, Math.max(0, Math.min(maxPoints, MAX_POINTS_LIMIT)));
+    }
+
+    public boolean isFull() {
+        return include && maxPoints == 0;
+    }
+
+    public String render(byte[] packed) {
+        if (!include || packed == null) {
+            return null;
+        }
+        return Sparklines.toJson(Sparklines.downsample(Sparklines.unpack(packed), maxPoints));
+    }
+
+    // appended to response cache keys, empty for the default so those keys stay unchanged
+    public String cacheKeySuffix() {
+        if (isFull()) {
+            return "";
+        }
+        return include ? ":s" + maxPoints : ":s-";
+    }
+}
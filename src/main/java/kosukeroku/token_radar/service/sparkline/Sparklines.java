@@ -0,0 +1,148 @@
+package kosukeroku.token_radar.service.sparkline;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/*
+ * Sparklines are stored and cached as packed float32 values (4 bytes per point, ~170 points for
+ * 7 days of hourly prices) and only turned into the JSON array text the frontend expects when a
+ * response is rendered. Missing points are NaN and rendered as null.
+ */
+public final class Sparklines {
+
+    private static final float[] EMPTY = new float[0];
+
+    private Sparklines() {
+    }
+
+    public static byte[] pack(List<Double> prices) {
+        ByteBuffer buffer = ByteBuffer.allocate(prices.size() * Float.BYTES);
+        for (Double price : prices) {
+            buffer.putFloat(price != null ? price.floatValue() : Float.NaN);
+        }
+        return buffer.array();
+    }
+
+    public static byte[] pack(float[] points) {
+        ByteBuffer buffer = ByteBuffer.allocate(points.length * Float.BYTES);
+        for (float point : points) {
+            buffer.putFloat(point);
+        }
+        return buffer.array();
+    }
+
+    public static float[] unpack(byte[] packed) {
+        if (packed == null || packed.length == 0) {
+            return EMPTY;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        float[] points = new float[packed.length / Float.BYTES];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = buffer.getFloat();
+        }
+        return points;
+    }
+
+    // null when there is no sparkline, like the previous nullable text column
+    public static String toJson(byte[] packed) {
+        return packed == null ? null : toJson(unpack(packed));
+    }
+
+    public static String toJson(float[] points) {
+        StringBuilder json = new StringBuilder(points.length * 10 + 2).append('[');
+        for (int i = 0; i < points.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            if (Float.isNaN(points[i])) {
+                json.append("null");
+            } else {
+                json.append(points[i]);
+            }
+        }
+        return json.append(']').toString();
+    }
+
+    // null when the text is not a JSON array of numbers
+    public static float[] parse(String json) {
+        String trimmed = json.trim();
+        if (trimmed.length() < 2 || trimmed.charAt(0) != '[' || trimmed.charAt(trimmed.length() - 1) != ']') {
+            return null;
+        }
+        String body = trimmed.substring(1, trimmed.length() - 1).trim();
+        if (body.isEmpty()) {
+            return EMPTY;
+        }
+        String[] parts = body.split(",");
+        float[] points = new float[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i].trim();
+                points[i] = part.equals("null") ? Float.NaN : (float) Double.parseDouble(part);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return points;
+    }
+
+    /*
+     * Largest-Triangle-Three-Buckets downsampling to at most threshold points. Keeps the first and
+     * last point and, per bucket, the point forming the largest triangle with its neighbours, so
+     * peaks and dips survive where plain every-nth sampling would drop them.
+     */
+    public static float[] downsample(float[] data, int threshold) {
+        if (threshold <= 0 || threshold >= data.length) {
+            return data;
+        }
+        if (threshold <= 2) {
+            return new float[]{data[0], data[data.length - 1]};
+        }
+
+        float[] sampled = new float[threshold];
+        int sampledIndex = 0;
+        double every = (double) (data.length - 2) / (threshold - 2);
+        int selected = 0;
+        sampled[sampledIndex++] = data[selected];
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // average point of the next bucket is the third corner of the triangle
+            int averageStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int averageEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, data.length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = averageStart; i < averageEnd; i++) {
+                averageX += i;
+                averageY += value(data[i]);
+            }
+            int averageLength = averageEnd - averageStart;
+            averageX /= averageLength;
+            averageY /= averageLength;
+
+            int rangeStart = (int) Math.floor(bucket * every) + 1;
+            int rangeEnd = (int) Math.floor((bucket + 1) * every) + 1;
+            double selectedY = value(data[selected]);
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((selected - averageX) * (value(data[i]) - selectedY)
+                        - (selected - i) * (averageY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+
+            sampled[sampledIndex++] = data[next];
+            selected = next;
+        }
+
+        sampled[sampledIndex] = data[data.length - 1];
+        return sampled;
+    }
+
+    // gaps count as zero-height for the triangle areas only
+    private static double value(float point) {
+        return Float.isNaN(point) ? 0 : point;
+    }
+}
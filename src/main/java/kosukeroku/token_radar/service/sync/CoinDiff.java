@@ -0,0 +1,93 @@
+package kosukeroku.token_radar.service.sync;
+
+import kosukeroku.token_radar.model.Coin;
+import lombok.Getter;
+
+import java.util.*;
+
+// difference between the coins table and a freshly fetched top list
+@Getter
+public class CoinDiff {
+
+    private final List<Coin> added = new ArrayList<>();
+    private final List<Coin> reactivated = new ArrayList<>();
+    private final List<Coin> deactivated = new ArrayList<>();
+    private final List<Coin> rankChanged = new ArrayList<>();
+    private final List<Coin> metadataChanged = new ArrayList<>();
+    private int unchanged;
+
+    // existing coins are compared field by field, incoming coins are not modified
+    public static CoinDiff compute(Map<String, Coin> existing, List<Coin> incoming, boolean detectRemoved) {
+        CoinDiff diff = new CoinDiff();
+        Set<String> incomingIds = new HashSet<>();
+
+        for (Coin fresh : incoming) {
+            // pages can overlap when ranks shift between requests
+            if (!incomingIds.add(fresh.getId())) {
+                continue;
+            }
+            Coin current = existing.get(fresh.getId());
+
+            if (current == null) {
+                diff.added.add(fresh);
+                continue;
+            }
+
+            boolean changed = false;
+            if (!current.isActive()) {
+                diff.reactivated.add(fresh);
+                changed = true;
+            }
+            if (!Objects.equals(current.getMarketCapRank(), fresh.getMarketCapRank())) {
+                diff.rankChanged.add(fresh);
+                changed = true;
+            }
+            if (isMetadataChanged(current, fresh)) {
+                diff.metadataChanged.add(fresh);
+                changed = true;
+            }
+            if (!changed) {
+                diff.unchanged++;
+            }
+        }
+
+        if (!detectRemoved) {
+            return diff;
+        }
+
+        existing.values().stream()
+                .filter(Coin::isActive)
+                .filter(coin -> !incomingIds.contains(coin.getId()))
+                .forEach(diff.deactivated::add);
+
+        return diff;
+    }
+
+    private static boolean isMetadataChanged(Coin current, Coin fresh) {
+        return !Objects.equals(current.getName(), fresh.getName())
+                || !Objects.equals(current.getSymbol(), fresh.getSymbol())
+                || !Objects.equals(current.getImageUrl(), fresh.getImageUrl());
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && reactivated.isEmpty() && deactivated.isEmpty()
+                && rankChanged.isEmpty() && metadataChanged.isEmpty();
+    }
+
+    // ids of every coin whose row is written by this diff
+    public Set<String> getAffectedIds() {
+        Set<String> ids = new HashSet<>();
+        added.forEach(coin -> ids.add(coin.getId()));
+        reactivated.forEach(coin -> ids.add(coin.getId()));
+        deactivated.forEach(coin -> ids.add(coin.getId()));
+        rankChanged.forEach(coin -> ids.add(coin.getId()));
+        metadataChanged.forEach(coin -> ids.add(coin.getId()));
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d added, %d reactivated, %d deactivated, %d rank changes, %d metadata changes, %d unchanged",
+                added.size(), reactivated.size(), deactivated.size(), rankChanged.size(), metadataChanged.size(), unchanged);
+    }
+}
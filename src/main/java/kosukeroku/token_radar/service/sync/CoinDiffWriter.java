@@ -0,0 +1,59 @@
+package kosukeroku.token_radar.service.sync;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.repository.CoinRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CoinDiffWriter {
+
+    private final CoinRepository coinRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*
+     * Applies a full top-list sync as a diff against the coins table. Existing rows are loaded once
+     * and stay managed, so only rows that actually changed are flushed (as JDBC batches) on commit.
+     * Prices of existing coins are left to the price sync. Coins missing from an incomplete
+     * top list are kept active.
+     */
+    @Transactional
+    public CoinDiff apply(List<Coin> incoming, boolean deactivateMissing) {
+        Map<String, Coin> existing = coinRepository.findAll().stream()
+                .collect(Collectors.toMap(Coin::getId, Function.identity()));
+
+        CoinDiff diff = CoinDiff.compute(existing, incoming, deactivateMissing);
+
+        // new coins are persisted directly, saveAll would merge them with a SELECT per entity
+        diff.getAdded().forEach(entityManager::persist);
+
+        diff.getReactivated().forEach(fresh -> existing.get(fresh.getId()).setActive(true));
+
+        diff.getDeactivated().forEach(current -> current.setActive(false));
+
+        diff.getRankChanged().forEach(fresh -> existing.get(fresh.getId()).setMarketCapRank(fresh.getMarketCapRank()));
+
+        diff.getMetadataChanged().forEach(fresh -> {
+            Coin current = existing.get(fresh.getId());
+            current.setName(fresh.getName());
+            current.setSymbol(fresh.getSymbol());
+            current.setImageUrl(fresh.getImageUrl());
+        });
+
+        log.info("Full sync diff applied: {}", diff);
+        return diff;
+    }
+}
@@ -0,0 +1,75 @@
+package kosukeroku.token_radar.service.sync;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/*
+ * Elects one node per scheduled sync run. Runs start at the same wall clock times on every node, the
+ * first node to claim the run key in redis (SET NX) leads it: it fetches from coingecko, writes the
+ * rows and triggers alerts, then marks each batch as published. The other nodes follow the run, they
+ * wait for each published batch and read it from the database (SyncRunCoordinator only keeps runs
+ * from overlapping within one node).
+ *
+ * Without redis every node leads its own runs, which is how a single node runs anyway.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SyncLeadership {
+
+    private static final String LEADER_KEY_PREFIX = "token-radar:{sync}:leader:";
+    private static final String PUBLISHED_KEY_PREFIX = "token-radar:{sync}:published:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // only used to tell in redis which node leads a run
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.sync.leader-election.enabled:true}")
+    private boolean enabled;
+
+    // a run is over (or stale) after this long, so is its leadership
+    @Value("${app.sync.max-run-duration:30m}")
+    private Duration leaseTtl;
+
+    public boolean tryLead(String runKey) {
+        if (!enabled) {
+            return true;
+        }
+        try {
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(LEADER_KEY_PREFIX + runKey, nodeId, leaseTtl);
+            return Boolean.TRUE.equals(claimed);
+        } catch (DataAccessException e) {
+            log.warn("Failed to elect a leader for sync run {}, running it here: {}", runKey, e.getMessage());
+            return true;
+        }
+    }
+
+    public void published(String batchKey) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(PUBLISHED_KEY_PREFIX + batchKey, nodeId, leaseTtl);
+        } catch (DataAccessException e) {
+            // followers give up waiting for the batch and keep their snapshot
+            log.warn("Failed to mark sync batch {} as published: {}", batchKey, e.getMessage());
+        }
+    }
+
+    public boolean isPublished(String batchKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(PUBLISHED_KEY_PREFIX + batchKey));
+        } catch (DataAccessException e) {
+            log.debug("Failed to look up sync batch {}: {}", batchKey, e.getMessage());
+            return false;
+        }
+    }
+}
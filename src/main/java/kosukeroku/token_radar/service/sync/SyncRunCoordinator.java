@@ -0,0 +1,112 @@
+package kosukeroku.token_radar.service.sync;
+
+import kosukeroku.token_radar.model.SyncRun;
+import kosukeroku.token_radar.model.enums.SyncRunStatus;
+import kosukeroku.token_radar.model.enums.SyncType;
+import kosukeroku.token_radar.repository.SyncRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SyncRunCoordinator {
+
+    private static final int MAX_HISTORY_LIMIT = 500;
+
+    private final SyncRunRepository syncRunRepository;
+
+    // at most one in-flight run per sync type
+    private final Map<SyncType, SyncRunTracker> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.sync.max-run-duration:30m}")
+    private Duration maxRunDuration;
+
+    // returns empty if a run of the same type is still in flight, the skipped run is recorded in history
+    public Optional<SyncRunTracker> tryStart(SyncType type) {
+        SyncRunTracker tracker = new SyncRunTracker(type);
+        SyncRunTracker running = inFlight.putIfAbsent(type, tracker);
+
+        if (running == null) {
+            log.debug("Started {} sync run", type);
+            return Optional.of(tracker);
+        }
+
+        // a run that never signalled completion must not block the schedule forever
+        if (running.elapsedMillis() > maxRunDuration.toMillis()
+                && inFlight.replace(type, running, tracker)) {
+            log.warn("Previous {} sync run exceeded {} and is considered stale, starting a new one", type, maxRunDuration);
+            save(running, SyncRunStatus.FAILED, "Run exceeded max duration of " + maxRunDuration);
+            return Optional.of(tracker);
+        }
+
+        log.warn("Previous {} sync run is still in flight ({} ms), skipping this run", type, running.elapsedMillis());
+        save(tracker, SyncRunStatus.SKIPPED, "Previous run still in flight");
+        return Optional.empty();
+    }
+
+    public void complete(SyncRunTracker tracker) {
+        finish(tracker, SyncRunStatus.COMPLETED, null);
+    }
+
+    public void fail(SyncRunTracker tracker, Throwable error) {
+        finish(tracker, SyncRunStatus.FAILED, error.getMessage());
+    }
+
+    public boolean isRunning(SyncType type) {
+        return inFlight.containsKey(type);
+    }
+
+    public List<SyncRun> getHistory(SyncType type, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT)));
+        return type == null
+                ? syncRunRepository.findAllByOrderByStartedAtDesc(page)
+                : syncRunRepository.findByTypeOrderByStartedAtDesc(type, page);
+    }
+
+    private void finish(SyncRunTracker tracker, SyncRunStatus status, String errorMessage) {
+        // the run may have been replaced as stale in the meantime, only the owner releases the slot
+        if (!inFlight.remove(tracker.getType(), tracker)) {
+            log.warn("Finished {} sync run was no longer registered as in flight", tracker.getType());
+        }
+        SyncRun run = save(tracker, status, errorMessage);
+        log.info("{} sync run {} in {} ms: {} batches, {} coins updated, {} alerts triggered, {} upstream errors",
+                tracker.getType(), status, run.getDurationMs(), run.getBatches(), run.getCoinsUpdated(),
+                run.getAlertsTriggered(), run.getUpstreamErrors());
+    }
+
+    private SyncRun save(SyncRunTracker tracker, SyncRunStatus status, String errorMessage) {
+        SyncRun run = new SyncRun();
+        run.setType(tracker.getType());
+        run.setStatus(status);
+        run.setStartedAt(tracker.getStartedAt());
+        run.setFinishedAt(LocalDateTime.now());
+        run.setDurationMs(tracker.elapsedMillis());
+        run.setBatches(tracker.getBatches().get());
+        run.setCoinsUpdated(tracker.getCoinsUpdated().get());
+        run.setAlertsTriggered(tracker.getAlertsTriggered().get());
+        run.setUpstreamErrors(tracker.getUpstreamErrors().get());
+        run.setFetchMs(tracker.stageMillis(SyncStage.FETCH));
+        run.setPersistMs(tracker.stageMillis(SyncStage.PERSIST));
+        run.setAlertCheckMs(tracker.stageMillis(SyncStage.ALERT_CHECK));
+        run.setErrorMessage(errorMessage);
+
+        try {
+            return syncRunRepository.save(run);
+        } catch (Exception e) {
+            // history is diagnostics only, it must never break the sync itself
+            log.warn("Failed to persist {} sync run history: {}", tracker.getType(), e.getMessage());
+            return run;
+        }
+    }
+}
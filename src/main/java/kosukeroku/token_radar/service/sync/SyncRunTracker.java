@@ -0,0 +1,96 @@
+package kosukeroku.token_radar.service.sync;
+
+import kosukeroku.token_radar.model.enums.SyncType;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// collects counters of one in-flight sync run, batches may report from different threads
+@Getter
+public class SyncRunTracker {
+
+    private final SyncType type;
+    private final LocalDateTime startedAt;
+    private final long startedNanos;
+
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger coinsUpdated = new AtomicInteger();
+    private final AtomicInteger alertsTriggered = new AtomicInteger();
+    private final AtomicInteger upstreamErrors = new AtomicInteger();
+    private final Map<SyncStage, AtomicLong> stageNanos = new EnumMap<>(SyncStage.class);
+
+    public SyncRunTracker(SyncType type) {
+        this.type = type;
+        this.startedAt = LocalDateTime.now();
+        this.startedNanos = System.nanoTime();
+        for (SyncStage stage : SyncStage.values()) {
+            stageNanos.put(stage, new AtomicLong());
+        }
+    }
+
+    /*
+     * Identifies this run across nodes: runs are scheduled by cron on every node, so runs of the same
+     * type started within the same minute are the same scheduled run.
+     */
+    public String runKey() {
+        return type + ":" + startedAt.truncatedTo(ChronoUnit.MINUTES).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    // identifies one batch of this run across nodes
+    public String batchKey(long batch) {
+        return runKey() + ":" + batch;
+    }
+
+    public void recordBatch() {
+        batches.incrementAndGet();
+    }
+
+    public void recordCoinsUpdated(int count) {
+        coinsUpdated.addAndGet(count);
+    }
+
+    public void recordAlertsTriggered(int count) {
+        alertsTriggered.addAndGet(count);
+    }
+
+    public void recordUpstreamError() {
+        upstreamErrors.incrementAndGet();
+    }
+
+    public void recordStage(SyncStage stage, long nanos) {
+        stageNanos.get(stage).addAndGet(nanos);
+    }
+
+    public <T> T time(SyncStage stage, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void time(SyncStage stage, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    public long stageMillis(SyncStage stage) {
+        return stageNanos.get(stage).get() / 1_000_000;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
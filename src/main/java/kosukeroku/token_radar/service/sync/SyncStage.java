@@ -0,0 +1,7 @@
+package kosukeroku.token_radar.service.sync;
+
+public enum SyncStage {
+    FETCH,
+    PERSIST,
+    ALERT_CHECK
+}
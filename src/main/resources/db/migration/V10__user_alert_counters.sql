@@ -0,0 +1,19 @@
+-- per-user alert counts kept in step with every alert state change, so stats and the unread badge are
+-- a primary key read instead of a scan of the user's alerts. Totals are the sum of the three counts.
+-- A nightly job recounts from price_alerts and corrects any drift (app.alert-counters.reconcile.*)
+CREATE TABLE user_alert_counters (
+    user_id bigint PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    active_count bigint NOT NULL DEFAULT 0,
+    triggered_count bigint NOT NULL DEFAULT 0,
+    read_count bigint NOT NULL DEFAULT 0,
+    updated_at timestamp(6) NOT NULL DEFAULT now()
+);
+
+INSERT INTO user_alert_counters (user_id, active_count, triggered_count, read_count)
+SELECT u.id,
+       count(pa.id) FILTER (WHERE pa.status = 'ACTIVE'),
+       count(pa.id) FILTER (WHERE pa.status = 'TRIGGERED'),
+       count(pa.id) FILTER (WHERE pa.status = 'READ')
+FROM users u
+LEFT JOIN price_alerts pa ON pa.user_id = u.id
+GROUP BY u.id;
@@ -0,0 +1,38 @@
+-- ath/atl values and dates and the circulating supply change with most price ticks, they move to
+-- coin_prices so a tick never rewrites the coins row. The sparkline gets a narrow table of its own:
+-- it changes about once an hour and would otherwise be the widest column of the price row.
+-- Values are copied in the same migration, no coin is left without them.
+ALTER TABLE coin_prices
+    ADD COLUMN ath numeric(30, 12),
+    ADD COLUMN ath_date timestamp(6),
+    ADD COLUMN atl numeric(30, 12),
+    ADD COLUMN atl_date timestamp(6),
+    ADD COLUMN circulating_supply numeric(30, 2);
+
+INSERT INTO coin_prices (coin_id, ath, ath_date, atl, atl_date, circulating_supply)
+SELECT id, ath, ath_date, atl, atl_date, circulating_supply
+FROM coins
+WHERE ath IS NOT NULL OR ath_date IS NOT NULL OR atl IS NOT NULL OR atl_date IS NOT NULL
+   OR circulating_supply IS NOT NULL
+ON CONFLICT (coin_id) DO UPDATE
+    SET ath = EXCLUDED.ath,
+        ath_date = EXCLUDED.ath_date,
+        atl = EXCLUDED.atl,
+        atl_date = EXCLUDED.atl_date,
+        circulating_supply = EXCLUDED.circulating_supply;
+
+CREATE TABLE coin_sparklines (
+    coin_id varchar(255) PRIMARY KEY REFERENCES coins (id) ON DELETE CASCADE,
+    sparkline bytea
+);
+
+INSERT INTO coin_sparklines (coin_id, sparkline)
+SELECT id, sparkline FROM coins WHERE sparkline IS NOT NULL;
+
+ALTER TABLE coins
+    DROP COLUMN sparkline,
+    DROP COLUMN ath,
+    DROP COLUMN ath_date,
+    DROP COLUMN atl,
+    DROP COLUMN atl_date,
+    DROP COLUMN circulating_supply;
@@ -0,0 +1,6 @@
+-- archived notifications are paged by (triggered_at, id) like the live ones, the id breaks ties on the page boundary
+CREATE INDEX idx_alert_archive_user_triggered_id ON price_alerts_archive (user_id, triggered_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_alert_archive_user_triggered;
+
+-- unread alerts are archived as read from now on, the ones archived before could never be marked read
+UPDATE price_alerts_archive SET status = 'READ' WHERE status = 'TRIGGERED';
@@ -0,0 +1,64 @@
+-- schema as previously created by hibernate ddl-auto=update, existing databases are baselined at this version
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username varchar(255) UNIQUE,
+    email varchar(255) UNIQUE,
+    password varchar(255),
+    created_at timestamp(6)
+);
+
+CREATE TABLE coins (
+    id varchar(255) PRIMARY KEY,
+    symbol varchar(255),
+    name varchar(255),
+    active boolean NOT NULL,
+    last_updated timestamp(6),
+    image_url varchar(255),
+    market_cap_rank integer,
+    current_price numeric(30, 12),
+    price_change24h float(53),
+    price_change_percentage24h float(53),
+    market_cap numeric(30, 2),
+    total_volume numeric(30, 2),
+    price_change_percentage1h float(53),
+    price_change_percentage7d float(53),
+    price_change_percentage30d float(53),
+    sparkline_data text,
+    high24h numeric(30, 12),
+    low24h numeric(30, 12),
+    ath numeric(30, 12),
+    ath_change_percentage float(53),
+    ath_date timestamp(6),
+    atl numeric(30, 12),
+    atl_change_percentage float(53),
+    atl_date timestamp(6),
+    circulating_supply numeric(30, 2)
+);
+
+CREATE TABLE tracked_currencies (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint REFERENCES users (id),
+    coin_id varchar(255) REFERENCES coins (id),
+    added_at timestamp(6)
+);
+
+CREATE TABLE price_alerts (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id),
+    coin_id varchar(255) NOT NULL REFERENCES coins (id),
+    type varchar(20) NOT NULL,
+    status varchar(20) NOT NULL,
+    threshold_value numeric(30, 12) NOT NULL,
+    initial_price numeric(30, 12),
+    last_checked_price numeric(30, 12),
+    triggered_at timestamp(6),
+    triggered_price numeric(30, 12),
+    notification_message varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX idx_alert_user_coin ON price_alerts (user_id, coin_id);
+CREATE INDEX idx_alert_status ON price_alerts (status);
+CREATE INDEX idx_alert_user_status ON price_alerts (user_id, status);
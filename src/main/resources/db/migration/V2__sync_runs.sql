@@ -0,0 +1,19 @@
+-- one row per finished or skipped sync run, for the admin sync history
+CREATE TABLE sync_runs (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type varchar(20) NOT NULL,
+    status varchar(20) NOT NULL,
+    started_at timestamp(6) NOT NULL,
+    finished_at timestamp(6),
+    duration_ms bigint,
+    batches integer NOT NULL,
+    coins_updated integer NOT NULL,
+    alerts_triggered integer NOT NULL,
+    upstream_errors integer NOT NULL,
+    fetch_ms bigint NOT NULL,
+    persist_ms bigint NOT NULL,
+    alert_check_ms bigint NOT NULL,
+    error_message varchar(255)
+);
+
+CREATE INDEX idx_sync_run_type_started ON sync_runs (type, started_at);
@@ -0,0 +1,4 @@
+-- sparklines are stored packed (Sparklines.pack) instead of as JSON text. The JSON is not converted,
+-- the next price sync fills the packed column for every coin
+ALTER TABLE coins ADD COLUMN sparkline bytea;
+ALTER TABLE coins DROP COLUMN sparkline_data;
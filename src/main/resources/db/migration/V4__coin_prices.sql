@@ -0,0 +1,41 @@
+-- the columns every price sync rewrites move to a narrow table of their own, with free space on each
+-- page for HOT updates; the coins row is only written by the daily full sync. Prices are copied over
+CREATE TABLE coin_prices (
+    coin_id varchar(255) PRIMARY KEY REFERENCES coins (id) ON DELETE CASCADE,
+    last_updated timestamp(6),
+    current_price numeric(30, 12),
+    price_change24h float(53),
+    price_change_percentage24h float(53),
+    market_cap numeric(30, 2),
+    total_volume numeric(30, 2),
+    price_change_percentage1h float(53),
+    price_change_percentage7d float(53),
+    price_change_percentage30d float(53),
+    high24h numeric(30, 12),
+    low24h numeric(30, 12),
+    ath_change_percentage float(53),
+    atl_change_percentage float(53)
+) WITH (fillfactor = 70);
+
+INSERT INTO coin_prices (coin_id, last_updated, current_price, price_change24h, price_change_percentage24h,
+                         market_cap, total_volume, price_change_percentage1h, price_change_percentage7d,
+                         price_change_percentage30d, high24h, low24h, ath_change_percentage, atl_change_percentage)
+SELECT id, last_updated, current_price, price_change24h, price_change_percentage24h,
+       market_cap, total_volume, price_change_percentage1h, price_change_percentage7d,
+       price_change_percentage30d, high24h, low24h, ath_change_percentage, atl_change_percentage
+FROM coins;
+
+ALTER TABLE coins
+    DROP COLUMN last_updated,
+    DROP COLUMN current_price,
+    DROP COLUMN price_change24h,
+    DROP COLUMN price_change_percentage24h,
+    DROP COLUMN market_cap,
+    DROP COLUMN total_volume,
+    DROP COLUMN price_change_percentage1h,
+    DROP COLUMN price_change_percentage7d,
+    DROP COLUMN price_change_percentage30d,
+    DROP COLUMN high24h,
+    DROP COLUMN low24h,
+    DROP COLUMN ath_change_percentage,
+    DROP COLUMN atl_change_percentage;
@@ -0,0 +1,28 @@
+-- parents only, PriceHistoryMaintenance creates and drops the time range partitions
+
+CREATE TABLE IF NOT EXISTS price_ticks (
+    coin_id varchar(255) NOT NULL,
+    ts timestamptz NOT NULL,
+    price numeric(30, 12) NOT NULL,
+    volume numeric(30, 2)
+) PARTITION BY RANGE (ts);
+
+-- ticks arrive in time order, a BRIN index covers the rollup range scans at almost no size
+CREATE INDEX IF NOT EXISTS idx_price_ticks_ts ON price_ticks USING brin (ts);
+
+CREATE TABLE IF NOT EXISTS price_candles (
+    coin_id varchar(255) NOT NULL,
+    resolution varchar(2) NOT NULL,
+    bucket timestamptz NOT NULL,
+    open numeric(30, 12) NOT NULL,
+    high numeric(30, 12) NOT NULL,
+    low numeric(30, 12) NOT NULL,
+    close numeric(30, 12) NOT NULL,
+    volume numeric(30, 2),
+    tick_count integer NOT NULL,
+    PRIMARY KEY (coin_id, resolution, bucket)
+) PARTITION BY LIST (resolution);
+
+CREATE TABLE IF NOT EXISTS price_candles_1m PARTITION OF price_candles FOR VALUES IN ('1m') PARTITION BY RANGE (bucket);
+CREATE TABLE IF NOT EXISTS price_candles_1h PARTITION OF price_candles FOR VALUES IN ('1h') PARTITION BY RANGE (bucket);
+CREATE TABLE IF NOT EXISTS price_candles_1d PARTITION OF price_candles FOR VALUES IN ('1d') PARTITION BY RANGE (bucket);
@@ -0,0 +1,22 @@
+-- indexes for the hot queries, each one is checked against its query plan in QueryIndexPlanTest
+
+-- PriceAlertRepository.findActiveAlertsForCoin, run for every coin of every price sync batch.
+-- only ACTIVE rows are indexed, triggered and read alerts pile up but never enter it
+CREATE INDEX IF NOT EXISTS idx_alert_active_coin ON price_alerts (coin_id) WHERE status = 'ACTIVE';
+
+-- notifications of a user by status, newest triggered first; also serves the unread count and mark-as-read
+CREATE INDEX IF NOT EXISTS idx_alert_user_status_triggered ON price_alerts (user_id, status, triggered_at DESC);
+-- prefix of the index above
+DROP INDEX IF EXISTS idx_alert_user_status;
+
+-- duplicate check on alert creation, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_alert_user_coin_type ON price_alerts (user_id, coin_id) INCLUDE (type, status);
+DROP INDEX IF EXISTS idx_alert_user_coin;
+
+-- existsByUserIdAndCoinId / findByUserIdAndCoinId, and a coin can only be tracked once per user
+DELETE FROM tracked_currencies duplicate
+USING tracked_currencies kept
+WHERE duplicate.user_id = kept.user_id
+  AND duplicate.coin_id = kept.coin_id
+  AND duplicate.id > kept.id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_tracked_user_coin ON tracked_currencies (user_id, coin_id);
@@ -0,0 +1,11 @@
+-- alerts and tracked currencies take ids from pooled sequences (allocationSize 50 in the entities),
+-- identity ids made hibernate insert rows one by one to read each generated key back
+ALTER TABLE price_alerts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tracked_currencies ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE price_alerts_seq INCREMENT BY 50;
+CREATE SEQUENCE tracked_currencies_seq INCREMENT BY 50;
+
+-- the pooled optimizer hands out (value - 49 .. value), so the first value is the current max id + 50
+SELECT setval('price_alerts_seq', COALESCE(MAX(id), 0) + 50, false) FROM price_alerts;
+SELECT setval('tracked_currencies_seq', COALESCE(MAX(id), 0) + 50, false) FROM tracked_currencies;
@@ -0,0 +1,23 @@
+-- TRIGGERED / READ alerts past app.alert-archive.after are moved here in batches, so price_alerts keeps
+-- little more than the active set. Range partitioned by month of triggered_at (created by the archive
+-- job as needed), old months are dropped whole once past app.alert-archive.retention
+CREATE TABLE price_alerts_archive (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    coin_id varchar(255) NOT NULL,
+    type varchar(20) NOT NULL,
+    status varchar(20) NOT NULL,
+    threshold_value numeric(30, 12) NOT NULL,
+    initial_price numeric(30, 12),
+    last_checked_price numeric(30, 12),
+    triggered_at timestamp(6) NOT NULL,
+    triggered_price numeric(30, 12),
+    notification_message varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    archived_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id, triggered_at)
+) PARTITION BY RANGE (triggered_at);
+
+-- older notifications of one user, newest first
+CREATE INDEX idx_alert_archive_user_triggered ON price_alerts_archive (user_id, triggered_at DESC);
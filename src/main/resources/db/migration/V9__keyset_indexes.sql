@@ -0,0 +1,14 @@
+-- keyset pages read these indexes in order and stop after one page, no sort and no OFFSET scan
+
+-- alerts by status, newest first; also covers the triggered count that used idx_alert_user_status_triggered
+CREATE INDEX idx_alert_user_status_created ON price_alerts (user_id, status, created_at DESC, id DESC);
+
+-- notifications span two statuses, one partial index keeps them in a single order
+CREATE INDEX idx_alert_user_notifications ON price_alerts (user_id, triggered_at DESC, id DESC)
+    WHERE status IN ('TRIGGERED', 'READ');
+
+DROP INDEX IF EXISTS idx_alert_user_status_triggered;
+
+UPDATE tracked_currencies SET added_at = now() WHERE added_at IS NULL;
+ALTER TABLE tracked_currencies ALTER COLUMN added_at SET NOT NULL;
+CREATE INDEX idx_tracked_user_added ON tracked_currencies (user_id, added_at, id);
@@ -0,0 +1,166 @@
+package kosukeroku.token_radar.archive;
+
+import kosukeroku.token_radar.dto.PriceAlertResponseDto;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.repository.PartitionRepository;
+import kosukeroku.token_radar.repository.PriceAlertArchiveRepository;
+import kosukeroku.token_radar.service.archive.AlertArchiveService;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import kosukeroku.token_radar.service.paging.KeysetPage;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertArchiveServiceTest {
+
+    @Mock
+    private PriceAlertArchiveRepository priceAlertArchiveRepository;
+
+    @Mock
+    private PartitionRepository partitionRepository;
+
+    @Mock
+    private CoinSnapshotHolder coinSnapshotHolder;
+
+    @InjectMocks
+    private AlertArchiveService alertArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(alertArchiveService, "enabled", true);
+        ReflectionTestUtils.setField(alertArchiveService, "archiveAfter", Duration.ofDays(30));
+        ReflectionTestUtils.setField(alertArchiveService, "batchSize", 100);
+        ReflectionTestUtils.setField(alertArchiveService, "retention", Duration.ZERO);
+    }
+
+    @Test
+    void archive_ShouldCreateMonthPartitionsAndMoveBatchesUntilShort() {
+        // given
+        LocalDateTime oldest = LocalDateTime.now().minusDays(30).minusMonths(2);
+        when(priceAlertArchiveRepository.findOldestArchivable(any(LocalDateTime.class))).thenReturn(oldest);
+        when(priceAlertArchiveRepository.archiveBatch(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 7);
+
+        // when
+        alertArchiveService.archive();
+
+        // then
+        verify(priceAlertArchiveRepository, times(3)).archiveBatch(any(LocalDateTime.class), eq(100));
+        verify(partitionRepository).createPartition(AlertArchiveService.ARCHIVE, oldest.toLocalDate().withDayOfMonth(1));
+        verify(partitionRepository, times(3)).createPartition(eq(AlertArchiveService.ARCHIVE), any(LocalDate.class));
+        verify(partitionRepository, never()).findPartitions(any());
+    }
+
+    @Test
+    void archive_ShouldDoNothing_WhenNothingIsOldEnough() {
+        // given
+        when(priceAlertArchiveRepository.findOldestArchivable(any(LocalDateTime.class))).thenReturn(null);
+
+        // when
+        alertArchiveService.archive();
+
+        // then
+        verify(priceAlertArchiveRepository, never()).archiveBatch(any(LocalDateTime.class), anyInt());
+        verifyNoInteractions(partitionRepository);
+    }
+
+    @Test
+    void archive_ShouldDropOnlyPartitionsPastRetention() {
+        // given
+        ReflectionTestUtils.setField(alertArchiveService, "retention", Duration.ofDays(365));
+        LocalDate expired = LocalDate.now().minusYears(2).withDayOfMonth(1);
+        LocalDate kept = LocalDate.now().minusMonths(2).withDayOfMonth(1);
+        when(priceAlertArchiveRepository.findOldestArchivable(any(LocalDateTime.class))).thenReturn(LocalDateTime.now().minusDays(31));
+        when(priceAlertArchiveRepository.archiveBatch(any(LocalDateTime.class), eq(100))).thenReturn(1);
+        when(partitionRepository.findPartitions(AlertArchiveService.ARCHIVE)).thenReturn(List.of(
+                AlertArchiveService.ARCHIVE.name(expired), AlertArchiveService.ARCHIVE.name(kept)));
+
+        // when
+        alertArchiveService.archive();
+
+        // then
+        verify(partitionRepository).dropPartition(AlertArchiveService.ARCHIVE.name(expired));
+        verify(partitionRepository, never()).dropPartition(AlertArchiveService.ARCHIVE.name(kept));
+    }
+
+    @Test
+    void archive_ShouldDoNothing_WhenDisabled() {
+        // given
+        ReflectionTestUtils.setField(alertArchiveService, "enabled", false);
+
+        // when
+        alertArchiveService.archive();
+
+        // then
+        verifyNoInteractions(priceAlertArchiveRepository, partitionRepository);
+    }
+
+    @Test
+    void getArchivedNotifications_ShouldFillCoinFromSnapshotAndCapSize() {
+        // given
+        Coin bitcoin = new Coin();
+        bitcoin.setId("bitcoin");
+        bitcoin.setName("Bitcoin");
+        bitcoin.setSymbol("btc");
+        bitcoin.setCurrentPrice(BigDecimal.valueOf(50000));
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of(bitcoin)));
+        when(priceAlertArchiveRepository.findByUser(1L, KeysetPage.MAX_SIZE + 1))
+                .thenReturn(List.of(archived(5L, LocalDateTime.now().minusDays(40))));
+
+        // when
+        KeysetPage<PriceAlertResponseDto> result = alertArchiveService.getArchivedNotifications(1L, null, 10_000);
+
+        // then
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).getCoinName()).isEqualTo("Bitcoin");
+        assertThat(result.items().get(0).getCurrentPrice()).isEqualByComparingTo("50000");
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getArchivedNotifications_ShouldContinueAfterCursorOnTheSameTimestamp() {
+        // given alerts 7 and 6 triggered in the same instant, a page boundary falls between them
+        LocalDateTime triggeredAt = LocalDateTime.now().minusDays(40);
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of()));
+        when(priceAlertArchiveRepository.findByUser(1L, 2)).thenReturn(List.of(
+                archived(7L, triggeredAt), archived(6L, triggeredAt)));
+        when(priceAlertArchiveRepository.findByUserAfter(1L, triggeredAt, 7L, 2)).thenReturn(List.of(
+                archived(6L, triggeredAt)));
+
+        // when
+        KeysetPage<PriceAlertResponseDto> first = alertArchiveService.getArchivedNotifications(1L, null, 1);
+        KeysetPage<PriceAlertResponseDto> second = alertArchiveService.getArchivedNotifications(1L, first.nextCursor(), 1);
+
+        // then
+        assertThat(first.items()).extracting(PriceAlertResponseDto::getId).containsExactly(7L);
+        assertThat(KeysetCursor.decode(first.nextCursor())).isEqualTo(new KeysetCursor(triggeredAt, 7L));
+        assertThat(second.items()).extracting(PriceAlertResponseDto::getId).containsExactly(6L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    private PriceAlertResponseDto archived(Long id, LocalDateTime triggeredAt) {
+        PriceAlertResponseDto archived = new PriceAlertResponseDto();
+        archived.setId(id);
+        archived.setCoinId("bitcoin");
+        archived.setTriggeredAt(triggeredAt);
+        return archived;
+    }
+}
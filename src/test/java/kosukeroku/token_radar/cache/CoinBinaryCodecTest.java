@@ -0,0 +1,122 @@
+package kosukeroku.token_radar.cache;
+
+import kosukeroku.token_radar.dto.CoinPageDto;
+import kosukeroku.token_radar.dto.CoinResponseDto;
+import kosukeroku.token_radar.service.cache.codec.CacheValueCodec;
+import kosukeroku.token_radar.service.cache.codec.CodecRedisSerializer;
+import kosukeroku.token_radar.service.cache.codec.CoinBinaryCodec;
+import kosukeroku.token_radar.service.sparkline.Sparklines;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoinBinaryCodecTest {
+
+    private final CodecRedisSerializer serializer = new CodecRedisSerializer(new CoinBinaryCodec());
+
+    @Test
+    void serialize_ShouldRoundTripCoin() {
+        // given
+        CoinResponseDto coin = coin();
+
+        // when
+        Object decoded = serializer.deserialize(serializer.serialize(coin));
+
+        // then
+        assertThat(decoded).isEqualTo(coin);
+    }
+
+    @Test
+    void serialize_ShouldRoundTripPageAndList() {
+        // given
+        CoinPageDto page = new CoinPageDto(List.of(coin()), 3, 41, 20, 1, 1, false, false, false);
+        List<CoinResponseDto> list = List.of(coin(), new CoinResponseDto());
+
+        // then
+        assertThat(serializer.deserialize(serializer.serialize(page))).isEqualTo(page);
+        assertThat(serializer.deserialize(serializer.serialize(list))).isEqualTo(list);
+    }
+
+    @Test
+    void serialize_ShouldPackSparklineAsFloats() {
+        // given - 168 hourly points, the size of a 7 day sparkline
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 168; i++) {
+            json.append(i > 0 ? "," : "").append(67123.45678901 + i);
+        }
+        CoinResponseDto coin = new CoinResponseDto();
+        coin.setSparklineData(json.append("]").toString());
+
+        // when
+        byte[] bytes = serializer.serialize(coin);
+        CoinResponseDto decoded = (CoinResponseDto) serializer.deserialize(bytes);
+
+        // then
+        assertThat(bytes.length).isLessThan(168 * 4 + 16);
+        assertThat(bytes.length * 3).isLessThan(coin.getSparklineData().getBytes(StandardCharsets.UTF_8).length);
+        float[] points = Sparklines.parse(decoded.getSparklineData());
+        assertThat(points).hasSize(168);
+        assertThat((double) points[0]).isCloseTo(67123.45678901, within(0.01));
+    }
+
+    @Test
+    void deserialize_ShouldTreatOtherCodecVersionAsMiss() {
+        // given
+        CodecRedisSerializer newer = new CodecRedisSerializer(new CacheValueCodec() {
+            @Override
+            public int version() {
+                return CoinBinaryCodec.VERSION + 1;
+            }
+
+            @Override
+            public byte[] encode(Object value) {
+                return new byte[]{1};
+            }
+
+            @Override
+            public Object decode(byte[] bytes) {
+                return "unexpected";
+            }
+        });
+
+        // when
+        Object decoded = serializer.deserialize(newer.serialize(coin()));
+
+        // then
+        assertThat(decoded).isNull();
+        assertThat(serializer.getStats().getRejected()).isEqualTo(1);
+    }
+
+    private CoinResponseDto coin() {
+        CoinResponseDto coin = new CoinResponseDto();
+        coin.setId("bitcoin");
+        coin.setSymbol("btc");
+        coin.setName("Bitcoin");
+        coin.setImageUrl("https://example.com/btc.png");
+        coin.setCurrentPrice(new BigDecimal("100000.123456789012"));
+        coin.setLastUpdated(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6000));
+        coin.setPriceChange24h(-1234.5);
+        coin.setPriceChangePercentage24h(-1.2);
+        coin.setMarketCapRank(1);
+        coin.setMarketCap(new BigDecimal("1987654321098765432109876.5"));
+        coin.setTotalVolume(new BigDecimal("45000000000"));
+        coin.setPriceChangePercentage1h(0.1);
+        coin.setPriceChangePercentage7d(5.0);
+        coin.setSparklineData("[1.5,2.25,3.0]");
+        coin.setHigh24h(new BigDecimal("101000"));
+        coin.setLow24h(new BigDecimal("99000"));
+        coin.setAth(new BigDecimal("109000"));
+        coin.setAthChangePercentage(-8.3);
+        coin.setAthDate(LocalDateTime.of(2024, 12, 17, 15, 0));
+        coin.setAtl(new BigDecimal("67.81"));
+        coin.setAtlChangePercentage(147000.0);
+        coin.setCirculatingSupply(new BigDecimal("19800000"));
+        return coin;
+    }
+}
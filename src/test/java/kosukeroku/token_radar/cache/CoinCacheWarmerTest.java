@@ -0,0 +1,110 @@
+package kosukeroku.token_radar.cache;
+
+import kosukeroku.token_radar.dto.CoinPageDto;
+import kosukeroku.token_radar.dto.CoinResponseDto;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.cache.CoinCacheKeys;
+import kosukeroku.token_radar.service.cache.CoinCacheWarmer;
+import kosukeroku.token_radar.service.cache.CoinResponseRenderer;
+import kosukeroku.token_radar.service.cache.TwoLevelCacheManager;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoinCacheWarmerTest {
+
+    @Mock
+    private ObjectProvider<TwoLevelCacheManager> cacheManagerProvider;
+
+    @Mock
+    private TwoLevelCacheManager cacheManager;
+
+    @Mock
+    private CoinResponseRenderer coinResponseRenderer;
+
+    @InjectMocks
+    private CoinCacheWarmer coinCacheWarmer;
+
+    private CoinSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coinCacheWarmer, "pageSizes", List.of(20));
+        ReflectionTestUtils.setField(coinCacheWarmer, "maxSearchQueries", 1);
+
+        Coin bitcoin = new Coin();
+        bitcoin.setId("bitcoin");
+        bitcoin.setName("Bitcoin");
+        bitcoin.setSymbol("btc");
+        bitcoin.setMarketCapRank(1);
+        bitcoin.setActive(true);
+        snapshot = CoinSnapshot.build(42, List.of(bitcoin));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warm_ShouldWriteEntriesUnderNewVersionInOneBatch() {
+        // given
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(coinResponseRenderer.coin(any())).thenReturn(new CoinResponseDto());
+        when(coinResponseRenderer.page(eq(snapshot), anyInt(), anyInt())).thenReturn(new CoinPageDto());
+        when(coinResponseRenderer.search(eq(snapshot), anyString(), anyInt(), anyBoolean())).thenReturn(List.of());
+        coinCacheWarmer.recordSearch(" BTC ", 50, false);
+
+        // when
+        coinCacheWarmer.warm(snapshot);
+
+        // then
+        ArgumentCaptor<Map<String, Map<String, Object>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(cacheManager).putAll(captor.capture());
+        Map<String, Map<String, Object>> entries = captor.getValue();
+        assertThat(entries.get(CoinCacheKeys.COINS)).containsOnlyKeys("v42:bitcoin");
+        assertThat(entries.get(CoinCacheKeys.COIN_PAGES)).containsOnlyKeys("v42:0:20");
+        assertThat(entries.get(CoinCacheKeys.COIN_SEARCH)).containsOnlyKeys("v42:btc:50:false");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordSearch_ShouldKeepOnlyMostRecentQueries() {
+        // given
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(coinResponseRenderer.search(eq(snapshot), anyString(), anyInt(), anyBoolean())).thenReturn(List.of());
+        coinCacheWarmer.recordSearch("btc", 50, false);
+        coinCacheWarmer.recordSearch("eth", 50, false);
+
+        // when
+        coinCacheWarmer.warm(snapshot);
+
+        // then
+        ArgumentCaptor<Map<String, Map<String, Object>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(cacheManager).putAll(captor.capture());
+        assertThat(captor.getValue().get(CoinCacheKeys.COIN_SEARCH)).containsOnlyKeys("v42:eth:50:false");
+    }
+
+    @Test
+    void warm_ShouldDoNothing_WhenRedisCachingDisabled() {
+        // given
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(null);
+
+        // when
+        coinCacheWarmer.warm(snapshot);
+
+        // then
+        verifyNoInteractions(coinResponseRenderer);
+    }
+}
@@ -0,0 +1,83 @@
+package kosukeroku.token_radar.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import kosukeroku.token_radar.dto.EntityCacheStatsDto;
+import kosukeroku.token_radar.service.cache.EntityCacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntityCacheStatsTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @InjectMocks
+    private EntityCacheStats entityCacheStats;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+    }
+
+    @Test
+    void getStats_ShouldReportEveryRegionInNameOrder() {
+        // given
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"users", "coins"});
+        CacheRegionStatistics coins = region(90, 10, 12, 300);
+        CacheRegionStatistics users = region(0, 0, 0, 0);
+        when(statistics.getDomainDataRegionStatistics("coins")).thenReturn(coins);
+        when(statistics.getDomainDataRegionStatistics("users")).thenReturn(users);
+
+        // when
+        List<EntityCacheStatsDto> stats = entityCacheStats.getStats();
+
+        // then
+        assertThat(stats).extracting(EntityCacheStatsDto::getRegion).containsExactly("coins", "users");
+        assertThat(stats.get(0).getHitRate()).isEqualTo(0.9);
+        assertThat(stats.get(0).getSize()).isEqualTo(300L);
+        assertThat(stats.get(1).getHitRate()).isZero();
+    }
+
+    @Test
+    void getStats_ShouldBeEmpty_WhenStatisticsDisabled() {
+        // given
+        when(statistics.isStatisticsEnabled()).thenReturn(false);
+
+        // when
+        List<EntityCacheStatsDto> stats = entityCacheStats.getStats();
+
+        // then
+        assertThat(stats).isEmpty();
+        verify(statistics, never()).getSecondLevelCacheRegionNames();
+    }
+
+    private CacheRegionStatistics region(long hits, long misses, long puts, long size) {
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(hits);
+        when(region.getMissCount()).thenReturn(misses);
+        when(region.getPutCount()).thenReturn(puts);
+        when(region.getElementCountInMemory()).thenReturn(size);
+        return region;
+    }
+}
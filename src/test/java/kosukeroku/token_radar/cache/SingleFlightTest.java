@@ -0,0 +1,139 @@
+package kosukeroku.token_radar.cache;
+
+import kosukeroku.token_radar.exception.UserNotFoundException;
+import kosukeroku.token_radar.service.cache.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "timeout", Duration.ofSeconds(5));
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldShareInFlightLoad_WhenKeysMatch() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("profile:1", () -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "profile";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when
+        Future<String> follower = executor.submit(() -> singleFlight.execute("profile:1", () -> {
+            calls.incrementAndGet();
+            return "second";
+        }));
+        waitUntilCollapsed();
+        release.countDown();
+
+        // then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("profile");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("profile");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.getStats().getCollapsedRequests()).isEqualTo(1);
+        assertThat(singleFlight.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void execute_ShouldPropagateLeaderException_ToFollowers() throws Exception {
+        // given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("profile:1", () -> {
+            loading.countDown();
+            await(release);
+            throw new UserNotFoundException(1L);
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when
+        Future<Object> follower = executor.submit(() -> singleFlight.execute("profile:1", () -> "unused"));
+        waitUntilCollapsed();
+        release.countDown();
+
+        // then
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void execute_ShouldLoadDirectly_WhenLeaderTimesOut() throws Exception {
+        // given
+        ReflectionTestUtils.setField(singleFlight, "timeout", Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> singleFlight.execute("stats:1", () -> {
+            loading.countDown();
+            await(release);
+            return "slow";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when
+        String result = singleFlight.execute("stats:1", () -> "fast");
+        release.countDown();
+
+        // then
+        assertThat(result).isEqualTo("fast");
+        assertThat(singleFlight.getStats().getTimeouts()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_ShouldNotKeepResults_AfterLoadFinishes() {
+        // when
+        singleFlight.execute("unread-count:1", () -> 1L);
+        Long second = singleFlight.execute("unread-count:1", () -> 2L);
+
+        // then
+        assertThat(second).isEqualTo(2L);
+        assertThat(singleFlight.getStats().getLoads()).isEqualTo(2);
+        assertThat(singleFlight.getStats().getCollapsedRequests()).isZero();
+    }
+
+    private void waitUntilCollapsed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getStats().getCollapsedRequests() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
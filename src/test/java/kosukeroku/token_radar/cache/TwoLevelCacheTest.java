@@ -0,0 +1,108 @@
+package kosukeroku.token_radar.cache;
+
+import kosukeroku.token_radar.dto.CacheStatsDto;
+import kosukeroku.token_radar.service.cache.TwoLevelCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache redis;
+    private List<String> published;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // a map-backed cache stands in for the redis level
+        redis = new ConcurrentMapCache("coins");
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("coins", redis, 100, Duration.ofMinutes(1),
+                (name, key) -> published.add(name + ":" + key));
+    }
+
+    @Test
+    void get_ShouldPromoteRedisHitToLocal() {
+        // given
+        redis.put("bitcoin", "btc");
+
+        // when
+        Object first = cache.get("bitcoin").get();
+        redis.evict("bitcoin");
+        Object second = cache.get("bitcoin").get();
+
+        // then - the second read is served locally
+        assertThat(first).isEqualTo("btc");
+        assertThat(second).isEqualTo("btc");
+        CacheStatsDto stats = cache.getStats();
+        assertThat(stats.getRedis().getHits()).isEqualTo(1);
+        assertThat(stats.getLocal().getHits()).isEqualTo(1);
+        assertThat(stats.getLocal().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldCountMissOnBothLevels_WhenKeyAbsent() {
+        // when
+        assertThat(cache.get("missing")).isNull();
+
+        // then
+        CacheStatsDto stats = cache.getStats();
+        assertThat(stats.getLocal().getMisses()).isEqualTo(1);
+        assertThat(stats.getRedis().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void put_ShouldWriteBothLevelsAndPublishInvalidation() {
+        // when
+        cache.put("bitcoin", "btc");
+
+        // then
+        assertThat(redis.get("bitcoin").get()).isEqualTo("btc");
+        assertThat(cache.getStats().getLocalSize()).isEqualTo(1);
+        assertThat(published).containsExactly("coins:bitcoin");
+    }
+
+    @Test
+    void putImmutable_ShouldWriteBothLevelsWithoutPublishing() {
+        // when
+        cache.putImmutable("v42:bitcoin", "btc");
+
+        // then
+        assertThat(redis.get("v42:bitcoin").get()).isEqualTo("btc");
+        assertThat(cache.getStats().getLocalSize()).isEqualTo(1);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void invalidateLocal_ShouldKeepRedisEntry() {
+        // given
+        cache.put("bitcoin", "btc");
+
+        // when
+        cache.invalidateLocal("bitcoin");
+
+        // then - next read falls through to redis
+        assertThat(cache.get("bitcoin").get()).isEqualTo("btc");
+        assertThat(cache.getStats().getRedis().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void clear_ShouldEmptyBothLevelsAndPublishClear() {
+        // given
+        cache.put("bitcoin", "btc");
+        published.clear();
+
+        // when
+        cache.clear();
+
+        // then
+        assertThat(cache.get("bitcoin")).isNull();
+        assertThat(published).containsExactly("coins:null");
+    }
+}
@@ -2,6 +2,8 @@ package kosukeroku.token_radar.controller;
 
 import kosukeroku.token_radar.model.Coin;
 import kosukeroku.token_radar.repository.CoinRepository;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
+import kosukeroku.token_radar.service.sparkline.Sparklines;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,10 +11,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -34,6 +38,9 @@ class CoinControllerIntegrationTest {
     @Autowired
     private CoinRepository coinRepository;
 
+    @Autowired
+    private CoinSnapshotHolder coinSnapshotHolder;
+
     @MockBean
     private KafkaTemplate<String, Object> kafkaTemplate;
 
@@ -46,6 +53,7 @@ class CoinControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         coinRepository.deleteAll();
+        coinSnapshotHolder.rebuild();
     }
 
     @Test
@@ -55,7 +63,7 @@ class CoinControllerIntegrationTest {
         Coin ethereum = createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000"));
         Coin cardano = createCoin("cardano", "Cardano", "ada", 3, new BigDecimal("1.5"));
 
-        coinRepository.saveAll(List.of(bitcoin, ethereum, cardano));
+        saveCoins(bitcoin, ethereum, cardano);
 
         // then
         mockMvc.perform(get("/api/coins/dashboard")
@@ -77,7 +85,7 @@ class CoinControllerIntegrationTest {
         Coin bitcoin = createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000"));
         Coin ethereum = createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000"));
 
-        coinRepository.saveAll(List.of(bitcoin, ethereum));
+        saveCoins(bitcoin, ethereum);
 
         // then
         mockMvc.perform(get("/api/coins/dashboard"))
@@ -106,7 +114,7 @@ class CoinControllerIntegrationTest {
         Coin inactiveCoin = createCoin("inactive", "Inactive Coin", "inc", 100, new BigDecimal("1"));
         inactiveCoin.setActive(false);
 
-        coinRepository.saveAll(List.of(activeCoin, inactiveCoin));
+        saveCoins(activeCoin, inactiveCoin);
 
         // then
         mockMvc.perform(get("/api/coins/dashboard"))
@@ -123,7 +131,7 @@ class CoinControllerIntegrationTest {
         Coin firstCoin = createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000"));
         Coin secondCoin = createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000"));
 
-        coinRepository.saveAll(List.of(thirdCoin, firstCoin, secondCoin));
+        saveCoins(thirdCoin, firstCoin, secondCoin);
 
         // then
         mockMvc.perform(get("/api/coins/dashboard"))
@@ -138,7 +146,7 @@ class CoinControllerIntegrationTest {
     void getDashboard_ShouldHandleLargePageNumbersGracefully() throws Exception {
         // given
         Coin bitcoin = createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000"));
-        coinRepository.save(bitcoin);
+        saveCoins(bitcoin);
 
         // then - requesting page that doesn't exist should return empty content
         mockMvc.perform(get("/api/coins/dashboard")
@@ -149,6 +157,159 @@ class CoinControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalPages", is(1))); // only one page exists
     }
 
+    @Test
+    void getDashboard_ShouldReturnNotModified_WhenEtagMatches() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")));
+
+        MvcResult first = mockMvc.perform(get("/api/coins/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.content[0].id", is("bitcoin")))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // then
+        mockMvc.perform(get("/api/coins/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getDashboard_ShouldChangeEtag_WhenSnapshotChanges() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")));
+        String etag = mockMvc.perform(get("/api/coins/dashboard"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        saveCoins(createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000")));
+
+        // then
+        mockMvc.perform(get("/api/coins/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void getDashboard_ShouldReturnGzipBody_WhenAccepted() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")));
+
+        // then
+        mockMvc.perform(get("/api/coins/dashboard").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gz\"")));
+    }
+
+    @Test
+    void getAllCoins_ShouldReturnActiveCoinsByRank() throws Exception {
+        // given
+        Coin inactive = createCoin("inactive", "Inactive Coin", "inc", 3, new BigDecimal("1"));
+        inactive.setActive(false);
+        saveCoins(createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000")),
+                createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")),
+                inactive);
+
+        // then
+        mockMvc.perform(get("/api/coins/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("bitcoin")))
+                .andExpect(jsonPath("$[1].id", is("ethereum")));
+    }
+
+    @Test
+    void getChanges_ShouldReturnOnlyCoinsChangedSinceVersion() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")));
+        long version = coinSnapshotHolder.current().getVersion();
+
+        // when
+        saveCoins(createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000")));
+
+        // then
+        mockMvc.perform(get("/api/coins/changes").param("since", String.valueOf(version)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full", is(false)))
+                .andExpect(jsonPath("$.version", is(coinSnapshotHolder.current().getVersion())))
+                .andExpect(jsonPath("$.coins", hasSize(1)))
+                .andExpect(jsonPath("$.coins[0].id", is("ethereum")));
+    }
+
+    @Test
+    void getChanges_ShouldReturnFullList_WhenNoVersionGiven() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")),
+                createCoin("ethereum", "Ethereum", "eth", 2, new BigDecimal("3000")));
+
+        // then
+        mockMvc.perform(get("/api/coins/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full", is(true)))
+                .andExpect(jsonPath("$.coins", hasSize(2)));
+    }
+
+    @Test
+    void getDashboard_ShouldOmitOrDownsampleSparkline_WhenRequested() throws Exception {
+        // given
+        Coin bitcoin = createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000"));
+        bitcoin.setSparkline(Sparklines.pack(List.of(1.0, 2.0, 9.0, 3.0, 4.0, 5.0)));
+        saveCoins(bitcoin);
+
+        // then
+        mockMvc.perform(get("/api/coins/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].sparklineData", is("[1.0,2.0,9.0,3.0,4.0,5.0]")));
+        mockMvc.perform(get("/api/coins/dashboard").param("includeSparkline", "false"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.content[0].sparklineData", nullValue()));
+        mockMvc.perform(get("/api/coins/bitcoin").param("sparklinePoints", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sparklineData", is("[1.0,9.0,5.0]")));
+    }
+
+    @Test
+    void getCandles_ShouldRejectUnknownInterval() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")));
+
+        // then
+        mockMvc.perform(get("/api/coins/bitcoin/candles").param("interval", "5m"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/coins/bitcoin/candles")
+                        .param("from", "2026-10-19T00:00:00Z")
+                        .param("to", "2026-10-18T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCandles_ShouldReturnNotFound_WhenCoinUnknown() throws Exception {
+        // then
+        mockMvc.perform(get("/api/coins/unknown/candles"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCandles_ShouldReturnEmptyList_WhenHistoryDisabled() throws Exception {
+        // given
+        saveCoins(createCoin("bitcoin", "Bitcoin", "btc", 1, new BigDecimal("100000")));
+
+        // then
+        mockMvc.perform(get("/api/coins/bitcoin/candles").param("interval", "1d"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    // coins are read from the snapshot, so it is rebuilt after seeding the database
+    private void saveCoins(Coin... coins) {
+        coinRepository.saveAll(List.of(coins));
+        coinSnapshotHolder.rebuild();
+    }
+
     private Coin createCoin(String id, String name, String symbol, int rank, BigDecimal price) {
         Coin coin = new Coin();
         coin.setId(id);
@@ -1,13 +1,18 @@
 package kosukeroku.token_radar.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import kosukeroku.token_radar.dto.BulkAlertItemResultDto;
+import kosukeroku.token_radar.dto.BulkPriceAlertRequestDto;
+import kosukeroku.token_radar.dto.BulkPriceAlertResponseDto;
 import kosukeroku.token_radar.dto.PriceAlertRequestDto;
 import kosukeroku.token_radar.dto.PriceAlertResponseDto;
 import kosukeroku.token_radar.dto.AlertStatsDto;
+import kosukeroku.token_radar.exception.InvalidCursorException;
 import kosukeroku.token_radar.model.enums.AlertStatus;
 import kosukeroku.token_radar.model.enums.AlertType;
 import kosukeroku.token_radar.security.UserDetailsImpl;
 import kosukeroku.token_radar.service.PriceAlertService;
+import kosukeroku.token_radar.service.paging.KeysetPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -96,6 +101,41 @@ class PriceAlertControllerIntegrationTest {
                 .andExpect(jsonPath("$.thresholdValue").value(60000));
     }
 
+    @Test
+    void bulkCreateAlerts_Success() throws Exception {
+        // given
+        BulkPriceAlertResponseDto response = new BulkPriceAlertResponseDto(1, 0, 0, List.of(
+                new BulkAlertItemResultDto(0, "bitcoin", AlertType.PRICE_ABOVE,
+                        BulkAlertItemResultDto.Outcome.CREATED, testAlertResponse, null)));
+        when(priceAlertService.bulkCreateAlerts(anyLong(), anyList())).thenReturn(response);
+        BulkPriceAlertRequestDto request = new BulkPriceAlertRequestDto();
+        request.setAlerts(List.of(testAlertRequest));
+
+        // then
+        mockMvc.perform(post("/api/alerts/bulk")
+                        .with(user(testUserDetails))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("created"))
+                .andExpect(jsonPath("$.results[0].alert.id").value(1L));
+    }
+
+    @Test
+    void bulkCreateAlerts_InvalidItem() throws Exception {
+        // given
+        BulkPriceAlertRequestDto request = new BulkPriceAlertRequestDto();
+        request.setAlerts(List.of(testAlertRequest, new PriceAlertRequestDto()));
+
+        // then
+        mockMvc.perform(post("/api/alerts/bulk")
+                        .with(user(testUserDetails))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createAlert_InvalidRequest() throws Exception {
         // given
@@ -114,7 +154,7 @@ class PriceAlertControllerIntegrationTest {
     void getUserAlerts_Success() throws Exception {
         // given
         List<PriceAlertResponseDto> alerts = List.of(testAlertResponse);
-        when(priceAlertService.getUserAlerts(anyLong())).thenReturn(alerts);
+        when(priceAlertService.getUserAlerts(anyLong(), isNull(), anyInt())).thenReturn(new KeysetPage<>(alerts, null));
 
         // then
         mockMvc.perform(get("/api/alerts")
@@ -122,15 +162,45 @@ class PriceAlertControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].coinId").value("bitcoin"));
+                .andExpect(jsonPath("$[0].coinId").value("bitcoin"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getUserAlerts_ShouldReturnNextCursorHeader_WhenMorePagesExist() throws Exception {
+        // given
+        when(priceAlertService.getUserAlerts(anyLong(), eq("abc"), eq(1)))
+                .thenReturn(new KeysetPage<>(List.of(testAlertResponse), "def"));
+
+        // then
+        mockMvc.perform(get("/api/alerts")
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .with(user(testUserDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "def"));
+    }
+
+    @Test
+    void getUserAlerts_InvalidCursor() throws Exception {
+        // given
+        when(priceAlertService.getUserAlerts(anyLong(), eq("bad"), anyInt()))
+                .thenThrow(new InvalidCursorException("bad"));
+
+        // then
+        mockMvc.perform(get("/api/alerts")
+                        .param("cursor", "bad")
+                        .with(user(testUserDetails)))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getAlertsByStatus_Success() throws Exception {
         // given
         List<PriceAlertResponseDto> alerts = List.of(testAlertResponse);
-        when(priceAlertService.getUserAlertsByStatus(anyLong(), any(AlertStatus.class)))
-                .thenReturn(alerts);
+        when(priceAlertService.getUserAlertsByStatus(anyLong(), any(AlertStatus.class), isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(alerts, null));
 
         // then
         mockMvc.perform(get("/api/alerts/status/ACTIVE")
@@ -230,8 +300,8 @@ class PriceAlertControllerIntegrationTest {
         triggeredAlert.setNotificationMessage("Price reached target!");
 
         List<PriceAlertResponseDto> notifications = List.of(triggeredAlert);
-        when(priceAlertService.getUserNotifications(anyLong()))
-                .thenReturn(notifications);
+        when(priceAlertService.getUserNotifications(anyLong(), isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(notifications, null));
 
         // then
         mockMvc.perform(get("/api/alerts/notifications")
@@ -10,6 +10,7 @@ import kosukeroku.token_radar.repository.CoinRepository;
 import kosukeroku.token_radar.repository.PriceAlertRepository;
 import kosukeroku.token_radar.repository.UserRepository;
 import kosukeroku.token_radar.security.UserDetailsImpl;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +51,9 @@ class PriceAlertEndToEndTest {
     @Autowired
     private CoinRepository coinRepository;
 
+    @Autowired
+    private CoinSnapshotHolder coinSnapshotHolder;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -93,6 +97,7 @@ class PriceAlertEndToEndTest {
         bitcoin.setActive(true);
         bitcoin.setMarketCapRank(1);
         coinRepository.save(bitcoin);
+        coinSnapshotHolder.rebuild();
 
         // creating user details for authentication
         testUserDetails = new UserDetailsImpl(
@@ -5,6 +5,7 @@ import kosukeroku.token_radar.dto.TrackedCurrencyRequestDto;
 import kosukeroku.token_radar.dto.TrackedCurrencyResponseDto;
 import kosukeroku.token_radar.security.UserDetailsImpl;
 import kosukeroku.token_radar.service.TrackedCurrencyService;
+import kosukeroku.token_radar.service.paging.KeysetPage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -95,6 +96,24 @@ class TrackedCurrencyControllerIntegrationTest {
                 .andExpect(jsonPath("$.currentPrice").value(50000));
     }
 
+    @Test
+    @WithMockUser
+    void getTrackStatus_ReturnsWhetherCoinIsTracked() throws Exception {
+        // given
+        when(trackedCurrencyService.isTracked(1L, "bitcoin")).thenReturn(true);
+        when(trackedCurrencyService.isTracked(1L, "ethereum")).thenReturn(false);
+
+        // then
+        mockMvc.perform(get("/api/tracked-currencies/bitcoin/status")
+                        .with(user(createTestUserDetails())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tracked").value(true));
+        mockMvc.perform(get("/api/tracked-currencies/ethereum/status")
+                        .with(user(createTestUserDetails())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tracked").value(false));
+    }
+
     @Test
     @WithMockUser
     void addTrackedCurrency_InvalidRequest_MissingCoinId() throws Exception {
@@ -153,8 +172,8 @@ class TrackedCurrencyControllerIntegrationTest {
                 2L, "ethereum", "Ethereum", BigDecimal.valueOf(3000)
         );
 
-        when(trackedCurrencyService.getUserTrackedCurrencies(1L))
-                .thenReturn(List.of(bitcoin, ethereum));
+        when(trackedCurrencyService.getUserTrackedCurrencies(eq(1L), isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(List.of(bitcoin, ethereum), null));
 
         // then
         mockMvc.perform(get("/api/tracked-currencies")
@@ -176,8 +195,8 @@ class TrackedCurrencyControllerIntegrationTest {
     @WithMockUser
     void getUserTrackedCurrencies_EmptyList() throws Exception {
         // given
-        when(trackedCurrencyService.getUserTrackedCurrencies(1L))
-                .thenReturn(List.of());
+        when(trackedCurrencyService.getUserTrackedCurrencies(eq(1L), isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(List.of(), null));
 
         // then
         mockMvc.perform(get("/api/tracked-currencies")
@@ -223,7 +242,7 @@ class TrackedCurrencyControllerIntegrationTest {
         mockMvc.perform(get("/api/tracked-currencies"))
                 .andExpect(status().isForbidden());
 
-        verify(trackedCurrencyService, never()).getUserTrackedCurrencies(anyLong());
+        verify(trackedCurrencyService, never()).getUserTrackedCurrencies(anyLong(), any(), anyInt());
     }
 
     @Test
@@ -283,8 +302,8 @@ class TrackedCurrencyControllerIntegrationTest {
                 1L, "bitcoin", "Bitcoin", BigDecimal.valueOf(50000)
         );
 
-        when(trackedCurrencyService.getUserTrackedCurrencies(1L))
-                .thenReturn(List.of(bitcoin));
+        when(trackedCurrencyService.getUserTrackedCurrencies(eq(1L), isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(List.of(bitcoin), null));
 
         // then
         mockMvc.perform(get("/api/tracked-currencies")
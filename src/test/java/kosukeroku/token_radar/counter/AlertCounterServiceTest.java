@@ -0,0 +1,195 @@
+package kosukeroku.token_radar.counter;
+
+import kosukeroku.token_radar.dto.AlertStatsDto;
+import kosukeroku.token_radar.model.UserAlertCounter;
+import kosukeroku.token_radar.model.enums.AlertStatus;
+import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.repository.UserAlertCounterRepository;
+import kosukeroku.token_radar.repository.projection.StatusCount;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
+import kosukeroku.token_radar.service.counter.AlertCountersChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertCounterServiceTest {
+
+    @Mock
+    private UserAlertCounterRepository userAlertCounterRepository;
+
+    @Mock
+    private PriceAlertRepository priceAlertRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AlertCounterService alertCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(alertCounterService, "reconcileEnabled", true);
+        ReflectionTestUtils.setField(alertCounterService, "reconcileBatchSize", 2);
+    }
+
+    @Test
+    void getStats_ShouldReadCounterRow() {
+        // given
+        when(userAlertCounterRepository.findById(1L)).thenReturn(Optional.of(counter(1L, 2, 3, 4)));
+
+        // when
+        AlertStatsDto stats = alertCounterService.getStats(1L);
+
+        // then
+        assertThat(stats).isEqualTo(new AlertStatsDto(9L, 2L, 3L, 4L, 3L));
+        verifyNoInteractions(priceAlertRepository);
+    }
+
+    @Test
+    void getStats_ShouldCountAlerts_WhenUserHasNoCounterRow() {
+        // given
+        when(userAlertCounterRepository.findById(1L)).thenReturn(Optional.empty());
+        when(priceAlertRepository.countByStatus(1L)).thenReturn(List.of(
+                new StatusCount(AlertStatus.ACTIVE, 2), new StatusCount(AlertStatus.READ, 1)));
+
+        // when
+        AlertStatsDto stats = alertCounterService.getStats(1L);
+
+        // then
+        assertThat(stats).isEqualTo(new AlertStatsDto(3L, 2L, 0L, 1L, 0L));
+    }
+
+    @Test
+    void getStats_ShouldNotReportNegativeCounts() {
+        // given
+        when(userAlertCounterRepository.findById(1L)).thenReturn(Optional.of(counter(1L, 1, -1, 0)));
+
+        // when
+        AlertStatsDto stats = alertCounterService.getStats(1L);
+
+        // then
+        assertThat(stats.getTriggeredAlerts()).isZero();
+        assertThat(stats.getTotalAlerts()).isEqualTo(1L);
+    }
+
+    @Test
+    void getUnreadCount_ShouldReadTriggeredCounter() {
+        // given
+        when(userAlertCounterRepository.findById(1L)).thenReturn(Optional.of(counter(1L, 0, 5, 0)));
+
+        // when
+        long unread = alertCounterService.getUnreadCount(1L);
+
+        // then
+        assertThat(unread).isEqualTo(5L);
+        verify(priceAlertRepository, never()).countTriggeredAlerts(anyLong());
+    }
+
+    @Test
+    void alertsTriggered_ShouldMoveActiveToTriggeredInUserIdOrder() {
+        // when
+        alertCounterService.alertsTriggered(Map.of(7L, 2, 3L, 1));
+
+        // then
+        InOrder inOrder = inOrder(userAlertCounterRepository);
+        inOrder.verify(userAlertCounterRepository).adjust(3L, -1, 1, 0);
+        inOrder.verify(userAlertCounterRepository).adjust(7L, -2, 2, 0);
+        verify(eventPublisher).publishEvent(new AlertCountersChangedEvent(3L));
+        verify(eventPublisher).publishEvent(new AlertCountersChangedEvent(7L));
+    }
+
+    @Test
+    void alertDeleted_ShouldDecrementCountOfItsStatus() {
+        // when
+        alertCounterService.alertDeleted(1L, AlertStatus.READ);
+
+        // then
+        verify(userAlertCounterRepository).adjust(1L, 0, 0, -1);
+    }
+
+    @Test
+    void alertsRead_ShouldSkipUpdate_WhenNothingChanged() {
+        // when
+        alertCounterService.alertsRead(1L, 0);
+
+        // then
+        verifyNoInteractions(userAlertCounterRepository, eventPublisher);
+    }
+
+    @Test
+    void getCommittedStats_ShouldCountAlertsOnlyForUsersWithoutCounterRow() {
+        // given
+        when(userAlertCounterRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(counter(1L, 1, 1, 1)));
+        when(priceAlertRepository.countByStatus(2L)).thenReturn(List.of(new StatusCount(AlertStatus.ACTIVE, 4)));
+
+        // when
+        Map<Long, AlertStatsDto> stats = alertCounterService.getCommittedStats(List.of(1L, 2L));
+
+        // then
+        assertThat(stats.get(1L).getTotalAlerts()).isEqualTo(3L);
+        assertThat(stats.get(2L).getActiveAlerts()).isEqualTo(4L);
+        verify(priceAlertRepository, never()).countByStatus(1L);
+    }
+
+    @Test
+    void reconcile_ShouldRecountBatchesUntilShort() {
+        // given
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userAlertCounterRepository.insertMissing()).thenReturn(1);
+        when(userAlertCounterRepository.lockBatch(0L, 2)).thenReturn(List.of(1L, 2L));
+        when(userAlertCounterRepository.lockBatch(2L, 2)).thenReturn(List.of(5L));
+        when(userAlertCounterRepository.recount(List.of(1L, 2L))).thenReturn(1);
+        when(userAlertCounterRepository.recount(List.of(5L))).thenReturn(0);
+
+        // when
+        alertCounterService.reconcile();
+
+        // then
+        verify(userAlertCounterRepository, times(2)).lockBatch(anyLong(), anyInt());
+        verify(userAlertCounterRepository, times(2)).recount(anyList());
+    }
+
+    @Test
+    void reconcile_ShouldDoNothing_WhenDisabled() {
+        // given
+        ReflectionTestUtils.setField(alertCounterService, "reconcileEnabled", false);
+
+        // when
+        alertCounterService.reconcile();
+
+        // then
+        verifyNoInteractions(transactionTemplate, userAlertCounterRepository);
+    }
+
+    private UserAlertCounter counter(Long userId, long active, long triggered, long read) {
+        UserAlertCounter counter = new UserAlertCounter(userId);
+        counter.setActiveCount(active);
+        counter.setTriggeredCount(triggered);
+        counter.setReadCount(read);
+        return counter;
+    }
+}
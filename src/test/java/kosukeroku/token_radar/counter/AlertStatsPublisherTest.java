@@ -0,0 +1,91 @@
+package kosukeroku.token_radar.counter;
+
+import kosukeroku.token_radar.dto.AlertStatsDto;
+import kosukeroku.token_radar.repository.UserRepository;
+import kosukeroku.token_radar.repository.projection.UserName;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
+import kosukeroku.token_radar.service.counter.AlertCountersChangedEvent;
+import kosukeroku.token_radar.service.counter.AlertStatsPublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertStatsPublisherTest {
+
+    @Mock
+    private AlertCounterService alertCounterService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private SimpUserRegistry simpUserRegistry;
+
+    @InjectMocks
+    private AlertStatsPublisher alertStatsPublisher;
+
+    @Test
+    void flush_ShouldPushOncePerUser_WhenChangesBurst() {
+        // given
+        AlertStatsDto stats = new AlertStatsDto(3L, 0L, 3L, 0L, 3L);
+        alertStatsPublisher.onCountersChanged(new AlertCountersChangedEvent(1L));
+        alertStatsPublisher.onCountersChanged(new AlertCountersChangedEvent(1L));
+        alertStatsPublisher.onCountersChanged(new AlertCountersChangedEvent(1L));
+        when(simpUserRegistry.getUserCount()).thenReturn(1);
+        when(userRepository.findUsernames(List.of(1L))).thenReturn(List.of(new UserName(1L, "alice")));
+        when(simpUserRegistry.getUser("alice")).thenReturn(mock(SimpUser.class));
+        when(alertCounterService.getCommittedStats(List.of(1L))).thenReturn(Map.of(1L, stats));
+
+        // when
+        alertStatsPublisher.flush();
+        alertStatsPublisher.flush();
+
+        // then
+        verify(messagingTemplate, times(1)).convertAndSendToUser("alice", AlertStatsPublisher.DESTINATION, stats);
+    }
+
+    @Test
+    void flush_ShouldSkipUsersWithoutSession() {
+        // given
+        alertStatsPublisher.onCountersChanged(new AlertCountersChangedEvent(1L));
+        when(simpUserRegistry.getUserCount()).thenReturn(1);
+        when(userRepository.findUsernames(List.of(1L))).thenReturn(List.of(new UserName(1L, "alice")));
+        when(simpUserRegistry.getUser("alice")).thenReturn(null);
+
+        // when
+        alertStatsPublisher.flush();
+
+        // then
+        verifyNoInteractions(alertCounterService, messagingTemplate);
+    }
+
+    @Test
+    void flush_ShouldNotReadDatabase_WhenNobodyIsConnected() {
+        // given
+        alertStatsPublisher.onCountersChanged(new AlertCountersChangedEvent(1L));
+        when(simpUserRegistry.getUserCount()).thenReturn(0);
+
+        // when
+        alertStatsPublisher.flush();
+
+        // then
+        verifyNoInteractions(userRepository, alertCounterService);
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,194 @@
+package kosukeroku.token_radar.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import kosukeroku.token_radar.dto.DataSourceTargetStatsDto;
+import kosukeroku.token_radar.service.datasource.DataSourceTarget;
+import kosukeroku.token_radar.service.datasource.ReplicaReadInterceptor;
+import kosukeroku.token_radar.service.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a second standalone postgres stands in for the replica, it reports no lag as it is not in recovery
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private DataSourceTarget primary;
+    private DataSourceTarget replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void markNodes() {
+        for (PostgreSQLContainer<?> container : List.of(PRIMARY, REPLICA)) {
+            try (HikariDataSource dataSource = pool(container)) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.execute("CREATE TABLE node (name varchar(20))");
+                jdbcTemplate.update("INSERT INTO node VALUES (?)", container == PRIMARY ? "primary" : "replica");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = DataSourceTarget.primary(pool(PRIMARY));
+        replica = DataSourceTarget.replica("replica-1", pool(REPLICA));
+        // checks run on their own thread, an interval longer than a test keeps them out of it
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica),
+                Duration.ofSeconds(5), Duration.ofMinutes(10), Duration.ofSeconds(2));
+        routingDataSource.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.destroy();
+        primary.getDataSource().close();
+    }
+
+    @Test
+    void replicaRead_ShouldGoToReplica() {
+        // when
+        String node = replicaRead(() -> readOnly.execute(status -> currentNode()));
+
+        // then
+        assertThat(node).isEqualTo("replica");
+        assertThat(replica.getLagMillis()).isZero();
+    }
+
+    // spring data runs repository reads in a transaction like this one, e.g. findAll() in a snapshot rebuild
+    @Test
+    void readOnlyTransaction_ShouldGoToPrimary_WithoutReplicaRead() {
+        // when
+        String node = readOnly.execute(status -> currentNode());
+
+        // then
+        assertThat(node).isEqualTo("primary");
+        assertThat(routingDataSource.getStats().get(1).getRoutedConnections()).isZero();
+    }
+
+    @Test
+    void replicaRead_ShouldGoToPrimary_InsideReadWriteTransaction() {
+        // when
+        String node = replicaRead(() -> readWrite.execute(status -> currentNode()));
+
+        // then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void readWriteTransaction_ShouldGoToPrimary() {
+        // when
+        String node = readWrite.execute(status -> currentNode());
+
+        // then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaRead_ShouldFallBackToPrimary_WhenReplicaLags() {
+        // given
+        replica.recordLag(60_000);
+
+        // when
+        String node = replicaRead(() -> readOnly.execute(status -> currentNode()));
+
+        // then
+        assertThat(node).isEqualTo("primary");
+        DataSourceTargetStatsDto primaryStats = routingDataSource.getStats().get(0);
+        DataSourceTargetStatsDto replicaStats = routingDataSource.getStats().get(1);
+        assertThat(primaryStats.getFallbackConnections()).isEqualTo(1);
+        assertThat(replicaStats.getSkippedConnections()).isEqualTo(1);
+        assertThat(replicaStats.getLagMillis()).isEqualTo(60_000);
+    }
+
+    @Test
+    void checkLag_ShouldReturnReplicaToRotation_WhenCaughtUp() {
+        // given
+        replica.recordLag(60_000);
+
+        // when
+        routingDataSource.checkLag();
+        String node = replicaRead(() -> readOnly.execute(status -> currentNode()));
+
+        // then
+        assertThat(node).isEqualTo("replica");
+        assertThat(routingDataSource.getStats().get(1).getRoutedConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void isUsable_ShouldRejectReplica_WhenLastCheckTooOld() {
+        // given
+        replica.recordLag(0);
+
+        // then
+        assertThat(replica.isUsable(5_000, Duration.ofMinutes(1))).isTrue();
+        assertThat(replica.isUsable(5_000, Duration.ZERO)).isFalse();
+        assertThat(primary.isUsable(5_000, Duration.ZERO)).isTrue();
+    }
+
+    @Test
+    void checkLag_ShouldMarkReplicaUnavailable_WhenUnreachable() {
+        // given
+        replica.getDataSource().close();
+
+        // when
+        routingDataSource.checkLag();
+        String node = replicaRead(() -> readOnly.execute(status -> currentNode()));
+
+        // then
+        assertThat(replica.isAvailable()).isFalse();
+        assertThat(node).isEqualTo("primary");
+    }
+
+    // through the interceptor a @ReplicaRead method is proxied with
+    @SuppressWarnings("unchecked")
+    private String replicaRead(Supplier<String> read) {
+        ProxyFactory proxyFactory = new ProxyFactory(read);
+        proxyFactory.addInterface(Supplier.class);
+        proxyFactory.addAdvice(new ReplicaReadInterceptor());
+        return ((Supplier<String>) proxyFactory.getProxy()).get();
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
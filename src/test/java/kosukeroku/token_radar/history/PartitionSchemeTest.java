@@ -0,0 +1,60 @@
+package kosukeroku.token_radar.history;
+
+import kosukeroku.token_radar.service.history.CandleInterval;
+import kosukeroku.token_radar.service.history.PartitionScheme;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionSchemeTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T23:30:00Z");
+
+    @Test
+    void start_ShouldAlignToPeriodInUtc() {
+        // then
+        assertThat(new PartitionScheme("t", ChronoUnit.DAYS).start(NOW)).isEqualTo(LocalDate.of(2026, 10, 19));
+        assertThat(new PartitionScheme("t", ChronoUnit.MONTHS).start(NOW)).isEqualTo(LocalDate.of(2026, 10, 1));
+        assertThat(new PartitionScheme("t", ChronoUnit.YEARS).start(NOW)).isEqualTo(LocalDate.of(2026, 1, 1));
+    }
+
+    @Test
+    void parse_ShouldReadBackGeneratedNames() {
+        // given
+        PartitionScheme scheme = CandleInterval.HOUR.getPartitions();
+        LocalDate start = scheme.start(NOW);
+
+        // when
+        String name = scheme.name(start);
+
+        // then
+        assertThat(name).isEqualTo("price_candles_1h_p202610");
+        assertThat(scheme.parse(name)).isEqualTo(start);
+        assertThat(scheme.end(start)).isEqualTo(LocalDate.of(2026, 11, 1));
+    }
+
+    @Test
+    void parse_ShouldIgnoreForeignNames() {
+        // given
+        PartitionScheme scheme = CandleInterval.MINUTE.getPartitions();
+
+        // then
+        assertThat(scheme.parse("price_candles_1m_default")).isNull();
+        assertThat(scheme.parse("price_candles_1h_p20261019")).isNull();
+        assertThat(scheme.parse("price_candles_1m_p202610")).isNull();
+    }
+
+    @Test
+    void candleInterval_ShouldResolveCodesAndSources() {
+        // then
+        assertThat(CandleInterval.fromCode("1h")).contains(CandleInterval.HOUR);
+        assertThat(CandleInterval.fromCode("5m")).isEmpty();
+        assertThat(CandleInterval.DAY.getSource()).isEqualTo(CandleInterval.HOUR);
+        assertThat(CandleInterval.MINUTE.getSource()).isNull();
+        assertThat(CandleInterval.HOUR.truncate(NOW)).isEqualTo(Instant.parse("2026-10-19T23:00:00Z"));
+    }
+}
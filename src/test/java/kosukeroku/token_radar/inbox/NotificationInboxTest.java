@@ -0,0 +1,246 @@
+package kosukeroku.token_radar.inbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.model.PriceAlert;
+import kosukeroku.token_radar.model.User;
+import kosukeroku.token_radar.model.enums.AlertStatus;
+import kosukeroku.token_radar.model.enums.AlertType;
+import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.repository.projection.AlertRow;
+import kosukeroku.token_radar.service.inbox.NotificationInbox;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationInboxTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    private LettuceConnectionFactory connectionFactory;
+    private PriceAlertRepository priceAlertRepository;
+    private NotificationInbox inbox;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        priceAlertRepository = mock(PriceAlertRepository.class);
+        inbox = new NotificationInbox(redisTemplate, priceAlertRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(inbox, "enabled", true);
+        ReflectionTestUtils.setField(inbox, "maxSize", 3);
+        ReflectionTestUtils.setField(inbox, "ttl", Duration.ofDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void findPage_ShouldRebuildFromDatabaseOnce_WhenInboxMissing() {
+        // given
+        when(priceAlertRepository.findNotificationsPage(eq(USER_ID), any(Pageable.class)))
+                .thenReturn(List.of(row(2L, 1, AlertStatus.TRIGGERED), row(1L, 2, AlertStatus.READ)));
+
+        // when
+        Optional<List<AlertRow>> first = inbox.findPage(USER_ID, null, 10);
+        Optional<List<AlertRow>> second = inbox.findPage(USER_ID, null, 10);
+
+        // then
+        assertThat(first).isPresent();
+        assertThat(first.get()).extracting(AlertRow::id).containsExactly(2L, 1L);
+        assertThat(first.get()).extracting(AlertRow::status).containsExactly(AlertStatus.TRIGGERED, AlertStatus.READ);
+        assertThat(second.get()).isEqualTo(first.get());
+        verify(priceAlertRepository, times(1)).findNotificationsPage(eq(USER_ID), any(Pageable.class));
+    }
+
+    @Test
+    void findPage_ShouldNotWriteRebuild_WhenMarkedReadDuringLoad() {
+        // given the alert is read from the database as unread, then marked read before the rebuild is written
+        when(priceAlertRepository.findNotificationsPage(eq(USER_ID), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    inbox.markedRead(USER_ID, 1L);
+                    return List.of(row(1L, 1, AlertStatus.TRIGGERED));
+                })
+                .thenReturn(List.of(row(1L, 1, AlertStatus.READ)));
+
+        // when
+        Optional<List<AlertRow>> raced = inbox.findPage(USER_ID, null, 10);
+        Optional<List<AlertRow>> rebuilt = inbox.findPage(USER_ID, null, 10);
+
+        // then
+        assertThat(raced).isEmpty();
+        assertThat(rebuilt.get()).extracting(AlertRow::status).containsExactly(AlertStatus.READ);
+        verify(priceAlertRepository, times(2)).findNotificationsPage(eq(USER_ID), any(Pageable.class));
+    }
+
+    @Test
+    void findPage_ShouldContinueAfterCursor() {
+        // given
+        givenEmptyInbox();
+        inbox.added(List.of(alert(1L, 3), alert(2L, 2), alert(3L, 1)));
+
+        // when
+        Optional<List<AlertRow>> page = inbox.findPage(USER_ID, new KeysetCursor(now.minusMinutes(2), 2L), 10);
+
+        // then
+        assertThat(page.get()).extracting(AlertRow::id).containsExactly(1L);
+    }
+
+    @Test
+    void markedRead_ShouldChangeStatusOfThatAlertOnly() {
+        // given
+        givenEmptyInbox();
+        inbox.added(List.of(alert(1L, 2), alert(2L, 1)));
+
+        // when
+        inbox.markedRead(USER_ID, 1L);
+
+        // then
+        assertThat(inbox.findPage(USER_ID, null, 10).get()).extracting(AlertRow::status)
+                .containsExactly(AlertStatus.TRIGGERED, AlertStatus.READ);
+    }
+
+    @Test
+    void allMarkedRead_ShouldMarkEveryAlertRead() {
+        // given
+        givenEmptyInbox();
+        inbox.added(List.of(alert(1L, 2), alert(2L, 1)));
+
+        // when
+        inbox.allMarkedRead(USER_ID);
+
+        // then
+        assertThat(inbox.findPage(USER_ID, null, 10).get()).extracting(AlertRow::status)
+                .containsOnly(AlertStatus.READ);
+    }
+
+    @Test
+    void findPage_ShouldDeferToDatabase_WhenPageReachesTrimmedAlerts() {
+        // given
+        givenEmptyInbox();
+        List<PriceAlert> triggered = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            triggered.add(alert(id, (int) (10 - id)));
+        }
+        inbox.added(triggered);
+
+        // when
+        Optional<List<AlertRow>> newest = inbox.findPage(USER_ID, null, 2);
+        Optional<List<AlertRow>> beyondCap = inbox.findPage(USER_ID, null, 5);
+
+        // then
+        assertThat(newest.get()).extracting(AlertRow::id).containsExactly(5L, 4L);
+        assertThat(beyondCap).isEmpty();
+    }
+
+    @Test
+    void findPage_ShouldDeferToDatabase_WhenCursorIsNotInInbox() {
+        // given
+        givenEmptyInbox();
+        inbox.added(List.of(alert(1L, 1)));
+
+        // when
+        Optional<List<AlertRow>> page = inbox.findPage(USER_ID, new KeysetCursor(now, 99L), 10);
+
+        // then
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    void invalidate_ShouldRebuildOnNextRead() {
+        // given
+        givenEmptyInbox();
+        inbox.added(List.of(alert(1L, 1)));
+
+        // when
+        inbox.invalidate(USER_ID);
+        Optional<List<AlertRow>> page = inbox.findPage(USER_ID, null, 10);
+
+        // then
+        assertThat(page.get()).isEmpty();
+        verify(priceAlertRepository, times(2)).findNotificationsPage(eq(USER_ID), any(Pageable.class));
+    }
+
+    @Test
+    void findPage_ShouldReturnEmpty_WhenDisabled() {
+        // given
+        ReflectionTestUtils.setField(inbox, "enabled", false);
+
+        // when
+        Optional<List<AlertRow>> page = inbox.findPage(USER_ID, null, 10);
+
+        // then
+        assertThat(page).isEmpty();
+        verifyNoInteractions(priceAlertRepository);
+    }
+
+    // a read against an empty database marks the inbox complete
+    private void givenEmptyInbox() {
+        when(priceAlertRepository.findNotificationsPage(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        inbox.findPage(USER_ID, null, 1);
+    }
+
+    private AlertRow row(Long id, int minutesAgo, AlertStatus status) {
+        return new AlertRow(id, "bitcoin", AlertType.PRICE_ABOVE, status, new BigDecimal("50000"),
+                new BigDecimal("45000"), now.minusDays(1), now.minusMinutes(minutesAgo), new BigDecimal("50100"),
+                "Bitcoin reached your price target");
+    }
+
+    private PriceAlert alert(Long id, int minutesAgo) {
+        User user = new User();
+        user.setId(USER_ID);
+        Coin coin = new Coin();
+        coin.setId("bitcoin");
+
+        PriceAlert alert = new PriceAlert();
+        alert.setId(id);
+        alert.setUser(user);
+        alert.setCoin(coin);
+        alert.setType(AlertType.PRICE_ABOVE);
+        alert.setStatus(AlertStatus.TRIGGERED);
+        alert.setThresholdValue(new BigDecimal("50000"));
+        alert.setInitialPrice(new BigDecimal("45000"));
+        alert.setCreatedAt(now.minusDays(1));
+        alert.setTriggeredAt(now.minusMinutes(minutesAgo));
+        alert.setTriggeredPrice(new BigDecimal("50100"));
+        alert.setNotificationMessage("Bitcoin reached your price target");
+        return alert;
+    }
+}
@@ -0,0 +1,124 @@
+package kosukeroku.token_radar.journal;
+
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.journal.JournalTick;
+import kosukeroku.token_radar.service.journal.TickJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TickJournalTest {
+
+    private static final Instant DAY_ONE = Instant.parse("2026-10-19T23:59:00Z");
+    private static final Instant DAY_TWO = Instant.parse("2026-10-20T00:01:00Z");
+
+    @TempDir
+    Path directory;
+
+    private TickJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = open(4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void read_ShouldReturnAppendedTicksInRange() {
+        // given
+        journal.append(List.of(coin("bitcoin", "100000.123456789012"), coin("ethereum", "3000")), DAY_ONE);
+        journal.append(List.of(coin("bitcoin", "100100")), DAY_TWO);
+
+        // when
+        List<JournalTick> ticks = read(DAY_ONE, DAY_TWO);
+
+        // then
+        assertThat(ticks).extracting(JournalTick::coinId).containsExactly("bitcoin", "ethereum");
+        assertThat(ticks.get(0).price()).isEqualByComparingTo("100000.123456789012");
+        assertThat(ticks.get(0).time()).isEqualTo(DAY_ONE);
+        assertThat(read(DAY_ONE, DAY_TWO.plusSeconds(1))).hasSize(3);
+    }
+
+    @Test
+    void append_ShouldRollDailyAndWhenSegmentIsFull() throws IOException {
+        // given
+        journal.append(List.of(coin("a", "1"), coin("b", "2"), coin("c", "3"), coin("d", "4"), coin("e", "5")), DAY_ONE);
+        journal.append(List.of(coin("a", "1.5")), DAY_TWO);
+
+        // then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("coins.idx", "ticks-20261019-000.journal",
+                            "ticks-20261019-001.journal", "ticks-20261020-000.journal");
+        }
+        assertThat(read(DAY_ONE, DAY_TWO.plusSeconds(1))).extracting(JournalTick::coinId)
+                .containsExactly("a", "b", "c", "d", "e", "a");
+    }
+
+    @Test
+    void append_ShouldContinueExistingSegmentAfterRestart() throws IOException {
+        // given
+        journal.append(List.of(coin("bitcoin", "1")), DAY_ONE);
+        journal.close();
+
+        // when
+        journal = open(4);
+        journal.append(List.of(coin("ethereum", "2")), DAY_ONE.plusSeconds(10));
+
+        // then
+        assertThat(read(DAY_ONE, DAY_TWO)).extracting(JournalTick::coinId).containsExactly("bitcoin", "ethereum");
+        assertThat(Files.readAllLines(directory.resolve("coins.idx"))).containsExactly("bitcoin", "ethereum");
+    }
+
+    @Test
+    void append_ShouldSkipCoinsWithoutPrice() {
+        // given
+        Coin unpriced = coin("unpriced", "1");
+        unpriced.setCurrentPrice(null);
+
+        // when
+        journal.append(List.of(unpriced), DAY_ONE);
+
+        // then
+        assertThat(read(DAY_ONE, DAY_TWO)).isEmpty();
+    }
+
+    private TickJournal open(int segmentRecords) throws IOException {
+        TickJournal tickJournal = new TickJournal();
+        ReflectionTestUtils.setField(tickJournal, "enabled", true);
+        ReflectionTestUtils.setField(tickJournal, "directory", directory.toString());
+        ReflectionTestUtils.setField(tickJournal, "segmentRecords", segmentRecords);
+        tickJournal.init();
+        return tickJournal;
+    }
+
+    private List<JournalTick> read(Instant from, Instant to) {
+        List<JournalTick> ticks = new ArrayList<>();
+        journal.read(from, to, ticks::add);
+        return ticks;
+    }
+
+    private Coin coin(String id, String price) {
+        Coin coin = new Coin();
+        coin.setId(id);
+        coin.setCurrentPrice(new BigDecimal(price));
+        return coin;
+    }
+}
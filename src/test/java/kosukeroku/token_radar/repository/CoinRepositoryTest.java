@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -23,6 +24,9 @@ class CoinRepositoryTest {
     @Autowired
     private CoinRepository coinRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Coin bitcoin;
     private Coin ethereum;
     private Coin inactiveCoin;
@@ -84,34 +88,44 @@ class CoinRepositoryTest {
     }
 
     @Test
-    void deleteByActiveFalse_ShouldRemoveOnlyInactiveCoins() {
-        // given (we have 1 inactive coin out of 3)
+    void save_ShouldStorePricesInNarrowPriceTable() {
+        // given
+        bitcoin.setCurrentPrice(new BigDecimal("101000"));
 
         // when
-        int deletedCount = coinRepository.deleteByActiveFalse();
+        coinRepository.saveAndFlush(bitcoin);
 
         // then
-        assertThat(deletedCount).isEqualTo(1);
-
-        List<Coin> remainingCoins = coinRepository.findAll();
-        assertThat(remainingCoins)
-                .hasSize(2)
-                .extracting(Coin::getId)
-                .containsExactly("bitcoin", "ethereum");
+        BigDecimal stored = jdbcTemplate.queryForObject(
+                "SELECT current_price FROM coin_prices WHERE coin_id = ?", BigDecimal.class, "bitcoin");
+        String name = jdbcTemplate.queryForObject("SELECT name FROM coins WHERE id = ?", String.class, "bitcoin");
+        assertThat(stored).isEqualByComparingTo("101000");
+        assertThat(name).isEqualTo("Bitcoin");
+        assertThat(coinRepository.findById("bitcoin")).get()
+                .extracting(Coin::getCurrentPrice)
+                .satisfies(price -> assertThat(price).isEqualByComparingTo("101000"));
     }
 
     @Test
-    void deleteByActiveFalse_ShouldDoNothing_WhenAllCoinsActive() {
+    void save_ShouldKeepTickValuesAndSparklineOutOfCoinsTable() {
         // given
-        coinRepository.deleteAll();
-        coinRepository.saveAll(List.of(bitcoin, ethereum)); // active only
+        bitcoin.setAth(new BigDecimal("108000"));
+        bitcoin.setCirculatingSupply(new BigDecimal("19800000"));
+        bitcoin.setSparkline(new byte[]{1, 2, 3, 4});
 
         // when
-        int deletedCount = coinRepository.deleteByActiveFalse();
+        coinRepository.saveAndFlush(bitcoin);
 
         // then
-        assertThat(deletedCount).isEqualTo(0);
-        assertThat(coinRepository.count()).isEqualTo(2);
+        BigDecimal ath = jdbcTemplate.queryForObject(
+                "SELECT ath FROM coin_prices WHERE coin_id = ?", BigDecimal.class, "bitcoin");
+        BigDecimal supply = jdbcTemplate.queryForObject(
+                "SELECT circulating_supply FROM coin_prices WHERE coin_id = ?", BigDecimal.class, "bitcoin");
+        byte[] sparkline = jdbcTemplate.queryForObject(
+                "SELECT sparkline FROM coin_sparklines WHERE coin_id = ?", byte[].class, "bitcoin");
+        assertThat(ath).isEqualByComparingTo("108000");
+        assertThat(supply).isEqualByComparingTo("19800000");
+        assertThat(sparkline).containsExactly(1, 2, 3, 4);
     }
 
     private Coin createCoin(String id, String name, String symbol, int rank, boolean active) {
@@ -0,0 +1,193 @@
+package kosukeroku.token_radar.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Migrates a database in the schema the former ddl-auto=update created (before any flyway migration
+ * existed) with the baseline settings of application.properties, and compares the result against a
+ * database migrated from scratch. Each one lives in a database of its own, the columns are compared
+ * by table name only.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LegacyBaselineMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final String COLUMNS = """
+            SELECT table_name, column_name, data_type, numeric_precision, numeric_scale, is_nullable
+            FROM information_schema.columns
+            WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+            ORDER BY table_name, column_name""";
+
+    private static JdbcTemplate fresh;
+    private static JdbcTemplate legacy;
+    private static JdbcTemplate baseline;
+    private static List<Map<String, Object>> legacyColumnsBeforeMigration;
+
+    @BeforeAll
+    static void migrate() {
+        SingleConnectionDataSource freshDataSource = dataSource(POSTGRES.getJdbcUrl());
+        Flyway.configure().dataSource(freshDataSource).load().migrate();
+        fresh = new JdbcTemplate(freshDataSource);
+
+        fresh.execute("CREATE DATABASE legacy");
+        SingleConnectionDataSource legacyDataSource = dataSource(
+                POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(), "/legacy"));
+        legacy = new JdbcTemplate(legacyDataSource);
+        createLegacySchema();
+        legacyColumnsBeforeMigration = legacy.queryForList(COLUMNS);
+        Flyway.configure().dataSource(legacyDataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        fresh.execute("CREATE DATABASE baseline");
+        SingleConnectionDataSource baselineDataSource = dataSource(
+                POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(), "/baseline"));
+        Flyway.configure().dataSource(baselineDataSource).target("1").load().migrate();
+        baseline = new JdbcTemplate(baselineDataSource);
+    }
+
+    @Test
+    void baseline_ShouldBeTheLegacySchema() {
+        // when
+        List<Map<String, Object>> baselineColumns = baseline.queryForList(COLUMNS);
+
+        // then - databases baselined at V1 skip it, anything else in it would never reach them
+        assertThat(baselineColumns).isEqualTo(legacyColumnsBeforeMigration);
+    }
+
+    @Test
+    void migrate_ShouldBringLegacySchemaToTheFreshOne() {
+        // when
+        List<Map<String, Object>> legacyColumns = legacy.queryForList(COLUMNS);
+        List<Map<String, Object>> freshColumns = fresh.queryForList(COLUMNS);
+
+        // then
+        assertThat(legacyColumns).isEqualTo(freshColumns);
+    }
+
+    @Test
+    void migrate_ShouldCarryLegacyCoinValuesIntoSplitTables() {
+        // when
+        Map<String, Object> prices = legacy.queryForMap(
+                "SELECT current_price, market_cap, ath, circulating_supply FROM coin_prices WHERE coin_id = 'bitcoin'");
+
+        // then
+        assertThat((BigDecimal) prices.get("current_price")).isEqualByComparingTo("65000");
+        assertThat((BigDecimal) prices.get("market_cap")).isEqualByComparingTo("1280000000000");
+        assertThat((BigDecimal) prices.get("ath")).isEqualByComparingTo("73000");
+        assertThat((BigDecimal) prices.get("circulating_supply")).isEqualByComparingTo("19700000");
+        assertThat(legacy.queryForObject("SELECT name FROM coins WHERE id = 'bitcoin'", String.class))
+                .isEqualTo("Bitcoin");
+    }
+
+    @Test
+    void migrate_ShouldKeepLegacyAlertsAndCountThem() {
+        // when
+        Map<String, Object> counters = legacy.queryForMap(
+                "SELECT active_count, triggered_count FROM user_alert_counters WHERE user_id = 1");
+        Long nextId = legacy.queryForObject("SELECT nextval('price_alerts_seq')", Long.class);
+
+        // then
+        assertThat(counters).containsEntry("active_count", 1L).containsEntry("triggered_count", 1L);
+        assertThat(nextId).isGreaterThan(2L);
+    }
+
+    private static SingleConnectionDataSource dataSource(String url) {
+        return new SingleConnectionDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+    }
+
+    // the tables as hibernate ddl-auto=update generated them from the entities of that time
+    private static void createLegacySchema() {
+        legacy.execute("""
+                CREATE TABLE users (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    username varchar(255) UNIQUE,
+                    email varchar(255) UNIQUE,
+                    password varchar(255),
+                    created_at timestamp(6)
+                )""");
+        legacy.execute("""
+                CREATE TABLE coins (
+                    id varchar(255) PRIMARY KEY,
+                    symbol varchar(255),
+                    name varchar(255),
+                    active boolean NOT NULL,
+                    last_updated timestamp(6),
+                    image_url varchar(255),
+                    market_cap_rank integer,
+                    current_price numeric(30, 12),
+                    price_change24h float(53),
+                    price_change_percentage24h float(53),
+                    market_cap numeric(30, 2),
+                    total_volume numeric(30, 2),
+                    price_change_percentage1h float(53),
+                    price_change_percentage7d float(53),
+                    price_change_percentage30d float(53),
+                    sparkline_data text,
+                    high24h numeric(30, 12),
+                    low24h numeric(30, 12),
+                    ath numeric(30, 12),
+                    ath_change_percentage float(53),
+                    ath_date timestamp(6),
+                    atl numeric(30, 12),
+                    atl_change_percentage float(53),
+                    atl_date timestamp(6),
+                    circulating_supply numeric(30, 2)
+                )""");
+        legacy.execute("""
+                CREATE TABLE tracked_currencies (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    user_id bigint REFERENCES users (id),
+                    coin_id varchar(255) REFERENCES coins (id),
+                    added_at timestamp(6)
+                )""");
+        legacy.execute("""
+                CREATE TABLE price_alerts (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    user_id bigint NOT NULL REFERENCES users (id),
+                    coin_id varchar(255) NOT NULL REFERENCES coins (id),
+                    type varchar(20) NOT NULL,
+                    status varchar(20) NOT NULL,
+                    threshold_value numeric(30, 12) NOT NULL,
+                    initial_price numeric(30, 12),
+                    last_checked_price numeric(30, 12),
+                    triggered_at timestamp(6),
+                    triggered_price numeric(30, 12),
+                    notification_message varchar(255),
+                    created_at timestamp(6) NOT NULL,
+                    updated_at timestamp(6) NOT NULL
+                )""");
+        legacy.execute("CREATE INDEX idx_alert_user_coin ON price_alerts (user_id, coin_id)");
+        legacy.execute("CREATE INDEX idx_alert_status ON price_alerts (status)");
+        legacy.execute("CREATE INDEX idx_alert_user_status ON price_alerts (user_id, status)");
+
+        legacy.execute("INSERT INTO users (username, email, password, created_at) VALUES ('alice', 'alice@example.com', 'secret', now())");
+        legacy.execute("""
+                INSERT INTO coins (id, symbol, name, active, last_updated, market_cap_rank, current_price, market_cap,
+                                   sparkline_data, ath, ath_date, circulating_supply)
+                VALUES ('bitcoin', 'btc', 'Bitcoin', true, now(), 1, 65000, 1280000000000,
+                        '[64000.5,65000.0]', 73000, now() - interval '200 days', 19700000)""");
+        legacy.execute("INSERT INTO tracked_currencies (user_id, coin_id, added_at) VALUES (1, 'bitcoin', now())");
+        legacy.execute("""
+                INSERT INTO price_alerts (user_id, coin_id, type, status, threshold_value, triggered_at, created_at, updated_at)
+                VALUES (1, 'bitcoin', 'PRICE_ABOVE', 'ACTIVE', 70000, NULL, now(), now()),
+                       (1, 'bitcoin', 'PRICE_BELOW', 'TRIGGERED', 66000, now(), now(), now())""");
+    }
+}
@@ -5,15 +5,18 @@ import kosukeroku.token_radar.model.PriceAlert;
 import kosukeroku.token_radar.model.User;
 import kosukeroku.token_radar.model.enums.AlertStatus;
 import kosukeroku.token_radar.model.enums.AlertType;
+import kosukeroku.token_radar.repository.projection.AlertRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -105,6 +108,38 @@ class PriceAlertRepositoryTest {
         assertThat(alerts.get(1).getCoin().getId()).isEqualTo("bitcoin");  // older
     }
 
+    @Test
+    void findNotificationsPage_ShouldWalkHistoryNewestFirstAcrossPages() {
+        // given
+        // whole seconds, the managed instances keep their value and must match what the database compares
+        LocalDateTime triggeredAt = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        PriceAlert newest = createPriceAlert(testUser, bitcoin, AlertType.PRICE_ABOVE, AlertStatus.TRIGGERED);
+        newest.setTriggeredAt(triggeredAt.plusMinutes(5));
+        PriceAlert sameTimeA = createPriceAlert(testUser, ethereum, AlertType.PRICE_ABOVE, AlertStatus.READ);
+        sameTimeA.setTriggeredAt(triggeredAt);
+        PriceAlert sameTimeB = createPriceAlert(testUser, ethereum, AlertType.PRICE_BELOW, AlertStatus.TRIGGERED);
+        sameTimeB.setTriggeredAt(triggeredAt);
+        PriceAlert active = createPriceAlert(testUser, bitcoin, AlertType.PRICE_BELOW, AlertStatus.ACTIVE);
+        entityManager.persist(newest);
+        entityManager.persist(sameTimeA);
+        entityManager.persist(sameTimeB);
+        entityManager.persist(active);
+        entityManager.flush();
+        PriceAlert higherId = sameTimeA.getId() > sameTimeB.getId() ? sameTimeA : sameTimeB;
+        PriceAlert lowerId = higherId == sameTimeA ? sameTimeB : sameTimeA;
+
+        // when
+        List<AlertRow> first = priceAlertRepository.findNotificationsPage(testUser.getId(), PageRequest.of(0, 2));
+        AlertRow last = first.get(first.size() - 1);
+        List<AlertRow> second = priceAlertRepository.findNotificationsPageAfter(
+                testUser.getId(), last.triggeredAt(), last.id(), PageRequest.of(0, 2));
+
+        // then
+        assertThat(first).extracting(AlertRow::id).containsExactly(newest.getId(), higherId.getId());
+        assertThat(first.getFirst().coinId()).isEqualTo("bitcoin");
+        assertThat(second).extracting(AlertRow::id).containsExactly(lowerId.getId());
+    }
+
     @Test
     void findByCoinIdAndStatus_Success() {
         // given
@@ -217,10 +252,11 @@ class PriceAlertRepositoryTest {
         entityManager.flush();
 
         // when
-        List<PriceAlert> alerts = priceAlertRepository.findByUserIdAndCoinId(testUser.getId(), "bitcoin");
+        List<AlertRow> alerts = priceAlertRepository.findByUserIdAndCoinId(testUser.getId(), "bitcoin");
 
         // then
-        assertThat(alerts).hasSize(2);
+        assertThat(alerts).hasSize(2)
+                .allSatisfy(row -> assertThat(row.coinId()).isEqualTo("bitcoin"));
     }
 
     @Test
@@ -270,6 +306,43 @@ class PriceAlertRepositoryTest {
         assertThat(unchangedAlert.getStatus()).isEqualTo(AlertStatus.ACTIVE);
     }
 
+    @Test
+    void markTriggered_ShouldOnlyTransitionActiveAlertOnce() {
+        // given
+        PriceAlert alert = createPriceAlert(testUser, bitcoin, AlertType.PRICE_ABOVE, AlertStatus.ACTIVE);
+        entityManager.persist(alert);
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+
+        // when
+        int first = priceAlertRepository.markTriggered(alert.getId(), BigDecimal.valueOf(61000), "reached", now);
+        int second = priceAlertRepository.markTriggered(alert.getId(), BigDecimal.valueOf(62000), "reached", now);
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+
+        entityManager.clear();
+        PriceAlert triggered = entityManager.find(PriceAlert.class, alert.getId());
+        assertThat(triggered.getStatus()).isEqualTo(AlertStatus.TRIGGERED);
+        assertThat(triggered.getTriggeredPrice()).isEqualByComparingTo(BigDecimal.valueOf(61000));
+    }
+
+    @Test
+    void deleteByIdAndStatus_ShouldKeepAlert_WhenStatusChanged() {
+        // given: read as ACTIVE, triggered since
+        PriceAlert alert = createPriceAlert(testUser, bitcoin, AlertType.PRICE_ABOVE, AlertStatus.TRIGGERED);
+        entityManager.persist(alert);
+        entityManager.flush();
+
+        // when
+        int deleted = priceAlertRepository.deleteByIdAndStatus(alert.getId(), testUser.getId(), AlertStatus.ACTIVE);
+
+        // then
+        assertThat(deleted).isZero();
+        assertThat(priceAlertRepository.findById(alert.getId())).isPresent();
+    }
+
     @Test
     void deleteReadAlerts_Success() {
         // given
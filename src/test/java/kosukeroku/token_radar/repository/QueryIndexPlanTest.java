@@ -0,0 +1,179 @@
+package kosukeroku.token_radar.repository;
+
+import kosukeroku.token_radar.service.history.CandleInterval;
+import kosukeroku.token_radar.service.history.PartitionScheme;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Runs the flyway migrations on a real PostgreSQL and checks the plans of the hot queries use the
+ * indexes made for them. The SQL mirrors what hibernate generates for the repository methods.
+ * Sequential scans are disabled so the assertions hold on small seeded tables too: a query that
+ * cannot use the index would still fall back to a (penalized) seq scan and fail.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryIndexPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        // one connection, so the session settings below apply to every EXPLAIN
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("""
+                INSERT INTO users (username, email, password, created_at)
+                SELECT 'user' || i, 'user' || i || '@example.com', 'secret', now() FROM generate_series(1, 50) i""");
+        jdbcTemplate.execute("""
+                INSERT INTO coins (id, symbol, name, active, market_cap_rank)
+                SELECT 'coin-' || i, 'c' || i, 'Coin ' || i, true, i FROM generate_series(1, 100) i""");
+        jdbcTemplate.execute("""
+                INSERT INTO price_alerts (id, user_id, coin_id, type, status, threshold_value, created_at, updated_at, triggered_at)
+                SELECT i, 1 + i % 50, 'coin-' || (1 + i % 100), 'PRICE_ABOVE',
+                       CASE WHEN i % 10 = 0 THEN 'ACTIVE' WHEN i % 10 < 4 THEN 'TRIGGERED' ELSE 'READ' END,
+                       100, now(), now(),
+                       CASE WHEN i % 10 = 0 THEN NULL ELSE now() - i * interval '1 minute' END
+                FROM generate_series(1, 20000) i""");
+        jdbcTemplate.execute("""
+                INSERT INTO tracked_currencies (id, user_id, coin_id, added_at)
+                SELECT (u - 1) * 40 + c, u, 'coin-' || c, now() FROM generate_series(1, 50) u, generate_series(1, 40) c""");
+        jdbcTemplate.execute("VACUUM ANALYZE");
+        jdbcTemplate.execute("SET enable_seqscan = off");
+    }
+
+    @Test
+    void findActiveAlertsForCoin_ShouldUsePartialActiveIndex() {
+        // when
+        String plan = explain("SELECT * FROM price_alerts pa WHERE pa.coin_id = 'coin-7' AND pa.status = 'ACTIVE'");
+
+        // then
+        assertThat(plan).contains("idx_alert_active_coin");
+    }
+
+    @Test
+    void notificationsPage_ShouldReadPartialIndexInOrder() {
+        // when
+        String plan = explain("""
+                SELECT * FROM price_alerts pa WHERE pa.user_id = 3 AND pa.status IN ('TRIGGERED', 'READ')
+                  AND pa.triggered_at <= now() - interval '1 day'
+                  AND (pa.triggered_at < now() - interval '1 day' OR pa.id < 5000)
+                ORDER BY pa.triggered_at DESC, pa.id DESC
+                FETCH FIRST 101 ROWS ONLY""");
+
+        // then
+        assertThat(plan).contains("idx_alert_user_notifications").doesNotContain("Sort");
+    }
+
+    @Test
+    void statusPage_ShouldReadUserStatusCreatedIndexInOrder() {
+        // when
+        String plan = explain("""
+                SELECT * FROM price_alerts pa WHERE pa.user_id = 3 AND pa.status = 'READ'
+                  AND pa.created_at <= now() AND (pa.created_at < now() OR pa.id < 5000)
+                ORDER BY pa.created_at DESC, pa.id DESC
+                FETCH FIRST 101 ROWS ONLY""");
+
+        // then
+        assertThat(plan).contains("idx_alert_user_status_created").doesNotContain("Sort");
+    }
+
+    @Test
+    void countTriggeredAlerts_ShouldBeAnsweredFromIndex() {
+        // when
+        String plan = explain("SELECT count(pa.id) FROM price_alerts pa WHERE pa.user_id = 3 AND pa.status = 'TRIGGERED'");
+
+        // then
+        assertThat(plan).containsAnyOf("idx_alert_user_status_created", "idx_alert_user_notifications");
+    }
+
+    @Test
+    void existsDuplicateAlert_ShouldUseCoveringUserCoinIndex() {
+        // when
+        String plan = explain("""
+                SELECT pa.id FROM price_alerts pa
+                WHERE pa.user_id = 3 AND pa.coin_id = 'coin-3' AND pa.type = 'PRICE_ABOVE' AND pa.status = 'ACTIVE'
+                FETCH FIRST 1 ROWS ONLY""");
+
+        // then
+        assertThat(plan).contains("Index Only Scan using idx_alert_user_coin_type");
+    }
+
+    @Test
+    void existsTrackedCurrency_ShouldUseUniqueUserCoinIndex() {
+        // when
+        String plan = explain("""
+                SELECT tc.id FROM tracked_currencies tc WHERE tc.user_id = 3 AND tc.coin_id = 'coin-7'
+                FETCH FIRST 1 ROWS ONLY""");
+
+        // then
+        assertThat(plan).contains("uq_tracked_user_coin");
+    }
+
+    @Test
+    void trackedCurrenciesPage_ShouldUseUserAddedIndex() {
+        // when
+        String plan = explain("""
+                SELECT * FROM tracked_currencies tc WHERE tc.user_id = 3
+                  AND tc.added_at >= now() - interval '1 day' AND (tc.added_at > now() - interval '1 day' OR tc.id > 100)
+                ORDER BY tc.added_at, tc.id
+                FETCH FIRST 101 ROWS ONLY""");
+
+        // then
+        assertThat(plan).contains("idx_tracked_user_added").doesNotContain("Sort");
+    }
+
+    @Test
+    void trackedCurrency_ShouldRejectDuplicateUserCoin() {
+        // then
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO tracked_currencies (id, user_id, coin_id, added_at) VALUES (100000, 3, 'coin-7', now())"))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void findCandles_ShouldOnlyScanPartitionsOfResolutionAndRange() {
+        // given
+        PartitionRepository partitionRepository = new PartitionRepository(jdbcTemplate);
+        Instant october = Instant.parse("2026-10-19T00:00:00Z");
+        for (CandleInterval interval : CandleInterval.values()) {
+            PartitionScheme scheme = interval.getPartitions();
+            partitionRepository.createPartition(scheme, scheme.start(october));
+            partitionRepository.createPartition(scheme, scheme.end(scheme.start(october)));
+        }
+
+        // when
+        String plan = explain("""
+                SELECT bucket, open, high, low, close, volume FROM price_candles
+                WHERE resolution = '1h' AND coin_id = 'coin-7'
+                  AND bucket >= '2026-10-10 00:00:00+00' AND bucket < '2026-10-19 00:00:00+00'
+                ORDER BY bucket LIMIT 1000""");
+
+        // then
+        assertThat(plan).contains("price_candles_1h_p202610")
+                .doesNotContain("price_candles_1h_p202611")
+                .doesNotContain("price_candles_1m")
+                .doesNotContain("price_candles_1d");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
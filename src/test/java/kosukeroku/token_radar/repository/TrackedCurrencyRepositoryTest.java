@@ -3,6 +3,7 @@ package kosukeroku.token_radar.repository;
 import kosukeroku.token_radar.model.Coin;
 import kosukeroku.token_radar.model.TrackedCurrency;
 import kosukeroku.token_radar.model.User;
+import kosukeroku.token_radar.repository.projection.TrackedCurrencyRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -233,13 +234,13 @@ class TrackedCurrencyRepositoryTest {
         entityManager.flush();
 
         // when
-        List<TrackedCurrency> result = trackedCurrencyRepository
+        List<TrackedCurrencyRow> result = trackedCurrencyRepository
                 .findByUserIdOrderByCoinMarketCapRankAsc(testUser.getId());
 
         // then
         assertThat(result)
                 .hasSize(3)
-                .extracting(tc -> tc.getCoin().getId())
+                .extracting(TrackedCurrencyRow::coinId)
                 .containsExactly("bitcoin", "ethereum", "cardano");
     }
 
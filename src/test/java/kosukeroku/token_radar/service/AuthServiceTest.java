@@ -11,6 +11,7 @@ import kosukeroku.token_radar.model.User;
 import kosukeroku.token_radar.repository.UserRepository;
 import kosukeroku.token_radar.security.JwtUtil;
 import kosukeroku.token_radar.security.UserDetailsImpl;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,6 +49,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private AlertCounterService alertCounterService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -98,6 +102,7 @@ class AuthServiceTest {
         verify(userRepository).existsByEmail("test@mail.com");
         verify(passwordEncoder).encode("password");
         verify(userRepository).save(user);
+        verify(alertCounterService).initialize(1L);
         verify(jwtUtil).generateToken("testuser");
     }
 
@@ -2,29 +2,40 @@ package kosukeroku.token_radar.service;
 
 import kosukeroku.token_radar.exception.CoinNotFoundException;
 import kosukeroku.token_radar.model.Coin;
-import kosukeroku.token_radar.repository.CoinRepository;
+import kosukeroku.token_radar.service.cache.CoinCacheKeys;
+import kosukeroku.token_radar.service.cache.CoinResponseRenderer;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
+import kosukeroku.token_radar.service.sparkline.SparklineOptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CoinServiceTest {
 
     @Mock
-    private CoinRepository coinRepository;
+    private CoinSnapshotHolder coinSnapshotHolder;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CoinResponseRenderer coinResponseRenderer;
 
     @InjectMocks
     private CoinService coinService;
@@ -57,10 +68,7 @@ class CoinServiceTest {
     @Test
     void getDashboard_ShouldReturnPageOfCoins_WhenCoinsExist() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        Page<Coin> coinPage = new PageImpl<>(coins, pageable, coins.size());
-
-        when(coinRepository.findByActiveTrue(pageable)).thenReturn(coinPage);
+        givenSnapshot(ethereum, bitcoin);
 
         // when
         Page<Coin> result = coinService.getDashboard(pageable);
@@ -69,14 +77,13 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(2);
         assertThat(result.getContent()).containsExactly(bitcoin, ethereum);
-        verify(coinRepository).findByActiveTrue(pageable);
+        assertThat(result.getTotalElements()).isEqualTo(2);
     }
 
     @Test
     void getAllCoins_ShouldReturnAllCoins_WhenCoinsExist() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         List<Coin> result = coinService.getAllCoins();
@@ -85,14 +92,12 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(2);
         assertThat(result).containsExactly(bitcoin, ethereum);
-        verify(coinRepository).findAll();
     }
 
     @Test
     void searchCoins_ShouldReturnCoins_WhenNameMatches() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         List<Coin> result = coinService.searchCoins("bitcoin");
@@ -101,14 +106,12 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result.getFirst()).isEqualTo(bitcoin);
-        verify(coinRepository).findAll();
     }
 
     @Test
     void searchCoins_ShouldReturnCoins_WhenNamePartiallyMatches() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         List<Coin> result = coinService.searchCoins("bit");
@@ -117,14 +120,12 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result.getFirst()).isEqualTo(bitcoin);
-        verify(coinRepository).findAll();
     }
 
     @Test
     void searchCoins_ShouldReturnCoins_WhenSymbolMatches() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         List<Coin> result = coinService.searchCoins("eth");
@@ -133,14 +134,12 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result.getFirst()).isEqualTo(ethereum);
-        verify(coinRepository).findAll();
     }
 
     @Test
     void searchCoins_ShouldReturnEmptyList_WhenNoMatches() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         List<Coin> result = coinService.searchCoins("dogecoin");
@@ -148,14 +147,12 @@ class CoinServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
-        verify(coinRepository).findAll();
     }
 
     @Test
     void searchCoins_ShouldBeCaseInsensitive() {
         // given
-        List<Coin> coins = List.of(bitcoin, ethereum);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         List<Coin> result = coinService.searchCoins("BITCOIN");
@@ -164,13 +161,12 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result.getFirst()).isEqualTo(bitcoin);
-        verify(coinRepository).findAll();
     }
 
     @Test
     void getCoinById_ShouldReturnCoin_WhenCoinExists() {
         // given
-        when(coinRepository.findById("bitcoin")).thenReturn(Optional.of(bitcoin));
+        givenSnapshot(bitcoin, ethereum);
 
         // when
         Coin result = coinService.getCoinById("bitcoin");
@@ -178,20 +174,17 @@ class CoinServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result).isEqualTo(bitcoin);
-        verify(coinRepository).findById("bitcoin");
     }
 
     @Test
     void getCoinById_ShouldThrowException_WhenCoinDoesNotExist() {
         // given
-        when(coinRepository.findById("non-existent")).thenReturn(Optional.empty());
+        givenSnapshot(bitcoin, ethereum);
 
         // then
         assertThatThrownBy(() -> coinService.getCoinById("non-existent"))
                 .isInstanceOf(CoinNotFoundException.class)
                 .hasMessage("Coin not found: non-existent");
-
-        verify(coinRepository).findById("non-existent");
     }
 
     @Test
@@ -204,8 +197,7 @@ class CoinServiceTest {
         binanceCoin.setMarketCapRank(3);
         binanceCoin.setActive(true);
 
-        List<Coin> coins = List.of(bitcoin, binanceCoin);
-        when(coinRepository.findAll()).thenReturn(coins);
+        givenSnapshot(bitcoin, binanceCoin);
 
         // when
         List<Coin> result = coinService.searchCoins("coin");
@@ -214,6 +206,66 @@ class CoinServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(2);
         assertThat(result).containsExactlyInAnyOrder(bitcoin, binanceCoin);
-        verify(coinRepository).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getDashboard_ShouldExcludeInactiveCoins() {
+        // given
+        Coin inactive = new Coin();
+        inactive.setId("inactive");
+        inactive.setName("Inactive");
+        inactive.setSymbol("ina");
+        inactive.setMarketCapRank(3);
+        inactive.setActive(false);
+        givenSnapshot(bitcoin, ethereum, inactive);
+
+        // when
+        Page<Coin> result = coinService.getDashboard(pageable);
+
+        // then
+        assertThat(result.getContent()).containsExactly(bitcoin, ethereum);
+    }
+
+    @Test
+    void getDashboard_ShouldReturnEmptyPage_WhenPageOutOfRange() {
+        // given
+        givenSnapshot(bitcoin, ethereum);
+
+        // when
+        Page<Coin> result = coinService.getDashboard(PageRequest.of(5, 20));
+
+        // then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void getDashboardPage_ShouldNotCachePagesPastTheLastOne() {
+        // given
+        givenSnapshot(bitcoin, ethereum);
+
+        // when
+        coinService.getDashboardPage(1_000_000, 20, SparklineOptions.FULL);
+
+        // then
+        verify(coinResponseRenderer).page(any(CoinSnapshot.class), eq(1_000_000), eq(20), eq(SparklineOptions.FULL));
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void getDashboardPage_ShouldCapPageSize() {
+        // given
+        givenSnapshot(bitcoin, ethereum);
+
+        // when
+        coinService.getDashboardPage(0, 1_000_000, SparklineOptions.FULL);
+
+        // then
+        verify(cacheManager).getCache(CoinCacheKeys.COIN_PAGES);
+        verify(coinResponseRenderer).page(any(CoinSnapshot.class), eq(0), eq(200), eq(SparklineOptions.FULL));
+    }
+
+    private void givenSnapshot(Coin... coins) {
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of(coins)));
+    }
+}
@@ -6,12 +6,12 @@ import kosukeroku.token_radar.model.User;
 import kosukeroku.token_radar.model.enums.AlertStatus;
 import kosukeroku.token_radar.model.enums.AlertType;
 import kosukeroku.token_radar.repository.PriceAlertRepository;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
+import kosukeroku.token_radar.service.inbox.NotificationInbox;
 import kosukeroku.token_radar.service.kafka.KafkaProducerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,9 +19,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,12 +36,15 @@ class PriceAlertCheckerServiceTest {
     @Mock
     private KafkaProducerService kafkaProducerService;
 
+    @Mock
+    private AlertCounterService alertCounterService;
+
+    @Mock
+    private NotificationInbox notificationInbox;
+
     @InjectMocks
     private PriceAlertCheckerService priceAlertCheckerService;
 
-    @Captor
-    private ArgumentCaptor<List<PriceAlert>> alertsCaptor;
-
     private User testUser;
     private Coin testCoin;
     private PriceAlert priceAboveAlert;
@@ -68,6 +74,9 @@ class PriceAlertCheckerServiceTest {
 
         // percentage down alert (target: -10%, initial: 50000)
         percentageDownAlert = createAlert(AlertType.PERCENTAGE_DOWN, BigDecimal.valueOf(-10), BigDecimal.valueOf(50000));
+
+        // every alert is still active when its transition runs
+        lenient().when(priceAlertRepository.markTriggered(anyLong(), any(), anyString(), any())).thenReturn(1);
     }
 
     @Test
@@ -84,11 +93,11 @@ class PriceAlertCheckerServiceTest {
         // then
         assertThat(triggered).hasSize(1);
         assertThat(triggered.getFirst().getStatus()).isEqualTo(AlertStatus.TRIGGERED);
-        verify(priceAlertRepository).saveAll(alertsCaptor.capture());
-
-        List<PriceAlert> savedAlerts = alertsCaptor.getValue();
-        assertThat(savedAlerts.getFirst().getTriggeredPrice())
-                .isEqualByComparingTo(BigDecimal.valueOf(61000));
+        assertThat(triggered.getFirst().getTriggeredPrice()).isEqualByComparingTo(BigDecimal.valueOf(61000));
+        verify(priceAlertRepository).markTriggered(eq(1L), eq(BigDecimal.valueOf(61000)), anyString(), any());
+        verify(priceAlertRepository).updateLastCheckedPrice("bitcoin", BigDecimal.valueOf(61000));
+        verify(alertCounterService).alertsTriggered(Map.of(1L, 1));
+        verify(notificationInbox).added(triggered);
     }
 
     @Test
@@ -104,7 +113,24 @@ class PriceAlertCheckerServiceTest {
 
         // then
         assertThat(triggered).isEmpty();
-        verify(priceAlertRepository, never()).saveAll(any());
+        verify(priceAlertRepository, never()).markTriggered(anyLong(), any(), anyString(), any());
+        verifyNoInteractions(alertCounterService);
+    }
+
+    @Test
+    void checkAndTriggerAlerts_ShouldSkipAlert_WhenNoLongerActive() {
+        // given: the alert was deleted (or triggered by another run) after it was read
+        when(priceAlertRepository.findActiveAlertsForCoin("bitcoin"))
+                .thenReturn(List.of(priceAboveAlert));
+        when(priceAlertRepository.markTriggered(anyLong(), any(), anyString(), any())).thenReturn(0);
+
+        // when
+        List<PriceAlert> triggered = priceAlertCheckerService.checkAndTriggerAlerts(
+                "bitcoin", BigDecimal.valueOf(61000));
+
+        // then
+        assertThat(triggered).isEmpty();
+        verifyNoInteractions(kafkaProducerService, alertCounterService, notificationInbox);
     }
 
     @Test
@@ -202,7 +228,7 @@ class PriceAlertCheckerServiceTest {
 
         // then
         assertThat(triggered).isEmpty();
-        verify(priceAlertRepository, never()).saveAll(any());
+        verify(priceAlertRepository, never()).updateLastCheckedPrice(anyString(), any());
     }
 
     @Test
@@ -1,11 +1,14 @@
 package kosukeroku.token_radar.service;
 
+import kosukeroku.token_radar.dto.BulkAlertItemResultDto;
+import kosukeroku.token_radar.dto.BulkPriceAlertResponseDto;
 import kosukeroku.token_radar.dto.PriceAlertRequestDto;
 import kosukeroku.token_radar.dto.PriceAlertResponseDto;
 import kosukeroku.token_radar.dto.AlertStatsDto;
 import kosukeroku.token_radar.exception.AlertNotFoundException;
 import kosukeroku.token_radar.exception.AlertValidationException;
 import kosukeroku.token_radar.exception.CoinNotFoundException;
+import kosukeroku.token_radar.exception.InvalidCursorException;
 import kosukeroku.token_radar.mapper.PriceAlertMapper;
 import kosukeroku.token_radar.model.Coin;
 import kosukeroku.token_radar.model.PriceAlert;
@@ -15,6 +18,14 @@ import kosukeroku.token_radar.model.enums.AlertType;
 import kosukeroku.token_radar.repository.CoinRepository;
 import kosukeroku.token_radar.repository.PriceAlertRepository;
 import kosukeroku.token_radar.repository.UserRepository;
+import kosukeroku.token_radar.repository.projection.AlertRow;
+import kosukeroku.token_radar.service.archive.AlertArchiveService;
+import kosukeroku.token_radar.service.counter.AlertCounterService;
+import kosukeroku.token_radar.service.inbox.NotificationInbox;
+import kosukeroku.token_radar.service.paging.KeysetCursor;
+import kosukeroku.token_radar.service.paging.KeysetPage;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +34,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.math.BigDecimal;
@@ -50,6 +62,18 @@ class PriceAlertServiceTest {
     @Mock
     private PriceAlertMapper priceAlertMapper;
 
+    @Mock
+    private CoinSnapshotHolder coinSnapshotHolder;
+
+    @Mock
+    private AlertArchiveService alertArchiveService;
+
+    @Mock
+    private AlertCounterService alertCounterService;
+
+    @Mock
+    private NotificationInbox notificationInbox;
+
     @InjectMocks
     private PriceAlertService priceAlertService;
 
@@ -94,7 +118,8 @@ class PriceAlertServiceTest {
         testResponse.setIsRead(false);
 
         lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        lenient().when(coinRepository.findById("bitcoin")).thenReturn(Optional.of(testCoin));
+        lenient().when(coinRepository.getReferenceById("bitcoin")).thenReturn(testCoin);
+        lenient().when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of(testCoin)));
     }
 
     @Test
@@ -114,6 +139,7 @@ class PriceAlertServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getCoinId()).isEqualTo("bitcoin");
         verify(priceAlertRepository).save(any(PriceAlert.class));
+        verify(alertCounterService).alertsCreated(1L, 1);
     }
 
     @Test
@@ -131,6 +157,7 @@ class PriceAlertServiceTest {
         // then
         assertThat(result).isNotNull();
         verify(priceAlertRepository).save(testAlert);
+        verifyNoInteractions(alertCounterService);
     }
 
     @Test
@@ -146,7 +173,7 @@ class PriceAlertServiceTest {
     @Test
     void createAlert_CoinNotFound() {
         // given
-        when(coinRepository.findById("bitcoin")).thenReturn(Optional.empty());
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.empty());
 
         // then
         assertThatThrownBy(() -> priceAlertService.createAlert(1L, testRequest))
@@ -200,35 +227,134 @@ class PriceAlertServiceTest {
                 .hasMessageContaining("Must be negative!");
     }
 
+    @Test
+    void bulkCreateAlerts_ShouldCreateUpdateAndRejectPerItem() {
+        // given
+        Coin ethereum = new Coin();
+        ethereum.setId("ethereum");
+        ethereum.setName("Ethereum");
+        ethereum.setCurrentPrice(BigDecimal.valueOf(3000));
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of(testCoin, ethereum)));
+        when(coinRepository.getReferenceById("ethereum")).thenReturn(ethereum);
+        when(priceAlertRepository.findByUserIdAndStatus(1L, AlertStatus.ACTIVE)).thenReturn(List.of(testAlert));
+        when(priceAlertRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(priceAlertMapper.toDto(any(PriceAlert.class), any(Coin.class))).thenReturn(testResponse);
+
+        PriceAlertRequestDto update = request("bitcoin", AlertType.PRICE_ABOVE, 70000);
+        PriceAlertRequestDto create = request("ethereum", AlertType.PRICE_BELOW, 2500);
+        PriceAlertRequestDto invalid = request("ethereum", AlertType.PRICE_ABOVE, 1000);
+        PriceAlertRequestDto unknownCoin = request("dogecoin", AlertType.PRICE_ABOVE, 1);
+        PriceAlertRequestDto duplicate = request("ethereum", AlertType.PRICE_BELOW, 2000);
+
+        // when
+        BulkPriceAlertResponseDto result = priceAlertService.bulkCreateAlerts(1L,
+                List.of(update, create, invalid, unknownCoin, duplicate));
+
+        // then
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getResults()).extracting(BulkAlertItemResultDto::getOutcome).containsExactly(
+                BulkAlertItemResultDto.Outcome.UPDATED,
+                BulkAlertItemResultDto.Outcome.CREATED,
+                BulkAlertItemResultDto.Outcome.REJECTED,
+                BulkAlertItemResultDto.Outcome.REJECTED,
+                BulkAlertItemResultDto.Outcome.REJECTED);
+        assertThat(result.getResults().get(2).getError()).isEqualTo("Must be above current!");
+        assertThat(result.getResults().get(3).getError()).contains("dogecoin");
+        assertThat(result.getResults().get(0).getAlert()).isEqualTo(testResponse);
+        assertThat(result.getResults().get(2).getAlert()).isNull();
+        assertThat(testAlert.getThresholdValue()).isEqualByComparingTo("70000");
+
+        // one query for the existing alerts, one saveAll for everything valid
+        verify(priceAlertRepository, never()).findByUserIdAndCoinIdAndTypeAndStatus(
+                anyLong(), anyString(), any(AlertType.class), any(AlertStatus.class));
+        verify(priceAlertRepository).saveAll(argThat(alerts -> ((List<?>) alerts).size() == 2));
+        verify(alertCounterService).alertsCreated(1L, 1);
+    }
+
+    @Test
+    void bulkCreateAlerts_UserNotFound() {
+        // given
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // then
+        assertThatThrownBy(() -> priceAlertService.bulkCreateAlerts(2L, List.of(testRequest)))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(priceAlertRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void getUserAlerts_Success() {
         // given
-        List<PriceAlert> alerts = List.of(testAlert);
-        when(priceAlertRepository.findByUserIdAndStatus(1L, AlertStatus.ACTIVE))
-                .thenReturn(alerts);
-        when(priceAlertMapper.toDto(testAlert)).thenReturn(testResponse);
+        AlertRow row = row(1L, "bitcoin", AlertStatus.ACTIVE, testAlert.getCreatedAt());
+        when(priceAlertRepository.findStatusPage(eq(1L), eq(AlertStatus.ACTIVE), any(Pageable.class)))
+                .thenReturn(List.of(row));
+        when(priceAlertMapper.toDto(row, testCoin)).thenReturn(testResponse);
 
         // when
-        List<PriceAlertResponseDto> result = priceAlertService.getUserAlerts(1L);
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserAlerts(1L, null, 20);
 
         // then
-        assertThat(result).hasSize(1);
-        assertThat(result.getFirst().getCoinId()).isEqualTo("bitcoin");
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().getFirst().getCoinId()).isEqualTo("bitcoin");
+        assertThat(result.nextCursor()).isNull();
     }
 
     @Test
     void getUserAlertsByStatus_Success() {
         // given
-        List<PriceAlert> alerts = List.of(testAlert);
-        when(priceAlertRepository.findByUserIdAndStatusOrderByCreatedAtDesc(1L, AlertStatus.ACTIVE))
-                .thenReturn(alerts);
-        when(priceAlertMapper.toDto(testAlert)).thenReturn(testResponse);
+        AlertRow row = row(1L, "bitcoin", AlertStatus.ACTIVE, testAlert.getCreatedAt());
+        when(priceAlertRepository.findStatusPage(eq(1L), eq(AlertStatus.ACTIVE), any(Pageable.class)))
+                .thenReturn(List.of(row));
+        when(priceAlertMapper.toDto(row, testCoin)).thenReturn(testResponse);
 
         // when
-        List<PriceAlertResponseDto> result = priceAlertService.getUserAlertsByStatus(1L, AlertStatus.ACTIVE);
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserAlertsByStatus(1L, AlertStatus.ACTIVE, null, 20);
 
         // then
-        assertThat(result).hasSize(1);
+        assertThat(result.items()).hasSize(1);
+    }
+
+    @Test
+    void getUserAlertsByStatus_ShouldReturnCursorOfLastRow_WhenMoreRowsExist() {
+        // given
+        LocalDateTime now = testAlert.getCreatedAt();
+        AlertRow older = row(2L, "bitcoin", AlertStatus.ACTIVE, now.minusMinutes(1));
+        AlertRow oldest = row(3L, "bitcoin", AlertStatus.ACTIVE, now.minusMinutes(2));
+        when(priceAlertRepository.findStatusPage(eq(1L), eq(AlertStatus.ACTIVE), eq(KeysetPage.probe(2))))
+                .thenReturn(List.of(row(1L, "bitcoin", AlertStatus.ACTIVE, now), older, oldest));
+
+        // when
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserAlertsByStatus(1L, AlertStatus.ACTIVE, null, 2);
+
+        // then
+        assertThat(result.items()).hasSize(2);
+        assertThat(KeysetCursor.decode(result.nextCursor())).isEqualTo(new KeysetCursor(older.createdAt(), 2L));
+    }
+
+    @Test
+    void getUserAlertsByStatus_ShouldContinueAfterCursor() {
+        // given
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 10, 1, 12, 0), 42L);
+        when(priceAlertRepository.findStatusPageAfter(eq(1L), eq(AlertStatus.READ), eq(cursor.at()), eq(42L),
+                any(Pageable.class))).thenReturn(List.of());
+
+        // when
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserAlertsByStatus(
+                1L, AlertStatus.READ, cursor.encode(), 20);
+
+        // then
+        assertThat(result.items()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
+        verify(priceAlertRepository, never()).findStatusPage(anyLong(), any(AlertStatus.class), any(Pageable.class));
+    }
+
+    @Test
+    void getUserAlertsByStatus_ShouldRejectMalformedCursor() {
+        // then
+        assertThatThrownBy(() -> priceAlertService.getUserAlertsByStatus(1L, AlertStatus.ACTIVE, "not-a-cursor", 20))
+                .isInstanceOf(InvalidCursorException.class);
     }
 
     @Test
@@ -237,11 +363,27 @@ class PriceAlertServiceTest {
         when(priceAlertRepository.findByIdAndUserId(1L, 1L))
                 .thenReturn(Optional.of(testAlert));
 
+        when(priceAlertRepository.deleteByIdAndStatus(1L, 1L, AlertStatus.ACTIVE)).thenReturn(1);
+
         // when
         priceAlertService.deleteAlert(1L, 1L);
 
         // then
-        verify(priceAlertRepository).delete(testAlert);
+        verify(priceAlertRepository).deleteByIdAndStatus(1L, 1L, AlertStatus.ACTIVE);
+        verify(alertCounterService).alertDeleted(1L, AlertStatus.ACTIVE);
+    }
+
+    @Test
+    void deleteAlert_ShouldNotCount_WhenStatusChangedConcurrently() {
+        // given: the alert triggered between the read and the delete
+        when(priceAlertRepository.findByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(testAlert));
+        when(priceAlertRepository.deleteByIdAndStatus(1L, 1L, AlertStatus.ACTIVE)).thenReturn(0);
+
+        // then
+        assertThatThrownBy(() -> priceAlertService.deleteAlert(1L, 1L))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(alertCounterService);
     }
 
     @Test
@@ -266,15 +408,13 @@ class PriceAlertServiceTest {
         assertThatThrownBy(() -> priceAlertService.deleteAlert(1L, 1L))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Cannot delete TRIGGERED alert");
+        verifyNoInteractions(alertCounterService);
     }
 
     @Test
     void markAsRead_Success() {
         // given
         testAlert.setStatus(AlertStatus.TRIGGERED);
-        when(priceAlertRepository.findByIdAndUserId(1L, 1L))
-                .thenReturn(Optional.of(testAlert));
-
         PriceAlert updatedAlert = new PriceAlert();
         updatedAlert.setId(1L);
         updatedAlert.setStatus(AlertStatus.READ);
@@ -283,7 +423,9 @@ class PriceAlertServiceTest {
         updatedAlert.setType(AlertType.PRICE_ABOVE);
         updatedAlert.setThresholdValue(BigDecimal.valueOf(60000));
 
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenReturn(updatedAlert);
+        when(priceAlertRepository.findByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(testAlert), Optional.of(updatedAlert));
+        when(priceAlertRepository.markRead(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(1);
 
         PriceAlertResponseDto expectedResponse = new PriceAlertResponseDto();
         expectedResponse.setId(1L);
@@ -299,6 +441,22 @@ class PriceAlertServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getStatus()).isEqualTo(AlertStatus.READ);
         assertThat(result.getIsRead()).isTrue();
+        verify(alertCounterService).alertsRead(1L, 1);
+        verify(notificationInbox).markedRead(1L, 1L);
+    }
+
+    @Test
+    void markAsRead_ShouldNotCount_WhenAlreadyReadConcurrently() {
+        // given
+        testAlert.setStatus(AlertStatus.TRIGGERED);
+        when(priceAlertRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testAlert));
+        when(priceAlertRepository.markRead(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(0);
+
+        // when
+        priceAlertService.markAsRead(1L, 1L);
+
+        // then
+        verifyNoInteractions(alertCounterService, notificationInbox);
     }
 
     @Test
@@ -311,6 +469,8 @@ class PriceAlertServiceTest {
 
         // then
         verify(priceAlertRepository).markAllTriggeredAsRead(1L);
+        verify(alertCounterService).alertsRead(1L, 3);
+        verify(notificationInbox).allMarkedRead(1L);
     }
 
     @Test
@@ -323,41 +483,32 @@ class PriceAlertServiceTest {
 
         // then
         verify(priceAlertRepository).deleteReadAlerts(1L);
+        verify(alertArchiveService).clearReadAlerts(1L);
+        verify(alertCounterService).readAlertsCleared(1L, 2);
+        verify(notificationInbox).invalidate(1L);
     }
 
     @Test
     void getAlertStats_Success() {
         // given
-        List<PriceAlert> allAlerts = List.of(
-                createAlertWithStatus(AlertStatus.ACTIVE),
-                createAlertWithStatus(AlertStatus.ACTIVE),
-                createAlertWithStatus(AlertStatus.TRIGGERED),
-                createAlertWithStatus(AlertStatus.TRIGGERED),
-                createAlertWithStatus(AlertStatus.TRIGGERED),
-                createAlertWithStatus(AlertStatus.READ),
-                createAlertWithStatus(AlertStatus.READ)
-        );
-
-        when(priceAlertRepository.findByUserId(1L)).thenReturn(allAlerts);
+        when(alertCounterService.getStats(1L)).thenReturn(new AlertStatsDto(7L, 2L, 3L, 2L, 3L));
 
         // when
         AlertStatsDto stats = priceAlertService.getAlertStats(1L);
 
         // then
         assertThat(stats.getTotalAlerts()).isEqualTo(7L);
-        assertThat(stats.getActiveAlerts()).isEqualTo(2L);
-        assertThat(stats.getTriggeredAlerts()).isEqualTo(3L);
-        assertThat(stats.getReadAlerts()).isEqualTo(2L);
         assertThat(stats.getUnreadCount()).isEqualTo(3L);
+        verifyNoInteractions(priceAlertRepository);
     }
 
     @Test
     void getUserAlertsForCoin_Success() {
         // given
-        List<PriceAlert> alerts = List.of(testAlert);
+        AlertRow row = row(1L, "bitcoin", AlertStatus.ACTIVE, testAlert.getCreatedAt());
         when(priceAlertRepository.findByUserIdAndCoinId(1L, "bitcoin"))
-                .thenReturn(alerts);
-        when(priceAlertMapper.toDto(testAlert)).thenReturn(testResponse);
+                .thenReturn(List.of(row));
+        when(priceAlertMapper.toDto(row, testCoin)).thenReturn(testResponse);
 
         // when
         List<PriceAlertResponseDto> result = priceAlertService.getUserAlertsForCoin(1L, "bitcoin");
@@ -370,13 +521,11 @@ class PriceAlertServiceTest {
     @Test
     void getUserNotifications_Success() {
         // given
-        PriceAlert triggeredAlert = createAlertWithStatus(AlertStatus.TRIGGERED);
-        PriceAlert readAlert = createAlertWithStatus(AlertStatus.READ);
-        readAlert.setId(2L);
+        AlertRow triggeredAlert = row(1L, "bitcoin", AlertStatus.TRIGGERED, LocalDateTime.now());
+        AlertRow readAlert = row(2L, "bitcoin", AlertStatus.READ, LocalDateTime.now().minusHours(1));
 
-        List<PriceAlert> notifications = List.of(triggeredAlert, readAlert);
-        when(priceAlertRepository.findNotificationsForUser(eq(1L), anyList()))
-                .thenReturn(notifications);
+        when(notificationInbox.findPageInDatabase(1L, null, 21))
+                .thenReturn(List.of(triggeredAlert, readAlert));
 
         PriceAlertResponseDto triggeredResponse = new PriceAlertResponseDto();
         triggeredResponse.setId(1L);
@@ -388,33 +537,73 @@ class PriceAlertServiceTest {
         readResponse.setStatus(AlertStatus.READ);
         readResponse.setIsRead(true);
 
-        when(priceAlertMapper.toDto(triggeredAlert)).thenReturn(triggeredResponse);
-        when(priceAlertMapper.toDto(readAlert)).thenReturn(readResponse);
+        when(priceAlertMapper.toDto(triggeredAlert, testCoin)).thenReturn(triggeredResponse);
+        when(priceAlertMapper.toDto(readAlert, testCoin)).thenReturn(readResponse);
+
+        // when
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserNotifications(1L, null, 20);
+
+        // then
+        assertThat(result.items()).hasSize(2);
+        assertThat(result.items().get(0).getStatus()).isEqualTo(AlertStatus.TRIGGERED);
+        assertThat(result.items().get(1).getStatus()).isEqualTo(AlertStatus.READ);
+    }
+
+    @Test
+    void getUserNotifications_ShouldLeaveCoinEmpty_WhenCoinIsNotInSnapshot() {
+        // given
+        AlertRow row = row(1L, "delisted", AlertStatus.TRIGGERED, LocalDateTime.now());
+        when(notificationInbox.findPageInDatabase(1L, null, 21)).thenReturn(List.of(row));
+        when(priceAlertMapper.toDto(row, null)).thenReturn(testResponse);
+
+        // when
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserNotifications(1L, null, 20);
+
+        // then
+        assertThat(result.items()).containsExactly(testResponse);
+        verifyNoInteractions(coinRepository);
+    }
+
+    @Test
+    void getUserNotifications_ShouldServeFromInbox_WhenItHoldsThePage() {
+        // given
+        AlertRow row = row(1L, "bitcoin", AlertStatus.TRIGGERED, LocalDateTime.now());
+        when(notificationInbox.findPage(1L, null, 21)).thenReturn(Optional.of(List.of(row)));
+        when(priceAlertMapper.toDto(row, testCoin)).thenReturn(testResponse);
 
         // when
-        List<PriceAlertResponseDto> result = priceAlertService.getUserNotifications(1L);
+        KeysetPage<PriceAlertResponseDto> result = priceAlertService.getUserNotifications(1L, null, 20);
 
         // then
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getStatus()).isEqualTo(AlertStatus.TRIGGERED);
-        assertThat(result.get(1).getStatus()).isEqualTo(AlertStatus.READ);
+        assertThat(result.items()).containsExactly(testResponse);
+        assertThat(result.nextCursor()).isNull();
+        verify(notificationInbox, never()).findPageInDatabase(anyLong(), any(), anyInt());
     }
 
     @Test
     void getUnreadCount_Success() {
         // given
-        when(priceAlertRepository.countTriggeredAlerts(1L)).thenReturn(3L);
+        when(alertCounterService.getUnreadCount(1L)).thenReturn(3L);
 
         // when
         Long count = priceAlertService.getUnreadCount(1L);
 
         // then
         assertThat(count).isEqualTo(3L);
+        verify(priceAlertRepository, never()).countTriggeredAlerts(anyLong());
+    }
+
+    // the timestamp is both createdAt and triggeredAt, whichever the page is keyed on
+    private AlertRow row(Long id, String coinId, AlertStatus status, LocalDateTime at) {
+        return new AlertRow(id, coinId, AlertType.PRICE_ABOVE, status, BigDecimal.valueOf(60000),
+                BigDecimal.valueOf(50000), at, at, null, null);
     }
 
-    private PriceAlert createAlertWithStatus(AlertStatus status) {
-        PriceAlert alert = new PriceAlert();
-        alert.setStatus(status);
-        return alert;
+    private PriceAlertRequestDto request(String coinId, AlertType type, long threshold) {
+        PriceAlertRequestDto request = new PriceAlertRequestDto();
+        request.setCoinId(coinId);
+        request.setType(type);
+        request.setThresholdValue(BigDecimal.valueOf(threshold));
+        return request;
     }
 }
\ No newline at end of file
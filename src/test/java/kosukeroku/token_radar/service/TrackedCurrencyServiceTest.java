@@ -11,6 +11,9 @@ import kosukeroku.token_radar.model.User;
 import kosukeroku.token_radar.repository.CoinRepository;
 import kosukeroku.token_radar.repository.TrackedCurrencyRepository;
 import kosukeroku.token_radar.repository.UserRepository;
+import kosukeroku.token_radar.repository.projection.TrackedCurrencyRow;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +44,9 @@ class TrackedCurrencyServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CoinSnapshotHolder coinSnapshotHolder;
+
     @InjectMocks
     private TrackedCurrencyService trackedCurrencyService;
 
@@ -172,9 +178,9 @@ class TrackedCurrencyServiceTest {
     @Test
     void getUserTrackedCurrencies_Success() {
         // given
-        List<TrackedCurrency> trackedCurrencies = List.of(testTrackedCurrency);
-        when(trackedCurrencyRepository.findByUserIdOrderByCoinMarketCapRankAsc(1L))
-                .thenReturn(trackedCurrencies);
+        List<TrackedCurrencyRow> rows = List.of(new TrackedCurrencyRow(1L, "bitcoin", LocalDateTime.now()));
+        when(trackedCurrencyRepository.findByUserIdOrderByCoinMarketCapRankAsc(1L)).thenReturn(rows);
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of(testCoin)));
 
         // when
         List<TrackedCurrencyResponseDto> result = trackedCurrencyService.getUserTrackedCurrencies(1L);
@@ -187,7 +193,27 @@ class TrackedCurrencyServiceTest {
                 .satisfies(dto -> {
                     assertThat(dto.getCoinId()).isEqualTo("bitcoin");
                     assertThat(dto.getCoinName()).isEqualTo("Bitcoin");
+                    assertThat(dto.getCurrentPrice()).isEqualByComparingTo("50000");
                 });
+        verifyNoInteractions(coinRepository);
+    }
+
+    @Test
+    void getUserTrackedCurrencies_ShouldKeepRowWithoutMarketData_WhenCoinIsNotInSnapshot() {
+        // given
+        when(trackedCurrencyRepository.findByUserIdOrderByCoinMarketCapRankAsc(1L))
+                .thenReturn(List.of(new TrackedCurrencyRow(1L, "delisted", LocalDateTime.now())));
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.build(1, List.of(testCoin)));
+
+        // when
+        List<TrackedCurrencyResponseDto> result = trackedCurrencyService.getUserTrackedCurrencies(1L);
+
+        // then
+        assertThat(result).singleElement().satisfies(dto -> {
+            assertThat(dto.getCoinId()).isEqualTo("delisted");
+            assertThat(dto.getCoinName()).isNull();
+            assertThat(dto.getCurrentPrice()).isNull();
+        });
     }
 
     @Test
@@ -195,6 +221,7 @@ class TrackedCurrencyServiceTest {
         // given
         when(trackedCurrencyRepository.findByUserIdOrderByCoinMarketCapRankAsc(1L))
                 .thenReturn(List.of());
+        when(coinSnapshotHolder.current()).thenReturn(CoinSnapshot.empty());
 
         // when
         List<TrackedCurrencyResponseDto> result = trackedCurrencyService.getUserTrackedCurrencies(1L);
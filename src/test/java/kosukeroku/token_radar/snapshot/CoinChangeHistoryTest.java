@@ -0,0 +1,109 @@
+package kosukeroku.token_radar.snapshot;
+
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.snapshot.CoinChangeHistory;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoinChangeHistoryTest {
+
+    private CoinChangeHistory history;
+    private Coin bitcoin;
+    private Coin ethereum;
+
+    @BeforeEach
+    void setUp() {
+        history = new CoinChangeHistory();
+        ReflectionTestUtils.setField(history, "maxVersions", 2);
+
+        bitcoin = coin("bitcoin", 1, "100000");
+        ethereum = coin("ethereum", 2, "3000");
+        history.beforePublish(CoinSnapshot.build(10, List.of(bitcoin, ethereum)));
+    }
+
+    @Test
+    void changesSince_ShouldReturnOnlyChangedCoins() {
+        // given - a price batch touching only ethereum
+        history.beforePublish(CoinSnapshot.build(20, List.of(bitcoin, coin("ethereum", 2, "3100"))));
+
+        // when
+        CoinChangeHistory.CoinChangeSet changes = history.changesSince(10);
+
+        // then
+        assertThat(changes.full()).isFalse();
+        assertThat(changes.snapshot().getVersion()).isEqualTo(20);
+        assertThat(changes.changed()).extracting(Coin::getId).containsExactly("ethereum");
+        assertThat(changes.removed()).isEmpty();
+    }
+
+    @Test
+    void changesSince_ShouldReportDeactivatedCoinsAsRemoved() {
+        // given
+        Coin inactiveEthereum = coin("ethereum", 2, "3000");
+        inactiveEthereum.setActive(false);
+        history.beforePublish(CoinSnapshot.build(20, List.of(bitcoin, inactiveEthereum)));
+
+        // when
+        CoinChangeHistory.CoinChangeSet changes = history.changesSince(10);
+
+        // then
+        assertThat(changes.changed()).isEmpty();
+        assertThat(changes.removed()).containsExactly("ethereum");
+    }
+
+    @Test
+    void changesSince_ShouldReturnNothing_WhenClientIsCurrent() {
+        // when
+        CoinChangeHistory.CoinChangeSet changes = history.changesSince(10);
+
+        // then
+        assertThat(changes.full()).isFalse();
+        assertThat(changes.changed()).isEmpty();
+    }
+
+    @Test
+    void changesSince_ShouldFallBackToFullList_WhenVersionOutsideWindow() {
+        // given - the window keeps two versions, so version 10 falls out
+        history.beforePublish(CoinSnapshot.build(20, List.of(coin("bitcoin", 1, "101000"), ethereum)));
+        history.beforePublish(CoinSnapshot.build(30, List.of(coin("bitcoin", 1, "102000"), ethereum)));
+
+        // when
+        CoinChangeHistory.CoinChangeSet changes = history.changesSince(5);
+
+        // then
+        assertThat(changes.full()).isTrue();
+        assertThat(changes.changed()).extracting(Coin::getId).containsExactly("bitcoin", "ethereum");
+    }
+
+    @Test
+    void changesSince_ShouldMergeChangesOfSeveralVersions() {
+        // given
+        history.beforePublish(CoinSnapshot.build(20, List.of(coin("bitcoin", 1, "101000"), ethereum)));
+        history.beforePublish(CoinSnapshot.build(30, List.of(coin("bitcoin", 1, "101000"), coin("ethereum", 2, "3100"))));
+
+        // when
+        CoinChangeHistory.CoinChangeSet changes = history.changesSince(10);
+
+        // then
+        assertThat(changes.full()).isFalse();
+        assertThat(changes.changed()).extracting(Coin::getId).containsExactly("bitcoin", "ethereum");
+    }
+
+    private Coin coin(String id, int rank, String price) {
+        Coin coin = new Coin();
+        coin.setId(id);
+        coin.setName(id);
+        coin.setSymbol(id.substring(0, 3));
+        coin.setMarketCapRank(rank);
+        coin.setCurrentPrice(new BigDecimal(price));
+        coin.setActive(true);
+        return coin;
+    }
+}
@@ -0,0 +1,89 @@
+package kosukeroku.token_radar.snapshot;
+
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.snapshot.CoinSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoinSearchIndexTest {
+
+    private CoinSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = CoinSearchIndex.build(List.of(
+                coin("bitcoin", "Bitcoin", "btc", 1),
+                coin("ethereum", "Ethereum", "eth", 2),
+                coin("binancecoin", "Binance Coin", "bnb", 4),
+                coin("ethereum-classic", "Ethereum Classic", "etc", 30),
+                coin("bitcoin-cash", "Bitcoin Cash", "bch", 20),
+                coin("wrapped-bitcoin", "Wrapped Bitcoin", "wbtc", 15)
+        ));
+    }
+
+    @Test
+    void search_ShouldRankExactSymbolFirst() {
+        // when
+        List<String> result = index.search("ETC", 10, false);
+
+        // then
+        assertThat(result).first().isEqualTo("ethereum-classic");
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesByMarketCapRank() {
+        // when
+        List<String> result = index.search("bitcoin", 10, false);
+
+        // then - exact name first, then word prefix matches by rank
+        assertThat(result).containsExactly("bitcoin", "wrapped-bitcoin", "bitcoin-cash");
+    }
+
+    @Test
+    void search_ShouldFindSubstringMatchesAfterPrefixMatches() {
+        // when
+        List<String> result = index.search("coin", 10, false);
+
+        // then
+        assertThat(result).containsExactly("binancecoin", "bitcoin", "wrapped-bitcoin", "bitcoin-cash");
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        // when
+        List<String> result = index.search("e", 1, false);
+
+        // then
+        assertThat(result).containsExactly("ethereum");
+    }
+
+    @Test
+    void search_ShouldMatchTypos_WhenFuzzyEnabled() {
+        // when
+        List<String> strict = index.search("etherium", 10, false);
+        List<String> fuzzy = index.search("etherium", 10, true);
+
+        // then
+        assertThat(strict).isEmpty();
+        assertThat(fuzzy).containsExactly("ethereum", "ethereum-classic");
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_WhenQueryBlank() {
+        assertThat(index.search("   ", 10, true)).isEmpty();
+    }
+
+    private Coin coin(String id, String name, String symbol, int rank) {
+        Coin coin = new Coin();
+        coin.setId(id);
+        coin.setName(name);
+        coin.setSymbol(symbol);
+        coin.setMarketCapRank(rank);
+        coin.setActive(true);
+        return coin;
+    }
+}
@@ -0,0 +1,127 @@
+package kosukeroku.token_radar.snapshot;
+
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshot;
+import kosukeroku.token_radar.service.snapshot.CoinSnapshotStore;
+import kosukeroku.token_radar.service.sparkline.Sparklines;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoinSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private CoinSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("coin-snapshot.bin");
+        store = new CoinSnapshotStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", file.toString());
+        ReflectionTestUtils.setField(store, "maxAge", Duration.ofHours(1));
+    }
+
+    @Test
+    void load_ShouldRestoreSavedSnapshot() {
+        // given
+        Coin bitcoin = coin("bitcoin", 1, true);
+        bitcoin.setSparkline(Sparklines.pack(List.of(1.0, 2.5)));
+        bitcoin.setAthDate(LocalDateTime.of(2025, 10, 6, 12, 0));
+        store.beforePublish(CoinSnapshot.build(42, List.of(bitcoin, coin("old", 900, false))));
+
+        // when
+        store.saveLatest();
+        Optional<CoinSnapshotStore.Restored> restored = store.load();
+
+        // then
+        assertThat(restored).isPresent();
+        assertThat(restored.get().version()).isEqualTo(42);
+        assertThat(restored.get().coins()).hasSize(2);
+        Coin restoredBitcoin = restored.get().coins().get(0);
+        assertThat(restoredBitcoin).isEqualTo(bitcoin);
+        assertThat(restored.get().coins().get(1).isActive()).isFalse();
+    }
+
+    @Test
+    void saveLatest_ShouldRemoveTempFile_WhenMoveFails() throws IOException {
+        // given - a non-empty directory in place of the file cannot be replaced
+        Files.createDirectories(file.resolve("occupied"));
+        store.beforePublish(CoinSnapshot.build(7, List.of(coin("bitcoin", 1, true))));
+
+        // when
+        store.saveLatest();
+
+        // then
+        try (var entries = Files.list(directory)) {
+            assertThat(entries).containsExactly(file);
+        }
+    }
+
+    @Test
+    void load_ShouldIgnoreCorruptedFile() throws IOException {
+        // given
+        store.beforePublish(CoinSnapshot.build(7, List.of(coin("bitcoin", 1, true))));
+        store.saveLatest();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+        // then
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void load_ShouldIgnoreStaleFile() {
+        // given
+        store.beforePublish(CoinSnapshot.build(7, List.of(coin("bitcoin", 1, true))));
+        store.saveLatest();
+        ReflectionTestUtils.setField(store, "maxAge", Duration.ofMillis(-1));
+
+        // then
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void saveLatest_ShouldSkipUnchangedVersion() throws IOException {
+        // given
+        store.beforePublish(CoinSnapshot.build(7, List.of(coin("bitcoin", 1, true))));
+        store.saveLatest();
+        Files.delete(file);
+
+        // when
+        store.saveLatest();
+
+        // then
+        assertThat(file).doesNotExist();
+    }
+
+    private Coin coin(String id, int rank, boolean active) {
+        Coin coin = new Coin();
+        coin.setId(id);
+        coin.setName(id);
+        coin.setSymbol(id.substring(0, 3));
+        coin.setMarketCapRank(rank);
+        coin.setActive(active);
+        coin.setCurrentPrice(new BigDecimal("100000.123456789"));
+        coin.setPriceChangePercentage24h(-1.25);
+        coin.setLastUpdated(LocalDateTime.of(2026, 10, 19, 10, 30, 15));
+        return coin;
+    }
+}
@@ -0,0 +1,100 @@
+package kosukeroku.token_radar.snapshot;
+
+import kosukeroku.token_radar.service.snapshot.SnapshotVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two SnapshotVersions on one redis stand in for two nodes
+@Testcontainers(disabledWithoutDocker = true)
+class SnapshotVersionsTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private SnapshotVersions nodeA;
+    private SnapshotVersions nodeB;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        nodeA = node(new StringRedisTemplate(connectionFactory));
+        nodeB = node(new StringRedisTemplate(connectionFactory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void next_ShouldGiveSameVersionToEveryNodePublishingTheSameBatch() {
+        // when
+        long onA = nodeA.next("PRICES:2026-10-19T12:10:00:0", 0);
+        long onB = nodeB.next("PRICES:2026-10-19T12:10:00:0", 0);
+        long nextBatch = nodeB.next("PRICES:2026-10-19T12:10:00:1", onB);
+
+        // then
+        assertThat(onB).isEqualTo(onA);
+        assertThat(nextBatch).isGreaterThan(onA);
+    }
+
+    @Test
+    void next_ShouldStayAboveCurrentVersion() {
+        // given a node restored a snapshot file with a timestamp version
+        long restored = 1_760_000_000_000L;
+
+        // when
+        long version = nodeA.next("PRICES:2026-10-19T12:10:00:0", restored);
+        long onOtherNode = nodeB.next("PRICES:2026-10-19T12:20:00:0", 5);
+
+        // then
+        assertThat(version).isEqualTo(restored + 1);
+        assertThat(onOtherNode).isGreaterThan(version);
+    }
+
+    @Test
+    void next_ShouldAllocateFreshVersion_WithoutRunKey() {
+        // when
+        long first = nodeA.next(null, 0);
+        long second = nodeB.next(null, 0);
+
+        // then
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void next_ShouldFallBackToLocalVersion_WhenDisabled() {
+        // given
+        ReflectionTestUtils.setField(nodeA, "enabled", false);
+
+        // when
+        long version = nodeA.next("PRICES:2026-10-19T12:10:00:0", 7);
+
+        // then
+        assertThat(version).isGreaterThanOrEqualTo(System.currentTimeMillis() - 60_000);
+    }
+
+    private SnapshotVersions node(StringRedisTemplate redisTemplate) {
+        SnapshotVersions versions = new SnapshotVersions(redisTemplate);
+        ReflectionTestUtils.setField(versions, "enabled", true);
+        ReflectionTestUtils.setField(versions, "runKeyTtl", Duration.ofHours(1));
+        return versions;
+    }
+}
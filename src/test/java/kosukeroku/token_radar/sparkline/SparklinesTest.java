@@ -0,0 +1,74 @@
+package kosukeroku.token_radar.sparkline;
+
+import kosukeroku.token_radar.service.sparkline.SparklineOptions;
+import kosukeroku.token_radar.service.sparkline.Sparklines;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SparklinesTest {
+
+    @Test
+    void pack_ShouldRoundTripPointsAndGaps() {
+        // given
+        byte[] packed = Sparklines.pack(Arrays.asList(1.5, null, 3.25));
+
+        // when
+        float[] points = Sparklines.unpack(packed);
+
+        // then
+        assertThat(packed).hasSize(12);
+        assertThat(points[0]).isEqualTo(1.5f);
+        assertThat(points[1]).isNaN();
+        assertThat(points[2]).isEqualTo(3.25f);
+        assertThat(Sparklines.toJson(packed)).isEqualTo("[1.5,null,3.25]");
+    }
+
+    @Test
+    void toJson_ShouldReturnNull_WhenNoSparkline() {
+        // then
+        assertThat(Sparklines.toJson((byte[]) null)).isNull();
+        assertThat(SparklineOptions.FULL.render(null)).isNull();
+    }
+
+    @Test
+    void downsample_ShouldKeepEndpointsAndPeak() {
+        // given
+        float[] data = new float[168];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 100 + (i % 7);
+        }
+        data[80] = 500;
+
+        // when
+        float[] sampled = Sparklines.downsample(data, 24);
+
+        // then
+        assertThat(sampled).hasSize(24);
+        assertThat(sampled[0]).isEqualTo(data[0]);
+        assertThat(sampled[23]).isEqualTo(data[167]);
+        assertThat(sampled).contains(500f);
+    }
+
+    @Test
+    void downsample_ShouldReturnInput_WhenThresholdNotSmaller() {
+        // given
+        float[] data = {1f, 2f, 3f};
+
+        // then
+        assertThat(Sparklines.downsample(data, 0)).isSameAs(data);
+        assertThat(Sparklines.downsample(data, 5)).isSameAs(data);
+    }
+
+    @Test
+    void options_ShouldOnlyChangeCacheKeyForReducedVariants() {
+        // then
+        assertThat(SparklineOptions.of(true, 0).cacheKeySuffix()).isEmpty();
+        assertThat(SparklineOptions.of(true, 50).cacheKeySuffix()).isEqualTo(":s50");
+        assertThat(SparklineOptions.of(false, 50).cacheKeySuffix()).isEqualTo(":s-");
+        assertThat(SparklineOptions.of(false, 0).render(Sparklines.pack(List.of(1.0)))).isNull();
+    }
+}
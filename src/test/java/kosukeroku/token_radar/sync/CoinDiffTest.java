@@ -0,0 +1,119 @@
+package kosukeroku.token_radar.sync;
+
+import kosukeroku.token_radar.model.Coin;
+import kosukeroku.token_radar.service.sync.CoinDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoinDiffTest {
+
+    @Test
+    void compute_ShouldDetectAddedCoins() {
+        // given
+        Map<String, Coin> existing = existing(coin("bitcoin", "Bitcoin", 1, true));
+
+        // when
+        CoinDiff diff = CoinDiff.compute(existing, List.of(
+                coin("bitcoin", "Bitcoin", 1, true),
+                coin("ethereum", "Ethereum", 2, true)), true);
+
+        // then
+        assertThat(diff.getAdded()).extracting(Coin::getId).containsExactly("ethereum");
+        assertThat(diff.getUnchanged()).isEqualTo(1);
+        assertThat(diff.getAffectedIds()).containsExactly("ethereum");
+    }
+
+    @Test
+    void compute_ShouldDetectRankAndMetadataChanges() {
+        // given
+        Map<String, Coin> existing = existing(
+                coin("bitcoin", "Bitcoin", 1, true),
+                coin("ethereum", "Ethereum", 2, true));
+
+        // when
+        CoinDiff diff = CoinDiff.compute(existing, List.of(
+                coin("bitcoin", "Bitcoin", 2, true),
+                coin("ethereum", "Ether", 2, true)), true);
+
+        // then
+        assertThat(diff.getRankChanged()).extracting(Coin::getId).containsExactly("bitcoin");
+        assertThat(diff.getMetadataChanged()).extracting(Coin::getId).containsExactly("ethereum");
+        assertThat(diff.getUnchanged()).isZero();
+    }
+
+    @Test
+    void compute_ShouldDeactivateCoinsThatLeftTopList() {
+        // given
+        Map<String, Coin> existing = existing(
+                coin("bitcoin", "Bitcoin", 1, true),
+                coin("dogecoin", "Dogecoin", 500, true));
+
+        // when
+        CoinDiff diff = CoinDiff.compute(existing, List.of(coin("bitcoin", "Bitcoin", 1, true)), true);
+
+        // then
+        assertThat(diff.getDeactivated()).extracting(Coin::getId).containsExactly("dogecoin");
+    }
+
+    @Test
+    void compute_ShouldKeepMissingCoins_WhenTopListIncomplete() {
+        // given
+        Map<String, Coin> existing = existing(
+                coin("bitcoin", "Bitcoin", 1, true),
+                coin("dogecoin", "Dogecoin", 500, true));
+
+        // when
+        CoinDiff diff = CoinDiff.compute(existing, List.of(coin("bitcoin", "Bitcoin", 1, true)), false);
+
+        // then
+        assertThat(diff.getDeactivated()).isEmpty();
+        assertThat(diff.isEmpty()).isTrue();
+    }
+
+    @Test
+    void compute_ShouldReactivateReturningCoins() {
+        // given
+        Map<String, Coin> existing = existing(coin("dogecoin", "Dogecoin", 500, false));
+
+        // when
+        CoinDiff diff = CoinDiff.compute(existing, List.of(coin("dogecoin", "Dogecoin", 500, true)), true);
+
+        // then
+        assertThat(diff.getReactivated()).extracting(Coin::getId).containsExactly("dogecoin");
+        assertThat(diff.getDeactivated()).isEmpty();
+    }
+
+    @Test
+    void compute_ShouldIgnoreDuplicateIncomingCoins() {
+        // when
+        CoinDiff diff = CoinDiff.compute(new HashMap<>(), List.of(
+                coin("bitcoin", "Bitcoin", 1, true),
+                coin("bitcoin", "Bitcoin", 1, true)), true);
+
+        // then
+        assertThat(diff.getAdded()).hasSize(1);
+    }
+
+    private Map<String, Coin> existing(Coin... coins) {
+        Map<String, Coin> map = new HashMap<>();
+        for (Coin coin : coins) {
+            map.put(coin.getId(), coin);
+        }
+        return map;
+    }
+
+    private Coin coin(String id, String name, int rank, boolean active) {
+        Coin coin = new Coin();
+        coin.setId(id);
+        coin.setName(name);
+        coin.setSymbol(id.substring(0, 3));
+        coin.setMarketCapRank(rank);
+        coin.setActive(active);
+        return coin;
+    }
+}
@@ -0,0 +1,91 @@
+package kosukeroku.token_radar.sync;
+
+import kosukeroku.token_radar.service.sync.SyncLeadership;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two SyncLeadership on one redis stand in for two nodes
+@Testcontainers(disabledWithoutDocker = true)
+class SyncLeadershipTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private SyncLeadership nodeA;
+    private SyncLeadership nodeB;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        nodeA = node(new StringRedisTemplate(connectionFactory));
+        nodeB = node(new StringRedisTemplate(connectionFactory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void tryLead_ShouldElectOneNodePerRun() {
+        // when
+        boolean aLeads = nodeA.tryLead("PRICES:2026-10-19T12:10:00");
+        boolean bLeads = nodeB.tryLead("PRICES:2026-10-19T12:10:00");
+        boolean bLeadsNextRun = nodeB.tryLead("PRICES:2026-10-19T12:20:00");
+
+        // then
+        assertThat(aLeads).isTrue();
+        assertThat(bLeads).isFalse();
+        assertThat(bLeadsNextRun).isTrue();
+    }
+
+    @Test
+    void published_ShouldBeSeenByOtherNodes() {
+        // given
+        assertThat(nodeB.isPublished("PRICES:2026-10-19T12:10:00:0")).isFalse();
+
+        // when
+        nodeA.published("PRICES:2026-10-19T12:10:00:0");
+
+        // then
+        assertThat(nodeB.isPublished("PRICES:2026-10-19T12:10:00:0")).isTrue();
+        assertThat(nodeB.isPublished("PRICES:2026-10-19T12:10:00:1")).isFalse();
+    }
+
+    @Test
+    void tryLead_ShouldLeadEveryRun_WhenDisabled() {
+        // given
+        ReflectionTestUtils.setField(nodeB, "enabled", false);
+        nodeA.tryLead("PRICES:2026-10-19T12:10:00");
+
+        // when
+        boolean bLeads = nodeB.tryLead("PRICES:2026-10-19T12:10:00");
+
+        // then
+        assertThat(bLeads).isTrue();
+    }
+
+    private SyncLeadership node(StringRedisTemplate redisTemplate) {
+        SyncLeadership leadership = new SyncLeadership(redisTemplate);
+        ReflectionTestUtils.setField(leadership, "enabled", true);
+        ReflectionTestUtils.setField(leadership, "leaseTtl", Duration.ofMinutes(30));
+        return leadership;
+    }
+}
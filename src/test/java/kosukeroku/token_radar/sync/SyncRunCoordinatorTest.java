@@ -0,0 +1,157 @@
+package kosukeroku.token_radar.sync;
+
+import kosukeroku.token_radar.model.SyncRun;
+import kosukeroku.token_radar.model.enums.SyncRunStatus;
+import kosukeroku.token_radar.model.enums.SyncType;
+import kosukeroku.token_radar.repository.SyncRunRepository;
+import kosukeroku.token_radar.service.sync.SyncRunCoordinator;
+import kosukeroku.token_radar.service.sync.SyncRunTracker;
+import kosukeroku.token_radar.service.sync.SyncStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncRunCoordinatorTest {
+
+    @Mock
+    private SyncRunRepository syncRunRepository;
+
+    @InjectMocks
+    private SyncRunCoordinator syncRunCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(syncRunCoordinator, "maxRunDuration", Duration.ofMinutes(30));
+        lenient().when(syncRunRepository.save(any(SyncRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void tryStart_ShouldStartRun_WhenNothingInFlight() {
+        // when
+        Optional<SyncRunTracker> run = syncRunCoordinator.tryStart(SyncType.PRICES);
+
+        // then
+        assertThat(run).isPresent();
+        assertThat(syncRunCoordinator.isRunning(SyncType.PRICES)).isTrue();
+        verify(syncRunRepository, never()).save(any());
+    }
+
+    @Test
+    void tryStart_ShouldSkipAndRecordRun_WhenPreviousRunInFlight() {
+        // given
+        syncRunCoordinator.tryStart(SyncType.PRICES);
+
+        // when
+        Optional<SyncRunTracker> second = syncRunCoordinator.tryStart(SyncType.PRICES);
+
+        // then
+        assertThat(second).isEmpty();
+        ArgumentCaptor<SyncRun> captor = ArgumentCaptor.forClass(SyncRun.class);
+        verify(syncRunRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(SyncRunStatus.SKIPPED);
+        assertThat(captor.getValue().getType()).isEqualTo(SyncType.PRICES);
+    }
+
+    @Test
+    void tryStart_ShouldAllowDifferentTypesConcurrently() {
+        // given
+        syncRunCoordinator.tryStart(SyncType.PRICES);
+
+        // when
+        Optional<SyncRunTracker> full = syncRunCoordinator.tryStart(SyncType.FULL);
+
+        // then
+        assertThat(full).isPresent();
+    }
+
+    @Test
+    void tryStart_ShouldReplaceStaleRun() {
+        // given
+        ReflectionTestUtils.setField(syncRunCoordinator, "maxRunDuration", Duration.ZERO);
+        syncRunCoordinator.tryStart(SyncType.PRICES);
+
+        // when
+        Optional<SyncRunTracker> second = syncRunCoordinator.tryStart(SyncType.PRICES);
+
+        // then
+        assertThat(second).isPresent();
+        ArgumentCaptor<SyncRun> captor = ArgumentCaptor.forClass(SyncRun.class);
+        verify(syncRunRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(SyncRunStatus.FAILED);
+    }
+
+    @Test
+    void complete_ShouldPersistCountersAndReleaseSlot() {
+        // given
+        SyncRunTracker tracker = syncRunCoordinator.tryStart(SyncType.PRICES).orElseThrow();
+        tracker.recordBatch();
+        tracker.recordBatch();
+        tracker.recordCoinsUpdated(150);
+        tracker.recordAlertsTriggered(3);
+        tracker.recordUpstreamError();
+        tracker.recordStage(SyncStage.FETCH, 5_000_000);
+
+        // when
+        syncRunCoordinator.complete(tracker);
+
+        // then
+        ArgumentCaptor<SyncRun> captor = ArgumentCaptor.forClass(SyncRun.class);
+        verify(syncRunRepository).save(captor.capture());
+        SyncRun saved = captor.getValue();
+        assertThat(saved.getStatus()).isEqualTo(SyncRunStatus.COMPLETED);
+        assertThat(saved.getBatches()).isEqualTo(2);
+        assertThat(saved.getCoinsUpdated()).isEqualTo(150);
+        assertThat(saved.getAlertsTriggered()).isEqualTo(3);
+        assertThat(saved.getUpstreamErrors()).isEqualTo(1);
+        assertThat(saved.getFetchMs()).isEqualTo(5);
+        assertThat(saved.getFinishedAt()).isNotNull();
+        assertThat(syncRunCoordinator.isRunning(SyncType.PRICES)).isFalse();
+    }
+
+    @Test
+    void fail_ShouldPersistErrorMessage() {
+        // given
+        SyncRunTracker tracker = syncRunCoordinator.tryStart(SyncType.FULL).orElseThrow();
+
+        // when
+        syncRunCoordinator.fail(tracker, new RuntimeException("upstream down"));
+
+        // then
+        ArgumentCaptor<SyncRun> captor = ArgumentCaptor.forClass(SyncRun.class);
+        verify(syncRunRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(SyncRunStatus.FAILED);
+        assertThat(captor.getValue().getErrorMessage()).isEqualTo("upstream down");
+        assertThat(syncRunCoordinator.isRunning(SyncType.FULL)).isFalse();
+    }
+
+    @Test
+    void getHistory_ShouldCapLimit() {
+        // given
+        when(syncRunRepository.findByTypeOrderByStartedAtDesc(eq(SyncType.PRICES), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // when
+        syncRunCoordinator.getHistory(SyncType.PRICES, 10_000);
+
+        // then
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(syncRunRepository).findByTypeOrderByStartedAtDesc(eq(SyncType.PRICES), captor.capture());
+        assertThat(captor.getValue().getPageSize()).isEqualTo(500);
+    }
+}